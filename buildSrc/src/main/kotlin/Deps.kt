@@ -34,6 +34,12 @@ object Deps {
     val junit5param = "org.junit.jupiter:junit-jupiter-params:${Versions.junit}"
     val junit5engine = "org.junit.jupiter:junit-jupiter-engine:${Versions.junit}"
 
+    object Jmh {
+
+        val core = "org.openjdk.jmh:jmh-core:${Versions.jmh}"
+        val annprocess = "org.openjdk.jmh:jmh-generator-annprocess:${Versions.jmh}"
+    }
+
     object Mockito {
 
         val core = "org.mockito:mockito-core:${Versions.mockito}"
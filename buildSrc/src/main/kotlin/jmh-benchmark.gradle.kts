@@ -0,0 +1,59 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+apply<JavaPlugin>()
+
+dependencies {
+    val implementation: Configuration by configurations
+    val annotationProcessor: Configuration by configurations
+    val libPath: String by rootProject.extra
+
+    implementation(Deps.Kotlin.stdlib)
+    implementation(Deps.guava)
+    implementation(fileTree(mapOf("dir" to libPath, "include" to listOf("*.jar"))))
+    implementation(Deps.Jmh.core)
+    annotationProcessor(Deps.Jmh.annprocess)
+}
+
+tasks {
+    withType<JavaCompile>() {
+        sourceCompatibility = Versions.java
+        targetCompatibility = Versions.java
+    }
+
+    val libPath: String by rootProject.extra
+    val execPath: String by rootProject.extra
+
+    // Runs the benchmarks of the main source set. Additional JMH options (e.g., a benchmark regex or
+    // "-f 1 -wi 2 -i 3" for a quick run) can be passed as -PjmhArgs="...".
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks and writes the results as JSON to build/reports/jmh/results.json."
+
+        val resultFile = buildDir.resolve("reports/jmh/results.json")
+        classpath = project.extensions.getByType<SourceSetContainer>()["main"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        workingDir = rootProject.projectDir
+        environment["PATH"] = execPath
+        environment["LD_LIBRARY_PATH"] = libPath
+
+        val jmhArgs = (project.findProperty("jmhArgs") as String?)?.split(" ")?.filter { it.isNotBlank() }
+        args = listOf("-rf", "json", "-rff", resultFile.absolutePath) + jmhArgs.orEmpty()
+
+        outputs.file(resultFile)
+        outputs.upToDateWhen { false }
+        doFirst { resultFile.parentFile.mkdirs() }
+    }
+}
@@ -55,6 +55,8 @@ include(
     "solver/solver-smtlib",
     "solver/solver-smtlib-cli",
     "solver/graph-solver",
+
+    "benchmarks",
 )
 
 for (project in rootProject.children) {
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.analysis;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.bme.mit.theta.analysis.reachedset.Partition;
+
+/**
+ * Benchmarks for building a {@link Partition} (the reached set of the abstractor) and looking up
+ * the coverage candidates of elements, with elements spread over a given number of classes
+ * (e.g., locations).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionBenchmark {
+
+    private static final int ELEMENTS = 10_000;
+
+    @Param({"1", "100", "10000"})
+    public int classes;
+
+    private Partition<Integer, Integer> partition;
+
+    @Setup
+    public void setup() {
+        partition = build();
+    }
+
+    private Partition<Integer, Integer> build() {
+        final Partition<Integer, Integer> result = Partition.of(i -> i % classes);
+        for (int i = 0; i < ELEMENTS; i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Partition<Integer, Integer> add() {
+        return build();
+    }
+
+    @Benchmark
+    public void get(final Blackhole blackhole) {
+        for (int i = 0; i < ELEMENTS; i += 100) {
+            final List<Integer> candidates = partition.get(i);
+            blackhole.consume(candidates);
+        }
+    }
+
+}
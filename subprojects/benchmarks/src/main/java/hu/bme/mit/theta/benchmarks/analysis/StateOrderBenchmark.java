@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.analysis;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.pred.PredOrd;
+import hu.bme.mit.theta.analysis.pred.PredState;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+/**
+ * Benchmarks for the partial orders of the explicit and predicate domains, i.e., the coverage
+ * checks of the abstractor. Predicate states are compared with a Z3 solver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateOrderBenchmark {
+
+    @Param({"10", "50"})
+    public int vars;
+
+    private ExplState explSmaller;
+    private ExplState explLarger;
+    private PredState predSmaller;
+    private PredState predLarger;
+    private Solver solver;
+    private PredOrd predOrd;
+
+    @Setup
+    public void setup() {
+        final MutableValuation smaller = new MutableValuation();
+        final MutableValuation larger = new MutableValuation();
+        final List<Expr<BoolType>> smallerPreds = new ArrayList<>();
+        final List<Expr<BoolType>> largerPreds = new ArrayList<>();
+        for (int i = 0; i < vars; i++) {
+            final VarDecl<IntType> x = Var("x" + i, Int());
+            smaller.put(x, Int(i));
+            if (i % 2 == 0) {
+                larger.put(x, Int(i));
+            }
+
+            final Expr<BoolType> pred = Leq(x.getRef(), Int(i));
+            smallerPreds.add(pred);
+            if (i % 2 == 0) {
+                largerPreds.add(pred);
+            } else {
+                largerPreds.add(Or(pred, Var("b" + i, Bool()).getRef()));
+            }
+            if (i % 5 == 0) {
+                smallerPreds.add(Not(Leq(x.getRef(), Int(i - 1))));
+            }
+        }
+        explSmaller = ExplState.of(smaller);
+        explLarger = ExplState.of(larger);
+        predSmaller = PredState.of(smallerPreds);
+        predLarger = PredState.of(largerPreds);
+
+        solver = Z3SolverFactory.getInstance().createSolver();
+        predOrd = PredOrd.create(solver);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        solver.close();
+    }
+
+    @Benchmark
+    public boolean explIsLeq() {
+        return explSmaller.isLeq(explLarger);
+    }
+
+    @Benchmark
+    public boolean explIsNotLeq() {
+        return explLarger.isLeq(explSmaller);
+    }
+
+    @Benchmark
+    public boolean predIsLeq() {
+        return predOrd.isLeq(predSmaller, predLarger);
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.analysis;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.stmt.Stmts.Assign;
+import static hu.bme.mit.theta.core.stmt.Stmts.Assume;
+import static hu.bme.mit.theta.core.stmt.Stmts.Havoc;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.expl.StmtApplier;
+import hu.bme.mit.theta.analysis.expl.StmtApplier.ApplyResult;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+/**
+ * Benchmarks for applying a block of statements (a chain of assignments and assumptions, followed
+ * by havocs) to an explicit valuation with the {@link StmtApplier}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StmtApplierBenchmark {
+
+    @Param({"10", "100"})
+    public int vars;
+
+    private final List<Stmt> stmts = new ArrayList<>();
+    private MutableValuation initial;
+
+    @Setup
+    public void setup() {
+        final List<VarDecl<IntType>> varDecls = new ArrayList<>(vars);
+        for (int i = 0; i < vars; i++) {
+            varDecls.add(Var("x" + i, Int()));
+        }
+        initial = new MutableValuation();
+        initial.put(varDecls.get(0), Int(0));
+        for (int i = 1; i < vars; i++) {
+            stmts.add(Assign(varDecls.get(i), Add(varDecls.get(i - 1).getRef(), Int(1))));
+            stmts.add(Assume(Leq(varDecls.get(i - 1).getRef(), varDecls.get(i).getRef())));
+        }
+        for (int i = 0; i < vars; i += 2) {
+            stmts.add(Havoc(varDecls.get(i)));
+        }
+    }
+
+    @Benchmark
+    public MutableValuation apply() {
+        final MutableValuation val = MutableValuation.copyOf(initial);
+        for (final Stmt stmt : stmts) {
+            if (StmtApplier.apply(stmt, val, false) != ApplyResult.SUCCESS) {
+                throw new AssertionError("Unexpected result for " + stmt);
+            }
+        }
+        return val;
+    }
+
+}
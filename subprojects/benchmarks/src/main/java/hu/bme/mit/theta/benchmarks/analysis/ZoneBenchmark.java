@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.analysis;
+
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Lt;
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+/**
+ * Benchmarks for difference bound matrix operations through {@link ZoneState}: delay with clock
+ * constraints, intersection, enclosure and inclusion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneBenchmark {
+
+    @Param({"5", "20"})
+    public int clocks;
+
+    private final List<VarDecl<RatType>> clockDecls = new ArrayList<>();
+    private ZoneState zero;
+    private ZoneState zone1;
+    private ZoneState zone2;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < clocks; i++) {
+            clockDecls.add(Var("c" + i, Rat()));
+        }
+        zero = ZoneState.zero(clockDecls);
+        zone1 = delay(zero, 0);
+        zone2 = delay(zero, 1);
+    }
+
+    private ZoneState delay(final ZoneState zone, final int offset) {
+        final ZoneState.Builder builder = zone.transform().up();
+        for (int i = 0; i < clocks; i++) {
+            builder.and(Lt(clockDecls.get(i), 2 * i + offset + 1));
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public ZoneState upAndConstrain() {
+        return delay(zero, 0);
+    }
+
+    @Benchmark
+    public ZoneState intersection() {
+        return ZoneState.intersection(zone1, zone2);
+    }
+
+    @Benchmark
+    public ZoneState enclosure() {
+        return ZoneState.enclosure(zone1, zone2);
+    }
+
+    @Benchmark
+    public boolean isLeq() {
+        return zone1.isLeq(zone2);
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.cfa;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Domain;
+import hu.bme.mit.theta.cfa.analysis.config.CfaConfigBuilder.Refinement;
+import hu.bme.mit.theta.cfa.dsl.CfaDslManager;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+/**
+ * End-to-end CEGAR benchmarks on test models of the CFA analysis. Model paths are relative to the
+ * root of the repository (the working directory of the jmh task).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CfaCegarBenchmark {
+
+    private static final String MODELS = "subprojects/cfa/cfa-analysis/src/test/resources/";
+
+    @Param({"arithmetic-int.cfa", "counter5_true.cfa", "locking.cfa"})
+    public String model;
+
+    @Param({"EXPL", "PRED_CART"})
+    public Domain domain;
+
+    @Param({"SEQ_ITP"})
+    public Refinement refinement;
+
+    private CFA cfa;
+    private SolverFactory solverFactory;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream inputStream = new FileInputStream(MODELS + model)) {
+            cfa = CfaDslManager.createCfa(inputStream);
+        }
+        solverFactory = Z3SolverFactory.getInstance();
+    }
+
+    @Benchmark
+    public SafetyResult<?, ?> check() {
+        // The configuration (and its ARG) is built for each run, as the checker keeps its ARG
+        return new CfaConfigBuilder(domain, refinement, solverFactory)
+                .build(cfa, cfa.getErrorLoc().get()).check();
+    }
+
+}
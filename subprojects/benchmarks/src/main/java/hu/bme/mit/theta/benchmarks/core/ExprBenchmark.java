@@ -0,0 +1,123 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.core;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Mul;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprSimplifier;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexing;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingBuilder;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory;
+
+/**
+ * Benchmarks for expression utilities (unfolding, simplification and variable collection) on a
+ * conjunction of linear constraints over a chain of integer variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExprBenchmark {
+
+    @Param({"10", "100"})
+    public int vars;
+
+    private Expr<BoolType> expr;
+    private VarIndexing indexing;
+    private MutableValuation valuation;
+    private ExprSimplifier simplifier;
+
+    @Setup
+    public void setup() {
+        final List<VarDecl<IntType>> varDecls = new ArrayList<>(vars);
+        for (int i = 0; i < vars; i++) {
+            varDecls.add(Var("x" + i, Int()));
+        }
+
+        final List<Expr<BoolType>> constraints = new ArrayList<>();
+        for (int i = 0; i + 1 < vars; i++) {
+            final Expr<IntType> x = varDecls.get(i).getRef();
+            final Expr<IntType> y = varDecls.get(i + 1).getRef();
+            constraints.add(Or(Leq(Add(x, Mul(Int(2), y), Int(i)), Int(vars)),
+                    Not(Eq(Add(x, Int(0)), Mul(Int(1), y)))));
+        }
+        expr = And(constraints);
+
+        final VarIndexingBuilder builder = VarIndexingFactory.indexingBuilder(0);
+        valuation = new MutableValuation();
+        for (int i = 0; i < vars; i += 2) {
+            builder.inc(varDecls.get(i));
+            valuation.put(varDecls.get(i), Int(i));
+        }
+        indexing = builder.build();
+        simplifier = ExprSimplifier.create();
+    }
+
+    @Benchmark
+    public Expr<BoolType> unfold() {
+        return PathUtils.unfold(expr, 0);
+    }
+
+    @Benchmark
+    public Expr<BoolType> unfoldWithIndexing() {
+        return PathUtils.unfold(expr, indexing);
+    }
+
+    @Benchmark
+    public Expr<BoolType> simplify() {
+        return simplifier.simplify(expr, valuation);
+    }
+
+    @Benchmark
+    public Set<VarDecl<?>> getVars() {
+        return ExprUtils.getVars(expr);
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.core;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.benchmarks.solver.Formulas;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprSummary;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+
+/**
+ * Benchmarks for collecting the constants of an expression through {@link ExprSummary}. The cold
+ * case queries an expression that was built right before the call, so its summaries are computed
+ * from scratch. The warm case queries the same expression repeatedly, as the solvers and the
+ * abstract domains do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExprSummaryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int consts;
+
+    private Expr<BoolType> warmExpr;
+    private Expr<BoolType> coldExpr;
+    private ConstDecl<IntType> absent;
+
+    @Setup
+    public void setup() {
+        warmExpr = Formulas.linearChain(consts);
+        ExprSummary.of(warmExpr);
+        absent = Const("absent", Int());
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        coldExpr = Formulas.linearChain(consts);
+    }
+
+    @Benchmark
+    public Set<ConstDecl<?>> getConstantsCold() {
+        return ExprUtils.getConstants(coldExpr);
+    }
+
+    @Benchmark
+    public Set<ConstDecl<?>> getConstantsWarm() {
+        return ExprUtils.getConstants(warmExpr);
+    }
+
+    @Benchmark
+    public boolean containsDeclWarm() {
+        // A miss, which has to rule out every constant of the expression
+        return ExprSummary.of(warmExpr).containsDecl(absent);
+    }
+
+}
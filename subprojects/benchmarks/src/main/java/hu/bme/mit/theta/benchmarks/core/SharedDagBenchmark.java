@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.core;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Ite;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Sub;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprTraversal;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.PathUtils;
+
+/**
+ * Benchmarks for traversing and rewriting expressions whose subexpressions are shared, as in
+ * unrolled transition relations. Each level of the arithmetic expression refers to the previous
+ * level three times, so its tree size is exponential in the depth while its DAG size is linear.
+ * Traversals that do not exploit sharing do not terminate for the larger depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedDagBenchmark {
+
+    @Param({"20", "100"})
+    public int depth;
+
+    private Expr<BoolType> transition;
+    private Expr<BoolType> iteChain;
+
+    @Setup
+    public void setup() {
+        final VarDecl<IntType> x = Var("x", Int());
+        final VarDecl<BoolType> c = Var("c", Bool());
+
+        Expr<IntType> value = x.getRef();
+        for (int i = 0; i < depth; i++) {
+            value = Ite(Gt(value, Int(i)), Add(value, Int(1)), Sub(value, Int(1)));
+        }
+        transition = Eq(Prime(x.getRef()), value);
+
+        Expr<BoolType> cond = Eq(x.getRef(), Int(0));
+        for (int i = 0; i < depth; i++) {
+            cond = Ite(c.getRef(), cond, Not(cond));
+        }
+        iteChain = cond;
+    }
+
+    @Benchmark
+    public int visitDistinct() {
+        final int[] count = new int[1];
+        ExprTraversal.visitDistinct(transition, e -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    @Benchmark
+    public Expr<BoolType> unfold() {
+        return PathUtils.unfold(transition, 0);
+    }
+
+    @Benchmark
+    public Expr<BoolType> simplify() {
+        return ExprUtils.simplify(transition);
+    }
+
+    @Benchmark
+    public Expr<BoolType> canonize() {
+        return ExprUtils.canonize(transition);
+    }
+
+    @Benchmark
+    public Expr<BoolType> eliminateIte() {
+        return ExprUtils.eliminateIte(iteChain);
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.solver;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Mul;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+/**
+ * Formulas for the solver transformer benchmarks.
+ */
+public final class Formulas {
+
+    private Formulas() {
+    }
+
+    /**
+     * Returns a conjunction of linear constraints over a chain of the given number of integer
+     * constants.
+     */
+    public static Expr<BoolType> linearChain(final int consts) {
+        final List<ConstDecl<IntType>> constDecls = new ArrayList<>(consts);
+        for (int i = 0; i < consts; i++) {
+            constDecls.add(Const("c" + i, Int()));
+        }
+        final List<Expr<BoolType>> constraints = new ArrayList<>();
+        for (int i = 0; i + 1 < consts; i++) {
+            final Expr<IntType> x = constDecls.get(i).getRef();
+            final Expr<IntType> y = constDecls.get(i + 1).getRef();
+            constraints.add(Or(Leq(Add(x, Mul(Int(2), y)), Int(i)), Not(Eq(x, y))));
+        }
+        return And(constraints);
+    }
+
+}
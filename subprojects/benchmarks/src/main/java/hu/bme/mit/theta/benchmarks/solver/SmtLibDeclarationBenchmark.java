@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.solver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibSymbolTable;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibTermTransformer;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibTransformationManager;
+import hu.bme.mit.theta.solver.smtlib.solver.SmtLibSolver;
+import hu.bme.mit.theta.solver.smtlib.solver.binary.SmtLibSolverBinary;
+
+/**
+ * Benchmarks for declaring the constants of assertions in an SMT-LIB solver. The solver talks to a
+ * stub binary that accepts every command, so only the work done on the Java side is measured:
+ * collecting the constants, filtering the already declared ones and issuing the declarations.
+ * Each assertion is added in a new scope that is popped afterwards, so its constants are declared
+ * again in the next invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmtLibDeclarationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int consts;
+
+    private Expr<BoolType> expr;
+    private SmtLibSolver solver;
+
+    @Setup
+    public void setup() {
+        expr = Formulas.linearChain(consts);
+        final GenericSmtLibSymbolTable symbolTable = new GenericSmtLibSymbolTable();
+        solver = new SmtLibSolver(symbolTable,
+                new GenericSmtLibTransformationManager(symbolTable),
+                new GenericSmtLibTermTransformer(symbolTable), new StubBinary(), false);
+    }
+
+    @Benchmark
+    public SmtLibSolver addInScope() {
+        solver.push();
+        solver.add(expr);
+        solver.pop();
+        return solver;
+    }
+
+    private static final class StubBinary implements SmtLibSolverBinary {
+
+        @Override
+        public void issueCommand(final String command) {
+        }
+
+        @Override
+        public String readResponse() {
+            return "success";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.solver;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibSymbolTable;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibTermTransformer;
+import hu.bme.mit.theta.solver.smtlib.impl.generic.GenericSmtLibTransformationManager;
+import hu.bme.mit.theta.solver.smtlib.solver.model.SmtLibModel;
+
+/**
+ * Benchmarks for transforming expressions to SMT-LIB terms and parsing them back, without running
+ * a solver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmtLibTransformerBenchmark {
+
+    @Param({"10", "100"})
+    public int consts;
+
+    private Expr<BoolType> expr;
+    private String term;
+    private GenericSmtLibSymbolTable symbolTable;
+    private GenericSmtLibTermTransformer termTransformer;
+
+    @Setup
+    public void setup() {
+        expr = Formulas.linearChain(consts);
+        symbolTable = new GenericSmtLibSymbolTable();
+        termTransformer = new GenericSmtLibTermTransformer(symbolTable);
+        term = new GenericSmtLibTransformationManager(symbolTable).toTerm(expr);
+    }
+
+    @Benchmark
+    public String toTerm() {
+        // A new manager, so that the expression cache of the transformer is empty
+        return new GenericSmtLibTransformationManager(symbolTable).toTerm(expr);
+    }
+
+    @Benchmark
+    public Expr<BoolType> toExpr() {
+        return termTransformer.toExpr(term, Bool(), new SmtLibModel(Map.of()));
+    }
+
+}
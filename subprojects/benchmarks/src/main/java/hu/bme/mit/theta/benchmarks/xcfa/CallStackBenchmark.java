@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.xcfa;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.xcfa.analysis.PersistentStack;
+
+/**
+ * Benchmarks for the call stacks of XCFA process states. Each state of the ARG keeps its own call
+ * stacks, so a transition that calls a procedure and the one that returns from it each produce a
+ * new stack. Copied linked lists allocate a node per frame on every transition, persistent stacks
+ * a single node. Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallStackBenchmark {
+
+    @Param({"4", "64"})
+    public int depth;
+
+    private LinkedList<String> linkedStack;
+    private PersistentStack<String> persistentStack;
+
+    @Setup
+    public void setup() {
+        linkedStack = new LinkedList<>();
+        persistentStack = PersistentStack.Companion.empty();
+        for (int i = 0; i < depth; i++) {
+            linkedStack.push("proc" + i);
+            persistentStack = persistentStack.push("proc" + i);
+        }
+    }
+
+    @Benchmark
+    public List<String> callReturnLinkedList() {
+        final LinkedList<String> called = new LinkedList<>(linkedStack);
+        called.push("callee");
+        final LinkedList<String> returned = new LinkedList<>(called);
+        returned.pop();
+        return returned;
+    }
+
+    @Benchmark
+    public List<String> callReturnPersistent() {
+        return persistentStack.push("callee").pop();
+    }
+
+    @Benchmark
+    public boolean equalsLinkedList() {
+        final LinkedList<String> called = new LinkedList<>(linkedStack);
+        called.push("callee");
+        final LinkedList<String> other = new LinkedList<>(linkedStack);
+        other.push("callee");
+        return called.equals(other);
+    }
+
+    @Benchmark
+    public boolean equalsPersistent() {
+        // Stacks pushed onto the same state share their tail, so the comparison stops after a frame
+        return persistentStack.push("callee").equals(persistentStack.push("callee"));
+    }
+
+}
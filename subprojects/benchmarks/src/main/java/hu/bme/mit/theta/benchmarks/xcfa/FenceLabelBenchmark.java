@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.xcfa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.xcfa.model.EmptyMetaData;
+import hu.bme.mit.theta.xcfa.model.FenceLabel;
+import hu.bme.mit.theta.xcfa.model.MutexOp;
+
+/**
+ * Benchmarks for reading the mutex operations of fence labels, which happens on every transition
+ * over a fence. Decoding matches the label strings against regular expressions, while the
+ * operations cached in the label are decoded only once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenceLabelBenchmark {
+
+    @Param({"ATOMIC_BEGIN", "mutex_lock(m)", "cond_wait(c,m)"})
+    public String label;
+
+    private FenceLabel fence;
+
+    @Setup
+    public void setup() {
+        fence = new FenceLabel(Set.of(label), EmptyMetaData.INSTANCE);
+        fence.getMutexOps();
+    }
+
+    @Benchmark
+    public List<MutexOp> decode() {
+        final List<MutexOp> ops = new ArrayList<>();
+        for (final String l : fence.getLabels()) {
+            ops.addAll(MutexOp.Companion.decode(l));
+        }
+        return ops;
+    }
+
+    @Benchmark
+    public List<MutexOp> cached() {
+        return fence.getMutexOps();
+    }
+
+}
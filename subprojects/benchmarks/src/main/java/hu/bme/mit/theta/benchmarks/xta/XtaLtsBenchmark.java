@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.benchmarks.xta;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.theta.analysis.unit.UnitState;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.XtaAction;
+import hu.bme.mit.theta.xta.analysis.XtaLts;
+import hu.bme.mit.theta.xta.analysis.XtaState;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+/**
+ * Benchmarks for computing the enabled actions of XTA states, which looks up the synchronization
+ * partners of emitting edges. The states are the location vectors reachable in the model when
+ * data and clocks are ignored, up to a limit. Model paths are relative to the root of the
+ * repository (the working directory of the jmh task).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XtaLtsBenchmark {
+
+    private static final String MODELS = "subprojects/xta/xta-analysis/src/test/resources/";
+    private static final int MAX_STATES = 1000;
+
+    @Param({"broadcast.xta", "csma-2.xta", "fddi-2.xta", "fischer-2-32-64.xta"})
+    public String model;
+
+    private XtaLts lts;
+    private List<XtaState<UnitState>> states;
+
+    @Setup
+    public void setup() throws IOException {
+        final XtaSystem system;
+        try (InputStream inputStream = new FileInputStream(MODELS + model)) {
+            system = XtaDslManager.createSystem(inputStream);
+        }
+        lts = XtaLts.create(system);
+
+        states = new ArrayList<>();
+        final Set<List<Loc>> reached = new HashSet<>();
+        final Deque<List<Loc>> waitlist = new ArrayDeque<>();
+        reached.add(system.getInitLocs());
+        waitlist.add(system.getInitLocs());
+        while (!waitlist.isEmpty() && states.size() < MAX_STATES) {
+            final XtaState<UnitState> state = XtaState.of(waitlist.remove(), UnitState.getInstance());
+            states.add(state);
+            for (final XtaAction action : lts.getEnabledActionsFor(state)) {
+                if (reached.add(action.getTargetLocs())) {
+                    waitlist.add(action.getTargetLocs());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int getEnabledActions() {
+        int actions = 0;
+        for (final XtaState<UnitState> state : states) {
+            actions += lts.getEnabledActionsFor(state).size();
+        }
+        return actions;
+    }
+
+}
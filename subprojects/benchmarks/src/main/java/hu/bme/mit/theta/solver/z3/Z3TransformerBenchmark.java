@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.microsoft.z3.Context;
+
+import hu.bme.mit.theta.benchmarks.solver.Formulas;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Benchmarks for transforming expressions to Z3 terms and back, without running a solver. The
+ * transformers are internal to the Z3 solver, hence the package of this benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Z3TransformerBenchmark {
+
+    @Param({"10", "100"})
+    public int consts;
+
+    private Expr<BoolType> expr;
+    private Context context;
+    private Z3TransformationManager transformationManager;
+    private Z3TermTransformer termTransformer;
+    private com.microsoft.z3.Expr term;
+
+    @Setup
+    public void setup() {
+        Z3SolverFactory.getInstance(); // loads the native libraries
+        expr = Formulas.linearChain(consts);
+        context = new Context();
+        final Z3SymbolTable symbolTable = new Z3SymbolTable();
+        transformationManager = new Z3TransformationManager(symbolTable, context);
+        termTransformer = new Z3TermTransformer(symbolTable);
+        term = transformationManager.toTerm(expr);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public com.microsoft.z3.Expr toTerm() {
+        transformationManager.reset();
+        return transformationManager.toTerm(expr);
+    }
+
+    @Benchmark
+    public com.microsoft.z3.Expr toTermCached() {
+        return transformationManager.toTerm(expr);
+    }
+
+    @Benchmark
+    public Expr<?> toExpr() {
+        return termTransformer.toExpr(term);
+    }
+
+}
@@ -19,9 +19,9 @@ package hu.bme.mit.theta.cfa.analysis;
 import com.google.common.base.Preconditions;
 import hu.bme.mit.theta.analysis.algorithm.AbstractMonolithicTransFunc;
 import hu.bme.mit.theta.analysis.algorithm.MonolithicTransFunc;
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncoding;
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncodingType;
 import hu.bme.mit.theta.cfa.CFA;
-import hu.bme.mit.theta.core.decl.Decls;
-import hu.bme.mit.theta.core.stmt.AssignStmt;
 import hu.bme.mit.theta.core.stmt.AssumeStmt;
 import hu.bme.mit.theta.core.stmt.NonDetStmt;
 import hu.bme.mit.theta.core.stmt.SequenceStmt;
@@ -29,18 +29,17 @@ import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.utils.StmtUtils;
 import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.And;
-import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
-import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
-import static hu.bme.mit.theta.core.type.inttype.IntExprs.Neq;
+import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Not;
 
 public class CfaToMonoliticTransFunc extends AbstractMonolithicTransFunc {
-    private CfaToMonoliticTransFunc(CFA cfa) {
+    private CfaToMonoliticTransFunc(CFA cfa, LocationEncodingType encodingType, boolean mergeBlocks) {
         Preconditions.checkArgument(cfa.getErrorLoc().isPresent());
 
         int i = 0;
@@ -48,23 +47,50 @@ public class CfaToMonoliticTransFunc extends AbstractMonolithicTransFunc {
         for (var x : cfa.getLocs()) {
             map.put(x, i++);
         }
-        var locVar = Decls.Var("loc", Int());
-        List<Stmt> tranList = cfa.getEdges().stream().map(e -> SequenceStmt.of(List.of(
-                AssumeStmt.of(Eq(locVar.getRef(), Int(map.get(e.getSource())))),
-                e.getStmt(),
-                AssignStmt.of(locVar, Int(map.get(e.getTarget())))
-        ))).collect(Collectors.toList());
+        final LocationEncoding loc = new LocationEncoding("loc", map.size(), encodingType);
+        final List<Stmt> tranList = new ArrayList<>();
+        for (var source : cfa.getLocs()) {
+            if (mergeBlocks && isInner(cfa, source)) continue;
+            for (var edge : source.getOutEdges()) {
+                // straight-line segments starting with the edge are merged into a single transition
+                final List<Stmt> stmts = new ArrayList<>();
+                stmts.add(AssumeStmt.of(loc.isAt(map.get(source))));
+                stmts.add(edge.getStmt());
+                var current = edge;
+                while (mergeBlocks && isInner(cfa, current.getTarget())) {
+                    current = current.getTarget().getOutEdges().iterator().next();
+                    stmts.add(current.getStmt());
+                }
+                stmts.addAll(loc.move(map.get(source), map.get(current.getTarget())));
+                tranList.add(SequenceStmt.of(stmts));
+            }
+        }
         var trans = NonDetStmt.of(tranList);
         var transUnfold = StmtUtils.toExpr(trans, VarIndexingFactory.indexing(0));
         transExpr = And(transUnfold.getExprs());
-        initExpr = Eq(locVar.getRef(), Int(map.get(cfa.getInitLoc())));
-        propExpr = Neq(locVar.getRef(), Int(map.get(cfa.getErrorLoc().get())));
+        initExpr = loc.initially(map.get(cfa.getInitLoc()));
+        propExpr = Not(loc.isAt(map.get(cfa.getErrorLoc().get())));
 
         firstIndex = VarIndexingFactory.indexing(0);
         offsetIndex = transUnfold.getIndexing();
     }
 
+    // Locations in the middle of straight-line segments, which are not needed when segments are merged
+    private static boolean isInner(final CFA cfa, final CFA.Loc loc) {
+        return loc != cfa.getInitLoc() && !cfa.getFinalLoc().equals(Optional.of(loc))
+                && !cfa.getErrorLoc().equals(Optional.of(loc))
+                && loc.getInEdges().size() == 1 && loc.getOutEdges().size() == 1;
+    }
+
     public static MonolithicTransFunc create(CFA cfa) {
-        return new CfaToMonoliticTransFunc(cfa);
+        return create(cfa, LocationEncodingType.INTEGER, false);
+    }
+
+    /**
+     * Creates the monolithic transition relation of the CFA with the given program counter encoding.
+     * With {@code mergeBlocks}, each straight-line segment is a single transition.
+     */
+    public static MonolithicTransFunc create(CFA cfa, LocationEncodingType encodingType, boolean mergeBlocks) {
+        return new CfaToMonoliticTransFunc(cfa, encodingType, mergeBlocks);
     }
 }
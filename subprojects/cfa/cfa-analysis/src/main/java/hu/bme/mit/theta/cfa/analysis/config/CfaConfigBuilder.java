@@ -27,6 +27,7 @@ import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarChecker;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Refiner;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.CloseableTransFunc;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.expl.ExplPrec;
 import hu.bme.mit.theta.analysis.expl.ExplState;
@@ -81,12 +82,14 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.core.utils.StmtUtils;
+import hu.bme.mit.theta.solver.ItpSolver;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
@@ -186,19 +189,22 @@ public class CfaConfigBuilder {
     public enum Encoding {
         SBE {
             @Override
-            public CfaLts getLts(CFA.Loc errorLoc) {
-                return new CfaCachedLts(CfaSbeLts.getInstance());
+            public CfaLts getLts(CFA cfa, CFA.Loc errorLoc) {
+                return CfaCachedLts.precompile(cfa, CfaSbeLts.getInstance());
             }
         },
 
         LBE {
             @Override
-            public CfaLts getLts(CFA.Loc errorLoc) {
-                return new CfaCachedLts(CfaLbeLts.of(errorLoc));
+            public CfaLts getLts(CFA cfa, CFA.Loc errorLoc) {
+                return CfaCachedLts.precompile(cfa, CfaLbeLts.of(errorLoc));
             }
         };
 
-        public abstract CfaLts getLts(CFA.Loc errorLoc);
+        /**
+         * Get an LTS where the actions (and their expressions) of the CFA are computed in advance.
+         */
+        public abstract CfaLts getLts(CFA cfa, CFA.Loc errorLoc);
     }
 
     public enum InitPrec {
@@ -217,6 +223,8 @@ public class CfaConfigBuilder {
     private int maxEnum = 0;
     private InitPrec initPrec = InitPrec.EMPTY;
     private PruneStrategy pruneStrategy = PruneStrategy.LAZY;
+    private int threads = 1;
+    private boolean incrementalRefinement = false;
 
     public CfaConfigBuilder(final Domain domain, final Refinement refinement,
                             final SolverFactory solverFactory) {
@@ -274,15 +282,52 @@ public class CfaConfigBuilder {
         return this;
     }
 
+    /**
+     * Number of threads computing successor states during abstraction and checking traces during MULTI_SEQ
+     * refinement (each with its own solver).
+     */
+    public CfaConfigBuilder threads(final int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Keep the common prefix of consecutive counterexamples asserted in the refinement solver
+     * (FW_BIN_ITP, SEQ_ITP and MULTI_SEQ refinement).
+     */
+    public CfaConfigBuilder incrementalRefinement(final boolean incrementalRefinement) {
+        this.incrementalRefinement = incrementalRefinement;
+        return this;
+    }
+
+    private ExprTraceSeqItpChecker createSeqItpChecker() {
+        final ItpSolver solver = refinementSolverFactory.createItpSolver();
+        return incrementalRefinement ? ExprTraceSeqItpChecker.createIncremental(True(), True(), solver)
+                : ExprTraceSeqItpChecker.create(True(), True(), solver);
+    }
+
+    private <S extends ExprState, P extends Prec> CloseableTransFunc<CfaState<S>, CfaAction, CfaPrec<P>> workerTransFunc(
+            final Function<Solver, Analysis<CfaState<S>, CfaAction, CfaPrec<P>>> analysisFactory) {
+        final Solver solver = abstractionSolverFactory.createSolver();
+        return CloseableTransFunc.create(analysisFactory.apply(solver).getTransFunc(), solver);
+    }
+
+    private ExprTraceFwBinItpChecker createFwBinItpChecker() {
+        final ItpSolver solver = refinementSolverFactory.createItpSolver();
+        return incrementalRefinement ? ExprTraceFwBinItpChecker.createIncremental(True(), True(), solver)
+                : ExprTraceFwBinItpChecker.create(True(), True(), solver);
+    }
+
     public CfaConfig<? extends State, ? extends Action, ? extends Prec> build(final CFA cfa,
                                                                               final CFA.Loc errLoc) {
-        final CfaLts lts = encoding.getLts(errLoc);
+        final CfaLts lts = encoding.getLts(cfa, errLoc);
 
         if (domain == Domain.EXPL) {
-            final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = CfaAnalysis
-                    .create(cfa.getInitLoc(),
-                            ExplStmtAnalysis.create(abstractionSolverFactory.createSolver(), True(),
-                                    maxEnum));
+            final Function<Solver, Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>>> analysisFactory =
+                    analysisSolver -> CfaAnalysis.create(cfa.getInitLoc(),
+                            ExplStmtAnalysis.create(analysisSolver, True(), maxEnum));
+            final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = analysisFactory.apply(
+                    abstractionSolverFactory.createSolver());
             final ArgBuilder<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> argBuilder = ArgBuilder.create(
                     lts,
                     analysis, s -> s.getLoc().equals(errLoc), true);
@@ -290,15 +335,15 @@ public class CfaConfigBuilder {
                     .builder(argBuilder).projection(CfaState::getLoc)
                     .waitlist(PriorityWaitlist.create(search.getComp(cfa, errLoc)))
                     .stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-                            : StopCriterions.firstCex()).logger(logger).build();
+                            : StopCriterions.firstCex()).logger(logger)
+                    .parallel(threads, () -> workerTransFunc(analysisFactory)).build();
 
             Refiner<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> refiner;
 
             switch (refinement) {
                 case FW_BIN_ITP:
                     refiner = SingleExprTraceRefiner.create(
-                            ExprTraceFwBinItpChecker.create(True(), True(),
-                                    refinementSolverFactory.createItpSolver()),
+                            createFwBinItpChecker(),
                             precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy,
                             logger);
                     break;
@@ -311,15 +356,14 @@ public class CfaConfigBuilder {
                     break;
                 case SEQ_ITP:
                     refiner = SingleExprTraceRefiner.create(
-                            ExprTraceSeqItpChecker.create(True(), True(),
-                                    refinementSolverFactory.createItpSolver()),
+                            createSeqItpChecker(),
                             precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy,
                             logger);
                     break;
                 case MULTI_SEQ:
                     refiner = MultiExprTraceRefiner.create(
-                            ExprTraceSeqItpChecker.create(True(), True(),
-                                    refinementSolverFactory.createItpSolver()),
+                            createSeqItpChecker(),
+                            this::createSeqItpChecker, threads,
                             precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy,
                             logger);
                     break;
@@ -438,24 +482,11 @@ public class CfaConfigBuilder {
 
         } else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART
                 || domain == Domain.PRED_SPLIT) {
-            final Solver analysisSolver = abstractionSolverFactory.createSolver();
-            PredAbstractor predAbstractor;
-            switch (domain) {
-                case PRED_BOOL:
-                    predAbstractor = PredAbstractors.booleanAbstractor(analysisSolver);
-                    break;
-                case PRED_SPLIT:
-                    predAbstractor = PredAbstractors.booleanSplitAbstractor(analysisSolver);
-                    break;
-                case PRED_CART:
-                    predAbstractor = PredAbstractors.cartesianAbstractor(analysisSolver);
-                    break;
-                default:
-                    throw new UnsupportedOperationException(domain + " domain is not supported.");
-            }
-            final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = CfaAnalysis
-                    .create(cfa.getInitLoc(),
-                            PredAnalysis.create(analysisSolver, predAbstractor, True()));
+            final Function<Solver, Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>>> analysisFactory =
+                    analysisSolver -> CfaAnalysis.create(cfa.getInitLoc(),
+                            PredAnalysis.create(analysisSolver, createPredAbstractor(analysisSolver), True()));
+            final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = analysisFactory.apply(
+                    abstractionSolverFactory.createSolver());
             final ArgBuilder<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> argBuilder = ArgBuilder.create(
                     lts,
                     analysis, s -> s.getLoc().equals(errLoc), true);
@@ -463,25 +494,23 @@ public class CfaConfigBuilder {
                     .builder(argBuilder).projection(CfaState::getLoc)
                     .waitlist(PriorityWaitlist.create(search.getComp(cfa, errLoc)))
                     .stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-                            : StopCriterions.firstCex()).logger(logger).build();
+                            : StopCriterions.firstCex()).logger(logger)
+                    .parallel(threads, () -> workerTransFunc(analysisFactory)).build();
 
             ExprTraceChecker<ItpRefutation> exprTraceChecker;
             switch (refinement) {
                 case FW_BIN_ITP:
-                    exprTraceChecker = ExprTraceFwBinItpChecker.create(True(), True(),
-                            refinementSolverFactory.createItpSolver());
+                    exprTraceChecker = createFwBinItpChecker();
                     break;
                 case BW_BIN_ITP:
                     exprTraceChecker = ExprTraceBwBinItpChecker.create(True(), True(),
                             refinementSolverFactory.createItpSolver());
                     break;
                 case SEQ_ITP:
-                    exprTraceChecker = ExprTraceSeqItpChecker.create(True(), True(),
-                            refinementSolverFactory.createItpSolver());
+                    exprTraceChecker = createSeqItpChecker();
                     break;
                 case MULTI_SEQ:
-                    exprTraceChecker = ExprTraceSeqItpChecker.create(True(), True(),
-                            refinementSolverFactory.createItpSolver());
+                    exprTraceChecker = createSeqItpChecker();
                     break;
                 case UCB:
                     exprTraceChecker = ExprTraceUCBChecker.create(True(), True(),
@@ -528,6 +557,7 @@ public class CfaConfigBuilder {
 
             if (refinement == Refinement.MULTI_SEQ) {
                 refiner = MultiExprTraceRefiner.create(exprTraceChecker,
+                        this::createSeqItpChecker, threads,
                         precGranularity.createRefiner(refToPrec), pruneStrategy, logger);
             } else {
                 refiner = SingleExprTraceRefiner.create(exprTraceChecker,
@@ -666,4 +696,17 @@ public class CfaConfigBuilder {
         }
     }
 
+    private PredAbstractor createPredAbstractor(final Solver solver) {
+        switch (domain) {
+            case PRED_BOOL:
+                return PredAbstractors.booleanAbstractor(solver);
+            case PRED_SPLIT:
+                return PredAbstractors.booleanSplitAbstractor(solver);
+            case PRED_CART:
+                return PredAbstractors.cartesianAbstractor(solver);
+            default:
+                throw new UnsupportedOperationException(domain + " domain is not supported.");
+        }
+    }
+
 }
@@ -15,37 +15,81 @@
  */
 package hu.bme.mit.theta.cfa.analysis.lts;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
 
-import hu.bme.mit.theta.common.container.Containers;
-
-import java.util.Map;
-
+import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.cfa.CFA.Loc;
 import hu.bme.mit.theta.cfa.analysis.CfaAction;
-import hu.bme.mit.theta.cfa.analysis.CfaState;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * A caching layer over CFA LTS implementations. It only computes actions for each location once and
- * stores the result for later queries.
+ * stores the result for later queries. The cache is a table indexed by the id of the locations (see
+ * {@link Loc#getId()}), so lookups do not require hashing.
+ * <p>
+ * Use {@link #precompile(CFA, CfaLts)} to compute the actions of a CFA in advance, together with
+ * their expressions and indexings. A cached LTS should only be used with the locations of a single
+ * CFA.
  */
 public final class CfaCachedLts implements CfaLts {
 
     private final CfaLts lts;
-    private final Map<Loc, Collection<CfaAction>> actionCache;
+    private final List<Collection<CfaAction>> actionCache;
 
     public CfaCachedLts(final CfaLts lts) {
-        this.lts = lts;
-        this.actionCache = Containers.createMap();
+        this.lts = checkNotNull(lts);
+        this.actionCache = new ArrayList<>();
+    }
+
+    /**
+     * Create a cached LTS for a CFA where the actions of each location reachable from the initial
+     * location (via the actions of the LTS) are already computed. The unfolded expression and the
+     * next indexing of each action are also computed, so that the analysis does not have to do it
+     * during the exploration. Locations inside large blocks are not visited, thus each edge is
+     * only unfolded once.
+     */
+    public static CfaCachedLts precompile(final CFA cfa, final CfaLts lts) {
+        final CfaCachedLts cachedLts = new CfaCachedLts(lts);
+        cachedLts.ensureCapacity(cfa.getLocs().size());
+        final boolean[] visited = new boolean[cfa.getLocs().size()];
+        final Deque<Loc> waiting = new ArrayDeque<>();
+        visited[cfa.getInitLoc().getId()] = true;
+        waiting.add(cfa.getInitLoc());
+        while (!waiting.isEmpty()) {
+            final Loc loc = waiting.remove();
+            for (final CfaAction action : cachedLts.getEnabledActionsFor(loc)) {
+                action.toExpr();
+                final Loc target = action.getTarget();
+                if (!visited[target.getId()]) {
+                    visited[target.getId()] = true;
+                    waiting.add(target);
+                }
+            }
+        }
+        return cachedLts;
     }
 
     @Override
-    public Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
-        final Loc loc = state.getLoc();
-        if (!actionCache.containsKey(loc)) {
-            actionCache.put(loc, lts.getEnabledActionsFor(state));
+    public Collection<CfaAction> getEnabledActionsFor(final Loc loc) {
+        final int id = loc.getId();
+        ensureCapacity(id + 1);
+        Collection<CfaAction> actions = actionCache.get(id);
+        if (actions == null) {
+            actions = lts.getEnabledActionsFor(loc);
+            actionCache.set(id, actions);
+        }
+        return actions;
+    }
+
+    private void ensureCapacity(final int size) {
+        while (actionCache.size() < size) {
+            actionCache.add(null);
         }
-        return actionCache.get(loc);
     }
 
 }
@@ -17,13 +17,11 @@ package hu.bme.mit.theta.cfa.analysis.lts;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 
 import hu.bme.mit.theta.cfa.CFA.Edge;
 import hu.bme.mit.theta.cfa.CFA.Loc;
 import hu.bme.mit.theta.cfa.analysis.CfaAction;
-import hu.bme.mit.theta.cfa.analysis.CfaState;
 import hu.bme.mit.theta.common.Utils;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -45,12 +43,11 @@ public final class CfaLbeLts implements CfaLts {
     }
 
     @Override
-    public Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
-        final Loc loc = state.getLoc();
+    public Collection<CfaAction> getEnabledActionsFor(final Loc loc) {
         final List<CfaAction> actions = new ArrayList<>(loc.getOutEdges().size());
 
         for (final Edge edge : loc.getOutEdges()) {
-            final List<Edge> edges = new LinkedList<>();
+            final List<Edge> edges = new ArrayList<>();
             edges.add(edge);
             Loc running = edge.getTarget();
             while (running.getInEdges().size() == 1 && running.getOutEdges().size() == 1
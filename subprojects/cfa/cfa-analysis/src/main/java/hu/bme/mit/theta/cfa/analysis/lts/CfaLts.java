@@ -16,9 +16,23 @@
 package hu.bme.mit.theta.cfa.analysis.lts;
 
 import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.cfa.CFA.Loc;
 import hu.bme.mit.theta.cfa.analysis.CfaAction;
 import hu.bme.mit.theta.cfa.analysis.CfaState;
 
+import java.util.Collection;
+
 public interface CfaLts extends LTS<CfaState<?>, CfaAction> {
 
+    /**
+     * Get the enabled actions from a given location. The actions of a CFA only depend on the
+     * location, so this is the actual implementation of {@link #getEnabledActionsFor(CfaState)}.
+     */
+    Collection<CfaAction> getEnabledActionsFor(Loc loc);
+
+    @Override
+    default Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
+        return getEnabledActionsFor(state.getLoc());
+    }
+
 }
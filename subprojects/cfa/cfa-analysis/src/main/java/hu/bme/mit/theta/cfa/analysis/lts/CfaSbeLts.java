@@ -18,8 +18,8 @@ package hu.bme.mit.theta.cfa.analysis.lts;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
+import hu.bme.mit.theta.cfa.CFA.Loc;
 import hu.bme.mit.theta.cfa.analysis.CfaAction;
-import hu.bme.mit.theta.cfa.analysis.CfaState;
 
 /**
  * Single block encoding (SBE) implementation for CFA LTS. It returns a single CFA edges as
@@ -40,8 +40,8 @@ public final class CfaSbeLts implements CfaLts {
     }
 
     @Override
-    public Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
-        return state.getLoc().getOutEdges().stream().map(CfaAction::create)
+    public Collection<CfaAction> getEnabledActionsFor(final Loc loc) {
+        return loc.getOutEdges().stream().map(CfaAction::create)
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.cfa.analysis;
+
+import hu.bme.mit.theta.analysis.algorithm.MonolithicTransFunc;
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncodingType;
+import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.dsl.CfaDslManager;
+import hu.bme.mit.theta.core.utils.PathUtils;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexing;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+
+@RunWith(value = Parameterized.class)
+public class CfaToMonoliticTransFuncTest {
+
+    private static final int BOUND = 30;
+
+    @Parameterized.Parameter(value = 0)
+    public String filePath;
+
+    @Parameterized.Parameter(value = 1)
+    public LocationEncodingType encodingType;
+
+    @Parameterized.Parameter(value = 2)
+    public boolean isSafe;
+
+    @Parameterized.Parameters(name = "{index}: {0}, {1}, {2}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+
+                {"src/test/resources/arithmetic-int.cfa", LocationEncodingType.INTEGER, false},
+
+                {"src/test/resources/arrays.cfa", LocationEncodingType.BITVECTOR, false},
+
+                {"src/test/resources/ifelse.cfa", LocationEncodingType.ONE_HOT, false},
+
+                {"src/test/resources/counter5_true.cfa", LocationEncodingType.INTEGER, true},
+
+                {"src/test/resources/locking.cfa", LocationEncodingType.ONE_HOT, true},
+
+        });
+    }
+
+    @Test
+    public void testMergedBlocksSameVerdict() throws Exception {
+        final CFA cfa = CfaDslManager.createCfa(new FileInputStream(filePath));
+
+        final boolean unmergedUnsafe = reachesError(
+                CfaToMonoliticTransFunc.create(cfa, encodingType, false));
+        final boolean mergedUnsafe = reachesError(
+                CfaToMonoliticTransFunc.create(cfa, encodingType, true));
+
+        Assert.assertEquals(!isSafe, unmergedUnsafe);
+        Assert.assertEquals(unmergedUnsafe, mergedUnsafe);
+    }
+
+    /**
+     * Bounded model checking: whether the property is violated within {@link #BOUND} steps.
+     */
+    private static boolean reachesError(final MonolithicTransFunc transFunc) throws Exception {
+        try (final Solver solver = Z3SolverFactory.getInstance().createSolver()) {
+            VarIndexing indexing = transFunc.getInitIndexing();
+            solver.add(PathUtils.unfold(transFunc.getInitExpr(), indexing));
+            for (int i = 0; i <= BOUND; i++) {
+                solver.push();
+                solver.add(PathUtils.unfold(Not(transFunc.getPropExpr()), indexing));
+                final boolean violated = solver.check().isSat();
+                solver.pop();
+                if (violated) {
+                    return true;
+                }
+                solver.add(PathUtils.unfold(transFunc.getTransExpr(), indexing));
+                indexing = indexing.add(transFunc.getOffsetIndexing());
+            }
+            return false;
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ package hu.bme.mit.theta.cfa.analysis;
 import com.google.common.collect.ImmutableSet;
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.cfa.CFA;
+import hu.bme.mit.theta.cfa.analysis.lts.CfaCachedLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaLbeLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaLts;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaSbeLts;
@@ -115,4 +116,17 @@ public class EncodingTest {
         Assert.assertEquals(ImmutableSet.of("L7"), getNextLocs(lts, "L6"));
         Assert.assertEquals(ImmutableSet.of(), getNextLocs(lts, "L7"));
     }
+
+    @Test
+    public void testPrecompiledLbe() {
+        CfaCachedLts lts = CfaCachedLts.precompile(cfa, CfaLbeLts.of(getLocByName("L7")));
+        Assert.assertEquals(ImmutableSet.of("L1"), getNextLocs(lts, "L0"));
+        Assert.assertEquals(ImmutableSet.of("L4"), getNextLocs(lts, "L1"));
+        Assert.assertEquals(ImmutableSet.of("L4"), getNextLocs(lts, "L2"));
+        Assert.assertEquals(ImmutableSet.of("L5"), getNextLocs(lts, "L4"));
+        Assert.assertEquals(ImmutableSet.of("L1", "L7"), getNextLocs(lts, "L5"));
+        Assert.assertEquals(ImmutableSet.of(), getNextLocs(lts, "L7"));
+        Assert.assertSame(lts.getEnabledActionsFor(getLocByName("L1")),
+                lts.getEnabledActionsFor(getLocByName("L1")));
+    }
 }
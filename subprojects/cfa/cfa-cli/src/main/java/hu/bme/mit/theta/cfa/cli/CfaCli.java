@@ -47,12 +47,17 @@ import hu.bme.mit.theta.common.logging.ConsoleLogger;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
 import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
 import hu.bme.mit.theta.common.table.BasicTableWriter;
 import hu.bme.mit.theta.common.table.TableWriter;
 import hu.bme.mit.theta.common.visualization.Graph;
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter;
 import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.solver.SolverManager;
+import hu.bme.mit.theta.solver.cache.CachingSolverFactory;
+import hu.bme.mit.theta.solver.cache.SolverCache;
+import hu.bme.mit.theta.solver.metrics.MetricsSolverFactory;
+import hu.bme.mit.theta.solver.preprocessing.PreprocessingSolverFactory;
 import hu.bme.mit.theta.solver.smtlib.SmtLibSolverManager;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 import hu.bme.mit.theta.solver.z3.Z3SolverManager;
@@ -75,6 +80,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class CfaCli {
 
     private static final String JAR_NAME = "theta-cfa-cli.jar";
+    private static final int SOLVER_CACHE_CAPACITY = 100_000;
     private final String[] args;
     private final TableWriter writer;
     @Parameter(names = {"--algorithm"}, description = "Algorithm")
@@ -125,6 +131,21 @@ public class CfaCli {
     @Parameter(names = "--prunestrategy", description = "Strategy for pruning the ARG after refinement")
     PruneStrategy pruneStrategy = PruneStrategy.LAZY;
 
+    @Parameter(names = "--threads", description = "Number of threads for computing successor states in the abstraction and for checking traces in MULTI_SEQ refinement")
+    Integer threads = 1;
+
+    @Parameter(names = "--incremental-refinement", description = "Keep the common prefix of consecutive counterexamples asserted in the refinement solver (FW_BIN_ITP, SEQ_ITP and MULTI_SEQ)")
+    boolean incrementalRefinement = false;
+
+    @Parameter(names = "--solver-cache", description = "Answer repeated satisfiability checks of the abstraction and refinement solvers from a cache persisted in this file")
+    String solverCache = null;
+
+    @Parameter(names = "--solver-preprocessing", description = "Simplify and slice the queries of the abstraction solver before solving them")
+    boolean solverPreprocessing = false;
+
+    @Parameter(names = "--runtime-metrics", description = "Write runtime metrics (counters, timers and histograms of the algorithm and the solvers) as JSON to this file")
+    String runtimeMetrics = null;
+
     @Parameter(names = "--loglevel", description = "Detailedness of logging")
     Logger.Level logLevel = Level.SUBSTEP;
 
@@ -219,32 +240,60 @@ public class CfaCli {
             }
             checkNotNull(errLoc, "Error location must be specified in CFA or as argument");
 
-            final SolverFactory abstractionSolverFactory;
+            SolverFactory abstractionSolverFactory;
             if (abstractionSolver != null) {
                 abstractionSolverFactory = SolverManager.resolveSolverFactory(abstractionSolver);
             } else {
                 abstractionSolverFactory = SolverManager.resolveSolverFactory(solver);
             }
 
-            final SolverFactory refinementSolverFactory;
+            SolverFactory refinementSolverFactory;
             if (refinementSolver != null) {
                 refinementSolverFactory = SolverManager.resolveSolverFactory(refinementSolver);
             } else {
                 refinementSolverFactory = SolverManager.resolveSolverFactory(solver);
             }
 
-            final SafetyResult<?, ?> status;
-            if (algorithm == Algorithm.CEGAR) {
-                final CfaConfig<?, ?, ?> configuration = buildConfiguration(cfa, errLoc, abstractionSolverFactory, refinementSolverFactory);
-                status = check(configuration);
-                sw.stop();
-            } else {
-                throw new UnsupportedOperationException("Algorithm " + algorithm + " not supported");
+            if (runtimeMetrics != null) {
+                MetricRegistry.getInstance().setEnabled(true);
+                abstractionSolverFactory = MetricsSolverFactory.create(abstractionSolverFactory);
+                refinementSolverFactory = MetricsSolverFactory.create(refinementSolverFactory);
+            }
+
+            if (solverPreprocessing) {
+                abstractionSolverFactory = PreprocessingSolverFactory.create(abstractionSolverFactory);
             }
 
-            printResult(status, sw.elapsed(TimeUnit.MILLISECONDS));
-            if (status.isUnsafe() && cexfile != null) {
-                writeCex(status.asUnsafe());
+            SolverCache cache = null;
+            if (solverCache != null) {
+                cache = SolverCache.create(SOLVER_CACHE_CAPACITY, Path.of(solverCache));
+                abstractionSolverFactory = CachingSolverFactory.create(abstractionSolverFactory, cache);
+                refinementSolverFactory = CachingSolverFactory.create(refinementSolverFactory, cache);
+            }
+
+            try {
+                final SafetyResult<?, ?> status;
+                if (algorithm == Algorithm.CEGAR) {
+                    final CfaConfig<?, ?, ?> configuration = buildConfiguration(cfa, errLoc, abstractionSolverFactory, refinementSolverFactory);
+                    status = check(configuration);
+                    sw.stop();
+                } else {
+                    throw new UnsupportedOperationException("Algorithm " + algorithm + " not supported");
+                }
+
+                printResult(status, sw.elapsed(TimeUnit.MILLISECONDS));
+                if (status.isUnsafe() && cexfile != null) {
+                    writeCex(status.asUnsafe());
+                }
+            } finally {
+                // Persist the cached results and the metrics of failed runs too
+                if (cache != null) {
+                    cache.close();
+                    logger.write(Level.RESULT, "%s%n", cache);
+                }
+                if (runtimeMetrics != null) {
+                    MetricRegistry.getInstance().writeJson(new File(runtimeMetrics));
+                }
             }
         } catch (final Throwable ex) {
             printError(ex);
@@ -276,7 +325,8 @@ public class CfaCli {
                     refinementSolverFactory)
                     .precGranularity(precGranularity).search(search)
                     .predSplit(predSplit).encoding(encoding).maxEnum(maxEnum).initPrec(initPrec)
-                    .pruneStrategy(pruneStrategy).logger(logger).build(cfa, errLoc);
+                    .pruneStrategy(pruneStrategy).threads(threads)
+                    .incrementalRefinement(incrementalRefinement).logger(logger).build(cfa, errLoc);
         } catch (final Exception ex) {
             throw new Exception("Could not create configuration: " + ex.getMessage(), ex);
         }
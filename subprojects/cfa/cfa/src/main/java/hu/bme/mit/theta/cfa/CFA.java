@@ -121,11 +121,13 @@ public final class CFA {
     public static final class Loc {
 
         private final String name;
+        private final int id;
         private final Collection<Edge> inEdges;
         private final Collection<Edge> outEdges;
 
-        private Loc(final String name) {
+        private Loc(final String name, final int id) {
             this.name = checkNotNull(name);
+            this.id = id;
             inEdges = new LinkedList<>();
             outEdges = new LinkedList<>();
         }
@@ -136,6 +138,14 @@ public final class CFA {
             return name;
         }
 
+        /**
+         * Get the index of the location, which is unique within its CFA. Indices are assigned
+         * in creation order starting from zero, so they can be used to index arrays.
+         */
+        public int getId() {
+            return id;
+        }
+
         public Collection<Edge> getInEdges() {
             return Collections.unmodifiableCollection(inEdges);
         }
@@ -242,7 +252,7 @@ public final class CFA {
             checkNotBuilt();
             checkArgument(!locNames.contains(name),
                     "Location with name '" + name + "' already exists in the CFA.");
-            final Loc loc = new Loc(name);
+            final Loc loc = new Loc(name, locs.size());
             locs.add(loc);
             locNames.add(name);
             return loc;
@@ -21,7 +21,9 @@ import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.debug.ARGWebDebugger;
 import hu.bme.mit.theta.common.container.Containers;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.stream.Stream;
@@ -41,6 +43,7 @@ public final class ARG<S extends State, A extends Action> {
     public boolean initialized; // Set by ArgBuilder
     private int nextId = 0;
     private final PartialOrd<S> partialOrd;
+    private final List<List<ArgNode<S, A>>> pathsToRelabel = new ArrayList<>();
 
     private ARG(final PartialOrd<S> partialOrd) {
         initNodes = Containers.createSet();
@@ -136,6 +139,7 @@ public final class ARG<S extends State, A extends Action> {
         final ArgEdge<S, A> edge = new ArgEdge<>(source, action, target);
         source.outEdges.add(edge);
         target.inEdge = Optional.of(edge);
+        target.setParent(source);
         ARGWebDebugger.add(source, action, target);
         return edge;
     }
@@ -166,6 +170,7 @@ public final class ARG<S extends State, A extends Action> {
      */
     public void pruneAll() {
         initNodes.clear();
+        pathsToRelabel.clear();
         this.initialized = false;
     }
 
@@ -176,6 +181,37 @@ public final class ARG<S extends State, A extends Action> {
         node.expanded = false;
     }
 
+    /**
+     * Marks a path of non-initial nodes (each being the child of the previous
+     * one) for relabeling, i.e., recomputing their states with the next
+     * precision. See ArgBuilder#relabel.
+     */
+    public void markForRelabeling(final List<ArgNode<S, A>> path) {
+        checkArgument(!path.isEmpty(), "Empty path");
+        checkArgument(path.stream().allMatch(n -> n.arg == this), "Node does not belong to this ARG");
+        checkArgument(path.get(0).getInEdge().isPresent(), "Initial nodes cannot be relabeled");
+        pathsToRelabel.add(List.copyOf(path));
+    }
+
+    List<List<ArgNode<S, A>>> takePathsToRelabel() {
+        final List<List<ArgNode<S, A>>> paths = List.copyOf(pathsToRelabel);
+        pathsToRelabel.clear();
+        return paths;
+    }
+
+    // Checks whether the node is still in the ARG, i.e., none of its ancestors were pruned
+    boolean contains(final ArgNode<S, A> node) {
+        ArgNode<S, A> current = node;
+        while (current.getInEdge().isPresent()) {
+            final ArgEdge<S, A> edge = current.getInEdge().get();
+            if (!edge.getSource().outEdges.contains(edge)) {
+                return false;
+            }
+            current = edge.getSource();
+        }
+        return initNodes.contains(current);
+    }
+
     public void minimize() {
         initNodes.forEach(this::minimizeSubTree);
     }
@@ -16,13 +16,19 @@
 package hu.bme.mit.theta.analysis.algorithm;
 
 import hu.bme.mit.theta.analysis.*;
+import hu.bme.mit.theta.common.metrics.Counter;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
+import hu.bme.mit.theta.common.metrics.Timer;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -30,6 +36,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public final class ArgBuilder<S extends State, A extends Action, P extends Prec> {
 
+    private static final MetricRegistry METRICS = MetricRegistry.getInstance();
+    private static final Timer TRANS_FUNC_TIMER = METRICS.timer("transFunc.getSuccStates");
+    private static final Timer PARTIAL_ORD_TIMER = METRICS.timer("partialOrd.isLeq");
+    private static final Counter EXPANSIONS = METRICS.counter("argBuilder.expansions");
+    private static final Counter NODES = METRICS.counter("argBuilder.nodes");
+
     private final LTS<? super S, A> lts;
     private final Analysis<S, ? super A, ? super P> analysis;
     private final Predicate<? super S> target;
@@ -84,20 +96,56 @@ public final class ArgBuilder<S extends State, A extends Action, P extends Prec>
     public Collection<ArgNode<S, A>> expand(final ArgNode<S, A> node, final P prec) {
         checkNotNull(node);
         checkNotNull(prec);
-        final Collection<ArgNode<S, A>> newSuccNodes = new ArrayList<>();
-        final S state = node.getState();
+        final Collection<? extends A> actions = getEnabledActions(node, prec);
+        return expand(node, actions, getSuccStates(node.getState(), actions, prec, analysis.getTransFunc()));
+    }
+
+    /**
+     * Returns the actions that still have to be explored from a node.
+     */
+    public Collection<? extends A> getEnabledActions(final ArgNode<S, A> node, final P prec) {
+        checkNotNull(node);
+        checkNotNull(prec);
         final Collection<A> exploredActions = node.getOutEdges().map(ArgEdge::getAction).collect(Collectors.toSet());
-        final Collection<? extends A> actions = lts.getEnabledActionsFor(state, exploredActions, prec);
-        final TransFunc<S, ? super A, ? super P> transFunc = analysis.getTransFunc();
+        return lts.getEnabledActionsFor(node.getState(), exploredActions, prec);
+    }
+
+    /**
+     * Computes the successor states of a state for each action (in the iteration order of the actions) with a given
+     * transfer function. Does not modify the ARG, so it can be called with a separate transfer function (and
+     * solver) on a different thread than the one building the ARG.
+     */
+    public static <S extends State, A extends Action, P extends Prec> List<Collection<? extends S>> getSuccStates(
+            final S state, final Collection<? extends A> actions, final P prec,
+            final TransFunc<S, ? super A, ? super P> transFunc) {
+        final List<Collection<? extends S>> succStates = new ArrayList<>(actions.size());
         for (final A action : actions) {
-            final Collection<? extends S> succStates = transFunc.getSuccStates(state, action, prec);
-            for (final S succState : succStates) {
+            final long start = TRANS_FUNC_TIMER.start();
+            final Collection<? extends S> actionSuccStates = transFunc.getSuccStates(state, action, prec);
+            TRANS_FUNC_TIMER.stop(start);
+            succStates.add(actionSuccStates);
+        }
+        return succStates;
+    }
+
+    /**
+     * Expands a node with successor states computed previously by
+     * {@link #getSuccStates(State, Collection, Prec, TransFunc)} for the given actions.
+     */
+    public Collection<ArgNode<S, A>> expand(final ArgNode<S, A> node, final Collection<? extends A> actions,
+                                            final List<? extends Collection<? extends S>> succStates) {
+        checkNotNull(node);
+        checkArgument(actions.size() == succStates.size(), "Successor states do not match actions");
+        final Collection<ArgNode<S, A>> newSuccNodes = new ArrayList<>();
+        final Iterator<? extends Collection<? extends S>> succStatesIt = succStates.iterator();
+        for (final A action : actions) {
+            for (final S succState : succStatesIt.next()) {
                 if (excludeBottom && succState.isBottom()) {
                     continue;
                 }
                 // Only add state if there is no covering sibling (with the same action)
                 if (node.getSuccNodes().noneMatch(n -> n.getInEdge().get().getAction().equals(action) &&
-                        analysis.getPartialOrd().isLeq(succState, n.getState()))) {
+                        isLeq(succState, n.getState()))) {
                     final boolean isTarget = target.test(succState);
                     final ArgNode<S, A> newNode = node.arg.createSuccNode(node, action, succState, isTarget);
                     newSuccNodes.add(newNode);
@@ -105,8 +153,67 @@ public final class ArgBuilder<S extends State, A extends Action, P extends Prec>
             }
         }
         node.expanded = true;
+        EXPANSIONS.inc();
+        NODES.add(newSuccNodes.size());
 
         return newSuccNodes;
     }
 
+    private boolean isLeq(final S state1, final S state2) {
+        final long start = PARTIAL_ORD_TIMER.start();
+        final boolean leq = analysis.getPartialOrd().isLeq(state1, state2);
+        PARTIAL_ORD_TIMER.stop(start);
+        return leq;
+    }
+
+    /**
+     * Relabels the paths marked by {@link ARG#markForRelabeling(List)}: the states along each path are recomputed
+     * with the given precision. If the path becomes infeasible, the nodes before the first bottom state get their
+     * new states (uncovering the nodes they covered) and only the subtree of the infeasible node is pruned.
+     * Otherwise, or if the new states cannot be matched with the nodes (the transfer function does not give a
+     * single state or the target status changes), the path is pruned from its first node. Returns the number of
+     * relabeled nodes.
+     */
+    public int relabel(final ARG<S, A> arg, final P prec) {
+        checkNotNull(arg);
+        checkNotNull(prec);
+        int relabeled = 0;
+        for (final List<ArgNode<S, A>> path : arg.takePathsToRelabel()) {
+            if (arg.contains(path.get(path.size() - 1))) {
+                relabeled += relabel(arg, path, prec);
+            }
+        }
+        return relabeled;
+    }
+
+    private int relabel(final ARG<S, A> arg, final List<ArgNode<S, A>> path, final P prec) {
+        final List<S> newStates = new ArrayList<>(path.size());
+        S state = path.get(0).getParent().get().getState();
+        for (final ArgNode<S, A> node : path) {
+            final Collection<? extends S> succStates = analysis.getTransFunc()
+                    .getSuccStates(state, node.getInEdge().get().getAction(), prec);
+            if (succStates.size() != 1) {
+                break;
+            }
+            state = succStates.iterator().next();
+            if (state.isBottom()) {
+                for (int i = 0; i < newStates.size(); i++) {
+                    final ArgNode<S, A> relabeledNode = path.get(i);
+                    if (!newStates.get(i).equals(relabeledNode.getState())) {
+                        relabeledNode.clearCoveredNodes();
+                        relabeledNode.setState(newStates.get(i));
+                    }
+                }
+                arg.prune(node);
+                return newStates.size();
+            }
+            if (target.test(state) != node.isTarget()) {
+                break;
+            }
+            newStates.add(state);
+        }
+        arg.prune(path.get(0));
+        return 0;
+    }
+
 }
@@ -16,16 +16,19 @@
 package hu.bme.mit.theta.analysis.algorithm;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.expr.BasicExprState;
 import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprOrd;
 import hu.bme.mit.theta.analysis.expr.ExprState;
@@ -77,13 +80,17 @@ public final class ArgChecker {
 
     private boolean nodeIsWellLabeledForCoverage(final ArgNode<? extends ExprState, ?> node) {
         final Optional<? extends ArgNode<? extends ExprState, ?>> optCoveringNode = node.getCoveringNode();
-        if (optCoveringNode.isPresent()) {
+        if (optCoveringNode.isEmpty()) {
+            return true;
+        } else if (node.isCoveredByUnion()) {
+            final List<? extends ArgNode<? extends ExprState, ?>> coveringNodes = node.getCoveringNodes()
+                    .collect(toList());
+            return isCoveredByUnion(node, coveringNodes)
+                    && coveringNodes.stream().noneMatch(ArgNode::isExcluded);
+        } else {
             final ArgNode<? extends ExprState, ?> coveringNode = optCoveringNode.get();
             return isCoveredBy(node, coveringNode) && !coveringNode.isExcluded();
-        } else {
-            return true;
         }
-
     }
 
     private boolean isCoveredBy(final ArgNode<? extends ExprState, ?> node,
@@ -91,6 +98,13 @@ public final class ArgChecker {
         return partialOrd.isLeq(node.getState(), coveringNode.getState());
     }
 
+    private boolean isCoveredByUnion(final ArgNode<? extends ExprState, ?> node,
+                                     final List<? extends ArgNode<? extends ExprState, ?>> coveringNodes) {
+        final ExprState union = BasicExprState.of(Or(coveringNodes.stream()
+                .map(n -> n.getState().toExpr()).collect(toList())));
+        return partialOrd.isLeq(node.getState(), union);
+    }
+
     ////
 
     private boolean nodeIsWellLabeledForActions(
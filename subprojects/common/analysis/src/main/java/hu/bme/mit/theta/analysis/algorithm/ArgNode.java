@@ -20,13 +20,19 @@ import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.container.Containers;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
 
 public final class ArgNode<S extends State, A extends Action> {
 
@@ -36,6 +42,8 @@ public final class ArgNode<S extends State, A extends Action> {
     private final int depth;
     private final boolean target;
     private boolean canCover = true;
+    // Whether a proper ancestor is subsumed, kept up to date whenever subsumption changes
+    private boolean excludedAncestor = false;
 
     private S state;
 
@@ -43,6 +51,8 @@ public final class ArgNode<S extends State, A extends Action> {
     final Collection<ArgEdge<S, A>> outEdges;
 
     Optional<ArgNode<S, A>> coveringNode; // Set by ARG
+    // The further covering nodes if the node is covered by a union of states
+    private List<ArgNode<S, A>> unionCoveringNodes;
     final Collection<ArgNode<S, A>> coveredNodes;
 
     public boolean expanded; // Set by ArgBuilder
@@ -56,6 +66,7 @@ public final class ArgNode<S extends State, A extends Action> {
         inEdge = Optional.empty();
         outEdges = new ArrayList<>();
         coveringNode = Optional.empty();
+        unionCoveringNodes = List.of();
         coveredNodes = Containers.createSet();
         expanded = false;
     }
@@ -80,12 +91,14 @@ public final class ArgNode<S extends State, A extends Action> {
 
     public void setState(final S state) {
         checkNotNull(state);
+        final boolean wasExcluded = isExcluded();
         this.state = state;
+        updateExclusion(wasExcluded);
     }
 
     public boolean mayCover(final ArgNode<S, A> node) {
         if (arg.getPartialOrd().isLeq(node.getState(), this.getState())) {
-            return ancestors().noneMatch(n -> n.equals(node) || n.isSubsumed());
+            return !isExcluded() && !node.isAncestorOf(this);
         } else {
             return false;
         }
@@ -103,29 +116,78 @@ public final class ArgNode<S extends State, A extends Action> {
         if (!node.canCover) return;
         checkNotNull(node);
         checkArgument(node.arg == this.arg, "Nodes belong to different ARGs");
-        unsetCoveringNode();
+        final boolean wasExcluded = isExcluded();
+        detachFromCoveringNodes(null);
         coveringNode = Optional.of(node);
         node.coveredNodes.add(this);
+        updateExclusion(wasExcluded);
+    }
+
+    /**
+     * Covers the node by the union of the states of the given nodes, i.e., the state of the node
+     * is less than or equal to the union of their states, but not necessarily to any one of them.
+     * The first node becomes the covering node, and the node is among the covered nodes of each of
+     * them, so refining any of them may uncover the node. Use {@link #getCoveringNodes()} to get
+     * all of them.
+     */
+    public void setCoveringNodes(final List<ArgNode<S, A>> nodes) {
+        checkArgument(!nodes.isEmpty(), "No covering nodes");
+        if (nodes.size() == 1) {
+            setCoveringNode(nodes.get(0));
+            return;
+        }
+        for (final ArgNode<S, A> node : nodes) {
+            checkArgument(node.arg == this.arg, "Nodes belong to different ARGs");
+            if (!node.canCover) return;
+        }
+        final boolean wasExcluded = isExcluded();
+        detachFromCoveringNodes(null);
+        coveringNode = Optional.of(nodes.get(0));
+        unionCoveringNodes = List.copyOf(nodes.subList(1, nodes.size()));
+        nodes.forEach(node -> node.coveredNodes.add(this));
+        updateExclusion(wasExcluded);
     }
 
     public void unsetCoveringNode() {
         if (coveringNode.isPresent()) {
-            coveringNode.get().coveredNodes.remove(this);
+            final boolean wasExcluded = isExcluded();
+            detachFromCoveringNodes(null);
             coveringNode = Optional.empty();
+            updateExclusion(wasExcluded);
         }
     }
 
     public void clearCoveredNodes() {
-        coveredNodes.forEach(n -> n.coveringNode = Optional.empty());
+        coveredNodes.forEach(n -> {
+            final boolean wasExcluded = n.isExcluded();
+            n.detachFromCoveringNodes(this);
+            n.coveringNode = Optional.empty();
+            n.updateExclusion(wasExcluded);
+        });
         coveredNodes.clear();
     }
 
     public void cover(final ArgNode<S, A> node) {
         checkArgument(!node.isExcluded(), "Node is not excluded");
-        final Collection<ArgNode<S, A>> oldCoveredNodes = new ArrayList<>(coveredNodes);
+        // The coverings of the old covered nodes, with this node replaced by its covering node
+        final Map<ArgNode<S, A>, List<ArgNode<S, A>>> oldCoverings = new LinkedHashMap<>();
+        coveredNodes.forEach(n -> oldCoverings.put(n,
+                n.getCoveringNodes().map(c -> c == this ? node : c).collect(toList())));
         descendants().forEach(ArgNode::clearCoveredNodes);
         setCoveringNode(node);
-        oldCoveredNodes.forEach(n -> n.setCoveringNode(node));
+        oldCoverings.forEach((n, coverers) -> {
+            // Coverers in the subtree of this node are excluded now, as in the case of single coverers
+            if (coverers.stream().noneMatch(ArgNode::isExcluded)) {
+                n.setCoveringNodes(coverers);
+            }
+        });
+    }
+
+    // Removes the node from the covered nodes of its covering nodes, except for the given one
+    private void detachFromCoveringNodes(final ArgNode<S, A> except) {
+        coveringNode.filter(c -> c != except).ifPresent(c -> c.coveredNodes.remove(this));
+        unionCoveringNodes.stream().filter(c -> c != except).forEach(c -> c.coveredNodes.remove(this));
+        unionCoveringNodes = List.of();
     }
 
     ////
@@ -142,10 +204,32 @@ public final class ArgNode<S extends State, A extends Action> {
         return outEdges.stream();
     }
 
+    /**
+     * Gets the covering node. If the node is covered by a union (see {@link #isCoveredByUnion()}),
+     * this is only the first node of the union, whose state alone does not necessarily cover the
+     * state of this node.
+     */
     public Optional<ArgNode<S, A>> getCoveringNode() {
         return coveringNode;
     }
 
+    /**
+     * Gets all the covering nodes: none if the node is not covered, the covering node if the node
+     * is covered by a single node, and all the nodes of the union otherwise (see
+     * {@link #setCoveringNodes(List)}).
+     */
+    public Stream<ArgNode<S, A>> getCoveringNodes() {
+        return coveringNode.map(c -> Stream.concat(Stream.of(c), unionCoveringNodes.stream()))
+                .orElseGet(Stream::empty);
+    }
+
+    /**
+     * Checks if the node is covered by the union of the states of several nodes.
+     */
+    public boolean isCoveredByUnion() {
+        return !unionCoveringNodes.isEmpty();
+    }
+
     public Stream<ArgNode<S, A>> getCoveredNodes() {
         return coveredNodes.stream();
     }
@@ -190,7 +274,7 @@ public final class ArgNode<S extends State, A extends Action> {
      * excluded parent.
      */
     public boolean isExcluded() {
-        return ancestors().anyMatch(ArgNode::isSubsumed);
+        return excludedAncestor || isSubsumed();
     }
 
     /**
@@ -267,6 +351,49 @@ public final class ArgNode<S extends State, A extends Action> {
         }
     }
 
+    /**
+     * Checks if the node is an ancestor of (or equal to) the given node. This is constant time if this node is a
+     * leaf, and linear in the difference of the depths otherwise.
+     */
+    public boolean isAncestorOf(final ArgNode<S, A> node) {
+        if (depth >= node.depth || isLeaf()) {
+            return this == node;
+        }
+        ArgNode<S, A> current = node;
+        while (current.depth > depth) {
+            current = current.inEdge.get().getSource();
+        }
+        return current == this;
+    }
+
+    ////
+
+    // Called by ARG when the node gets its parent
+    void setParent(final ArgNode<S, A> parent) {
+        excludedAncestor = parent.isExcluded();
+    }
+
+    // Propagates a change of isExcluded() to the descendants whose exclusion depends on this node
+    private void updateExclusion(final boolean wasExcluded) {
+        if (isExcluded() == wasExcluded) {
+            return;
+        }
+        final Deque<ArgNode<S, A>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            final ArgNode<S, A> parent = stack.pop();
+            final boolean excluded = parent.isExcluded();
+            for (final ArgEdge<S, A> edge : parent.outEdges) {
+                final ArgNode<S, A> child = edge.getTarget();
+                final boolean childWasExcluded = child.isExcluded();
+                child.excludedAncestor = excluded;
+                if (child.isExcluded() != childWasExcluded) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
     ////
 
     @Override
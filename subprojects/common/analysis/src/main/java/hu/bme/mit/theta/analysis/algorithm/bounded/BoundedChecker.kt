@@ -23,6 +23,7 @@ import hu.bme.mit.theta.analysis.expr.ExprAction
 import hu.bme.mit.theta.analysis.expr.ExprState
 import hu.bme.mit.theta.analysis.unit.UnitPrec
 import hu.bme.mit.theta.common.logging.Logger
+import hu.bme.mit.theta.core.model.ImmutableValuation
 import hu.bme.mit.theta.core.model.Valuation
 import hu.bme.mit.theta.core.type.Expr
 import hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Eq
@@ -33,22 +34,28 @@ import hu.bme.mit.theta.core.utils.indexings.VarIndexing
 import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory
 import hu.bme.mit.theta.solver.ItpSolver
 import hu.bme.mit.theta.solver.Solver
+import hu.bme.mit.theta.solver.SolverBase
+import hu.bme.mit.theta.solver.SolverStatus
 import hu.bme.mit.theta.solver.utils.WithPushPop
+import com.google.common.base.Stopwatch
 import java.util.*
+import java.util.concurrent.TimeUnit
 
 /**
  * A checker for bounded model checking.
  *
  * @param <S> The state type, must inherit from ExprState.
  * @param <A> The action type, must inherit from StmtAction.
- * @param monolithicExpr The monolithic expression to be checked
+ * @param monolithicExpr The monolithic expression to be checked. It is reduced first, see [reduce].
  * @param shouldGiveUp A function determining whether to give up checking based on a given iteration count. Use this
  *                     to implement custom timeout or thread interruption checking subroutines.
  * @param bmcSolver The solver for bounded model checking.
  * @param bmcEnabled A function determining whether bounded model checking is enabled. Cannot be disabled per-iteration.
  *                   Use the capabilities of the lambda parameter to decide on enabledness based on external factors,
  *                   such as available memory or time limit remaining.
- * @param lfPathOnly A function determining whether to consider only loop-free paths.
+ * @param lfPathOnly A function determining whether to consider only loop-free paths. Paths are loop-free if no
+ *                   two of their states agree on the cone of influence of the property. The disequalities
+ *                   expressing this are added lazily, only for pairs of states that are equal in a model.
  * @param itpSolver The solver for interpolation, used in IMC.
  * @param imcEnabled A function determining whether IMC is enabled. Can be different per-iteration.
  * @param indSolver The solver for induction checking in KIND.
@@ -72,11 +79,15 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
     private val logger: Logger,
 ) : SafetyChecker<S, A, UnitPrec> {
 
-    private val vars = monolithicExpr.vars()
-    private val unfoldedInitExpr = PathUtils.unfold(monolithicExpr.initExpr, 0)
-    private val unfoldedPropExpr = { i: VarIndexing -> PathUtils.unfold(monolithicExpr.propExpr, i) }
+    private val reduction = monolithicExpr.reduce()
+    private val reducedExpr = reduction.monolithicExpr
+    private val vars = reducedExpr.vars()
+    private val coiVars = reducedExpr.coiVars()
+    private val loopFreePairs = mutableSetOf<Pair<Int, Int>>()
+    private val unfoldedInitExpr = PathUtils.unfold(reducedExpr.initExpr, 0)
+    private val unfoldedPropExpr = { i: VarIndexing -> PathUtils.unfold(reducedExpr.propExpr, i) }
     private val indices = mutableListOf(VarIndexingFactory.indexing(0))
-    private val exprs = mutableListOf<Expr<BoolType>>()
+    private val exprs = mutableListOf<List<Expr<BoolType>>>()
     private var kindLastIterLookup = 0
 
     init {
@@ -88,16 +99,23 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
     override fun check(prec: UnitPrec?): SafetyResult<S, A> {
         var iteration = 0
 
+        logger.write(Logger.Level.MAINSTEP,
+            "Reduced monolithic expression: ${vars.size} of ${monolithicExpr.vars().size} variables kept " +
+                "(${reduction.constants.decls.size} constant, ${reduction.removedVars.size} outside the cone of " +
+                "influence), ${reduction.transConjuncts.size} transition conjuncts\n")
+
         val isBmcEnabled = bmcEnabled() // we don't allow per-iteration setting of bmc enabledness
         bmcSolver?.add(unfoldedInitExpr)
 
+        initial(isBmcEnabled)?.let { return it }
+
         while (!shouldGiveUp(iteration)) {
             iteration++
             logger.write(Logger.Level.MAINSTEP, "Starting iteration $iteration\n")
 
-            exprs.add(PathUtils.unfold(monolithicExpr.transExpr, indices.last()))
+            exprs.add(reduction.transConjuncts.map { PathUtils.unfold(it, indices.last()) })
 
-            indices.add(indices.last().add(monolithicExpr.offsetIndex))
+            indices.add(indices.last().add(reducedExpr.offsetIndex))
 
             if (isBmcEnabled) {
                 bmc()?.let { return it }
@@ -124,17 +142,9 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
 
         bmcSolver.add(exprs.last())
 
-        if (lfPathOnly()) { // indices contains currIndex as last()
-            for (indexing in indices) {
-                if (indexing != indices.last()) {
-                    val allVarsSame = And(vars.map {
-                        Eq(PathUtils.unfold(it.ref, indexing), PathUtils.unfold(it.ref, indices.last()))
-                    })
-                    bmcSolver.add(Not(allVarsSame))
-                }
-            }
-
-            if (bmcSolver.check().isUnsat) {
+        if (lfPathOnly() && coiVars.isNotEmpty()) { // indices contains currIndex as last()
+            val loopFree = checkLoopFree(bmcSolver, loopFreePairs) { bmcSolver.add(it) }
+            if (loopFree.isUnsat) {
                 logger.write(Logger.Level.MAINSTEP, "Safety proven in BMC step\n")
                 return SafetyResult.safe()
             }
@@ -143,7 +153,7 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
         return WithPushPop(bmcSolver).use {
             bmcSolver.add(Not(unfoldedPropExpr(indices.last())))
 
-            if (bmcSolver.check().isSat) {
+            if (timedCheck("BMC", bmcSolver).isSat) {
                 val trace = getTrace(bmcSolver.model)
                 logger.write(Logger.Level.MAINSTEP, "CeX found in BMC step (length ${trace.length()})\n")
                 SafetyResult.unsafe(trace)
@@ -151,6 +161,31 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
         }
     }
 
+    /**
+     * Checks whether an initial state violates the property. The iterations only check the property at the end of
+     * paths of length at least one, and the loop-free check proves safety only if all shorter paths were checked.
+     */
+    private fun initial(isBmcEnabled: Boolean): SafetyResult<S, A>? {
+        val solver: SolverBase = (if (isBmcEnabled) bmcSolver else itpSolver) ?: return null
+        return WithPushPop(solver).use {
+            val notProp = Not(unfoldedPropExpr(indices.last()))
+            if (isBmcEnabled) {
+                bmcSolver!!.add(notProp) // already holds the initial expression
+            } else {
+                val itpSolver = this.itpSolver!!
+                val a = itpSolver.createMarker()
+                itpSolver.add(a, unfoldedInitExpr)
+                itpSolver.add(a, notProp)
+            }
+
+            if (timedCheck("Initial", solver).isSat) {
+                val trace = getTrace(solver.model)
+                logger.write(Logger.Level.MAINSTEP, "CeX found in initial state\n")
+                SafetyResult.unsafe(trace)
+            } else null
+        }
+    }
+
     private fun kind(): SafetyResult<S, A>? {
         val indSolver = this.indSolver!!
 
@@ -162,7 +197,7 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
         return WithPushPop(indSolver).use {
             indSolver.add(Not(unfoldedPropExpr(indices.last())))
 
-            if (indSolver.check().isUnsat) {
+            if (timedCheck("k-induction", indSolver).isUnsat) {
                 logger.write(Logger.Level.MAINSTEP, "Safety proven in k-induction step\n")
                 SafetyResult.safe<S, A>()
             } else null
@@ -183,20 +218,11 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
 
         itpSolver.add(a, unfoldedInitExpr)
         itpSolver.add(a, exprs[0])
-        itpSolver.add(b, exprs.subList(1, exprs.size))
+        itpSolver.add(b, exprs.subList(1, exprs.size).flatten())
 
-        if (lfPathOnly()) { // indices contains currIndex as last()
+        if (lfPathOnly() && coiVars.isNotEmpty()) { // indices contains currIndex as last()
             itpSolver.push()
-            for (indexing in indices) {
-                if (indexing != indices.last()) {
-                    val allVarsSame = And(vars.map {
-                        Eq(PathUtils.unfold(it.ref, indexing), PathUtils.unfold(it.ref, indices.last()))
-                    })
-                    itpSolver.add(a, Not(allVarsSame))
-                }
-            }
-
-            if (itpSolver.check().isUnsat) {
+            if (checkLoopFree(itpSolver, mutableSetOf()) { itpSolver.add(a, it) }.isUnsat) {
                 itpSolver.pop()
                 itpSolver.pop()
                 logger.write(Logger.Level.MAINSTEP, "Safety proven in IMC/BMC step\n")
@@ -207,7 +233,7 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
 
         itpSolver.add(b, Not(unfoldedPropExpr(indices.last())))
 
-        val status = itpSolver.check()
+        val status = timedCheck("IMC", itpSolver)
 
         if (status.isSat) {
             val trace = getTrace(itpSolver.model)
@@ -239,7 +265,7 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
             itpSolver.push()
             itpSolver.add(a, itpFormula)
             itpSolver.add(a, exprs[0])
-            itpSolver.add(b, exprs.subList(1, exprs.size))
+            itpSolver.add(b, exprs.subList(1, exprs.size).flatten())
             itpSolver.add(b, Not(unfoldedPropExpr(indices.last())))
         }
 
@@ -249,12 +275,57 @@ class BoundedChecker<S : ExprState, A : ExprAction> @JvmOverloads constructor(
     }
 
 
+    /**
+     * Checks the solver, logging the time it took at the current depth, so that encodings can be compared.
+     */
+    private fun timedCheck(name: String, solver: SolverBase): SolverStatus {
+        val stopwatch = Stopwatch.createStarted()
+        val status = solver.check()
+        logger.write(Logger.Level.SUBSTEP,
+            "\t$name check at depth ${indices.size - 1}: $status, ${stopwatch.elapsed(TimeUnit.MILLISECONDS)} ms\n")
+        return status
+    }
+
+    /**
+     * Checks whether a loop-free path of the current length exists. Instead of constraining every pair of states to
+     * be different up front, the solver is checked first, and disequalities are only added for the pairs of states
+     * that are equal in the model, until the path in the model is loop-free or no such path exists.
+     */
+    private fun checkLoopFree(solver: SolverBase, addedPairs: MutableSet<Pair<Int, Int>>,
+        add: (Expr<BoolType>) -> Unit): SolverStatus {
+        val stopwatch = Stopwatch.createStarted()
+        var checks = 0
+        var status: SolverStatus
+        while (true) {
+            status = solver.check()
+            checks++
+            if (status.isUnsat) break
+            val stateVals = indices.map { PathUtils.extractValuation(solver.model, it, coiVars) }
+            val violated = (1 until indices.size).flatMap { j ->
+                (0 until j).filter { i -> (i to j) !in addedPairs && stateVals[i] == stateVals[j] }.map { it to j }
+            }
+            if (violated.isEmpty()) break
+            for ((i, j) in violated) {
+                val allVarsSame = And(coiVars.map {
+                    Eq(PathUtils.unfold(it.ref, indices[i]), PathUtils.unfold(it.ref, indices[j]))
+                })
+                add(Not(allVarsSame))
+                addedPairs.add(i to j)
+            }
+        }
+        logger.write(Logger.Level.SUBSTEP,
+            "\tLoop-free check at depth ${indices.size - 1}: $status after $checks checks, " +
+                "${addedPairs.size} disequalities, ${stopwatch.elapsed(TimeUnit.MILLISECONDS)} ms\n")
+        return status
+    }
+
     private fun getTrace(model: Valuation): Trace<S, A> {
         val stateList = LinkedList<S>()
         val actionList = LinkedList<A>()
         var lastValuation: Valuation? = null
         for (i in indices) {
-            val valuation = PathUtils.extractValuation(model, i, vars)
+            val valuation = ImmutableValuation.from(
+                PathUtils.extractValuation(model, i, vars).toMap() + reduction.constants.toMap())
             stateList.add(valToState(valuation))
             if (lastValuation != null) {
                 actionList.add(biValToAction(lastValuation, valuation))
@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package hu.bme.mit.theta.analysis.algorithm.bounded
+
+import com.google.common.base.Preconditions.checkArgument
+import hu.bme.mit.theta.core.decl.Decls.Var
+import hu.bme.mit.theta.core.decl.VarDecl
+import hu.bme.mit.theta.core.model.Valuation
+import hu.bme.mit.theta.core.stmt.Stmt
+import hu.bme.mit.theta.core.stmt.Stmts.Assign
+import hu.bme.mit.theta.core.type.Expr
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.*
+import hu.bme.mit.theta.core.type.booltype.BoolType
+import hu.bme.mit.theta.core.type.bvtype.BvExprs.BvType
+import hu.bme.mit.theta.core.type.bvtype.BvLitExpr
+import hu.bme.mit.theta.core.type.bvtype.BvType
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Int
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr
+import hu.bme.mit.theta.core.type.inttype.IntType
+import hu.bme.mit.theta.core.utils.BvUtils
+import java.math.BigInteger
+import hu.bme.mit.theta.core.type.bvtype.BvExprs.Eq as BvEq
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Eq as IntEq
+
+/**
+ * The representations of a program counter in a [MonolithicExpr].
+ */
+enum class LocationEncodingType {
+
+    /** A single unbounded integer variable. */
+    INTEGER,
+
+    /** A single bitvector variable, wide enough to hold every location. */
+    BITVECTOR,
+
+    /** A Boolean variable for every location, exactly one of which holds. */
+    ONE_HOT
+}
+
+/**
+ * A program counter over the locations 0 until [size], represented according to [type]. The variables of the
+ * encoding are named after [name] (one-hot variables get the location as a suffix).
+ */
+class LocationEncoding(val name: String, val size: Int, val type: LocationEncodingType) {
+
+    private val intVar: VarDecl<IntType>? = if (type == LocationEncodingType.INTEGER) Var(name, Int()) else null
+    private val bvVar: VarDecl<BvType>? =
+        if (type == LocationEncodingType.BITVECTOR) Var(name, BvType(bitWidth(size))) else null
+    private val boolVars: List<VarDecl<BoolType>> =
+        if (type == LocationEncodingType.ONE_HOT) (0 until size).map { Var("${name}_$it", Bool()) } else emptyList()
+
+    val vars: List<VarDecl<*>> = listOfNotNull(intVar, bvVar) + boolVars
+
+    init {
+        checkArgument(size > 0, "At least one location is needed")
+    }
+
+    /**
+     * Returns an expression that holds iff the program counter is at the given location.
+     */
+    fun isAt(loc: Int): Expr<BoolType> {
+        checkArgument(loc in 0 until size, "Location $loc out of range")
+        return when (type) {
+            LocationEncodingType.INTEGER -> IntEq(intVar!!.ref, Int(loc))
+            LocationEncodingType.BITVECTOR -> BvEq(bvVar!!.ref, bvLit(loc))
+            LocationEncodingType.ONE_HOT -> boolVars[loc].ref
+        }
+    }
+
+    /**
+     * Returns an expression describing the program counter being at the given location, suitable for initial
+     * conditions (for a one-hot encoding, this also constrains every other location variable to false).
+     */
+    fun initially(loc: Int): Expr<BoolType> = when (type) {
+        LocationEncodingType.ONE_HOT -> And(boolVars.mapIndexed { i, v -> if (i == loc) v.ref else Not(v.ref) })
+        else -> isAt(loc)
+    }
+
+    /**
+     * Returns the statements moving the program counter from one location to another. A one-hot encoding only
+     * assigns the two affected variables, the others keep their values.
+     */
+    fun move(from: Int, to: Int): List<Stmt> {
+        checkArgument(to in 0 until size, "Location $to out of range")
+        return when (type) {
+            LocationEncodingType.INTEGER -> listOf(Assign(intVar!!, Int(to)))
+            LocationEncodingType.BITVECTOR -> listOf(Assign(bvVar!!, bvLit(to)))
+            LocationEncodingType.ONE_HOT ->
+                if (from == to) emptyList() else listOf(Assign(boolVars[from], False()), Assign(boolVars[to], True()))
+        }
+    }
+
+    /**
+     * Returns the location of the program counter in a valuation (matching variables by name), or null if the
+     * valuation does not determine it.
+     */
+    fun valueOf(valuation: Valuation): Int? {
+        val values = valuation.toMap().entries.associate { it.key.name to it.value }
+        return when (type) {
+            LocationEncodingType.INTEGER -> (values[name] as IntLitExpr?)?.value?.toInt()
+            LocationEncodingType.BITVECTOR ->
+                (values[name] as BvLitExpr?)?.let { BvUtils.neutralBvLitExprToBigInteger(it).toInt() }
+
+            LocationEncodingType.ONE_HOT -> boolVars.indexOfFirst { values[it.name] == True() }.takeIf { it >= 0 }
+        }
+    }
+
+    private fun bvLit(loc: Int) = BvUtils.bigIntegerToNeutralBvLitExpr(BigInteger.valueOf(loc.toLong()), bitWidth(size))
+
+    companion object {
+
+        private fun bitWidth(size: Int) = maxOf(1, 32 - Integer.numberOfLeadingZeros(size - 1))
+    }
+}
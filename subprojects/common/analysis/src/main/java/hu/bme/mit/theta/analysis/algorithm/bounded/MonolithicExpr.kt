@@ -32,4 +32,11 @@ data class MonolithicExpr(
     fun vars(): Collection<VarDecl<*>> {
         return getVars(initExpr) union getVars(transExpr) union getVars(propExpr)
     }
+
+    /**
+     * Returns the cone of influence of the property, see [coneOfInfluence].
+     */
+    fun coiVars(): Collection<VarDecl<*>> {
+        return coneOfInfluence(conjunctsOf(initExpr), conjunctsOf(transExpr), propExpr)
+    }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.bounded
+
+import hu.bme.mit.theta.core.decl.Decl
+import hu.bme.mit.theta.core.decl.VarDecl
+import hu.bme.mit.theta.core.model.BasicSubstitution
+import hu.bme.mit.theta.core.model.ImmutableValuation
+import hu.bme.mit.theta.core.model.Valuation
+import hu.bme.mit.theta.core.type.Expr
+import hu.bme.mit.theta.core.type.LitExpr
+import hu.bme.mit.theta.core.type.abstracttype.EqExpr
+import hu.bme.mit.theta.core.type.anytype.PrimeExpr
+import hu.bme.mit.theta.core.type.anytype.RefExpr
+import hu.bme.mit.theta.core.type.booltype.AndExpr
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.And
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.True
+import hu.bme.mit.theta.core.type.booltype.BoolType
+import hu.bme.mit.theta.core.type.fptype.FpAssignExpr
+import hu.bme.mit.theta.core.type.fptype.FpType
+import hu.bme.mit.theta.core.utils.ExprUtils
+
+/**
+ * The result of reducing a monolithic expression.
+ *
+ * @param monolithicExpr The reduced expression, equisafe with the original one.
+ * @param transConjuncts The conjuncts of the reduced transition expression, to be added to solvers one by one.
+ * @param constants The variables that were folded, with their values.
+ * @param removedVars The variables outside the cone of influence of the property that were removed.
+ */
+data class MonolithicExprReduction(
+    val monolithicExpr: MonolithicExpr,
+    val transConjuncts: List<Expr<BoolType>>,
+    val constants: Valuation,
+    val removedVars: Collection<VarDecl<*>>
+)
+
+/**
+ * Reduces the expression in two steps. First, variables that are never assigned by the transition expression
+ * and are fixed to a literal by the initial expression are replaced by the literal. Second, variables outside the
+ * cone of influence of the property are removed together with their assignments.
+ */
+fun MonolithicExpr.reduce(): MonolithicExprReduction {
+    val constants = findConstants()
+    val substitution = BasicSubstitution.builder().putAll(constants.toMap().toMap<Decl<*>, Expr<*>>()).build()
+    val folded = if (constants.decls.isEmpty()) this else MonolithicExpr(
+        ExprUtils.simplify(substitution.apply(initExpr)),
+        ExprUtils.simplify(substitution.apply(transExpr)),
+        ExprUtils.simplify(substitution.apply(propExpr)),
+        offsetIndex)
+
+    val initConjuncts = conjunctsOf(folded.initExpr)
+    val transConjuncts = conjunctsOf(folded.transExpr)
+    val cone = coneOfInfluence(initConjuncts, transConjuncts, folded.propExpr)
+    val keptInit = initConjuncts.filter { c -> assignedVar(c, true)?.let { it in cone } ?: true }
+    val keptTrans = transConjuncts.filter { c -> assignedVar(c, false)?.let { it in cone } ?: true }
+
+    val reduced = MonolithicExpr(And(keptInit), And(keptTrans), folded.propExpr, offsetIndex)
+    val removedVars = folded.vars() - reduced.vars().toSet()
+    return MonolithicExprReduction(reduced, keptTrans, constants, removedVars)
+}
+
+/**
+ * Returns the cone of influence of the property: the variables of the property and of every conjunct that is not
+ * a functional assignment, closed under the dependencies of assignments. Assignments to variables outside the cone
+ * define them as total functions of other variables, so they can be removed without losing behaviors of the cone.
+ */
+internal fun coneOfInfluence(initConjuncts: List<Expr<BoolType>>, transConjuncts: List<Expr<BoolType>>,
+    propExpr: Expr<BoolType>): Set<VarDecl<*>> {
+    val assignments = mutableMapOf<Pair<VarDecl<*>, Int>, MutableList<Expr<BoolType>>>()
+    val cone = ExprUtils.getVars(propExpr).toMutableSet<VarDecl<*>>()
+    for ((conjuncts, init) in listOf(initConjuncts to true, transConjuncts to false)) {
+        for (conjunct in conjuncts) {
+            val lhs = assignedSymbol(conjunct, init)
+            if (lhs == null) {
+                cone.addAll(ExprUtils.getVars(conjunct))
+            } else {
+                assignments.getOrPut(lhs) { mutableListOf() }.add(conjunct)
+            }
+        }
+    }
+
+    // a symbol assigned more than once, or through a cycle, might be overconstrained
+    for ((symbol, conjuncts) in assignments) {
+        if (conjuncts.size > 1 || dependsOn(symbol, symbol, assignments, mutableSetOf())) {
+            conjuncts.forEach { cone.addAll(ExprUtils.getVars(it)) }
+        }
+    }
+
+    var changed = true
+    while (changed) {
+        changed = false
+        for ((symbol, conjuncts) in assignments) {
+            if (symbol.first in cone) {
+                conjuncts.forEach { if (cone.addAll(ExprUtils.getVars(it))) changed = true }
+            }
+        }
+    }
+    return cone
+}
+
+private fun dependsOn(symbol: Pair<VarDecl<*>, Int>, target: Pair<VarDecl<*>, Int>,
+    assignments: Map<Pair<VarDecl<*>, Int>, List<Expr<BoolType>>>, visited: MutableSet<Pair<VarDecl<*>, Int>>): Boolean {
+    if (!visited.add(symbol)) return false
+    return assignments[symbol].orEmpty().any { conjunct ->
+        symbolsOf(conjunct.ops[1], 0).any { it == target || dependsOn(it, target, assignments, visited) }
+    }
+}
+
+private fun MonolithicExpr.findConstants(): Valuation {
+    val assignedInTrans = symbolsOf(transExpr, 0).filter { it.second > 0 }.map { it.first }.toSet()
+    val builder = ImmutableValuation.builder()
+    val initConjuncts = conjunctsOf(initExpr)
+    for (conjunct in initConjuncts) {
+        val varDecl = assignedVar(conjunct, true) ?: continue
+        val value = conjunct.ops[1]
+        if (value is LitExpr<*> && offsetIndex.get(varDecl) == 0 && varDecl !in assignedInTrans &&
+            initConjuncts.count { assignedVar(it, true) == varDecl } == 1) {
+            builder.put(varDecl, value)
+        }
+    }
+    return builder.build()
+}
+
+private fun assignedVar(conjunct: Expr<BoolType>, init: Boolean): VarDecl<*>? = assignedSymbol(conjunct, init)?.first
+
+/**
+ * Returns the variable and its prime count if the conjunct is of the form x = e, where x is unprimed in the
+ * initial expression and primed in the transition expression, and e does not contain x with the same primes.
+ * Floating point equality is not an assignment, as NaN is not equal to itself.
+ */
+private fun assignedSymbol(conjunct: Expr<BoolType>, init: Boolean): Pair<VarDecl<*>, Int>? {
+    val isAssignment = conjunct is FpAssignExpr || conjunct is EqExpr<*> && conjunct.ops[0].type !is FpType
+    if (!isAssignment) return null
+    val lhs = symbolOf(conjunct.ops[0]) ?: return null
+    if (init != (lhs.second == 0) || lhs in symbolsOf(conjunct.ops[1], 0)) return null
+    return lhs
+}
+
+private fun symbolOf(expr: Expr<*>): Pair<VarDecl<*>, Int>? {
+    var primes = 0
+    var current = expr
+    while (current is PrimeExpr<*>) {
+        primes++
+        current = current.op
+    }
+    val decl = (current as? RefExpr<*>)?.decl
+    return if (decl is VarDecl<*>) decl to primes else null
+}
+
+private fun symbolsOf(expr: Expr<*>, primes: Int): Set<Pair<VarDecl<*>, Int>> = when {
+    expr is PrimeExpr<*> -> symbolsOf(expr.op, primes + 1)
+    expr is RefExpr<*> && expr.decl is VarDecl<*> -> setOf(expr.decl as VarDecl<*> to primes)
+    else -> expr.ops.flatMap { symbolsOf(it, primes) }.toSet()
+}
+
+internal fun conjunctsOf(expr: Expr<BoolType>): List<Expr<BoolType>> = when (expr) {
+    is AndExpr -> expr.ops.flatMap { conjunctsOf(it) }.distinct()
+    True() -> listOf()
+    else -> listOf(expr)
+}
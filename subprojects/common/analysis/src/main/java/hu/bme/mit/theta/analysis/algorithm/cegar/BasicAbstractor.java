@@ -15,12 +15,15 @@
  */
 package hu.bme.mit.theta.analysis.algorithm.cegar;
 
+import com.google.common.base.Throwables;
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
 import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.CloseableTransFunc;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.reachedset.Partition;
@@ -30,32 +33,70 @@ import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
 import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.common.metrics.Counter;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
+import hu.bme.mit.theta.common.metrics.Timer;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 /**
- * Basic implementation for the abstractor, relying on an ArgBuilder.
+ * Basic implementation for the abstractor, relying on an ArgBuilder. If more than one thread is configured, the
+ * successor states of new nodes are computed ahead on worker threads, each using its own transfer function, while
+ * the nodes wait in the waitlist. Covering and modifying the ARG is only done on the calling thread, in the order of
+ * the waitlist, exactly as in the sequential mode, so the resulting ARG does not depend on the number of threads.
+ * Coverage checks are therefore not parallel. Successors computed for nodes that get covered are discarded.
  */
 public class BasicAbstractor<S extends State, A extends Action, P extends Prec> implements Abstractor<S, A, P> {
 
+    private static final MetricRegistry METRICS = MetricRegistry.getInstance();
+    private static final Timer BUILD_TIMER = METRICS.timer("abstractor.build");
+    private static final Timer PARTIAL_ORD_TIMER = METRICS.timer("partialOrd.isLeq");
+    private static final Counter COVERED = METRICS.counter("abstractor.covered");
+
     protected final ArgBuilder<S, A, P> argBuilder;
     protected final Function<? super S, ?> projection;
     protected final Waitlist<ArgNode<S, A>> waitlist;
     protected final StopCriterion<S, A> stopCriterion;
     protected final Logger logger;
+    protected final int threads;
+    private final Supplier<? extends TransFunc<S, ? super A, ? super P>> transFuncSupplier;
 
     protected BasicAbstractor(final ArgBuilder<S, A, P> argBuilder, final Function<? super S, ?> projection,
                               final Waitlist<ArgNode<S, A>> waitlist, final StopCriterion<S, A> stopCriterion, final Logger logger) {
+        this(argBuilder, projection, waitlist, stopCriterion, logger, 1, null);
+    }
+
+    protected BasicAbstractor(final ArgBuilder<S, A, P> argBuilder, final Function<? super S, ?> projection,
+                              final Waitlist<ArgNode<S, A>> waitlist, final StopCriterion<S, A> stopCriterion, final Logger logger,
+                              final int threads, final Supplier<? extends TransFunc<S, ? super A, ? super P>> transFuncSupplier) {
+        checkArgument(threads >= 1, "Number of threads must be positive");
+        checkArgument(threads == 1 || transFuncSupplier != null, "Parallel expansion requires a transfer function supplier");
         this.argBuilder = checkNotNull(argBuilder);
         this.projection = checkNotNull(projection);
         this.waitlist = checkNotNull(waitlist);
         this.stopCriterion = checkNotNull(stopCriterion);
         this.logger = checkNotNull(logger);
+        this.threads = threads;
+        this.transFuncSupplier = transFuncSupplier;
     }
 
     public static <S extends State, A extends Action, P extends Prec> Builder<S, A, P> builder(
@@ -82,6 +123,11 @@ public class BasicAbstractor<S extends State, A extends Action, P extends Prec>
 
         assert arg.isInitialized();
 
+        final int relabeled = argBuilder.relabel(arg, prec);
+        if (relabeled > 0) {
+            logger.write(Level.SUBSTEP, "|  |  Relabeled %d nodes%n", relabeled);
+        }
+
         logger.write(Level.INFO, "|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n", arg.getNodes().count(),
                 arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
         logger.write(Level.SUBSTEP, "|  |  Building ARG...");
@@ -93,42 +139,169 @@ public class BasicAbstractor<S extends State, A extends Action, P extends Prec>
         waitlist.addAll(arg.getIncompleteNodes());
 
         if (!stopCriterion.canStop(arg)) {
+            final long start = BUILD_TIMER.start();
+            if (threads > 1) {
+                buildParallel(arg, prec, reachedSet);
+            } else {
+                build(arg, prec, reachedSet);
+            }
+            BUILD_TIMER.stop(start);
+        }
+
+        logger.write(Level.SUBSTEP, "done%n");
+        logger.write(Level.INFO, "|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n", arg.getNodes().count(),
+                arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
+
+        waitlist.clear(); // Optimization
+
+        if (arg.isSafe()) {
+            checkState(arg.isComplete(), "Returning incomplete ARG as safe");
+            return AbstractorResult.safe();
+        } else {
+            return AbstractorResult.unsafe();
+        }
+    }
+
+    private void build(final ARG<S, A> arg, final P prec, final Partition<ArgNode<S, A>, ?> reachedSet) {
+        while (!waitlist.isEmpty()) {
+            final ArgNode<S, A> node = waitlist.remove();
+
+            Collection<ArgNode<S, A>> newNodes = Collections.emptyList();
+            close(node, reachedSet.get(node), prec);
+            if (!node.isSubsumed() && !node.isTarget()) {
+                newNodes = argBuilder.expand(node, prec);
+                reachedSet.addAll(newNodes);
+                waitlist.addAll(newNodes);
+            }
+
+            if (stopCriterion.canStop(arg, newNodes)) break;
+        }
+    }
+
+    private void buildParallel(final ARG<S, A> arg, final P prec, final Partition<ArgNode<S, A>, ?> reachedSet) {
+        final List<TransFunc<S, ? super A, ? super P>> transFuncs = new ArrayList<>(threads);
+        final BlockingQueue<TransFunc<S, ? super A, ? super P>> transFuncPool = new LinkedBlockingQueue<>();
+        for (int i = 0; i < threads; i++) {
+            final TransFunc<S, ? super A, ? super P> transFunc = transFuncSupplier.get();
+            transFuncs.add(transFunc);
+            transFuncPool.add(transFunc);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final Map<ArgNode<S, A>, Prefetch<S, A>> prefetched = new HashMap<>();
+        try {
+            prefetch(arg.getIncompleteNodes().collect(Collectors.toList()), prec, executor, transFuncPool, prefetched);
+            // Same loop as in build, except that successor states may have been computed ahead
             while (!waitlist.isEmpty()) {
                 final ArgNode<S, A> node = waitlist.remove();
+                final Prefetch<S, A> prefetch = prefetched.remove(node);
 
                 Collection<ArgNode<S, A>> newNodes = Collections.emptyList();
-                close(node, reachedSet.get(node));
+                close(node, reachedSet.get(node), prec);
                 if (!node.isSubsumed() && !node.isTarget()) {
-                    newNodes = argBuilder.expand(node, prec);
+                    if (prefetch != null) {
+                        newNodes = argBuilder.expand(node, prefetch.actions, getResult(prefetch.succStates));
+                    } else {
+                        newNodes = argBuilder.expand(node, prec);
+                    }
                     reachedSet.addAll(newNodes);
                     waitlist.addAll(newNodes);
+                    prefetch(newNodes, prec, executor, transFuncPool, prefetched);
+                } else if (prefetch != null) {
+                    prefetch.succStates.cancel(false);
                 }
 
                 if (stopCriterion.canStop(arg, newNodes)) break;
             }
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+            closeAll(transFuncs);
         }
+    }
 
-        logger.write(Level.SUBSTEP, "done%n");
-        logger.write(Level.INFO, "|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n", arg.getNodes().count(),
-                arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
+    /**
+     * Starts computing the successor states of new nodes on the worker threads. Enabled actions are queried here,
+     * as the LTS is not thread-safe.
+     */
+    private void prefetch(final Collection<ArgNode<S, A>> nodes, final P prec, final ExecutorService executor,
+                          final BlockingQueue<TransFunc<S, ? super A, ? super P>> transFuncPool,
+                          final Map<ArgNode<S, A>, Prefetch<S, A>> prefetched) {
+        for (final ArgNode<S, A> node : nodes) {
+            if (node.isTarget() || node.isSubsumed()) {
+                continue;
+            }
+            final S state = node.getState();
+            final Collection<? extends A> actions = argBuilder.getEnabledActions(node, prec);
+            final Future<List<Collection<? extends S>>> succStates = executor.submit(() -> {
+                final TransFunc<S, ? super A, ? super P> transFunc = transFuncPool.take();
+                try {
+                    return ArgBuilder.getSuccStates(state, actions, prec, transFunc);
+                } finally {
+                    transFuncPool.add(transFunc);
+                }
+            });
+            prefetched.put(node, new Prefetch<>(actions, succStates));
+        }
+    }
 
-        waitlist.clear(); // Optimization
+    private static void awaitTermination(final ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        if (arg.isSafe()) {
-            checkState(arg.isComplete(), "Returning incomplete ARG as safe");
-            return AbstractorResult.safe();
-        } else {
-            return AbstractorResult.unsafe();
+    private static void closeAll(final Collection<? extends TransFunc<?, ?, ?>> transFuncs) {
+        for (final TransFunc<?, ?, ?> transFunc : transFuncs) {
+            if (transFunc instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) transFunc).close();
+                } catch (final Exception e) {
+                    throw new IllegalStateException("Could not close transfer function", e);
+                }
+            }
+        }
+    }
+
+    private static <T> T getResult(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building ARG", e);
+        } catch (final ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
         }
     }
 
+    /**
+     * Tries to cover a node before expanding it. Subclasses can override this to cover depending on the precision.
+     */
+    protected void close(final ArgNode<S, A> node, final Collection<ArgNode<S, A>> candidates, final P prec) {
+        close(node, candidates);
+    }
+
     protected void close(final ArgNode<S, A> node, final Collection<ArgNode<S, A>> candidates) {
         if (!node.isLeaf()) {
             return;
         }
         for (final ArgNode<S, A> candidate : candidates) {
-            if (candidate.mayCoverStandard(node)) {
+            final long start = PARTIAL_ORD_TIMER.start();
+            final boolean mayCover = candidate.mayCoverStandard(node);
+            PARTIAL_ORD_TIMER.stop(start);
+            if (mayCover) {
                 node.cover(candidate);
+                COVERED.inc();
                 return;
             }
         }
@@ -139,12 +312,25 @@ public class BasicAbstractor<S extends State, A extends Action, P extends Prec>
         return Utils.lispStringBuilder(getClass().getSimpleName()).add(waitlist).toString();
     }
 
+    private static final class Prefetch<S extends State, A extends Action> {
+        private final Collection<? extends A> actions;
+        private final Future<List<Collection<? extends S>>> succStates;
+
+        private Prefetch(final Collection<? extends A> actions,
+                         final Future<List<Collection<? extends S>>> succStates) {
+            this.actions = actions;
+            this.succStates = succStates;
+        }
+    }
+
     public static class Builder<S extends State, A extends Action, P extends Prec> {
         protected final ArgBuilder<S, A, P> argBuilder;
         protected Function<? super S, ?> projection;
         protected Waitlist<ArgNode<S, A>> waitlist;
         protected StopCriterion<S, A> stopCriterion;
         protected Logger logger;
+        protected int threads;
+        protected Supplier<? extends TransFunc<S, ? super A, ? super P>> transFuncSupplier;
 
         protected Builder(final ArgBuilder<S, A, P> argBuilder) {
             this.argBuilder = argBuilder;
@@ -152,6 +338,8 @@ public class BasicAbstractor<S extends State, A extends Action, P extends Prec>
             this.waitlist = FifoWaitlist.create();
             this.stopCriterion = StopCriterions.firstCex();
             this.logger = NullLogger.getInstance();
+            this.threads = 1;
+            this.transFuncSupplier = null;
         }
 
         public Builder<S, A, P> projection(final Function<? super S, ?> projection) {
@@ -174,8 +362,22 @@ public class BasicAbstractor<S extends State, A extends Action, P extends Prec>
             return this;
         }
 
+        /**
+         * Computes successor states on the given number of threads. The supplier is called once per thread in each
+         * check and must return independent transfer functions, i.e., ones that do not share a solver. Transfer
+         * functions that are {@link AutoCloseable} (see {@link CloseableTransFunc}) are closed at the end of the
+         * check.
+         */
+        public Builder<S, A, P> parallel(final int threads,
+                                         final Supplier<? extends TransFunc<S, ? super A, ? super P>> transFuncSupplier) {
+            this.threads = threads;
+            this.transFuncSupplier = transFuncSupplier;
+            return this;
+        }
+
         public BasicAbstractor<S, A, P> build() {
-            return new BasicAbstractor<>(argBuilder, projection, waitlist, stopCriterion, logger);
+            return new BasicAbstractor<>(argBuilder, projection, waitlist, stopCriterion, logger, threads,
+                    transFuncSupplier);
         }
     }
 
@@ -28,6 +28,10 @@ import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
 import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.common.metrics.Counter;
+import hu.bme.mit.theta.common.metrics.Histogram;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
+import hu.bme.mit.theta.common.metrics.Timer;
 
 import hu.bme.mit.theta.common.visualization.writer.JSONWriter;
 import hu.bme.mit.theta.common.visualization.writer.WebDebuggerLogger;
@@ -44,6 +48,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public final class CegarChecker<S extends State, A extends Action, P extends Prec> implements SafetyChecker<S, A, P> {
 
+    private static final MetricRegistry METRICS = MetricRegistry.getInstance();
+    private static final Timer ABSTRACTION_TIMER = METRICS.timer("cegar.abstraction");
+    private static final Timer REFINEMENT_TIMER = METRICS.timer("cegar.refinement");
+    private static final Counter ITERATIONS = METRICS.counter("cegar.iterations");
+    private static final Histogram ARG_NODES = METRICS.histogram("cegar.argNodes");
+
     private final Abstractor<S, A, P> abstractor;
     private final Refiner<S, A, P> refiner;
     private final Logger logger;
@@ -83,11 +93,17 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
         WebDebuggerLogger wdl = WebDebuggerLogger.getInstance();
         do {
             ++iteration;
+            ITERATIONS.inc();
 
             logger.write(Level.MAINSTEP, "Iteration %d%n", iteration);
             logger.write(Level.MAINSTEP, "| Checking abstraction...%n");
             final long abstractorStartTime = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+            final long abstractionStart = ABSTRACTION_TIMER.start();
             abstractorResult = abstractor.check(arg, prec);
+            ABSTRACTION_TIMER.stop(abstractionStart);
+            if (METRICS.isEnabled()) {
+                ARG_NODES.record(arg.getNodes().count());
+            }
             abstractorTime += stopwatch.elapsed(TimeUnit.MILLISECONDS) - abstractorStartTime;
             logger.write(Level.MAINSTEP, "| Checking abstraction done, result: %s%n", abstractorResult);
 
@@ -102,8 +118,12 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
 
                 P lastPrec = prec;
                 logger.write(Level.MAINSTEP, "| Refining abstraction...%n");
+                final RefinementEvent event = new RefinementEvent();
+                event.begin();
                 final long refinerStartTime = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+                final long refinementStart = REFINEMENT_TIMER.start();
                 refinerResult = refiner.refine(arg, prec);
+                REFINEMENT_TIMER.stop(refinementStart);
                 refinerTime += stopwatch.elapsed(TimeUnit.MILLISECONDS) - refinerStartTime;
                 logger.write(Level.MAINSTEP, "Refining abstraction done, result: %s%n", refinerResult);
 
@@ -111,6 +131,14 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
                     prec = refinerResult.asSpurious().getRefinedPrec();
                 }
 
+                if (event.shouldCommit()) {
+                    event.iteration = iteration;
+                    event.argNodes = arg.getNodes().count();
+                    event.result = refinerResult.isSpurious() ? "spurious" : "unsafe";
+                    event.precChanged = !lastPrec.equals(prec);
+                    event.commit();
+                }
+
                 if (lastPrec.equals(prec)) {
                     logger.write(Level.MAINSTEP, "! Precision did NOT change in this iteration" + System.lineSeparator());
                 } else {
@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of a refinement step of the {@link CegarChecker}.
+ */
+@Name("hu.bme.mit.theta.Refinement")
+@Label("Refinement")
+@Category({"Theta", "CEGAR"})
+@Description("Checking and refining an abstract counterexample")
+final class RefinementEvent extends Event {
+
+    @Label("Iteration")
+    int iteration;
+
+    @Label("ARG Nodes")
+    long argNodes;
+
+    @Label("Result")
+    String result;
+
+    @Label("Precision Changed")
+    boolean precChanged;
+
+}
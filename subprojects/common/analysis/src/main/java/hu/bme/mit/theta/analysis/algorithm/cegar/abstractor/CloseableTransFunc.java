@@ -0,0 +1,57 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar.abstractor;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+
+import java.util.Collection;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Transfer function owning a resource (typically its solver) that is closed together with the transfer function.
+ * Parallel abstractors close the transfer functions of their workers when they are done with them.
+ */
+public final class CloseableTransFunc<S extends State, A extends Action, P extends Prec>
+        implements TransFunc<S, A, P>, AutoCloseable {
+
+    private final TransFunc<S, ? super A, ? super P> transFunc;
+    private final AutoCloseable resource;
+
+    private CloseableTransFunc(final TransFunc<S, ? super A, ? super P> transFunc, final AutoCloseable resource) {
+        this.transFunc = checkNotNull(transFunc);
+        this.resource = checkNotNull(resource);
+    }
+
+    public static <S extends State, A extends Action, P extends Prec> CloseableTransFunc<S, A, P> create(
+            final TransFunc<S, ? super A, ? super P> transFunc, final AutoCloseable resource) {
+        return new CloseableTransFunc<>(transFunc, resource);
+    }
+
+    @Override
+    public Collection<? extends S> getSuccStates(final S state, final A action, final P prec) {
+        return transFunc.getSuccStates(state, action, prec);
+    }
+
+    @Override
+    public void close() throws Exception {
+        resource.close();
+    }
+
+}
@@ -55,7 +55,7 @@ public final class AasporRefiner<S extends ExprState, A extends ExprAction, P ex
     @Override
     public RefinerResult<S, A, P> refine(final ARG<S, A> arg, final P prec) {
         final RefinerResult<S, A, P> result = refiner.refine(arg, prec);
-        if (result.isUnsafe() || pruneStrategy != PruneStrategy.LAZY) return result;
+        if (result.isUnsafe() || pruneStrategy == PruneStrategy.FULL) return result;
 
         final P newPrec = result.asSpurious().getRefinedPrec();
         final Set<Decl<? extends Type>> newlyAddedVars = new HashSet<>(newPrec.getUsedVars());
@@ -29,6 +29,7 @@ import hu.bme.mit.theta.solver.Interpolant;
 import hu.bme.mit.theta.solver.ItpMarker;
 import hu.bme.mit.theta.solver.ItpPattern;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,31 +38,46 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * An ExprTraceChecker that generates a binary interpolant by incrementally checking the
- * counterexample forward.
+ * counterexample forward. An incremental instance keeps the satisfiable prefix of the last checked
+ * trace in the solver and only re-asserts the suffix of the next trace after the point where the
+ * two traces diverge. In this case the solver must not be used by anyone else.
  */
 public final class ExprTraceFwBinItpChecker implements ExprTraceChecker<ItpRefutation> {
 
     private final ItpSolver solver;
     private final Expr<BoolType> init;
     private final Expr<BoolType> target;
+    private final TracePrefixFrames frames;
+    private ItpMarker frameA;
+    private ItpMarker frameB;
 
     private ExprTraceFwBinItpChecker(final Expr<BoolType> init, final Expr<BoolType> target,
-                                     final ItpSolver solver) {
+                                     final ItpSolver solver, final boolean incremental) {
         this.solver = checkNotNull(solver);
         this.init = checkNotNull(init);
         this.target = checkNotNull(target);
+        this.frames = incremental ? new TracePrefixFrames(solver) : null;
     }
 
     public static ExprTraceFwBinItpChecker create(final Expr<BoolType> init,
                                                   final Expr<BoolType> target,
                                                   final ItpSolver solver) {
-        return new ExprTraceFwBinItpChecker(init, target, solver);
+        return new ExprTraceFwBinItpChecker(init, target, solver, false);
+    }
+
+    public static ExprTraceFwBinItpChecker createIncremental(final Expr<BoolType> init,
+                                                             final Expr<BoolType> target,
+                                                             final ItpSolver solver) {
+        return new ExprTraceFwBinItpChecker(init, target, solver, true);
     }
 
     @Override
     public ExprTraceStatus<ItpRefutation> check(
             final Trace<? extends ExprState, ? extends ExprAction> trace) {
         checkNotNull(trace);
+        if (frames != null) {
+            return checkIncremental(trace);
+        }
         final int stateCount = trace.getStates().size();
 
         final List<VarIndexing> indexings = new ArrayList<>(stateCount);
@@ -131,6 +147,95 @@ public final class ExprTraceFwBinItpChecker implements ExprTraceChecker<ItpRefut
         return status;
     }
 
+    private ExprTraceStatus<ItpRefutation> checkIncremental(
+            final Trace<? extends ExprState, ? extends ExprAction> trace) {
+        final int stateCount = trace.getStates().size();
+        try {
+            if (frameA == null) {
+                // Markers are created on the base level so that they survive popping frames
+                frameA = solver.createMarker();
+                frameB = solver.createMarker();
+            }
+            final ItpPattern pattern = solver.createBinPattern(frameA, frameB);
+
+            // Only satisfiable frames are kept, so the retained prefix need not be checked again
+            final int retained = frames.retainPrefixOf(trace);
+            if (retained == 0) {
+                final VarIndexing indexing = frames.push(trace);
+                solver.add(frameA, PathUtils.unfold(init, indexing));
+                solver.add(frameA, PathUtils.unfold(trace.getState(0).toExpr(), indexing));
+                assert solver.check().isSat() : "Initial state of the trace is not feasible";
+            }
+            int satPrefix = frames.size() - 1;
+
+            for (int i = frames.size(); i < stateCount; ++i) {
+                final VarIndexing indexing = frames.push(trace);
+                solver.add(frameA, PathUtils.unfold(trace.getState(i).toExpr(), indexing));
+                solver.add(frameA, PathUtils.unfold(trace.getAction(i - 1).toExpr(),
+                        frames.getIndexing(i - 1)));
+
+                if (solver.check().isSat()) {
+                    satPrefix = i;
+                } else {
+                    frames.popTo(i);
+                    break;
+                }
+            }
+
+            try (WithPushPop wpp = new WithPushPop(solver)) {
+                final boolean concretizable;
+                if (satPrefix == stateCount - 1) {
+                    solver.add(frameB,
+                            PathUtils.unfold(target, frames.getIndexing(stateCount - 1)));
+                    concretizable = solver.check().isSat();
+                } else {
+                    final VarIndexing satIndexing = frames.getIndexing(satPrefix);
+                    final VarIndexing nextIndexing = satIndexing.add(
+                            trace.getAction(satPrefix).nextIndexing());
+                    solver.add(frameB, PathUtils.unfold(trace.getState(satPrefix + 1).toExpr(),
+                            nextIndexing));
+                    solver.add(frameB,
+                            PathUtils.unfold(trace.getAction(satPrefix).toExpr(), satIndexing));
+                    solver.check();
+                    assert solver.getStatus().isUnsat() : "Trying to interpolate a feasible formula";
+                    concretizable = false;
+                }
+
+                if (concretizable) {
+                    final Valuation model = solver.getModel();
+                    final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
+                    for (final VarIndexing indexing : frames.getIndexings()) {
+                        builder.add(PathUtils.extractValuation(model, indexing));
+                    }
+                    return ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
+                } else {
+                    final Interpolant interpolant = solver.getInterpolant(pattern);
+                    final Expr<BoolType> itpFolded = PathUtils.foldin(interpolant.eval(frameA),
+                            frames.getIndexing(satPrefix));
+                    return ExprTraceStatus.infeasible(
+                            ItpRefutation.binary(itpFolded, satPrefix, stateCount));
+                }
+            }
+        } catch (final RuntimeException e) {
+            frames.popTo(0);
+            throw e;
+        }
+    }
+
+    /**
+     * Number of trace frames that were kept from the previous check (incremental mode only).
+     */
+    public long getReusedFrames() {
+        return frames == null ? 0 : frames.getReusedFrames();
+    }
+
+    /**
+     * Number of trace frames that had to be asserted (incremental mode only).
+     */
+    public long getAssertedFrames() {
+        return frames == null ? 0 : frames.getAssertedFrames();
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName();
@@ -37,31 +37,47 @@ import java.util.List;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * An ExprTraceChecker that generates a sequence interpolant by checking the trace at once.
+ * An ExprTraceChecker that generates a sequence interpolant by checking the trace at once. An
+ * incremental instance keeps the frames of the last checked trace in the solver and only
+ * re-asserts the suffix of the next trace after the point where the two traces diverge. In this
+ * case the solver must not be used by anyone else.
  */
 public final class ExprTraceSeqItpChecker implements ExprTraceChecker<ItpRefutation> {
 
     private final ItpSolver solver;
     private final Expr<BoolType> init;
     private final Expr<BoolType> target;
+    private final TracePrefixFrames frames;
+    private final List<ItpMarker> frameMarkers;
 
     private ExprTraceSeqItpChecker(final Expr<BoolType> init, final Expr<BoolType> target,
-                                   final ItpSolver solver) {
+                                   final ItpSolver solver, final boolean incremental) {
         this.solver = checkNotNull(solver);
         this.init = checkNotNull(init);
         this.target = checkNotNull(target);
+        this.frames = incremental ? new TracePrefixFrames(solver) : null;
+        this.frameMarkers = new ArrayList<>();
     }
 
     public static ExprTraceSeqItpChecker create(final Expr<BoolType> init,
                                                 final Expr<BoolType> target,
                                                 final ItpSolver solver) {
-        return new ExprTraceSeqItpChecker(init, target, solver);
+        return new ExprTraceSeqItpChecker(init, target, solver, false);
+    }
+
+    public static ExprTraceSeqItpChecker createIncremental(final Expr<BoolType> init,
+                                                           final Expr<BoolType> target,
+                                                           final ItpSolver solver) {
+        return new ExprTraceSeqItpChecker(init, target, solver, true);
     }
 
     @Override
     public ExprTraceStatus<ItpRefutation> check(
             final Trace<? extends ExprState, ? extends ExprAction> trace) {
         checkNotNull(trace);
+        if (frames != null) {
+            return checkIncremental(trace);
+        }
         final int stateCount = trace.getStates().size();
 
         try (WithPushPop wpp = new WithPushPop(solver)) {
@@ -89,27 +105,85 @@ public final class ExprTraceSeqItpChecker implements ExprTraceChecker<ItpRefutat
 
             solver.add(markers.get(trace.getStates().size()),
                     PathUtils.unfold(target, indexings.get(stateCount - 1)));
-            final boolean concretizable = solver.check().isSat();
+            return createStatus(trace, markers, pattern, indexings);
+        }
+    }
 
-            if (concretizable) {
-                final Valuation model = solver.getModel();
-                final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
-                for (final VarIndexing indexing : indexings) {
-                    builder.add(PathUtils.extractValuation(model, indexing));
-                }
-                return ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
-            } else {
-                final List<Expr<BoolType>> interpolants = new ArrayList<>();
-                final Interpolant interpolant = solver.getInterpolant(pattern);
-                for (int i = 0; i < markers.size() - 1; ++i) {
-                    interpolants.add(
-                            PathUtils.foldin(interpolant.eval(markers.get(i)), indexings.get(i)));
+    private ExprTraceStatus<ItpRefutation> checkIncremental(
+            final Trace<? extends ExprState, ? extends ExprAction> trace) {
+        final int stateCount = trace.getStates().size();
+        try {
+            final int retained = frames.retainPrefixOf(trace);
+            frameMarkers.subList(retained, frameMarkers.size()).clear();
+
+            for (int i = retained; i < stateCount; ++i) {
+                final VarIndexing indexing = frames.push(trace);
+                final ItpMarker marker = solver.createMarker();
+                frameMarkers.add(marker);
+                if (i == 0) {
+                    solver.add(marker, PathUtils.unfold(init, indexing));
+                    solver.add(marker, PathUtils.unfold(trace.getState(0).toExpr(), indexing));
+                } else {
+                    solver.add(marker, PathUtils.unfold(trace.getState(i).toExpr(), indexing));
+                    solver.add(marker, PathUtils.unfold(trace.getAction(i - 1).toExpr(),
+                            frames.getIndexing(i - 1)));
                 }
-                return ExprTraceStatus.infeasible(ItpRefutation.sequence(interpolants));
             }
+
+            try (WithPushPop wpp = new WithPushPop(solver)) {
+                final List<ItpMarker> markers = new ArrayList<>(frameMarkers);
+                markers.add(solver.createMarker());
+                final ItpPattern pattern = solver.createSeqPattern(markers);
+                final List<VarIndexing> indexings = frames.getIndexings();
+                solver.add(markers.get(stateCount),
+                        PathUtils.unfold(target, indexings.get(stateCount - 1)));
+                return createStatus(trace, markers, pattern, indexings);
+            }
+        } catch (final RuntimeException e) {
+            frames.popTo(0);
+            frameMarkers.clear();
+            throw e;
         }
     }
 
+    private ExprTraceStatus<ItpRefutation> createStatus(
+            final Trace<? extends ExprState, ? extends ExprAction> trace,
+            final List<ItpMarker> markers, final ItpPattern pattern,
+            final List<VarIndexing> indexings) {
+        final boolean concretizable = solver.check().isSat();
+
+        if (concretizable) {
+            final Valuation model = solver.getModel();
+            final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
+            for (final VarIndexing indexing : indexings) {
+                builder.add(PathUtils.extractValuation(model, indexing));
+            }
+            return ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
+        } else {
+            final List<Expr<BoolType>> interpolants = new ArrayList<>();
+            final Interpolant interpolant = solver.getInterpolant(pattern);
+            for (int i = 0; i < markers.size() - 1; ++i) {
+                interpolants.add(
+                        PathUtils.foldin(interpolant.eval(markers.get(i)), indexings.get(i)));
+            }
+            return ExprTraceStatus.infeasible(ItpRefutation.sequence(interpolants));
+        }
+    }
+
+    /**
+     * Number of trace frames that were kept from the previous check (incremental mode only).
+     */
+    public long getReusedFrames() {
+        return frames == null ? 0 : frames.getReusedFrames();
+    }
+
+    /**
+     * Number of trace frames that had to be asserted (incremental mode only).
+     */
+    public long getAssertedFrames() {
+        return frames == null ? 0 : frames.getAssertedFrames();
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName();
@@ -15,6 +15,8 @@
  */
 package hu.bme.mit.theta.analysis.expr.refinement;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
@@ -29,38 +31,71 @@ import hu.bme.mit.theta.common.logging.Logger.Level;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+/**
+ * Refiner that checks all counterexamples of the ARG and refines the precision with all refutations. If more than one
+ * thread is configured, the traces are checked in parallel, each thread using its own trace checker (and solver).
+ * The result is the same as the sequential one: the first feasible trace (in the order of the ARG) is returned, or
+ * the refutations are joined in that order.
+ */
 public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
         implements Refiner<S, A, P> {
 
+    private static final int GROUPS_PER_THREAD = 4;
+
     private final ExprTraceChecker<R> exprTraceChecker;
     private final PrecRefiner<S, A, P, R> precRefiner;
     private final PruneStrategy pruneStrategy;
     private final NodePruner<S, A> nodePruner;
     private final Logger logger;
+    private final int threads;
+    private final Supplier<? extends ExprTraceChecker<R>> exprTraceCheckerSupplier;
+    private final BlockingQueue<ExprTraceChecker<R>> exprTraceCheckerPool;
+    private int createdExprTraceCheckers;
 
     private MultiExprTraceRefiner(final ExprTraceChecker<R> exprTraceChecker,
                                   final PrecRefiner<S, A, P, R> precRefiner,
                                   final PruneStrategy pruneStrategy, final Logger logger) {
-        this.exprTraceChecker = checkNotNull(exprTraceChecker);
-        this.precRefiner = checkNotNull(precRefiner);
-        this.pruneStrategy = checkNotNull(pruneStrategy);
-        this.nodePruner = ARG::prune;
-        this.logger = checkNotNull(logger);
+        this(exprTraceChecker, precRefiner, pruneStrategy, logger, ARG::prune, 1, null);
     }
 
     private MultiExprTraceRefiner(final ExprTraceChecker<R> exprTraceChecker,
                                   final PrecRefiner<S, A, P, R> precRefiner,
                                   final PruneStrategy pruneStrategy, final Logger logger,
                                   final NodePruner<S, A> nodePruner) {
+        this(exprTraceChecker, precRefiner, pruneStrategy, logger, nodePruner, 1, null);
+    }
+
+    private MultiExprTraceRefiner(final ExprTraceChecker<R> exprTraceChecker,
+                                  final PrecRefiner<S, A, P, R> precRefiner,
+                                  final PruneStrategy pruneStrategy, final Logger logger,
+                                  final NodePruner<S, A> nodePruner, final int threads,
+                                  final Supplier<? extends ExprTraceChecker<R>> exprTraceCheckerSupplier) {
+        checkArgument(threads >= 1, "Number of threads must be positive");
+        checkArgument(threads == 1 || exprTraceCheckerSupplier != null,
+                "Parallel refinement requires a trace checker supplier");
         this.exprTraceChecker = checkNotNull(exprTraceChecker);
         this.precRefiner = checkNotNull(precRefiner);
         this.pruneStrategy = checkNotNull(pruneStrategy);
         this.nodePruner = checkNotNull(nodePruner);
         this.logger = checkNotNull(logger);
+        this.threads = threads;
+        this.exprTraceCheckerSupplier = exprTraceCheckerSupplier;
+        this.exprTraceCheckerPool = new LinkedBlockingQueue<>();
+        this.createdExprTraceCheckers = 0;
     }
 
     public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> create(
@@ -75,6 +110,26 @@ public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprActi
         return new MultiExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, logger, nodePruner);
     }
 
+    /**
+     * Creates a refiner that checks traces on the given number of threads. The trace checker is used by the first
+     * thread, the supplier is called for each further thread and must return a checker with its own solver.
+     */
+    public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> create(
+            final ExprTraceChecker<R> exprTraceChecker, final Supplier<? extends ExprTraceChecker<R>> exprTraceCheckerSupplier,
+            final int threads, final PrecRefiner<S, A, P, R> precRefiner, final PruneStrategy pruneStrategy,
+            final Logger logger) {
+        return new MultiExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, logger, ARG::prune, threads,
+                exprTraceCheckerSupplier);
+    }
+
+    public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> create(
+            final ExprTraceChecker<R> exprTraceChecker, final Supplier<? extends ExprTraceChecker<R>> exprTraceCheckerSupplier,
+            final int threads, final PrecRefiner<S, A, P, R> precRefiner, final PruneStrategy pruneStrategy,
+            final Logger logger, final NodePruner<S, A> nodePruner) {
+        return new MultiExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, logger, nodePruner, threads,
+                exprTraceCheckerSupplier);
+    }
+
     @Override
     public RefinerResult<S, A, P> refine(final ARG<S, A> arg, final P prec) {
         checkNotNull(arg);
@@ -89,14 +144,7 @@ public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprActi
         assert traces.size() > 0 : "No counterexample in ARG";
 
         logger.write(Level.SUBSTEP, "|  |  Checking traces...");
-        final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(traces.size());
-        for (final Trace<S, A> trace : traces) {
-            final ExprTraceStatus<R> status = exprTraceChecker.check(trace);
-            cexStatuses.add(status);
-            if (status.isFeasible()) {
-                break;
-            }
-        }
+        final List<ExprTraceStatus<R>> cexStatuses = threads > 1 ? checkParallel(cexs, traces) : check(traces);
 
         if (cexStatuses.stream().anyMatch(ExprTraceStatus::isFeasible)) {
             logger.write(Level.SUBSTEP, "done, result: found feasible%n");
@@ -147,6 +195,20 @@ public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprActi
                     logger.write(Level.SUBSTEP, "|  |  Pruning (full)...");
                     arg.pruneAll();
                     break;
+                case RELABEL:
+                    logger.write(Level.SUBSTEP, "|  |  Marking for relabeling...");
+                    for (int i = 0; i < nodesToPrune.size(); ++i) {
+                        if (!skip.get(i)) {
+                            final int pruneIndex = refutations.get(i).getPruneIndex();
+                            final List<ArgNode<S, A>> nodes = cexs.get(i).nodes();
+                            if (pruneIndex == 0) {
+                                nodePruner.prune(arg, nodesToPrune.get(i));
+                            } else {
+                                arg.markForRelabeling(nodes.subList(pruneIndex, nodes.size()));
+                            }
+                        }
+                    }
+                    break;
                 default:
                     throw new UnsupportedOperationException("Unsupported pruning strategy");
             }
@@ -156,4 +218,102 @@ public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprActi
 
     }
 
-}
\ No newline at end of file
+    private List<ExprTraceStatus<R>> check(final List<Trace<S, A>> traces) {
+        final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(traces.size());
+        for (final Trace<S, A> trace : traces) {
+            final ExprTraceStatus<R> status = TraceCheckerMetrics.check(exprTraceChecker, trace);
+            cexStatuses.add(status);
+            if (status.isFeasible()) {
+                break;
+            }
+        }
+        return cexStatuses;
+    }
+
+    /**
+     * Checks the traces in parallel and returns the statuses of the traces up to (and including) the first feasible
+     * one, just like the sequential check. Traces are grouped by their common prefixes, so that traces sharing a
+     * prefix are checked one after the other with the same checker (and solver). A trace is skipped only if a feasible
+     * trace was already found before it, so every trace before the first feasible one is checked.
+     */
+    private List<ExprTraceStatus<R>> checkParallel(final List<ArgTrace<S, A>> cexs, final List<Trace<S, A>> traces) {
+        if (createdExprTraceCheckers == 0) {
+            exprTraceCheckerPool.add(exprTraceChecker);
+            createdExprTraceCheckers++;
+        }
+        while (createdExprTraceCheckers < threads) {
+            exprTraceCheckerPool.add(exprTraceCheckerSupplier.get());
+            createdExprTraceCheckers++;
+        }
+
+        final AtomicReferenceArray<ExprTraceStatus<R>> statuses = new AtomicReferenceArray<>(traces.size());
+        final AtomicInteger firstFeasible = new AtomicInteger(traces.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final List<Integer> group : groupByPrefix(cexs, threads * GROUPS_PER_THREAD)) {
+                futures.add(executor.submit(() -> {
+                    final ExprTraceChecker<R> checker = exprTraceCheckerPool.take();
+                    try {
+                        for (final int i : group) {
+                            if (i > firstFeasible.get()) {
+                                continue;
+                            }
+                            final ExprTraceStatus<R> status = TraceCheckerMetrics.check(checker, traces.get(i));
+                            statuses.set(i, status);
+                            if (status.isFeasible()) {
+                                firstFeasible.accumulateAndGet(i, Math::min);
+                            }
+                        }
+                    } finally {
+                        exprTraceCheckerPool.add(checker);
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking traces", e);
+        } catch (final ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final int count = Math.min(firstFeasible.get() + 1, traces.size());
+        final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cexStatuses.add(checkNotNull(statuses.get(i)));
+        }
+        return cexStatuses;
+    }
+
+    /**
+     * Orders the traces as a depth-first traversal of their prefix tree would (i.e., lexicographically by node ids)
+     * and cuts this order into at most the given number of contiguous groups of trace indices.
+     */
+    private static <S extends ExprState, A extends ExprAction> List<List<Integer>> groupByPrefix(
+            final List<ArgTrace<S, A>> cexs, final int maxGroups) {
+        final List<Integer> order = new ArrayList<>(cexs.size());
+        for (int i = 0; i < cexs.size(); i++) {
+            order.add(i);
+        }
+        order.sort((i1, i2) -> {
+            final List<ArgNode<S, A>> nodes1 = cexs.get(i1).nodes();
+            final List<ArgNode<S, A>> nodes2 = cexs.get(i2).nodes();
+            for (int j = 0; j < Math.min(nodes1.size(), nodes2.size()); j++) {
+                final int cmp = Integer.compare(nodes1.get(j).getId(), nodes2.get(j).getId());
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(nodes1.size(), nodes2.size());
+        });
+        return Lists.partition(order, Math.max(1, (order.size() + maxGroups - 1) / maxGroups));
+    }
+
+}
@@ -16,5 +16,19 @@
 package hu.bme.mit.theta.analysis.expr.refinement;
 
 public enum PruneStrategy {
-    LAZY, FULL
+    /**
+     * Prune the subtree of the first node affected by the refinement.
+     */
+    LAZY,
+
+    /**
+     * Prune the whole ARG.
+     */
+    FULL,
+
+    /**
+     * Recompute the states along the refuted path with the refined precision before the next abstraction, and only
+     * prune from the node that becomes infeasible (falling back to {@link #LAZY} if the states cannot be matched).
+     */
+    RELABEL
 }
@@ -91,7 +91,7 @@ public class SingleExprTraceRefiner<S extends ExprState, A extends ExprAction, P
         logger.write(Level.DETAIL, "|  |  Trace: %s%n", traceToConcretize);
 
         logger.write(Level.SUBSTEP, "|  |  Checking trace...");
-        final ExprTraceStatus<R> cexStatus = exprTraceChecker.check(traceToConcretize);
+        final ExprTraceStatus<R> cexStatus = TraceCheckerMetrics.check(exprTraceChecker, traceToConcretize);
         logger.write(Level.SUBSTEP, "done, result: %s%n", cexStatus);
 
         assert cexStatus.isFeasible() || cexStatus.isInfeasible() : "Unknown CEX status";
@@ -116,6 +116,15 @@ public class SingleExprTraceRefiner<S extends ExprState, A extends ExprAction, P
                     logger.write(Level.SUBSTEP, "|  |  Pruning whole ARG", pruneIndex);
                     arg.pruneAll();
                     break;
+                case RELABEL:
+                    if (pruneIndex == 0) {
+                        logger.write(Level.SUBSTEP, "|  |  Pruning from index 0...");
+                        nodePruner.prune(arg, cexToConcretize.node(0));
+                    } else {
+                        logger.write(Level.SUBSTEP, "|  |  Marking for relabeling from index %d...", pruneIndex);
+                        arg.markForRelabeling(cexToConcretize.nodes().subList(pruneIndex, cexToConcretize.nodes().size()));
+                    }
+                    break;
                 default:
                     throw new UnsupportedOperationException("Unsupported pruning strategy");
             }
@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.common.metrics.Counter;
+import hu.bme.mit.theta.common.metrics.Histogram;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
+import hu.bme.mit.theta.common.metrics.Timer;
+
+/**
+ * Reports the trace checks of the refiners to the {@link MetricRegistry}.
+ */
+final class TraceCheckerMetrics {
+
+    private static final MetricRegistry METRICS = MetricRegistry.getInstance();
+    private static final Timer CHECK_TIMER = METRICS.timer("traceChecker.check");
+    private static final Counter FEASIBLE = METRICS.counter("traceChecker.feasible");
+    private static final Counter INFEASIBLE = METRICS.counter("traceChecker.infeasible");
+    private static final Histogram TRACE_LENGTH = METRICS.histogram("traceChecker.traceLength");
+
+    private TraceCheckerMetrics() {
+    }
+
+    static <R extends Refutation> ExprTraceStatus<R> check(final ExprTraceChecker<R> checker,
+                                                           final Trace<? extends ExprState, ? extends ExprAction> trace) {
+        final long start = CHECK_TIMER.start();
+        final ExprTraceStatus<R> status = checker.check(trace);
+        CHECK_TIMER.stop(start);
+        (status.isFeasible() ? FEASIBLE : INFEASIBLE).inc();
+        TRACE_LENGTH.record(trace.length());
+        return status;
+    }
+
+}
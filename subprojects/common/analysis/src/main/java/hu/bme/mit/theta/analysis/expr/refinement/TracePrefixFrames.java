@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.common.metrics.Counter;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexing;
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory;
+import hu.bme.mit.theta.solver.SolverBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Keeps the prefix of the last checked trace asserted in a solver, one frame per state, so that
+ * the next trace only has to pop back to the first state where the two traces diverge. Frame i
+ * holds the constraints of the i-th state and of the action leading to it (and the initial
+ * constraint for i = 0), unfolded with the i-th indexing. The number of reused and asserted frames
+ * is also reported to the {@link MetricRegistry}.
+ */
+final class TracePrefixFrames {
+
+    private static final MetricRegistry METRICS = MetricRegistry.getInstance();
+    private static final Counter REUSED_FRAMES = METRICS.counter("traceChecker.reusedFrames");
+    private static final Counter ASSERTED_FRAMES = METRICS.counter("traceChecker.assertedFrames");
+
+    private final SolverBase solver;
+    private final List<ExprState> states;
+    private final List<ExprAction> actions;
+    private final List<VarIndexing> indexings;
+
+    private long reusedFrames;
+    private long assertedFrames;
+
+    TracePrefixFrames(final SolverBase solver) {
+        this.solver = checkNotNull(solver);
+        this.states = new ArrayList<>();
+        this.actions = new ArrayList<>();
+        this.indexings = new ArrayList<>();
+        this.reusedFrames = 0;
+        this.assertedFrames = 0;
+    }
+
+    /**
+     * Pops the frames that are not part of the common prefix of the given trace and the
+     * currently asserted one. Returns the number of remaining frames.
+     */
+    int retainPrefixOf(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+        checkNotNull(trace);
+        final int max = Math.min(states.size(), trace.getStates().size());
+        int common = 0;
+        while (common < max && states.get(common).equals(trace.getState(common))
+                && (common == 0 || actions.get(common - 1).equals(trace.getAction(common - 1)))) {
+            ++common;
+        }
+        popTo(common);
+        reusedFrames += common;
+        REUSED_FRAMES.add(common);
+        return common;
+    }
+
+    /**
+     * Opens the frame of the next state of the trace, whose prefix must already be asserted.
+     * Returns the indexing to be used for the constraints of the new frame.
+     */
+    VarIndexing push(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+        final int i = states.size();
+        checkArgument(i < trace.getStates().size(), "Trace is already fully asserted");
+        final VarIndexing indexing = i == 0 ? VarIndexingFactory.indexing(0)
+                : indexings.get(i - 1).add(trace.getAction(i - 1).nextIndexing());
+        solver.push();
+        states.add(trace.getState(i));
+        if (i > 0) {
+            actions.add(trace.getAction(i - 1));
+        }
+        indexings.add(indexing);
+        ++assertedFrames;
+        ASSERTED_FRAMES.inc();
+        return indexing;
+    }
+
+    /**
+     * Pops frames until only the given number of frames remains.
+     */
+    void popTo(final int size) {
+        checkArgument(size >= 0);
+        if (size < states.size()) {
+            solver.pop(states.size() - size);
+            states.subList(size, states.size()).clear();
+            actions.subList(Math.max(size - 1, 0), actions.size()).clear();
+            indexings.subList(size, indexings.size()).clear();
+        }
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    VarIndexing getIndexing(final int i) {
+        return indexings.get(i);
+    }
+
+    List<VarIndexing> getIndexings() {
+        return List.copyOf(indexings);
+    }
+
+    long getReusedFrames() {
+        return reusedFrames;
+    }
+
+    long getAssertedFrames() {
+        return assertedFrames;
+    }
+
+}
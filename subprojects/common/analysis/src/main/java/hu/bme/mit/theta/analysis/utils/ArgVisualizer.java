@@ -131,14 +131,15 @@ public final class ArgVisualizer<S extends State, A extends Action> {
             graph.addEdge(sourceId, targetId, eAttributes);
         }
 
-        if (node.getCoveringNode().isPresent()) {
-            traverse(graph, node.getCoveringNode().get(), traversed);
+        // a node covered by a union has a covering edge to each node of the union
+        node.getCoveringNodes().forEach(coveringNode -> {
+            traverse(graph, coveringNode, traversed);
             final String sourceId = NODE_ID_PREFIX + node.getId();
-            final String targetId = NODE_ID_PREFIX + node.getCoveringNode().get().getId();
+            final String targetId = NODE_ID_PREFIX + coveringNode.getId();
             final EdgeAttributes eAttributes = EdgeAttributes.builder().label("").color(LINE_COLOR)
                     .lineStyle(COVER_EDGE_STYLE).weight(0).build();
             graph.addEdge(sourceId, targetId, eAttributes);
-        }
+        });
     }
 
 }
@@ -27,12 +27,16 @@ import static java.lang.Math.min;
 import java.util.Arrays;
 import java.util.function.IntBinaryOperator;
 
-import hu.bme.mit.theta.common.IntMatrix;
-
+/**
+ * A difference bound matrix over clocks 0..n, where 0 is the zero clock. The bounds are stored
+ * row by row in a flat array of exactly (n+1)^2 elements, so that element-wise operations
+ * (inclusion, equality) run as a single tight loop over the array.
+ */
 final class BasicDbm {
 
     private final int nClocks;
-    private final IntMatrix matrix;
+    private final int size;
+    private final int[] bounds;
 
     ////
 
@@ -40,13 +44,15 @@ final class BasicDbm {
         checkArgument(size > 0, "Zero sized DBM");
         checkNotNull(values);
         this.nClocks = size - 1;
-        matrix = IntMatrix.create(size, size);
+        this.size = size;
+        bounds = new int[size * size];
         fill(values);
     }
 
     BasicDbm(final BasicDbm dbm) {
         this.nClocks = dbm.nClocks;
-        this.matrix = IntMatrix.copyOf(dbm.matrix);
+        this.size = dbm.size;
+        this.bounds = dbm.bounds.clone();
     }
 
     ////
@@ -67,58 +73,85 @@ final class BasicDbm {
     int get(final int x, final int y) {
         checkArgument(isClock(x));
         checkArgument(isClock(y));
-        return matrix.get(x, y);
+        return bounds[x * size + y];
     }
 
     void set(final int x, final int y, final int b) {
         checkArgument(isClock(x));
         checkArgument(isClock(y));
-        matrix.set(x, y, b);
+        bounds[x * size + y] = b;
     }
 
     void fill(final IntBinaryOperator values) {
         checkNotNull(values);
-        matrix.fill(values);
+        for (int i = 0; i <= nClocks; i++) {
+            for (int j = 0; j <= nClocks; j++) {
+                bounds[i * size + j] = values.applyAsInt(i, j);
+            }
+        }
     }
 
     ////
 
     public int size() {
-        return nClocks + 1;
+        return size;
     }
 
     ////
 
     public boolean isConsistent() {
-        return matrix.get(0, 0) > 0;
+        return bounds[0] > 0;
     }
 
     public boolean isSatisfied(final int x, final int y, final int b) {
         checkArgument(isClock(x));
         checkArgument(isClock(y));
-        return add(matrix.get(y, x), b) >= Leq(0);
+        return add(bounds[y * size + x], b) >= Leq(0);
     }
 
     public boolean constrains(final int x) {
         checkArgument(isClock(x));
         for (int i = 0; i <= nClocks; i++) {
-            if (matrix.get(x, i) < defaultBound(x, i)) {
+            if (bounds[x * size + i] < defaultBound(x, i)) {
                 return true;
             }
 
-            if (matrix.get(i, x) < defaultBound(i, x)) {
+            if (bounds[i * size + x] < defaultBound(i, x)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Element-wise comparison with a DBM of the same size.
+     */
+    public boolean isLeq(final BasicDbm that) {
+        checkArgument(this.size == that.size);
+        final int[] thisBounds = this.bounds;
+        final int[] thatBounds = that.bounds;
+        for (int i = 0; i < thisBounds.length; i++) {
+            if (thisBounds[i] > thatBounds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Element-wise equality with a DBM of the same size.
+     */
+    public boolean isEqual(final BasicDbm that) {
+        checkArgument(this.size == that.size);
+        return Arrays.equals(this.bounds, that.bounds);
+    }
+
     ////
 
     public void up() {
         if (isConsistent()) {
             for (int i = 1; i <= nClocks; i++) {
-                matrix.set(i, 0, Inf());
+                bounds[i * size] = Inf();
             }
             assert isClosed();
         }
@@ -127,7 +160,7 @@ final class BasicDbm {
     public void down() {
         if (isConsistent()) {
             for (int i = 1; i <= nClocks; i++) {
-                matrix.set(0, i, Inf());
+                bounds[i] = Inf();
             }
             assert isClosed();
         }
@@ -141,21 +174,11 @@ final class BasicDbm {
             // do nothing
 
         } else if (!isSatisfied(x, y, b)) {
-            matrix.set(0, 0, Leq(-1));
-
-        } else if (b < matrix.get(x, y)) {
-            matrix.set(x, y, b);
+            bounds[0] = Leq(-1);
 
-            for (int i = 0; i <= nClocks; i++) {
-                for (int j = 0; j <= nClocks; j++) {
-                    if (add(matrix.get(i, x), matrix.get(x, j)) < matrix.get(i, j)) {
-                        matrix.set(i, j, add(matrix.get(i, x), matrix.get(x, j)));
-                    }
-                    if (add(matrix.get(i, y), matrix.get(y, j)) < matrix.get(i, j)) {
-                        matrix.set(i, j, add(matrix.get(i, y), matrix.get(y, j)));
-                    }
-                }
-            }
+        } else if (b < bounds[x * size + y]) {
+            bounds[x * size + y] = b;
+            closeThrough(x, y);
         }
         assert !isConsistent() || isClosed();
     }
@@ -167,37 +190,53 @@ final class BasicDbm {
 
         for (int k = 1; k <= nClocks; k++) {
             if (!isSatisfied(0, k, Leq(0))) {
-                matrix.set(0, 0, Leq(-1));
+                bounds[0] = Leq(-1);
                 return;
             }
 
-            if (Leq(0) < matrix.get(0, k)) {
-                matrix.set(0, k, Leq(0));
-
-                for (int i = 0; i <= nClocks; i++) {
-                    for (int j = 0; j <= nClocks; j++) {
-                        if (add(matrix.get(i, 0), matrix.get(0, j)) < matrix.get(i, j)) {
-                            matrix.set(i, j, add(matrix.get(i, 0), matrix.get(0, j)));
-                        }
-                        if (add(matrix.get(i, k), matrix.get(k, j)) < matrix.get(i, j)) {
-                            matrix.set(i, j, add(matrix.get(i, k), matrix.get(k, j)));
-                        }
-                    }
-                }
+            if (Leq(0) < bounds[k]) {
+                bounds[k] = Leq(0);
+                closeThrough(0, k);
             }
         }
 
         assert !isConsistent() || isClosed();
     }
 
+    /**
+     * Restores closure after tightening the bound of (x, y) in a closed DBM. Every new shortest
+     * path goes through the edge (x, y), so relaxing through x and then through y suffices.
+     */
+    private void closeThrough(final int x, final int y) {
+        relaxThrough(x);
+        relaxThrough(y);
+    }
+
+    private void relaxThrough(final int k) {
+        final int rowK = k * size;
+        for (int i = 0; i <= nClocks; i++) {
+            final int row = i * size;
+            final int ik = bounds[row + k];
+            if (ik == Inf()) {
+                continue;
+            }
+            for (int j = 0; j <= nClocks; j++) {
+                final int newBound = add(ik, bounds[rowK + j]);
+                if (newBound < bounds[row + j]) {
+                    bounds[row + j] = newBound;
+                }
+            }
+        }
+    }
+
     public void free(final int x) {
         checkArgument(isNonZeroClock(x));
 
         if (isConsistent()) {
             for (int i = 0; i <= nClocks; i++) {
                 if (i != x) {
-                    matrix.set(x, i, Inf());
-                    matrix.set(i, x, Inf());
+                    bounds[x * size + i] = Inf();
+                    bounds[i * size + x] = Inf();
                 }
             }
             assert isClosed();
@@ -213,8 +252,8 @@ final class BasicDbm {
 
         if (isConsistent()) {
             for (int i = 0; i <= nClocks; i++) {
-                matrix.set(x, i, add(Leq(m), matrix.get(0, i)));
-                matrix.set(i, x, add(matrix.get(i, 0), Leq(-m)));
+                bounds[x * size + i] = add(Leq(m), bounds[i]);
+                bounds[i * size + x] = add(bounds[i * size], Leq(-m));
             }
 
             assert isClosed();
@@ -226,12 +265,12 @@ final class BasicDbm {
 
         for (int i = 0; i <= nClocks; i++) {
             if (i != x) {
-                matrix.set(x, i, matrix.get(y, i));
-                matrix.set(i, x, matrix.get(i, y));
+                bounds[x * size + i] = bounds[y * size + i];
+                bounds[i * size + x] = bounds[i * size + y];
             }
         }
-        matrix.set(x, y, Leq(0));
-        matrix.set(y, x, Leq(0));
+        bounds[x * size + y] = Leq(0);
+        bounds[y * size + x] = Leq(0);
         assert isClosed();
     }
 
@@ -240,8 +279,8 @@ final class BasicDbm {
 
         for (int i = 0; i <= nClocks; i++) {
             if (i != x) {
-                matrix.set(x, i, add(matrix.get(x, i), Leq(m)));
-                matrix.set(i, x, add(matrix.get(i, x), Leq(-m)));
+                bounds[x * size + i] = add(bounds[x * size + i], Leq(m));
+                bounds[i * size + x] = add(bounds[i * size + x], Leq(-m));
             }
         }
         assert isClosed();
@@ -253,11 +292,12 @@ final class BasicDbm {
 
         for (int i = 0; i <= nClocks; i++) {
             for (int j = 0; j <= nClocks; j++) {
-                if (matrix.get(i, j) != Inf()) {
-                    if (matrix.get(i, j) > Leq(k[i])) {
-                        matrix.set(i, j, Inf());
-                    } else if (matrix.get(i, j) < Lt(-k[j])) {
-                        matrix.set(i, j, Lt(-k[j]));
+                final int b = bounds[i * size + j];
+                if (b != Inf()) {
+                    if (b > Leq(k[i])) {
+                        bounds[i * size + j] = Inf();
+                    } else if (b < Lt(-k[j])) {
+                        bounds[i * size + j] = Lt(-k[j]);
                     }
                 }
             }
@@ -267,15 +307,17 @@ final class BasicDbm {
 
     void close() {
         for (int k = 0; k <= nClocks; k++) {
+            final int rowK = k * size;
             for (int i = 0; i <= nClocks; i++) {
+                final int row = i * size;
+                final int ik = bounds[row + k];
                 for (int j = 0; j <= nClocks; j++) {
-                    final int newBound = min(matrix.get(i, j),
-                            add(matrix.get(i, k), matrix.get(k, j)));
+                    final int newBound = min(bounds[row + j], add(ik, bounds[rowK + j]));
                     if (i == j && newBound < Leq(0)) {
-                        matrix.set(0, 0, Leq(-1));
+                        bounds[0] = Leq(-1);
                         return;
                     } else {
-                        matrix.set(i, j, newBound);
+                        bounds[row + j] = newBound;
                     }
                 }
             }
@@ -284,16 +326,20 @@ final class BasicDbm {
     }
 
     int[] closeItp() {
-        final IntMatrix next = IntMatrix.create(nClocks + 1, nClocks + 1);
-        next.fill((x, y) -> y);
+        final int[] next = new int[size * size];
+        for (int i = 0; i <= nClocks; i++) {
+            for (int j = 0; j <= nClocks; j++) {
+                next[i * size + j] = j;
+            }
+        }
 
         for (int k = 0; k <= nClocks; k++) {
             for (int i = 0; i <= nClocks; i++) {
                 for (int j = 0; j <= nClocks; j++) {
-                    final int newBound = add(matrix.get(i, k), matrix.get(k, j));
-                    if (newBound < matrix.get(i, j)) {
-                        matrix.set(i, j, newBound);
-                        next.set(i, j, next.get(i, k));
+                    final int newBound = add(bounds[i * size + k], bounds[k * size + j]);
+                    if (newBound < bounds[i * size + j]) {
+                        bounds[i * size + j] = newBound;
+                        next[i * size + j] = next[i * size + k];
                         if (i == j && newBound < Leq(0)) {
                             final int[] cycle = path(next, i, j);
                             return cycle;
@@ -306,14 +352,14 @@ final class BasicDbm {
         throw new IllegalStateException();
     }
 
-    private int[] path(final IntMatrix next, final int u, final int v) {
+    private int[] path(final int[] next, final int u, final int v) {
         final int[] path = new int[nClocks + 2];
 
         int w = u;
         path[0] = w;
         int i = 1;
         do {
-            w = next.get(w, v);
+            w = next[w * size + v];
             path[i] = w;
             i++;
         } while (w != v);
@@ -325,7 +371,7 @@ final class BasicDbm {
         for (int i = 0; i <= nClocks; i++) {
             for (int j = 0; j <= nClocks; j++) {
                 for (int k = 0; k <= nClocks; k++) {
-                    if (matrix.get(i, j) > add(matrix.get(i, k), matrix.get(k, j))) {
+                    if (bounds[i * size + j] > add(bounds[i * size + k], bounds[k * size + j])) {
                         return false;
                     }
                 }
@@ -334,6 +380,70 @@ final class BasicDbm {
         return true;
     }
 
+    /**
+     * Computes the minimal constraint graph of a closed, consistent DBM (Larsen et al., 1997):
+     * the edges (x, y) whose bound is not implied by the other kept edges. Clocks on a zero
+     * cycle form a class that is represented by a cycle through its members, and edges between
+     * classes are only kept between their smallest members, if they are not implied through a
+     * third class.
+     */
+    boolean[] minimalEdges() {
+        assert isConsistent() && isClosed();
+        final boolean[] result = new boolean[size * size];
+
+        // class representative (smallest member) of each clock
+        final int[] repr = new int[size];
+        final int[] nextInClass = new int[size];
+        Arrays.fill(nextInClass, -1);
+        for (int i = 0; i <= nClocks; i++) {
+            repr[i] = i;
+            for (int j = 0; j < i; j++) {
+                if (repr[j] == j && add(bounds[i * size + j], bounds[j * size + i]) == Leq(0)) {
+                    repr[i] = j;
+                    break;
+                }
+            }
+        }
+
+        // cycles through the members of each zero cycle class
+        for (int i = 0; i <= nClocks; i++) {
+            if (repr[i] == i) {
+                int last = i;
+                for (int j = i + 1; j <= nClocks; j++) {
+                    if (repr[j] == i) {
+                        result[last * size + j] = true;
+                        last = j;
+                    }
+                }
+                if (last != i) {
+                    result[last * size + i] = true;
+                }
+            }
+        }
+
+        // edges between class representatives that are not implied through a third class
+        for (int i = 0; i <= nClocks; i++) {
+            if (repr[i] != i) {
+                continue;
+            }
+            for (int j = 0; j <= nClocks; j++) {
+                if (repr[j] != j || i == j || bounds[i * size + j] == Inf()) {
+                    continue;
+                }
+                boolean implied = false;
+                for (int k = 0; k <= nClocks && !implied; k++) {
+                    if (repr[k] == k && k != i && k != j
+                            && add(bounds[i * size + k], bounds[k * size + j]) <= bounds[i * size + j]) {
+                        implied = true;
+                    }
+                }
+                result[i * size + j] = !implied;
+            }
+        }
+
+        return result;
+    }
+
     ////
 
     @Override
@@ -353,7 +463,7 @@ final class BasicDbm {
         final StringBuilder sb = new StringBuilder();
         for (int i = 0; i <= nClocks; i++) {
             for (int j = 0; j <= nClocks; j++) {
-                sb.append(String.format("%-12s", asString(matrix.get(i, j))));
+                sb.append(String.format("%-12s", asString(bounds[i * size + j])));
             }
             sb.append(System.lineSeparator());
         }
@@ -346,6 +346,10 @@ final class DBM {
     }
 
     public DbmRelation getRelation(final DBM that) {
+        if (this.signature.equals(that.signature)) {
+            return DbmRelation.create(this.dbm.isLeq(that.dbm), that.dbm.isLeq(this.dbm));
+        }
+
         final Set<VarDecl<RatType>> vars = Sets.union(this.signature.toSet(), that.signature.toSet());
 
         boolean leq = true;
@@ -361,6 +365,10 @@ final class DBM {
     }
 
     public boolean isLeq(final DBM that) {
+        if (this.signature.equals(that.signature)) {
+            return this.dbm.isLeq(that.dbm);
+        }
+
         final Set<VarDecl<RatType>> vars = Sets.union(this.signature.toSet(), that.signature.toSet());
 
         for (final VarDecl<RatType> x : vars) {
@@ -446,19 +454,27 @@ final class DBM {
         return boundFunction.getLower(y).map(Ly -> Lt(-Ly)).orElse(Inf());
     }
 
+    /**
+     * Returns the constraints of the minimal constraint graph of the DBM, which is an equivalent
+     * but usually much smaller description of the zone than the full matrix.
+     */
     public Collection<ClockConstr> getConstrs() {
         final Collection<ClockConstr> result = Containers.createSet();
 
-        for (final VarDecl<RatType> leftVar : signature) {
-            for (final VarDecl<RatType> rightVar : signature) {
-                final int b = get(leftVar, rightVar);
-                final ClockConstr constr = DiffBounds.toConstr(leftVar, rightVar, b);
+        if (!isConsistent()) {
+            return Collections.singleton(ClockConstrs.False());
+        }
 
-                if (constr instanceof TrueConstr) {
+        final boolean[] minimalEdges = dbm.minimalEdges();
+        final int size = signature.size();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (!minimalEdges[i * size + j]) {
                     continue;
-                } else if (constr instanceof FalseConstr) {
-                    return Collections.singleton(constr);
-                } else {
+                }
+                final ClockConstr constr = DiffBounds.toConstr(signature.getVar(i), signature.getVar(j),
+                        dbm.get(i, j));
+                if (!(constr instanceof TrueConstr)) {
                     result.add(constr);
                 }
             }
@@ -541,6 +557,47 @@ final class DBM {
 
     ////
 
+    /**
+     * The hash code only depends on the bounds that differ from the default, so it is the same
+     * for DBMs describing the same zone over different signatures. All inconsistent DBMs are
+     * equal.
+     */
+    @Override
+    public int hashCode() {
+        if (!isConsistent()) {
+            return 0;
+        }
+        int result = 0;
+        for (int i = 0; i < signature.size(); i++) {
+            for (int j = 0; j < signature.size(); j++) {
+                final int b = dbm.get(i, j);
+                if (b != BasicDbm.defaultBound(i, j)) {
+                    final int varHash = 31 * signature.getVar(i).hashCode() + signature.getVar(j).hashCode();
+                    result += 31 * varHash + b;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj != null && this.getClass() == obj.getClass()) {
+            final DBM that = (DBM) obj;
+            if (!this.isConsistent() || !that.isConsistent()) {
+                return !this.isConsistent() && !that.isConsistent();
+            } else if (this.signature.equals(that.signature)) {
+                return this.dbm.isEqual(that.dbm);
+            } else {
+                return getRelation(that) == DbmRelation.EQUAL;
+            }
+        } else {
+            return false;
+        }
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -123,6 +123,23 @@ final class DbmSignature implements Iterable<VarDecl<RatType>> {
 
     ////
 
+    @Override
+    public int hashCode() {
+        return indexToVar.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj != null && this.getClass() == obj.getClass()) {
+            final DbmSignature that = (DbmSignature) obj;
+            return this.indexToVar.equals(that.indexToVar);
+        } else {
+            return false;
+        }
+    }
+
     @Override
     public String toString() {
         return Utils.lispStringBuilder(getClass().getSimpleName()).addAll(indexToVar).toString();
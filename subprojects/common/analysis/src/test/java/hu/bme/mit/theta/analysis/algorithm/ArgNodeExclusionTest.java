@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArgNodeExclusionTest {
+
+    private final Action a = new ActionStub("A");
+
+    @Test
+    public void testExclusionFollowsCovering() {
+        final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+        final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+        final ArgNode<State, Action> n1 = arg.createSuccNode(n0, a, new StateStub("1"), false);
+        final ArgNode<State, Action> n10 = arg.createSuccNode(n1, a, new StateStub("10"), false);
+        final ArgNode<State, Action> n100 = arg.createSuccNode(n10, a, new StateStub("100"), false);
+        final ArgNode<State, Action> n2 = arg.createSuccNode(n0, a, new StateStub("1"), false);
+
+        n1.setCoveringNode(n2);
+        assertTrue(n1.isExcluded());
+        assertTrue(n100.isExcluded());
+        assertFalse(n2.isExcluded());
+
+        // a node created below an excluded node is excluded as well
+        final ArgNode<State, Action> n11 = arg.createSuccNode(n1, a, new StateStub("11"), false);
+        assertTrue(n11.isExcluded());
+
+        n10.setCoveringNode(n2);
+        n1.unsetCoveringNode();
+        assertFalse(n1.isExcluded());
+        assertFalse(n11.isExcluded());
+        assertTrue(n100.isExcluded());
+
+        n2.clearCoveredNodes();
+        assertFalse(n100.isExcluded());
+
+        n1.cover(n2);
+        assertTrue(n100.isExcluded());
+        arg.prune(n1);
+        assertFalse(n2.isExcluded());
+    }
+
+    @Test
+    public void testCoveringByUnion() {
+        final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+        final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+        final ArgNode<State, Action> n1 = arg.createSuccNode(n0, a, new StateStub("1"), false);
+        final ArgNode<State, Action> n2 = arg.createSuccNode(n0, a, new StateStub("2"), false);
+        final ArgNode<State, Action> n3 = arg.createSuccNode(n0, a, new StateStub("3"), false);
+        final ArgNode<State, Action> n4 = arg.createSuccNode(n0, a, new StateStub("4"), false);
+
+        n3.setCoveringNodes(List.of(n1, n2));
+        assertTrue(n3.isCovered());
+        assertTrue(n3.isCoveredByUnion());
+        assertEquals(Optional.of(n1), n3.getCoveringNode());
+        assertEquals(List.of(n1, n2), n3.getCoveringNodes().collect(toList()));
+        assertEquals(List.of(n3), n2.getCoveredNodes().collect(toList()));
+
+        // uncovering from any node of the union uncovers the node from all of them
+        n2.clearCoveredNodes();
+        assertFalse(n3.isCovered());
+        assertFalse(n3.isCoveredByUnion());
+        assertEquals(0, n1.getCoveredNodes().count());
+
+        n3.setCoveringNodes(List.of(n1, n2));
+        n3.setCoveringNode(n4);
+        assertFalse(n3.isCoveredByUnion());
+        assertEquals(0, n1.getCoveredNodes().count());
+        assertEquals(0, n2.getCoveredNodes().count());
+
+        // covering a node of the union replaces it in the union
+        n3.setCoveringNodes(List.of(n1, n2));
+        n1.cover(n4);
+        assertEquals(List.of(n4, n2), n3.getCoveringNodes().collect(toList()));
+        assertEquals(0, n1.getCoveredNodes().count());
+
+        n3.unsetCoveringNode();
+        assertEquals(0, n4.getCoveredNodes().filter(n -> n == n3).count());
+        assertEquals(0, n2.getCoveredNodes().count());
+    }
+
+    @Test
+    public void testMayCover() {
+        final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+        final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+        final ArgNode<State, Action> n1 = arg.createSuccNode(n0, a, new StateStub("0"), false);
+        final ArgNode<State, Action> n2 = arg.createSuccNode(n1, a, new StateStub("0"), false);
+        final ArgNode<State, Action> n3 = arg.createSuccNode(n0, a, new StateStub("0"), false);
+
+        assertFalse(n2.mayCover(n2));
+        assertFalse(n2.mayCover(n1));
+        assertFalse(n2.mayCover(n0));
+        assertTrue(n1.mayCover(n2));
+        assertTrue(n3.mayCover(n2));
+        assertTrue(n2.mayCover(n3));
+
+        n1.setCoveringNode(n3);
+        assertFalse(n2.mayCover(n3));
+    }
+
+}
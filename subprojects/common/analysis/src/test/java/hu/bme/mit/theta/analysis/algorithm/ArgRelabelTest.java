@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArgRelabelTest {
+
+    private static final Action A = new ActionStub("A");
+    private static final Action B = new ActionStub("B");
+    private static final State BOTTOM = new StateStub("bottom") {
+        @Override
+        public boolean isBottom() {
+            return true;
+        }
+    };
+
+    // After refinement, B becomes infeasible (if blocking) and the states are relabeled in lowercase
+    private boolean refined = false;
+    private boolean blocking = true;
+
+    private final Analysis<State, Action, PrecStub> analysis = new Analysis<>() {
+        @Override
+        public PartialOrd<State> getPartialOrd() {
+            return new PartialOrdStub();
+        }
+
+        @Override
+        public InitFunc<State, PrecStub> getInitFunc() {
+            return p -> List.of(new StateStub("0"));
+        }
+
+        @Override
+        public TransFunc<State, Action, PrecStub> getTransFunc() {
+            return (s, a, p) -> {
+                if (!refined) {
+                    return List.of(new StateStub(s + a.toString()));
+                } else if (blocking && a == B) {
+                    return List.of(BOTTOM);
+                } else {
+                    return List.of(new StateStub(s + a.toString().toLowerCase()));
+                }
+            };
+        }
+    };
+
+    private final LTS<State, Action> lts = s -> List.of(A, B);
+    private final ArgBuilder<State, Action, PrecStub> argBuilder = ArgBuilder.create(lts, analysis,
+            s -> s.toString().endsWith("BA"));
+
+    private final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+    private final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+    private final ArgNode<State, Action> n1 = arg.createSuccNode(n0, A, new StateStub("0A"), false);
+    private final ArgNode<State, Action> n2 = arg.createSuccNode(n1, B, new StateStub("0AB"), false);
+    private final ArgNode<State, Action> n3 = arg.createSuccNode(n2, A, new StateStub("0ABA"), true);
+    private final ArgNode<State, Action> n4 = arg.createSuccNode(n1, A, new StateStub("0AA"), false);
+    private final ArgNode<State, Action> n5 = arg.createSuccNode(n0, B, new StateStub("0A"), false);
+
+    @Test
+    public void testRelabelInfeasiblePath() {
+        n5.cover(n1);
+        arg.markForRelabeling(List.of(n1, n2, n3));
+        refined = true;
+
+        assertEquals(1, argBuilder.relabel(arg, new PrecStub()));
+        assertEquals("0a", n1.getState().toString());
+        assertFalse(n5.isCovered());
+        assertTrue(arg.contains(n4));
+        assertFalse(arg.contains(n2));
+        assertFalse(arg.contains(n3));
+        assertEquals(0, arg.getUnsafeNodes().count());
+
+        // paths are only relabeled once
+        assertEquals(0, argBuilder.relabel(arg, new PrecStub()));
+    }
+
+    @Test
+    public void testRelabelFeasiblePathFallsBackToPruning() {
+        arg.markForRelabeling(List.of(n2, n3));
+        refined = true;
+        blocking = false;
+
+        assertEquals(0, argBuilder.relabel(arg, new PrecStub()));
+        assertEquals("0A", n1.getState().toString());
+        assertFalse(arg.contains(n2));
+        assertTrue(arg.contains(n4));
+        assertTrue(n1.getSuccNodes().noneMatch(n -> n == n2));
+    }
+
+    @Test
+    public void testPrunedPathIsSkipped() {
+        arg.markForRelabeling(List.of(n2, n3));
+        arg.prune(n1);
+        refined = true;
+
+        assertEquals(0, argBuilder.relabel(arg, new PrecStub()));
+        assertEquals(List.of(n5), n0.getSuccNodes().toList());
+    }
+
+}
@@ -38,6 +38,7 @@ class BoundedTest {
 
         private var unsafeMonolithicExpr: MonolithicExpr? = null
         private var safeMonolithicExpr: MonolithicExpr? = null
+        private var initiallyUnsafeMonolithicExpr: MonolithicExpr? = null
         private val valToState = { valuation: Valuation ->
             ExprStateStub(valuation.toExpr())
         }
@@ -61,6 +62,14 @@ class BoundedTest {
                 AbstractExprs.Neq(x.ref, Int(-5)),
                 unfoldResult.indexing
             )
+            // y is never assigned, so the property is folded to False, and x is outside its cone
+            val y = Decls.Var("y", Int())
+            initiallyUnsafeMonolithicExpr = MonolithicExpr(
+                And(AbstractExprs.Eq(x.ref, Int(0)), AbstractExprs.Eq(y.ref, Int(0))),
+                And(unfoldResult.exprs),
+                AbstractExprs.Eq(y.ref, Int(1)),
+                unfoldResult.indexing
+            )
         }
     }
 
@@ -97,4 +106,38 @@ class BoundedTest {
         val safetyResult: SafetyResult<*, *> = checker.check()
         Assert.assertTrue(safetyResult.isSafe())
     }
+
+    @Test
+    fun testBmcInitiallyUnsafe() {
+        val solver = Z3SolverFactory.getInstance().createSolver()
+        val checker: BoundedChecker<*, *> = BoundedChecker(
+            monolithicExpr = initiallyUnsafeMonolithicExpr!!,
+            bmcSolver = solver,
+            lfPathOnly = { true },
+            imcEnabled = { false },
+            kindEnabled = { false },
+            valToState = valToState,
+            biValToAction = biValToAction,
+            logger = ConsoleLogger(Logger.Level.VERBOSE))
+        val safetyResult: SafetyResult<*, *> = checker.check()
+        Assert.assertTrue(safetyResult.isUnsafe())
+        Assert.assertEquals(0, safetyResult.asUnsafe().trace.length())
+    }
+
+    @Test
+    fun testImcInitiallyUnsafe() {
+        val itpSolver = Z3SolverFactory.getInstance().createItpSolver()
+        val checker: BoundedChecker<*, *> = BoundedChecker(
+            monolithicExpr = initiallyUnsafeMonolithicExpr!!,
+            bmcEnabled = { false },
+            lfPathOnly = { true },
+            itpSolver = itpSolver,
+            kindEnabled = { false },
+            valToState = valToState,
+            biValToAction = biValToAction,
+            logger = ConsoleLogger(Logger.Level.VERBOSE))
+        val safetyResult: SafetyResult<*, *> = checker.check()
+        Assert.assertTrue(safetyResult.isUnsafe())
+        Assert.assertEquals(0, safetyResult.asUnsafe().trace.length())
+    }
 }
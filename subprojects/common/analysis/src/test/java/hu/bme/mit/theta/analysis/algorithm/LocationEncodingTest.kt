@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm
+
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncoding
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncodingType
+import hu.bme.mit.theta.core.model.ImmutableValuation
+import hu.bme.mit.theta.core.model.Valuation
+import hu.bme.mit.theta.core.stmt.AssignStmt
+import hu.bme.mit.theta.core.type.LitExpr
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.False
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.True
+import hu.bme.mit.theta.core.type.booltype.BoolType
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class LocationEncodingTest {
+
+    private val size = 5
+
+    private fun valuation(encoding: LocationEncoding, loc: Int): Valuation {
+        // every encoding starts from an arbitrary valuation and moves to the location with its own statements
+        val builder = ImmutableValuation.builder()
+        encoding.vars.filter { it.type is BoolType }.forEach { builder.put(it, False()) }
+        return apply(builder.build(), encoding, 0, loc)
+    }
+
+    private fun apply(valuation: Valuation, encoding: LocationEncoding, from: Int, to: Int): Valuation {
+        val values = valuation.toMap().toMutableMap()
+        if (encoding.type == LocationEncodingType.ONE_HOT) values[encoding.vars[from]] = True()
+        encoding.move(from, to).forEach {
+            val assign = it as AssignStmt<*>
+            values[assign.varDecl] = assign.expr.eval(ImmutableValuation.empty()) as LitExpr<*>
+        }
+        return ImmutableValuation.from(values)
+    }
+
+    @Test
+    fun testEncodings() {
+        for (type in LocationEncodingType.values()) {
+            val encoding = LocationEncoding("loc", size, type)
+            for (loc in 0 until size) {
+                val valuation = valuation(encoding, loc)
+                assertEquals(type.name, loc, encoding.valueOf(valuation))
+                assertEquals(type.name, True(), encoding.initially(loc).eval(valuation))
+                for (other in 0 until size) {
+                    assertEquals(type.name, if (other == loc) True() else False(), encoding.isAt(other).eval(valuation))
+                }
+            }
+        }
+    }
+
+    @Test
+    fun testVariables() {
+        assertEquals(1, LocationEncoding("loc", size, LocationEncodingType.INTEGER).vars.size)
+        assertEquals(1, LocationEncoding("loc", size, LocationEncodingType.BITVECTOR).vars.size)
+        assertEquals(size, LocationEncoding("loc", size, LocationEncodingType.ONE_HOT).vars.size)
+        assertEquals(null, LocationEncoding("loc", size, LocationEncodingType.INTEGER).valueOf(ImmutableValuation.empty()))
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm
+
+import hu.bme.mit.theta.analysis.algorithm.bounded.MonolithicExpr
+import hu.bme.mit.theta.analysis.algorithm.bounded.reduce
+import hu.bme.mit.theta.core.decl.Decls
+import hu.bme.mit.theta.core.stmt.Stmts.Assign
+import hu.bme.mit.theta.core.stmt.Stmts.Assume
+import hu.bme.mit.theta.core.stmt.Stmts.SequenceStmt
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.And
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Add
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Eq
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Int
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Lt
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Neq
+import hu.bme.mit.theta.core.utils.StmtUtils
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class MonolithicExprReductionTest {
+
+    private val x = Decls.Var("x", Int())
+    private val y = Decls.Var("y", Int())
+    private val z = Decls.Var("z", Int())
+    private val c = Decls.Var("c", Int())
+
+    private fun monolithicExpr(guardY: Boolean): MonolithicExpr {
+        val stmts = listOfNotNull(
+            if (guardY) Assume(Lt(y.ref, Int(10))) else null,
+            Assign(x, Add(x.ref, c.ref)),
+            Assign(y, Add(y.ref, Int(1))),
+            Assign(z, Add(z.ref, x.ref)))
+        val unfoldResult = StmtUtils.toExpr(SequenceStmt(stmts), VarIndexingFactory.indexing(0))
+        return MonolithicExpr(
+            And(Eq(x.ref, Int(0)), Eq(y.ref, Int(0)), Eq(z.ref, Int(0)), Eq(c.ref, Int(5))),
+            And(unfoldResult.exprs),
+            Neq(x.ref, Int(7)),
+            unfoldResult.indexing
+        )
+    }
+
+    @Test
+    fun testConeOfInfluence() {
+        val reduction = monolithicExpr(false).reduce()
+
+        assertEquals(setOf(x), reduction.monolithicExpr.vars().toSet())
+        assertEquals(Int(5), reduction.constants.eval(c).get())
+        assertEquals(setOf(y, z), reduction.removedVars.toSet())
+        assertEquals(1, reduction.transConjuncts.size)
+    }
+
+    @Test
+    fun testGuardKeepsVariables() {
+        val reduction = monolithicExpr(true).reduce()
+
+        assertEquals(setOf(x, y), reduction.monolithicExpr.vars().toSet())
+        assertEquals(setOf(z), reduction.removedVars.toSet())
+        assertEquals(3, reduction.transConjuncts.size)
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.CloseableTransFunc;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BasicAbstractorTest {
+
+    private static final int MOD = 50;
+    private static final Action PLUS_ONE = new ActionStub("+1");
+    private static final Action PLUS_TWO = new ActionStub("+2");
+    private static final LTS<State, Action> LTS = s -> List.of(PLUS_ONE, PLUS_TWO);
+
+    private static final Analysis<State, Action, PrecStub> ANALYSIS = new Analysis<>() {
+        @Override
+        public PartialOrd<State> getPartialOrd() {
+            return new PartialOrdStub();
+        }
+
+        @Override
+        public InitFunc<State, PrecStub> getInitFunc() {
+            return p -> List.of(new StateStub("0"));
+        }
+
+        @Override
+        public TransFunc<State, Action, PrecStub> getTransFunc() {
+            return (s, a, p) -> {
+                final int value = Integer.parseInt(s.toString()) + (a.equals(PLUS_ONE) ? 1 : 2);
+                return List.of(new StateStub(Integer.toString(value % MOD)));
+            };
+        }
+    };
+
+    @Test
+    public void testParallelSafe() {
+        final AtomicInteger transFuncs = new AtomicInteger();
+        final ArgBuilder<State, Action, PrecStub> argBuilder = ArgBuilder.create(LTS, ANALYSIS, s -> false);
+        final Abstractor<State, Action, PrecStub> abstractor = BasicAbstractor.builder(argBuilder)
+                .stopCriterion(StopCriterions.fullExploration())
+                .parallel(4, () -> {
+                    transFuncs.incrementAndGet();
+                    return ANALYSIS.getTransFunc();
+                }).build();
+
+        final ARG<State, Action> arg = abstractor.createArg();
+        final AbstractorResult result = abstractor.check(arg, new PrecStub());
+
+        assertTrue(result.isSafe());
+        assertTrue(arg.isComplete());
+        assertEquals(4, transFuncs.get());
+        final Set<String> states = arg.getNodes().filter(n -> !n.isCovered())
+                .map(n -> n.getState().toString()).collect(Collectors.toSet());
+        assertEquals(MOD, states.size());
+    }
+
+    @Test
+    public void testParallelUnsafe() {
+        final ArgBuilder<State, Action, PrecStub> argBuilder = ArgBuilder.create(LTS, ANALYSIS,
+                s -> s.toString().equals("37"));
+        final Abstractor<State, Action, PrecStub> abstractor = BasicAbstractor.builder(argBuilder)
+                .parallel(3, ANALYSIS::getTransFunc).build();
+
+        final ARG<State, Action> arg = abstractor.createArg();
+        final AbstractorResult result = abstractor.check(arg, new PrecStub());
+
+        assertTrue(result.isUnsafe());
+        final ArgNode<State, Action> target = arg.getUnsafeNodes().findFirst().get();
+        assertEquals("37", target.getState().toString());
+    }
+
+    @Test
+    public void testParallelSameAsSequential() {
+        for (final String target : List.of("37", "none")) {
+            final ARG<State, Action> sequential = build(1, target, new AtomicInteger());
+            final AtomicInteger closed = new AtomicInteger();
+            final ARG<State, Action> parallel = build(4, target, closed);
+
+            assertEquals(sequential.isSafe(), parallel.isSafe());
+            assertEquals(sequential.getNodes().count(), parallel.getNodes().count());
+            assertEquals(sequential.getNodes().filter(ArgNode::isCovered).count(),
+                    parallel.getNodes().filter(ArgNode::isCovered).count());
+            assertEquals(sequential.getIncompleteNodes().count(), parallel.getIncompleteNodes().count());
+            assertEquals(4, closed.get());
+        }
+    }
+
+    private ARG<State, Action> build(final int threads, final String target, final AtomicInteger closed) {
+        final ArgBuilder<State, Action, PrecStub> argBuilder = ArgBuilder.create(LTS, ANALYSIS,
+                s -> s.toString().equals(target));
+        final Abstractor<State, Action, PrecStub> abstractor = BasicAbstractor.builder(argBuilder)
+                .parallel(threads, () -> CloseableTransFunc.create(ANALYSIS.getTransFunc(),
+                        closed::incrementAndGet)).build();
+        final ARG<State, Action> arg = abstractor.createArg();
+        abstractor.check(arg, new PrecStub());
+        return arg;
+    }
+
+}
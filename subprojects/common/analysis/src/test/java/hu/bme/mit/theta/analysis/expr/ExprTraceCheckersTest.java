@@ -63,6 +63,10 @@ public final class ExprTraceCheckersTest {
         traceCheckers.add(ExprTraceFwBinItpChecker.create(True(), True(), itpSolver));
         traceCheckers.add(ExprTraceBwBinItpChecker.create(True(), True(), itpSolver));
         traceCheckers.add(ExprTraceUnsatCoreChecker.create(True(), True(), ucSolver));
+        traceCheckers.add(ExprTraceSeqItpChecker.createIncremental(True(), True(),
+                Z3SolverFactory.getInstance().createItpSolver()));
+        traceCheckers.add(ExprTraceFwBinItpChecker.createIncremental(True(), True(),
+                Z3SolverFactory.getInstance().createItpSolver()));
     }
 
     @Test
@@ -114,4 +118,42 @@ public final class ExprTraceCheckersTest {
         }
     }
 
+    @Test
+    public void testIncrementalPrefix() {
+        // Arrange
+        final Expr<IntType> x = Var("x", Int()).getRef();
+
+        final ExprAction resetMock = mock(ExprAction.class);
+        doReturn(Eq(Prime(x), Int(0))).when(resetMock).toExpr();
+        when(resetMock.nextIndexing()).thenReturn(VarIndexingFactory.indexing(1));
+
+        final ExprAction incMock = mock(ExprAction.class);
+        doReturn(Eq(Prime(x), Add(x, Int(1)))).when(incMock).toExpr();
+        when(incMock.nextIndexing()).thenReturn(VarIndexingFactory.indexing(1));
+
+        final ExprAction guardMock = mock(ExprAction.class);
+        doReturn(Geq(x, Int(1))).when(guardMock).toExpr();
+        when(guardMock.nextIndexing()).thenReturn(VarIndexingFactory.indexing(0));
+
+        final Trace<ExprState, ExprAction> infeasible = ExprTraceUtils.traceFrom(
+                Arrays.asList(resetMock, guardMock));
+        final Trace<ExprState, ExprAction> feasible = ExprTraceUtils.traceFrom(
+                Arrays.asList(resetMock, incMock, guardMock));
+
+        final ExprTraceSeqItpChecker seqChecker = ExprTraceSeqItpChecker.createIncremental(True(),
+                True(), Z3SolverFactory.getInstance().createItpSolver());
+        final ExprTraceFwBinItpChecker fwBinChecker = ExprTraceFwBinItpChecker.createIncremental(
+                True(), True(), Z3SolverFactory.getInstance().createItpSolver());
+
+        for (final ExprTraceChecker<?> checker : List.of(seqChecker, fwBinChecker)) {
+            // Act & Assert
+            assertTrue(checker.check(infeasible).isInfeasible());
+            assertTrue(checker.check(feasible).isFeasible());
+            assertTrue(checker.check(infeasible).isInfeasible());
+            assertTrue(checker.check(feasible).isFeasible());
+        }
+        assertTrue(seqChecker.getReusedFrames() > 0);
+        assertTrue(fwBinChecker.getReusedFrames() > 0);
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.cegar.RefinerResult;
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.stmt.Stmts;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MultiExprTraceRefinerTest {
+
+    private static final class ActionStub extends StmtAction {
+        @Override
+        public List<Stmt> getStmts() {
+            return List.of(Stmts.Skip());
+        }
+    }
+
+    private final List<ExprAction> actions = new ArrayList<>();
+
+    private ARG<ExplState, ExprAction> createArg() {
+        actions.clear();
+        final ARG<ExplState, ExprAction> arg = ARG.create((s1, s2) -> false);
+        final ArgNode<ExplState, ExprAction> root = arg.createInitNode(ExplState.top(), false);
+        ArgNode<ExplState, ExprAction> parent = root;
+        for (int i = 0; i < 12; i++) {
+            if (i % 3 == 0) {
+                final ExprAction action = new ActionStub();
+                actions.add(action);
+                parent = arg.createSuccNode(root, action, ExplState.top(), false);
+            }
+            final ExprAction action = new ActionStub();
+            actions.add(action);
+            arg.createSuccNode(parent, action, ExplState.top(), true);
+        }
+        return arg;
+    }
+
+    private int lastAction(final Trace<?, ?> trace) {
+        return actions.indexOf(trace.getAction(trace.length() - 1));
+    }
+
+    private ExprTraceChecker<Refutation> createChecker(final Set<Integer> feasible) {
+        return trace -> {
+            if (feasible.contains(lastAction(trace))) {
+                return ExprTraceStatus.feasible(Trace.of(List.of(ImmutableValuation.empty()), List.of()));
+            } else {
+                return ExprTraceStatus.infeasible(() -> 1);
+            }
+        };
+    }
+
+    private RefinerResult<ExplState, ExprAction, ExplPrec> refine(final int threads, final Set<Integer> feasible,
+                                                                  final List<Integer> refined) {
+        final PrecRefiner<ExplState, ExprAction, ExplPrec, Refutation> precRefiner = (prec, trace, refutation) -> {
+            refined.add(lastAction(trace));
+            return prec;
+        };
+        final MultiExprTraceRefiner<ExplState, ExprAction, ExplPrec, Refutation> refiner = MultiExprTraceRefiner.create(
+                createChecker(feasible), () -> createChecker(feasible), threads, precRefiner, PruneStrategy.FULL,
+                NullLogger.getInstance());
+        return refiner.refine(createArg(), ExplPrec.empty());
+    }
+
+    @Test
+    public void testParallelSpurious() {
+        final List<Integer> sequential = new ArrayList<>();
+        final List<Integer> parallel = new ArrayList<>();
+        assertTrue(refine(1, Set.of(), sequential).isSpurious());
+        assertTrue(refine(4, Set.of(), parallel).isSpurious());
+
+        assertEquals(12, parallel.size());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testParallelUnsafe() {
+        final RefinerResult<ExplState, ExprAction, ExplPrec> sequential = refine(1, Set.of(6, 10), new ArrayList<>());
+        final int expected = lastAction(sequential.asUnsafe().getCex());
+        final RefinerResult<ExplState, ExprAction, ExplPrec> parallel = refine(4, Set.of(6, 10), new ArrayList<>());
+
+        assertTrue(parallel.isUnsafe());
+        assertEquals(expected, lastAction(parallel.asUnsafe().getCex()));
+    }
+
+}
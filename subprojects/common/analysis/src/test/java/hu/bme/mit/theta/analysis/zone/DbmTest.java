@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import hu.bme.mit.theta.core.clock.constr.ClockConstr;
+import hu.bme.mit.theta.core.clock.constr.ClockConstrs;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class DbmTest {
+
+    private static final VarDecl<RatType> X = Var("x", Rat());
+    private static final VarDecl<RatType> Y = Var("y", Rat());
+    private static final VarDecl<RatType> Z = Var("z", Rat());
+    private static final List<VarDecl<RatType>> CLOCKS = List.of(X, Y, Z);
+
+    @Test
+    public void testEqualsAcrossSignatures() {
+        final DBM dbm1 = DBM.top(List.of(X, Y));
+        dbm1.and(ClockConstrs.Leq(X, 3));
+        final DBM dbm2 = DBM.top(List.of(Y, X, Z));
+        dbm2.and(ClockConstrs.Leq(X, 3));
+
+        assertEquals(dbm1, dbm2);
+        assertEquals(dbm1.hashCode(), dbm2.hashCode());
+
+        dbm2.and(ClockConstrs.Leq(Z, 5));
+        assertNotEquals(dbm1, dbm2);
+        assertTrue(dbm2.isLeq(dbm1));
+        assertFalse(dbm1.isLeq(dbm2));
+    }
+
+    @Test
+    public void testEqualsBottom() {
+        final DBM dbm1 = DBM.top(CLOCKS);
+        dbm1.and(ClockConstrs.Leq(X, 3));
+        dbm1.and(ClockConstrs.Geq(X, 4));
+        final DBM dbm2 = DBM.bottom(List.of(Y));
+
+        assertEquals(dbm1, dbm2);
+        assertEquals(dbm1.hashCode(), dbm2.hashCode());
+    }
+
+    @Test
+    public void testMinimalConstrs() {
+        final Random random = new Random(42);
+        for (int n = 0; n < 500; n++) {
+            final DBM dbm = randomDbm(random);
+            if (!dbm.isConsistent()) {
+                continue;
+            }
+            final Collection<ClockConstr> constrs = dbm.getConstrs();
+            final DBM rebuilt = DBM.top(CLOCKS);
+            constrs.forEach(rebuilt::and);
+
+            assertEquals(dbm, rebuilt);
+            assertEquals(DbmRelation.EQUAL, dbm.getRelation(rebuilt));
+        }
+    }
+
+    @Test
+    public void testMinimalConstrsZeroCycle() {
+        final DBM dbm = DBM.top(CLOCKS);
+        dbm.and(ClockConstrs.Eq(X, Y, 0));
+        dbm.and(ClockConstrs.Eq(Y, Z, 0));
+        dbm.and(ClockConstrs.Leq(X, 4));
+
+        // x = y = z and x <= 4: a cycle through the three clocks and one upper bound
+        assertEquals(4, dbm.getConstrs().size());
+    }
+
+    private static DBM randomDbm(final Random random) {
+        final DBM dbm = DBM.zero(CLOCKS);
+        for (int i = 0; i < 6; i++) {
+            final VarDecl<RatType> x = CLOCKS.get(random.nextInt(CLOCKS.size()));
+            final VarDecl<RatType> y = CLOCKS.get(random.nextInt(CLOCKS.size()));
+            final int c = random.nextInt(10);
+            switch (random.nextInt(5)) {
+                case 0:
+                    dbm.up();
+                    break;
+                case 1:
+                    dbm.reset(x, c);
+                    break;
+                case 2:
+                    dbm.and(ClockConstrs.Leq(x, c));
+                    break;
+                case 3:
+                    dbm.and(ClockConstrs.Gt(x, c / 2));
+                    break;
+                default:
+                    if (x != y) {
+                        dbm.and(ClockConstrs.Lt(x, y, c - 5));
+                    }
+                    break;
+            }
+        }
+        return dbm;
+    }
+
+}
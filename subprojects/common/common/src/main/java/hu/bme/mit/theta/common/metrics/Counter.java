@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing counter. Updates are ignored while the registry of the counter is
+ * disabled.
+ */
+public final class Counter {
+
+    private final MetricRegistry registry;
+    private final LongAdder count = new LongAdder();
+
+    Counter(final MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void inc() {
+        add(1);
+    }
+
+    public void add(final long n) {
+        if (registry.isEnabled()) {
+            count.add(n);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+
+}
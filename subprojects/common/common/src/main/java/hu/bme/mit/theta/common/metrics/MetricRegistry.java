@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Registry of named counters, timers and histograms. Metrics are created on first access and are
+ * safe to update from multiple threads. The registry is disabled by default, in which case
+ * updating the metrics has (almost) no cost. Use {@link #getInstance()} for the registry that the
+ * algorithms report to.
+ */
+public final class MetricRegistry {
+
+    private static final class LazyHolder {
+
+        private static final MetricRegistry INSTANCE = new MetricRegistry();
+    }
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private volatile boolean enabled = false;
+
+    private MetricRegistry() {
+    }
+
+    public static MetricRegistry create() {
+        return new MetricRegistry();
+    }
+
+    public static MetricRegistry getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Counter counter(final String name) {
+        checkNotNull(name);
+        return counters.computeIfAbsent(name, n -> new Counter(this));
+    }
+
+    public Timer timer(final String name) {
+        checkNotNull(name);
+        return timers.computeIfAbsent(name, n -> new Timer(this));
+    }
+
+    public Histogram histogram(final String name) {
+        checkNotNull(name);
+        return histograms.computeIfAbsent(name, n -> new Histogram(this));
+    }
+
+    /**
+     * Resets the value of every metric (but keeps the metrics themselves).
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(Timer::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Returns the current values of the metrics as a JSON object, with metrics ordered by name.
+     * Times are given in milliseconds.
+     */
+    public String toJson() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"counters\": {");
+        appendEntries(sb, counters, c -> Long.toString(c.getCount()));
+        sb.append("},\n  \"timers\": {");
+        appendEntries(sb, timers, t -> String.format(Locale.ROOT,
+                "{\"count\": %d, \"totalMs\": %.3f, \"maxMs\": %.3f}", t.getCount(),
+                t.getTotal(TimeUnit.NANOSECONDS) / 1e6, t.getMax(TimeUnit.NANOSECONDS) / 1e6));
+        sb.append("},\n  \"histograms\": {");
+        appendEntries(sb, histograms, h -> String.format(Locale.ROOT,
+                "{\"count\": %d, \"sum\": %d, \"min\": %d, \"max\": %d, \"mean\": %.3f}",
+                h.getCount(), h.getSum(), h.getMin(), h.getMax(), h.getMean()));
+        sb.append("}\n}\n");
+        return sb.toString();
+    }
+
+    public void writeJson(final File file) throws FileNotFoundException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.write(toJson());
+        }
+    }
+
+    private static <M> void appendEntries(final StringBuilder sb, final Map<String, M> metrics,
+                                          final Function<M, String> format) {
+        String separator = "\n";
+        for (final Map.Entry<String, M> entry : new TreeMap<>(metrics).entrySet()) {
+            sb.append(separator).append("    \"").append(escape(entry.getKey())).append("\": ")
+                    .append(format.apply(entry.getValue()));
+            separator = ",\n";
+        }
+        if (!metrics.isEmpty()) {
+            sb.append("\n  ");
+        }
+    }
+
+    private static String escape(final String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+}
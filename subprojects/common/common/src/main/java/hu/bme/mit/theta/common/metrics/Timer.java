@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the number and the duration of events. Durations are only measured while the registry
+ * of the timer is enabled, so timing code paths is cheap otherwise.
+ */
+public final class Timer {
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final MetricRegistry registry;
+    private final Histogram nanos;
+
+    Timer(final MetricRegistry registry) {
+        this.registry = registry;
+        this.nanos = new Histogram(registry);
+    }
+
+    /**
+     * Returns the start time of an event to be passed to {@link #stop(long)}.
+     */
+    public long start() {
+        return registry.isEnabled() ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Records an event started at the given time (obtained from {@link #start()}).
+     */
+    public void stop(final long start) {
+        if (registry.isEnabled() && start != NOT_STARTED) {
+            nanos.record(System.nanoTime() - start);
+        }
+    }
+
+    public <T> T time(final Supplier<T> supplier) {
+        final long start = start();
+        try {
+            return supplier.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public void time(final Runnable runnable) {
+        final long start = start();
+        try {
+            runnable.run();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public long getCount() {
+        return nanos.getCount();
+    }
+
+    public long getTotal(final TimeUnit unit) {
+        return unit.convert(nanos.getSum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMax(final TimeUnit unit) {
+        return unit.convert(nanos.getMax(), TimeUnit.NANOSECONDS);
+    }
+
+    void reset() {
+        nanos.reset();
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.common.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MetricRegistryTest {
+
+    @Test
+    public void testDisabled() {
+        final MetricRegistry registry = MetricRegistry.create();
+        registry.counter("c").inc();
+        registry.histogram("h").record(3);
+        registry.timer("t").time(() -> {
+        });
+
+        assertEquals(0, registry.counter("c").getCount());
+        assertEquals(0, registry.histogram("h").getCount());
+        assertEquals(0, registry.timer("t").getCount());
+    }
+
+    @Test
+    public void testEnabled() {
+        final MetricRegistry registry = MetricRegistry.create();
+        registry.setEnabled(true);
+
+        assertSame(registry.counter("c"), registry.counter("c"));
+        registry.counter("c").inc();
+        registry.counter("c").add(2);
+        assertEquals(3, registry.counter("c").getCount());
+
+        final Histogram histogram = registry.histogram("h");
+        histogram.record(4);
+        histogram.record(1);
+        histogram.record(7);
+        assertEquals(3, histogram.getCount());
+        assertEquals(12, histogram.getSum());
+        assertEquals(1, histogram.getMin());
+        assertEquals(7, histogram.getMax());
+        assertEquals(4.0, histogram.getMean(), 1e-9);
+
+        final Timer timer = registry.timer("t");
+        assertEquals(42, (int) timer.time(() -> 42));
+        assertEquals(1, timer.getCount());
+        assertTrue(timer.getMax(TimeUnit.NANOSECONDS) <= timer.getTotal(TimeUnit.NANOSECONDS));
+
+        registry.reset();
+        assertEquals(0, registry.counter("c").getCount());
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void testJson() {
+        final MetricRegistry registry = MetricRegistry.create();
+        registry.setEnabled(true);
+        registry.counter("b").inc();
+        registry.counter("a\"").add(2);
+        registry.histogram("h").record(5);
+
+        final String expected = String.join("\n",
+                "{",
+                "  \"counters\": {",
+                "    \"a\\\"\": 2,",
+                "    \"b\": 1",
+                "  },",
+                "  \"timers\": {},",
+                "  \"histograms\": {",
+                "    \"h\": {\"count\": 1, \"sum\": 5, \"min\": 5, \"max\": 5, \"mean\": 5.000}",
+                "  }",
+                "}",
+                "");
+        assertEquals(expected, registry.toJson());
+    }
+
+}
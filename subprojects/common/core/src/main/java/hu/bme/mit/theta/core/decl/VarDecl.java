@@ -45,7 +45,8 @@ public final class VarDecl<DeclType extends Type> extends Decl<DeclType> {
         return new VarDecl<>(from.getName(), from.getType());
     }
 
-    public IndexedConstDecl<DeclType> getConstDecl(final int index) {
+    // Synchronized, as the same constant must be returned even if called from multiple threads
+    public synchronized IndexedConstDecl<DeclType> getConstDecl(final int index) {
         checkArgument(index >= 0);
         IndexedConstDecl<DeclType> constDecl = indexToConst.get(index);
         if (constDecl == null) {
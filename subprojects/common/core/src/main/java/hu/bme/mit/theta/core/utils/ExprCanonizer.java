@@ -272,12 +272,14 @@ public final class ExprCanonizer {
 
             .build();
 
+    private static final ExprTraversal.ScopedCache CACHE = new ExprTraversal.ScopedCache();
+
     private ExprCanonizer() {
     }
 
     @SuppressWarnings("unchecked")
     public static <T extends Type> Expr<T> canonize(final Expr<T> expr) {
-        return (Expr<T>) TABLE.dispatch(expr);
+        return CACHE.apply(expr, null, e -> (Expr<T>) TABLE.dispatch(e));
     }
 
     /*
@@ -22,7 +22,9 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import hu.bme.mit.theta.core.type.Expr;
@@ -36,41 +38,55 @@ final class ExprIteEliminator {
     }
 
     static <T extends Type> Expr<T> eliminateIte(final Expr<T> expr) {
-        return removeIte(propagateIte(expr));
+        return new IteRemover().rewrite(propagateIte(expr, new IdentityHashMap<>()));
     }
 
     /*
      * Helper methods
      */
 
-    private static <T extends Type> Expr<T> removeIte(final Expr<T> expr) {
-        if (expr instanceof IteExpr) {
-            final IteExpr<T> iteExpr = (IteExpr<T>) expr;
-            if (iteExpr.getType() instanceof BoolType) {
-                final Expr<BoolType> cond = removeIte(iteExpr.getCond());
-                final Expr<BoolType> then = TypeUtils.cast(removeIte(iteExpr.getThen()), Bool());
-                final Expr<BoolType> elze = TypeUtils.cast(removeIte(iteExpr.getElse()), Bool());
-                @SuppressWarnings("unchecked") final Expr<T> result = (Expr<T>) And(
-                        Or(Not(cond), then), Or(cond, elze));
-                return result;
-            } else {
+    private static final class IteRemover extends ExprTraversal.Rewriter {
+
+        @Override
+        protected Expr<?> rewriteLeaf(final Expr<?> expr) {
+            if (expr instanceof IteExpr && !(expr.getType() instanceof BoolType)) {
                 return expr;
             }
-        } else {
-            return expr.map(ExprIteEliminator::removeIte);
+            return null;
+        }
+
+        @Override
+        protected Expr<?> combine(final Expr<?> expr, final List<Expr<?>> ops) {
+            if (expr instanceof IteExpr) {
+                final Expr<BoolType> cond = TypeUtils.cast(ops.get(0), Bool());
+                final Expr<BoolType> then = TypeUtils.cast(ops.get(1), Bool());
+                final Expr<BoolType> elze = TypeUtils.cast(ops.get(2), Bool());
+                return And(Or(Not(cond), then), Or(cond, elze));
+            }
+            return super.combine(expr, ops);
         }
     }
 
-    private static <T extends Type> Expr<T> propagateIte(final Expr<T> expr) {
+    // Memoized on identity, as shared subexpressions are common in the expressions being processed
+    @SuppressWarnings("unchecked")
+    private static <T extends Type> Expr<T> propagateIte(final Expr<T> expr, final Map<Expr<?>, Expr<?>> cache) {
+        final Expr<?> cached = cache.get(expr);
+        if (cached != null) {
+            return (Expr<T>) cached;
+        }
+
+        final Expr<T> result;
         if (expr instanceof IteExpr) {
             final IteExpr<T> iteExpr = (IteExpr<T>) expr;
             // Apply propagation to operand(s)
-            return iteExpr.withThen(propagateIte(iteExpr.getThen()))
-                    .withElse(propagateIte(iteExpr.getElse()));
+            result = iteExpr.withThen(propagateIte(iteExpr.getThen(), cache))
+                    .withElse(propagateIte(iteExpr.getElse(), cache));
         } else {
             // Apply propagation to operand(s) first, then apply pushdown
-            return pushIte(expr.map(ExprIteEliminator::propagateIte));
+            result = pushIte(expr.map(op -> propagateIte(op, cache)));
         }
+        cache.put(expr, result);
+        return result;
     }
 
     // Push expression below ITE, e.g.: X + ite(C,T,E) + Y => ite(C,X+T+Y,X+E+Y)
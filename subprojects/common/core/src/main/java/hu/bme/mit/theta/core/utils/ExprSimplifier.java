@@ -151,6 +151,7 @@ import static hu.bme.mit.theta.core.utils.SimplifierLevel.LITERAL_ONLY;
 public final class ExprSimplifier {
 
     private final SimplifierLevel level;
+    private final ExprTraversal.ScopedCache cache = new ExprTraversal.ScopedCache();
 
     private ExprSimplifier(final SimplifierLevel level) {
         this.level = level;
@@ -382,7 +383,7 @@ public final class ExprSimplifier {
 
     @SuppressWarnings("unchecked")
     public <T extends Type> Expr<T> simplify(final Expr<T> expr, final Valuation valuation) {
-        return (Expr<T>) TABLE.dispatch(expr, valuation);
+        return cache.apply(expr, valuation, e -> (Expr<T>) TABLE.dispatch(e, valuation));
     }
 
     /*
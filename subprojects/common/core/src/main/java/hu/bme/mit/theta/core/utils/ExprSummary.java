@@ -0,0 +1,241 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.anytype.PrimeExpr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable summary of an expression: its variables, constants, maximal prime depth and size. Summaries are
+ * computed lazily and cached for each node of the expression (keyed by identity and held weakly), so repeated
+ * queries on the same expression or on expressions sharing subexpressions do not traverse them again.
+ * Declarations are stored in the order of their first occurrence in a depth-first traversal, and only the
+ * summaries themselves refer to them.
+ */
+public final class ExprSummary {
+
+    private static final Decl<?>[] NO_DECLS = new Decl<?>[0];
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+
+    private static final Cache<Expr<?>, ExprSummary> SUMMARIES = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final Decl<?>[] vars;
+    private final Decl<?>[] consts;
+    private final int primeDepth;
+    private final long nodeCount;
+    private volatile Set<Decl<?>> declSet = null;
+
+    private ExprSummary(final Decl<?>[] vars, final Decl<?>[] consts, final int primeDepth, final long nodeCount) {
+        this.vars = vars;
+        this.consts = consts;
+        this.primeDepth = primeDepth;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Get the summary of an expression, computing it (and the summaries of its uncached subexpressions) if
+     * needed.
+     *
+     * @param expr Expression
+     * @return Summary
+     */
+    public static ExprSummary of(final Expr<?> expr) {
+        checkNotNull(expr);
+        final ExprSummary cached = SUMMARIES.getIfPresent(expr);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Map<Expr<?>, ExprSummary> computed = new IdentityHashMap<>();
+        final Deque<Expr<?>> stack = new ArrayDeque<>();
+        stack.push(expr);
+        while (!stack.isEmpty()) {
+            final Expr<?> node = stack.peek();
+            if (computed.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+
+            final ExprSummary summary = SUMMARIES.getIfPresent(node);
+            if (summary != null) {
+                computed.put(node, summary);
+                stack.pop();
+                continue;
+            }
+
+            final List<? extends Expr<?>> ops = node.getOps();
+            boolean ready = true;
+            for (int i = ops.size() - 1; i >= 0; i--) {
+                if (!computed.containsKey(ops.get(i))) {
+                    stack.push(ops.get(i));
+                    ready = false;
+                }
+            }
+            if (ready) {
+                stack.pop();
+                final ExprSummary newSummary = summarize(node, ops, computed);
+                SUMMARIES.put(node, newSummary);
+                computed.put(node, newSummary);
+            }
+        }
+        return computed.get(expr);
+    }
+
+    public void collectVars(final Collection<? super VarDecl<?>> collectTo) {
+        for (final Decl<?> var : vars) {
+            collectTo.add((VarDecl<?>) var);
+        }
+    }
+
+    public void collectConstants(final Collection<? super ConstDecl<?>> collectTo) {
+        for (final Decl<?> cnst : consts) {
+            collectTo.add((ConstDecl<?>) cnst);
+        }
+    }
+
+    public boolean containsDecl(final Decl<?> decl) {
+        if (decl instanceof VarDecl) {
+            return contains(vars, decl);
+        } else if (decl instanceof ConstDecl) {
+            return contains(consts, decl);
+        } else {
+            return false;
+        }
+    }
+
+    public int getVarCount() {
+        return vars.length;
+    }
+
+    public int getConstCount() {
+        return consts.length;
+    }
+
+    /**
+     * Maximal number of nested primes in the expression.
+     */
+    public int getPrimeDepth() {
+        return primeDepth;
+    }
+
+    /**
+     * Number of nodes in the tree representation of the expression (saturating at {@link Long#MAX_VALUE}).
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExprSummary(vars=%d, consts=%d, primeDepth=%d, nodeCount=%d)", vars.length,
+                consts.length, primeDepth, nodeCount);
+    }
+
+    ////
+
+    private boolean contains(final Decl<?>[] decls, final Decl<?> decl) {
+        if (decls.length <= LINEAR_SEARCH_LIMIT) {
+            for (final Decl<?> d : decls) {
+                if (d.equals(decl)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Set<Decl<?>> set = declSet;
+        if (set == null) {
+            set = new HashSet<>(Arrays.asList(vars));
+            set.addAll(Arrays.asList(consts));
+            declSet = set;
+        }
+        return set.contains(decl);
+    }
+
+    private static ExprSummary summarize(final Expr<?> expr, final List<? extends Expr<?>> ops,
+                                         final Map<Expr<?>, ExprSummary> computed) {
+        if (expr instanceof RefExpr) {
+            final Decl<?> decl = ((RefExpr<?>) expr).getDecl();
+            if (decl instanceof VarDecl) {
+                return new ExprSummary(new Decl<?>[]{decl}, NO_DECLS, 0, 1);
+            } else if (decl instanceof ConstDecl) {
+                return new ExprSummary(NO_DECLS, new Decl<?>[]{decl}, 0, 1);
+            }
+        }
+
+        int primeDepth = 0;
+        long nodeCount = 1;
+        for (final Expr<?> op : ops) {
+            final ExprSummary summary = computed.get(op);
+            primeDepth = Math.max(primeDepth, summary.primeDepth);
+            nodeCount = nodeCount + summary.nodeCount < 0 ? Long.MAX_VALUE : nodeCount + summary.nodeCount;
+        }
+        if (expr instanceof PrimeExpr) {
+            primeDepth++;
+        }
+        final Decl<?>[] vars = union(ops, computed, true);
+        final Decl<?>[] consts = union(ops, computed, false);
+        return new ExprSummary(vars, consts, primeDepth, nodeCount);
+    }
+
+    // Unites the variables (or constants) of the operands in order of first occurrence. Returns the array of an
+    // operand if it already contains every declaration, so that summaries share arrays.
+    private static Decl<?>[] union(final List<? extends Expr<?>> ops, final Map<Expr<?>, ExprSummary> computed,
+                                   final boolean ofVars) {
+        Decl<?>[] first = NO_DECLS;
+        Set<Decl<?>> decls = null;
+        for (final Expr<?> op : ops) {
+            final ExprSummary summary = computed.get(op);
+            final Decl<?>[] opDecls = ofVars ? summary.vars : summary.consts;
+            if (opDecls.length == 0 || opDecls == first) {
+                continue;
+            }
+            if (first.length == 0) {
+                first = opDecls;
+            } else {
+                if (decls == null) {
+                    decls = new LinkedHashSet<>(Arrays.asList(first));
+                }
+                decls.addAll(Arrays.asList(opDecls));
+            }
+        }
+
+        if (decls == null || decls.size() == first.length) {
+            return first;
+        } else {
+            return decls.toArray(NO_DECLS);
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.Type;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * DAG-aware traversal of expressions. Expressions are immutable and are frequently shared (e.g., unrolled
+ * transition relations or ITE chains), so a naive recursive traversal visits a shared subexpression once per
+ * path leading to it, which can be exponential in the depth of the expression. The utilities in this class
+ * visit each distinct node (by identity) only once and use explicit work stacks instead of the call stack.
+ */
+public final class ExprTraversal {
+
+    private ExprTraversal() {
+    }
+
+    /**
+     * Visit each distinct node of an expression once in pre-order. The operands of a node are only visited
+     * if the visitor returns true for the node.
+     *
+     * @param expr    Expression
+     * @param visitor Visitor returning whether the operands of a node should be visited
+     */
+    public static void visitDistinct(final Expr<?> expr, final Predicate<? super Expr<?>> visitor) {
+        visitDistinct(Collections.singletonList(expr), visitor);
+    }
+
+    /**
+     * Visit each distinct node of some expressions once in pre-order. Nodes shared between the expressions
+     * are also visited only once.
+     *
+     * @param exprs   Expressions
+     * @param visitor Visitor returning whether the operands of a node should be visited
+     */
+    public static void visitDistinct(final Iterable<? extends Expr<?>> exprs,
+                                     final Predicate<? super Expr<?>> visitor) {
+        checkNotNull(visitor);
+        final Set<Expr<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Expr<?>> stack = new ArrayDeque<>();
+        exprs.forEach(stack::push);
+        while (!stack.isEmpty()) {
+            final Expr<?> expr = stack.pop();
+            if (visited.add(expr) && visitor.test(expr)) {
+                final List<? extends Expr<?>> ops = expr.getOps();
+                for (int i = ops.size() - 1; i >= 0; i--) {
+                    stack.push(ops.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Bottom-up rewriting of expressions with a cache keyed by node identity. Each distinct node is rewritten
+     * at most once during the lifetime of the rewriter, so a rewriter instance should not outlive the traversal
+     * (or set of traversals) it was created for.
+     */
+    public abstract static class Rewriter {
+
+        private final Map<Expr<?>, Expr<?>> cache = new IdentityHashMap<>();
+
+        /**
+         * Rewrite a node without rewriting its operands.
+         *
+         * @param expr Node
+         * @return The result, or null if the operands should be rewritten and combined
+         */
+        protected abstract Expr<?> rewriteLeaf(Expr<?> expr);
+
+        /**
+         * Combine the rewritten operands of a node. By default, the operands are replaced in the node.
+         *
+         * @param expr Original node
+         * @param ops  Rewritten operands
+         * @return The result
+         */
+        protected Expr<?> combine(final Expr<?> expr, final List<Expr<?>> ops) {
+            final List<? extends Expr<?>> oldOps = expr.getOps();
+            for (int i = 0; i < ops.size(); i++) {
+                if (ops.get(i) != oldOps.get(i)) {
+                    return expr.withOps(ops);
+                }
+            }
+            return expr;
+        }
+
+        @SuppressWarnings("unchecked")
+        public final <T extends Type> Expr<T> rewrite(final Expr<T> expr) {
+            checkNotNull(expr);
+            final Expr<?> cached = cache.get(expr);
+            if (cached != null) {
+                return (Expr<T>) cached;
+            }
+
+            final Deque<Expr<?>> stack = new ArrayDeque<>();
+            stack.push(expr);
+            while (!stack.isEmpty()) {
+                final Expr<?> node = stack.peek();
+                if (cache.containsKey(node)) {
+                    stack.pop();
+                    continue;
+                }
+
+                final Expr<?> leaf = rewriteLeaf(node);
+                if (leaf != null) {
+                    cache.put(node, leaf);
+                    stack.pop();
+                    continue;
+                }
+
+                final List<? extends Expr<?>> ops = node.getOps();
+                boolean ready = true;
+                for (int i = ops.size() - 1; i >= 0; i--) {
+                    if (!cache.containsKey(ops.get(i))) {
+                        stack.push(ops.get(i));
+                        ready = false;
+                    }
+                }
+                if (ready) {
+                    stack.pop();
+                    cache.put(node, combineOps(node, ops));
+                }
+            }
+            return (Expr<T>) cache.get(expr);
+        }
+
+        private Expr<?> combineOps(final Expr<?> node, final List<? extends Expr<?>> ops) {
+            final List<Expr<?>> newOps = new ArrayList<>(ops.size());
+            for (final Expr<?> op : ops) {
+                newOps.add(cache.get(op));
+            }
+            return combine(node, newOps);
+        }
+    }
+
+    /**
+     * Identity-keyed cache for transformers that recurse through a dispatch table and thus cannot easily be
+     * turned into an explicit-stack traversal. The outermost call on a thread opens a scope, nested calls share
+     * its cache, and the cache is dropped when the outermost call returns. A nested call with a different
+     * context (e.g., another valuation) opens its own scope.
+     */
+    public static final class ScopedCache {
+
+        private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+
+        private static final class Scope {
+            private final Object context;
+            private final Map<Expr<?>, Expr<?>> cache = new IdentityHashMap<>();
+
+            private Scope(final Object context) {
+                this.context = context;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T extends Type> Expr<T> apply(final Expr<T> expr, final Object context,
+                                              final Function<? super Expr<T>, ? extends Expr<T>> function) {
+            final Scope current = scope.get();
+            if (current != null && current.context == context) {
+                final Expr<?> cached = current.cache.get(expr);
+                if (cached != null) {
+                    return (Expr<T>) cached;
+                }
+                final Expr<T> result = function.apply(expr);
+                current.cache.put(expr, result);
+                return result;
+            }
+
+            scope.set(new Scope(context));
+            try {
+                return apply(expr, context, function);
+            } finally {
+                if (current == null) {
+                    scope.remove();
+                } else {
+                    scope.set(current);
+                }
+            }
+        }
+    }
+
+}
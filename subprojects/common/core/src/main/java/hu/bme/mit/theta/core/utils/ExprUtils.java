@@ -17,14 +17,12 @@ package hu.bme.mit.theta.core.utils;
 
 import hu.bme.mit.theta.common.container.Containers;
 import hu.bme.mit.theta.core.decl.ConstDecl;
-import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.decl.ParamDecl;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.ImmutableValuation;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.Type;
-import hu.bme.mit.theta.core.type.anytype.RefExpr;
 import hu.bme.mit.theta.core.type.booltype.AndExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.type.booltype.NotExpr;
@@ -119,16 +117,7 @@ public final class ExprUtils {
      * @param collectTo Collection where the variables should be put
      */
     public static void collectVars(final Expr<?> expr, final Collection<VarDecl<?>> collectTo) {
-        if (expr instanceof RefExpr) {
-            final RefExpr<?> refExpr = (RefExpr<?>) expr;
-            final Decl<?> decl = refExpr.getDecl();
-            if (decl instanceof VarDecl) {
-                final VarDecl<?> varDecl = (VarDecl<?>) decl;
-                collectTo.add(varDecl);
-                return;
-            }
-        }
-        expr.getOps().forEach(op -> collectVars(op, collectTo));
+        ExprSummary.of(expr).collectVars(collectTo);
     }
 
     /**
@@ -138,7 +127,7 @@ public final class ExprUtils {
      * @param collectTo Collection where the variables should be put
      */
     public static void collectVars(final Iterable<? extends Expr<?>> exprs, final Collection<VarDecl<?>> collectTo) {
-        exprs.forEach(e -> collectVars(e, collectTo));
+        exprs.forEach(e -> ExprSummary.of(e).collectVars(collectTo));
     }
 
     /**
@@ -172,16 +161,7 @@ public final class ExprUtils {
      * @param collectTo Collection where the constants should be put
      */
     public static void collectConstants(final Expr<?> expr, final Collection<ConstDecl<?>> collectTo) {
-        if (expr instanceof RefExpr) {
-            final RefExpr<?> refExpr = (RefExpr<?>) expr;
-            final Decl<?> decl = refExpr.getDecl();
-            if (decl instanceof ConstDecl) {
-                final ConstDecl<?> constDecl = (ConstDecl<?>) decl;
-                collectTo.add(constDecl);
-                return;
-            }
-        }
-        expr.getOps().forEach(op -> collectConstants(op, collectTo));
+        ExprSummary.of(expr).collectConstants(collectTo);
     }
 
     /**
@@ -191,7 +171,7 @@ public final class ExprUtils {
      * @param collectTo Collection where the constants should be put
      */
     public static void collectConstants(final Iterable<? extends Expr<?>> exprs, final Collection<ConstDecl<?>> collectTo) {
-        exprs.forEach(e -> collectConstants(e, collectTo));
+        exprs.forEach(e -> ExprSummary.of(e).collectConstants(collectTo));
     }
 
     /**
@@ -360,7 +340,7 @@ public final class ExprUtils {
      * @return Node count
      */
     public static int nodeCountSize(final Expr<?> expr) {
-        return 1 + expr.getOps().stream().map(ExprUtils::nodeCountSize).reduce(0, (x, y) -> x + y);
+        return (int) Math.min(ExprSummary.of(expr).getNodeCount(), Integer.MAX_VALUE);
     }
 
 }
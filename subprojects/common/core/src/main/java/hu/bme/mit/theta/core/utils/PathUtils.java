@@ -15,7 +15,6 @@
  */
 package hu.bme.mit.theta.core.utils;
 
-import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.decl.IndexedConstDecl;
 import hu.bme.mit.theta.core.decl.VarDecl;
@@ -30,6 +29,8 @@ import hu.bme.mit.theta.core.utils.indexings.VarIndexing;
 import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -193,31 +194,37 @@ public class PathUtils {
     private static final class UnfoldHelper {
 
         private final VarIndexing indexing;
+        private final Map<Integer, ExprTraversal.Rewriter> rewriters = new HashMap<>();
 
         private UnfoldHelper(final VarIndexing indexing) {
             this.indexing = indexing;
         }
 
         public <T extends Type> Expr<T> unfold(final Expr<T> expr, final int offset) {
-            if (expr instanceof RefExpr) {
-                final RefExpr<T> ref = (RefExpr<T>) expr;
-                final Decl<T> decl = ref.getDecl();
-                if (decl instanceof VarDecl) {
-                    final VarDecl<T> varDecl = (VarDecl<T>) decl;
-                    final int index = indexing.get(varDecl) + offset;
-                    final ConstDecl<T> constDecl = varDecl.getConstDecl(index);
-                    final RefExpr<T> refExpr = constDecl.getRef();
-                    return refExpr;
-                }
-            }
+            return rewriters.computeIfAbsent(offset, this::createRewriter).rewrite(expr);
+        }
 
-            if (expr instanceof PrimeExpr) {
-                final PrimeExpr<T> prime = (PrimeExpr<T>) expr;
-                final Expr<T> op = prime.getOp();
-                return unfold(op, offset + 1);
-            }
+        private ExprTraversal.Rewriter createRewriter(final int offset) {
+            return new ExprTraversal.Rewriter() {
+                @Override
+                protected Expr<?> rewriteLeaf(final Expr<?> expr) {
+                    if (expr instanceof RefExpr) {
+                        final Decl<?> decl = ((RefExpr<?>) expr).getDecl();
+                        if (decl instanceof VarDecl) {
+                            final VarDecl<?> varDecl = (VarDecl<?>) decl;
+                            final int index = indexing.get(varDecl) + offset;
+                            return varDecl.getConstDecl(index).getRef();
+                        }
+                    }
 
-            return expr.map(op -> unfold(op, offset));
+                    if (expr instanceof PrimeExpr) {
+                        final PrimeExpr<?> prime = (PrimeExpr<?>) expr;
+                        return unfold(prime.getOp(), offset + 1);
+                    }
+
+                    return null;
+                }
+            };
         }
     }
 
@@ -225,32 +232,38 @@ public class PathUtils {
 
         private final VarIndexing indexing;
         private final VarIndexing primes;
+        private final Map<Integer, ExprTraversal.Rewriter> rewriters = new HashMap<>();
 
-        private <T extends Type> ReverseUnfoldHelper(final VarIndexing indexing, final VarIndexing primes) {
+        private ReverseUnfoldHelper(final VarIndexing indexing, final VarIndexing primes) {
             this.indexing = indexing;
             this.primes = primes;
         }
 
         public <T extends Type> Expr<T> unfold(final Expr<T> expr, final int offset) {
-            if (expr instanceof RefExpr) {
-                final RefExpr<T> ref = (RefExpr<T>) expr;
-                final Decl<T> decl = ref.getDecl();
-                if (decl instanceof VarDecl) {
-                    final VarDecl<T> varDecl = (VarDecl<T>) decl;
-                    final int index = indexing.get(varDecl) + offset + primes.get(varDecl);
-                    final ConstDecl<T> constDecl = varDecl.getConstDecl(index);
-                    final RefExpr<T> refExpr = constDecl.getRef();
-                    return refExpr;
-                }
-            }
+            return rewriters.computeIfAbsent(offset, this::createRewriter).rewrite(expr);
+        }
 
-            if (expr instanceof PrimeExpr) {
-                final PrimeExpr<T> prime = (PrimeExpr<T>) expr;
-                final Expr<T> op = prime.getOp();
-                return unfold(op, offset - 1);
-            }
+        private ExprTraversal.Rewriter createRewriter(final int offset) {
+            return new ExprTraversal.Rewriter() {
+                @Override
+                protected Expr<?> rewriteLeaf(final Expr<?> expr) {
+                    if (expr instanceof RefExpr) {
+                        final Decl<?> decl = ((RefExpr<?>) expr).getDecl();
+                        if (decl instanceof VarDecl) {
+                            final VarDecl<?> varDecl = (VarDecl<?>) decl;
+                            final int index = indexing.get(varDecl) + offset + primes.get(varDecl);
+                            return varDecl.getConstDecl(index).getRef();
+                        }
+                    }
 
-            return expr.map(op -> unfold(op, offset));
+                    if (expr instanceof PrimeExpr) {
+                        final PrimeExpr<?> prime = (PrimeExpr<?>) expr;
+                        return unfold(prime.getOp(), offset - 1);
+                    }
+
+                    return null;
+                }
+            };
         }
     }
 
@@ -0,0 +1,111 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExprSummaryTest {
+
+    private final VarDecl<IntType> vx = Decls.Var("x", Int());
+    private final VarDecl<IntType> vy = Decls.Var("y", Int());
+    private final ConstDecl<IntType> ca = Decls.Const("a", Int());
+
+    @Test
+    public void testSummary() {
+        final Expr<BoolType> expr = And(Eq(Prime(Prime(vx.getRef())), Add(vy.getRef(), ca.getRef())),
+                Eq(vx.getRef(), Int(1)));
+        final ExprSummary summary = ExprSummary.of(expr);
+
+        final Set<VarDecl<?>> vars = new HashSet<>();
+        summary.collectVars(vars);
+        final Set<ConstDecl<?>> consts = new HashSet<>();
+        summary.collectConstants(consts);
+
+        assertEquals(Set.of(vx, vy), vars);
+        assertEquals(Set.of(ca), consts);
+        assertEquals(2, summary.getPrimeDepth());
+        assertEquals(ExprUtils.nodeCountSize(expr), summary.getNodeCount());
+        assertEquals(11, summary.getNodeCount());
+        assertTrue(summary.containsDecl(vy));
+        assertFalse(summary.containsDecl(Decls.Var("z", Int())));
+        assertSame(summary, ExprSummary.of(expr));
+    }
+
+    @Test
+    public void testSharedDag() {
+        Expr<BoolType> expr = Eq(vx.getRef(), ca.getRef());
+        for (int i = 0; i < 100; i++) {
+            expr = And(expr, expr);
+        }
+        final ExprSummary summary = ExprSummary.of(expr);
+        assertEquals(1, summary.getVarCount());
+        assertEquals(1, summary.getConstCount());
+        assertEquals(Long.MAX_VALUE, summary.getNodeCount());
+    }
+
+    @Test
+    public void testDfsOrder() {
+        final VarDecl<IntType> vz = Decls.Var("z", Int());
+        final Expr<BoolType> expr = And(Eq(vy.getRef(), vx.getRef()), Eq(vx.getRef(), vz.getRef()),
+                Eq(vz.getRef(), vy.getRef()));
+
+        final List<VarDecl<?>> vars = new ArrayList<>();
+        ExprSummary.of(expr).collectVars(vars);
+        assertEquals(List.of(vy, vx, vz), vars);
+    }
+
+    @Test
+    public void testWideExpr() {
+        final List<VarDecl<IntType>> decls = new ArrayList<>();
+        final List<Expr<BoolType>> ops = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final VarDecl<IntType> v = Decls.Var("v" + i, Int());
+            decls.add(v);
+            ops.add(Eq(v.getRef(), vx.getRef()));
+        }
+        final ExprSummary summary = ExprSummary.of(And(ops));
+
+        final List<VarDecl<?>> vars = new ArrayList<>();
+        summary.collectVars(vars);
+        assertEquals(1001, vars.size());
+        assertEquals(decls.get(0), vars.get(0));
+        assertEquals(vx, vars.get(1));
+        assertEquals(decls.get(999), vars.get(1000));
+        assertTrue(summary.containsDecl(decls.get(500)));
+    }
+
+}
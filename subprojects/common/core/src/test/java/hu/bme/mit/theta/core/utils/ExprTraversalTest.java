@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import hu.bme.mit.theta.core.decl.Decls;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.anytype.IteExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Ite;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ExprTraversalTest {
+
+    // Deep enough that a traversal visiting every path would not terminate
+    private static final int DEPTH = 100;
+
+    private final VarDecl<IntType> vx = Decls.Var("x", Int());
+    private final VarDecl<IntType> vy = Decls.Var("y", Int());
+    private final VarDecl<BoolType> vc = Decls.Var("c", Bool());
+
+    private Expr<BoolType> sharedAnd() {
+        Expr<BoolType> expr = Eq(Prime(vx.getRef()), vy.getRef());
+        for (int i = 0; i < DEPTH; i++) {
+            expr = And(expr, expr);
+        }
+        return expr;
+    }
+
+    @Test
+    public void testVisitDistinct() {
+        final AtomicInteger visits = new AtomicInteger();
+        ExprTraversal.visitDistinct(sharedAnd(), e -> {
+            visits.incrementAndGet();
+            return true;
+        });
+        // And nodes, Eq, Prime, two references
+        assertEquals(DEPTH + 4, visits.get());
+    }
+
+    @Test
+    public void testCollectVars() {
+        assertEquals(Set.of(vx, vy), ExprUtils.getVars(sharedAnd()));
+    }
+
+    @Test
+    public void testUnfoldKeepsSharing() {
+        final Expr<BoolType> unfolded = PathUtils.unfold(sharedAnd(), 0);
+        assertSame(unfolded.getOps().get(0), unfolded.getOps().get(1));
+        assertEquals(Set.of(vx.getConstDecl(1), vy.getConstDecl(0)), ExprUtils.getConstants(unfolded));
+    }
+
+    @Test
+    public void testEliminateIte() {
+        Expr<BoolType> expr = Eq(vx.getRef(), vy.getRef());
+        for (int i = 0; i < DEPTH; i++) {
+            expr = Ite(vc.getRef(), expr, Not(expr));
+        }
+        final AtomicInteger ites = new AtomicInteger();
+        ExprTraversal.visitDistinct(ExprUtils.eliminateIte(expr), e -> {
+            if (e instanceof IteExpr) {
+                ites.incrementAndGet();
+            }
+            return true;
+        });
+        assertEquals(0, ites.get());
+    }
+
+}
@@ -26,7 +26,9 @@ data class ArgAdapterHelper<S : State, A : Action>(
     val initNodes: Map<Int, Triple<S, Boolean, Boolean>>,
     val nodes: Map<Int, ArgNodeAdapter<S>>,
     val edges: Map<Int, ArgEdgeAdapter<A>>,
-    val coveringEdges: Map<Int, Int>
+    val coveringEdges: Map<Int, Int>,
+    // all the covering nodes of the nodes covered by a union, the first one being in coveringEdges too
+    val unionCoveringEdges: Map<Int, List<Int>>?
 ) {
 
     constructor(arg: ARG<S, A>) : this(
@@ -39,7 +41,9 @@ data class ArgAdapterHelper<S : State, A : Action>(
             .toList().associate { it.first to it.second },
         coveringEdges = arg.nodes.filter { it.coveringNode.isPresent }
             .map { Pair(it.id, it.coveringNode.get().id) }.toList()
-            .associate { it.first to it.second }
+            .associate { it.first to it.second },
+        unionCoveringEdges = arg.nodes.filter { it.isCoveredByUnion }.toList()
+            .associate { node -> node.id to node.coveringNodes.map { it.id }.toList() }
     )
 
     fun instantiate(partialOrd: PartialOrd<S>): ARG<S, A> {
@@ -61,7 +65,11 @@ data class ArgAdapterHelper<S : State, A : Action>(
                 checkNotNull(nodes[entry]).target)
                 .also { n -> if (checkNotNull(nodes[entry]).expanded) n.expanded = true }
         }
-        coveringEdges.forEach { checkNotNull(lut[it.key]).cover(lut[it.value]) }
+        coveringEdges.filterKeys { unionCoveringEdges?.containsKey(it) != true }
+            .forEach { checkNotNull(lut[it.key]).cover(lut[it.value]) }
+        unionCoveringEdges?.forEach { (coveree, coverers) ->
+            checkNotNull(lut[coveree]).setCoveringNodes(coverers.map { checkNotNull(lut[it]) })
+        }
         return arg
     }
 }
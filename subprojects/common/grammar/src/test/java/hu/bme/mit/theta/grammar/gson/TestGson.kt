@@ -172,6 +172,37 @@ class TestGson {
         Assertions.assertEquals(arg.nodes.count(), parsedBack.nodes.count())
     }
 
+    @Test
+    fun testUnionCoveringRoundTrip() {
+        lateinit var gson: Gson;
+        gson = getGson(getExplBuilder { gson }) { gson }
+
+        val arg = ARG.create<ExplState, StmtAction>(ExplOrd.getInstance())
+
+        val initNode = arg.createInitNode(ExplState.top(), false)
+        val action = SimpleStmtAction(SkipStmt.getInstance())
+        val first = arg.createSuccNode(initNode, action,
+            ExplState.of(ImmutableValuation.builder().put(x, Int(1)).build()), false)
+        val second = arg.createSuccNode(initNode, action,
+            ExplState.of(ImmutableValuation.builder().put(x, Int(2)).build()), false)
+        val covered = arg.createSuccNode(first, action, ExplState.top(), false)
+        initNode.expanded = true
+        first.expanded = true
+        second.expanded = true
+        covered.setCoveringNodes(listOf(first, second))
+
+        val serialized = gson.toJson(arg)
+        val parsedBack = gson.fromJson(serialized, ARG::class.java)
+        val parsedCovered = parsedBack.nodes.filter { it.isCovered }.toList()
+        Assertions.assertEquals(1, parsedCovered.size)
+        Assertions.assertTrue(parsedCovered[0].isCoveredByUnion)
+        Assertions.assertEquals(listOf(first.state, second.state),
+            parsedCovered[0].coveringNodes.map { it.state }.toList())
+        parsedCovered[0].coveringNodes.forEach {
+            Assertions.assertTrue(it.coveredNodes.anyMatch { n -> n == parsedCovered[0] })
+        }
+    }
+
     @Test
     fun testPredArgAdapter() {
         lateinit var gson: Gson;
@@ -23,6 +23,8 @@ import hu.bme.mit.theta.frontend.transformation.model.statements.*
 data class CStatistics(
     val globalDeclarations: Int,
     val functions: Collection<CFunctionStatistics>,
+    val parseTimeMs: Long = 0,
+    val llFallback: Boolean = false,
 )
 
 data class CFunctionStatistics(
@@ -45,6 +45,7 @@ import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -62,6 +63,8 @@ public abstract class SmtLibItpSolver<T extends SmtLibItpMarker> implements ItpS
     protected final Stack<Expr<BoolType>> assertions;
     protected final Stack<T> markers;
     protected final Stack<ConstDecl<?>> declarationStack;
+    // Mirrors declarationStack for constant-time lookups
+    private final Set<ConstDecl<?>> declaredConsts = new HashSet<>();
 
     private Valuation model;
     private SolverStatus status;
@@ -105,8 +108,9 @@ public abstract class SmtLibItpSolver<T extends SmtLibItpMarker> implements ItpS
         checkArgument(markers.toCollection().contains(marker));
 
         final var consts = ExprUtils.getConstants(assertion);
-        consts.removeAll(declarationStack.toCollection());
+        consts.removeIf(declaredConsts::contains);
         declarationStack.add(consts);
+        declaredConsts.addAll(consts);
 
         final var itpMarker = (T) marker;
         final var term = transformationManager.toTerm(assertion);
@@ -162,6 +166,8 @@ public abstract class SmtLibItpSolver<T extends SmtLibItpMarker> implements ItpS
         }
         assertions.pop(n);
         declarationStack.pop(n);
+        declaredConsts.clear();
+        declaredConsts.addAll(declarationStack.toCollection());
         issueGeneralCommand(String.format("(pop %d)", n));
         clearState();
     }
@@ -44,8 +44,10 @@ import org.antlr.v4.runtime.CommonTokenStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -61,6 +63,8 @@ public class SmtLibSolver implements UCSolver, Solver {
     protected final Stack<Expr<BoolType>> assertions;
     protected final Map<String, Expr<BoolType>> assumptions;
     protected final Stack<ConstDecl<?>> declarationStack;
+    // Mirrors declarationStack for constant-time lookups
+    private final Set<ConstDecl<?>> declaredConsts = new HashSet<>();
 
     private static final String ASSUMPTION_LABEL = "_LABEL_%d";
     private int labelNum = 0;
@@ -92,8 +96,9 @@ public class SmtLibSolver implements UCSolver, Solver {
     @Override
     public void add(Expr<BoolType> assertion) {
         final var consts = ExprUtils.getConstants(assertion);
-        consts.removeAll(declarationStack.toCollection());
+        consts.removeIf(declaredConsts::contains);
         declarationStack.add(consts);
+        declaredConsts.addAll(consts);
 
         final var term = transformationManager.toTerm(assertion);
 
@@ -106,8 +111,9 @@ public class SmtLibSolver implements UCSolver, Solver {
 
     public void add(final Expr<BoolType> assertion, final String term) {
         final var consts = ExprUtils.getConstants(assertion);
-        consts.removeAll(declarationStack.toCollection());
+        consts.removeIf(declaredConsts::contains);
         declarationStack.add(consts);
+        declaredConsts.addAll(consts);
 
         assertions.add(assertion);
         consts.stream().map(symbolTable::getDeclaration).forEach(this::issueGeneralCommand);
@@ -119,8 +125,9 @@ public class SmtLibSolver implements UCSolver, Solver {
     @Override
     public void track(Expr<BoolType> assertion) {
         final var consts = ExprUtils.getConstants(assertion);
-        consts.removeAll(declarationStack.toCollection());
+        consts.removeIf(declaredConsts::contains);
         declarationStack.add(consts);
+        declaredConsts.addAll(consts);
 
         final var term = transformationManager.toTerm(assertion);
         final var label = String.format(ASSUMPTION_LABEL, labelNum++);
@@ -166,6 +173,8 @@ public class SmtLibSolver implements UCSolver, Solver {
     public void pop(int n) {
         assertions.pop(n);
         declarationStack.pop(n);
+        declaredConsts.clear();
+        declaredConsts.addAll(declarationStack.toCollection());
         issueGeneralCommand("(pop 1)");
         clearState();
     }
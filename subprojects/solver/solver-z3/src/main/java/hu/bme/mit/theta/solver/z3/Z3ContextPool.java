@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.microsoft.z3.InterpolationContext;
+
+/**
+ * Pool of Z3 contexts together with their symbol tables and transformers. Contexts of closed
+ * solvers are kept idle (up to a capacity), and handed out to new solvers, which can then reuse
+ * the sorts and symbols already created in them. Interpolation contexts are pooled separately from
+ * plain ones.
+ * <p>
+ * The term cache of the transformers is cleared when a context is released, so that the terms of
+ * the previous solver can be freed. The symbol table is kept, but a context whose symbol table has
+ * grown beyond a limit is closed instead of being kept idle, as are contexts that do not fit into
+ * the pool.
+ */
+final class Z3ContextPool {
+
+    private final int capacity;
+    private final int maxSymbols;
+    private final Deque<PooledContext> idleContexts;
+    private final Deque<PooledContext> idleItpContexts;
+
+    private long created;
+    private long reused;
+
+    Z3ContextPool(final int capacity, final int maxSymbols) {
+        checkArgument(capacity >= 0, "Capacity must be non-negative");
+        checkArgument(maxSymbols >= 0, "Symbol limit must be non-negative");
+        this.capacity = capacity;
+        this.maxSymbols = maxSymbols;
+        idleContexts = new ArrayDeque<>();
+        idleItpContexts = new ArrayDeque<>();
+        created = 0;
+        reused = 0;
+    }
+
+    synchronized PooledContext acquire(final boolean interpolating) {
+        final Deque<PooledContext> idle = interpolating ? idleItpContexts : idleContexts;
+        final PooledContext context = idle.pollLast();
+        if (context != null) {
+            reused++;
+            return context;
+        }
+        created++;
+        final com.microsoft.z3.Context z3Context = interpolating ? InterpolationContext.mkContext()
+                : new com.microsoft.z3.Context();
+        return new PooledContext(this, z3Context, interpolating);
+    }
+
+    synchronized void release(final PooledContext context) {
+        checkNotNull(context);
+        checkArgument(context.pool == this, "Context does not belong to this pool");
+        final Deque<PooledContext> idle = context.interpolating ? idleItpContexts : idleContexts;
+        if (idle.size() < capacity && context.symbolTable.size() <= maxSymbols) {
+            context.transformationManager.reset();
+            idle.addLast(context);
+        } else {
+            context.z3Context.close();
+        }
+    }
+
+    synchronized long getCreated() {
+        return created;
+    }
+
+    synchronized long getReused() {
+        return reused;
+    }
+
+    synchronized int getIdle() {
+        return idleContexts.size() + idleItpContexts.size();
+    }
+
+    static final class PooledContext {
+        private final Z3ContextPool pool;
+        private final boolean interpolating;
+        private final com.microsoft.z3.Context z3Context;
+        private final Z3SymbolTable symbolTable;
+        private final Z3TransformationManager transformationManager;
+        private final Z3TermTransformer termTransformer;
+
+        private PooledContext(final Z3ContextPool pool, final com.microsoft.z3.Context z3Context,
+                              final boolean interpolating) {
+            this.pool = pool;
+            this.interpolating = interpolating;
+            this.z3Context = z3Context;
+            symbolTable = new Z3SymbolTable();
+            transformationManager = new Z3TransformationManager(symbolTable, z3Context);
+            termTransformer = new Z3TermTransformer(symbolTable);
+        }
+
+        com.microsoft.z3.Context getContext() {
+            return z3Context;
+        }
+
+        Z3SymbolTable getSymbolTable() {
+            return symbolTable;
+        }
+
+        Z3TransformationManager getTransformationManager() {
+            return transformationManager;
+        }
+
+        Z3TermTransformer getTermTransformer() {
+            return termTransformer;
+        }
+
+        void release() {
+            pool.release(this);
+        }
+    }
+
+}
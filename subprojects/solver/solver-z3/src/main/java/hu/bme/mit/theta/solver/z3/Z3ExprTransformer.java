@@ -151,12 +151,16 @@ import java.util.stream.Stream;
 
 final class Z3ExprTransformer {
 
-    private static final int CACHE_SIZE = 1000;
+    private static final int INITIAL_CACHE_SIZE = 1000;
+    private static final int MAX_CACHE_SIZE = 64_000;
 
     private final Z3TransformationManager transformer;
     private final Context context;
 
-    private final Cache<Expr<?>, com.microsoft.z3.Expr> exprToTerm;
+    private Cache<Expr<?>, com.microsoft.z3.Expr> exprToTerm;
+    private int cacheSize;
+    private int requests;
+    private long evictions;
     private final DispatchTable<com.microsoft.z3.Expr> table;
     private final Env env;
 
@@ -165,7 +169,10 @@ final class Z3ExprTransformer {
         this.transformer = transformer;
         this.env = new Env();
 
-        exprToTerm = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+        cacheSize = INITIAL_CACHE_SIZE;
+        exprToTerm = createCache(cacheSize);
+        requests = 0;
+        evictions = 0;
 
         table = DispatchTable.<com.microsoft.z3.Expr>builder()
 
@@ -429,6 +436,9 @@ final class Z3ExprTransformer {
      */
 
     public com.microsoft.z3.Expr toTerm(final Expr<?> expr) {
+        if (++requests >= cacheSize) {
+            adaptCacheSize();
+        }
         try {
             return exprToTerm.get(expr, () -> table.dispatch(expr));
         } catch (final ExecutionException e) {
@@ -436,6 +446,28 @@ final class Z3ExprTransformer {
         }
     }
 
+    /*
+     * Doubles the cache if more than a quarter of the requests since the last adaptation evicted a
+     * term, i.e., the working set of the solver does not fit into the cache.
+     */
+    private void adaptCacheSize() {
+        final long currentEvictions = exprToTerm.stats().evictionCount();
+        if (currentEvictions - evictions > requests / 4 && cacheSize < MAX_CACHE_SIZE) {
+            cacheSize = Math.min(2 * cacheSize, MAX_CACHE_SIZE);
+            final Cache<Expr<?>, com.microsoft.z3.Expr> newCache = createCache(cacheSize);
+            newCache.putAll(exprToTerm.asMap());
+            exprToTerm = newCache;
+            evictions = 0;
+        } else {
+            evictions = currentEvictions;
+        }
+        requests = 0;
+    }
+
+    private static Cache<Expr<?>, com.microsoft.z3.Expr> createCache(final int size) {
+        return CacheBuilder.newBuilder().maximumSize(size).recordStats().build();
+    }
+
     private com.microsoft.z3.Expr transformRef(final RefExpr<?> expr) {
         final Decl<?> decl = expr.getDecl();
         if (decl instanceof ConstDecl) {
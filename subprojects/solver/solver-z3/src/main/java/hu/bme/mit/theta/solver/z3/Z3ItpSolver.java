@@ -55,13 +55,21 @@ final class Z3ItpSolver implements ItpSolver, Solver {
                        final Z3TermTransformer termTransformer,
                        final com.microsoft.z3.InterpolationContext z3Context,
                        final com.microsoft.z3.Solver z3Solver) {
+        this(symbolTable, transformationManager, termTransformer, z3Context, z3Solver, null);
+    }
+
+    Z3ItpSolver(final Z3SymbolTable symbolTable,
+                final Z3TransformationManager transformationManager,
+                final Z3TermTransformer termTransformer,
+                final com.microsoft.z3.InterpolationContext z3Context,
+                final com.microsoft.z3.Solver z3Solver, final Runnable onRelease) {
         this.transformationManager = transformationManager;
         this.termTransformer = termTransformer;
         this.z3Context = z3Context;
         this.z3Solver = z3Solver;
 
         solver = new Z3Solver(symbolTable, transformationManager, termTransformer, z3Context,
-                z3Solver);
+                z3Solver, onRelease);
 
         markers = new StackImpl<>();
     }
@@ -84,6 +92,7 @@ final class Z3ItpSolver implements ItpSolver, Solver {
         checkNotNull(marker);
         checkNotNull(assertion);
         checkArgument(markers.toCollection().contains(marker), "Marker not found in solver");
+        solver.checkOpen();
         final Z3ItpMarker z3Marker = (Z3ItpMarker) marker;
         final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(
                 assertion);
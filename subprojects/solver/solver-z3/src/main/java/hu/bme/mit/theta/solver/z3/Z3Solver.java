@@ -66,18 +66,41 @@ final class Z3Solver implements UCSolver, Solver {
     private Collection<Expr<BoolType>> unsatCore;
     private SolverStatus status;
 
+    private final Thread owner;
+    private final Runnable onRelease;
+    private boolean interrupted;
+    private boolean released;
+    private volatile boolean closed;
+
     public Z3Solver(final Z3SymbolTable symbolTable,
                     final Z3TransformationManager transformationManager,
                     final Z3TermTransformer termTransformer, final com.microsoft.z3.Context z3Context,
                     final com.microsoft.z3.Solver z3Solver) {
+        this(symbolTable, transformationManager, termTransformer, z3Context, z3Solver, null);
+    }
+
+    /**
+     * Creates a solver whose context is handed back by {@code onRelease} when the solver is closed
+     * by the thread that created it. Closing it from another thread only interrupts the context,
+     * as a check might be running on it, and the context is not reused afterwards.
+     */
+    Z3Solver(final Z3SymbolTable symbolTable,
+             final Z3TransformationManager transformationManager,
+             final Z3TermTransformer termTransformer, final com.microsoft.z3.Context z3Context,
+             final com.microsoft.z3.Solver z3Solver, final Runnable onRelease) {
         this.symbolTable = symbolTable;
         this.transformationManager = transformationManager;
         this.termTransformer = termTransformer;
         this.z3Context = z3Context;
         this.z3Solver = z3Solver;
+        this.onRelease = onRelease;
 
         assertions = new StackImpl<>();
         assumptions = Containers.createMap();
+        owner = Thread.currentThread();
+        interrupted = false;
+        released = false;
+        closed = false;
     }
 
     ////
@@ -85,12 +108,14 @@ final class Z3Solver implements UCSolver, Solver {
     @Override
     public void add(final Expr<BoolType> assertion) {
         checkNotNull(assertion);
+        checkOpen();
         final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(
                 assertion);
         add(assertion, term);
     }
 
     void add(final Expr<BoolType> assertion, final com.microsoft.z3.BoolExpr term) {
+        checkOpen();
         assertions.add(assertion);
         z3Solver.add(term);
         clearState();
@@ -99,6 +124,7 @@ final class Z3Solver implements UCSolver, Solver {
     @Override
     public void track(final Expr<BoolType> assertion) {
         checkNotNull(assertion);
+        checkOpen();
 
         assertions.add(assertion);
         final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(
@@ -115,6 +141,7 @@ final class Z3Solver implements UCSolver, Solver {
 
     @Override
     public SolverStatus check() {
+        checkOpen();
         final Status z3Status = z3Solver.check();
         status = transformStatus(z3Status);
         return status;
@@ -133,12 +160,14 @@ final class Z3Solver implements UCSolver, Solver {
 
     @Override
     public void push() {
+        checkOpen();
         assertions.push();
         z3Solver.push();
     }
 
     @Override
     public void pop(final int n) {
+        checkOpen();
         assertions.pop(n);
         z3Solver.pop(n);
         clearState();
@@ -146,6 +175,7 @@ final class Z3Solver implements UCSolver, Solver {
 
     @Override
     public void reset() {
+        checkOpen();
         z3Solver.reset();
         assertions.clear();
         assumptions.clear();
@@ -156,12 +186,14 @@ final class Z3Solver implements UCSolver, Solver {
 
     @Override
     public SolverStatus getStatus() {
+        checkOpen();
         checkState(status != null, "Solver status is unknown.");
         return status;
     }
 
     @Override
     public Valuation getModel() {
+        checkOpen();
         checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT.");
 
         if (model == null) {
@@ -184,6 +216,7 @@ final class Z3Solver implements UCSolver, Solver {
 
     @Override
     public Collection<Expr<BoolType>> getUnsatCore() {
+        checkOpen();
         checkState(status == SolverStatus.UNSAT, "Cannot get unsat core if status is not UNSAT");
 
         if (unsatCore == null) {
@@ -222,6 +255,14 @@ final class Z3Solver implements UCSolver, Solver {
         return assertions.toCollection();
     }
 
+    /**
+     * Fails if the solver is closed. The context of a closed solver might already be used by
+     * another solver.
+     */
+    void checkOpen() {
+        checkState(!closed, "Solver is closed");
+    }
+
     private void clearState() {
         status = null;
         model = null;
@@ -229,8 +270,21 @@ final class Z3Solver implements UCSolver, Solver {
     }
 
     @Override
-    public void close() {
-        z3Context.interrupt();
+    public synchronized void close() {
+        if (released) {
+            return;
+        }
+        closed = true;
+        if (onRelease != null && !interrupted && Thread.currentThread() == owner) {
+            released = true;
+            z3Solver.reset();
+            clearState();
+            onRelease.run();
+        } else {
+            // an interrupted context is not reused, as the interrupt might affect later checks
+            interrupted = true;
+            z3Context.interrupt();
+        }
     }
 
     ////
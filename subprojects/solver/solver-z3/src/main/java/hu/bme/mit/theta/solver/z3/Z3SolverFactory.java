@@ -23,16 +23,26 @@ import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.solver.UCSolver;
 
+/**
+ * Factory for Z3 solvers. Contexts are pooled: when a solver is closed by the thread that created
+ * it, its context, symbols and term cache are reused by the next solver created by the factory.
+ * Therefore, models of a closed solver should not be queried anymore.
+ */
 public final class Z3SolverFactory implements SolverFactory {
 
     private static final Z3SolverFactory INSTANCE;
+    private static final int POOL_CAPACITY = 16;
+    private static final int POOL_MAX_SYMBOLS = 100_000;
 
     static {
         loadLibraries();
         INSTANCE = new Z3SolverFactory();
     }
 
+    private final Z3ContextPool pool;
+
     private Z3SolverFactory() {
+        pool = new Z3ContextPool(POOL_CAPACITY, POOL_MAX_SYMBOLS);
     }
 
     public static Z3SolverFactory getInstance() {
@@ -53,46 +63,53 @@ public final class Z3SolverFactory implements SolverFactory {
         }
     }
 
-    @Override
-    public Solver createSolver() {
-        final com.microsoft.z3.Context z3Context = new com.microsoft.z3.Context();
-        final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
+    /**
+     * Returns the number of Z3 contexts created for solvers of this factory.
+     */
+    public long getCreatedContexts() {
+        return pool.getCreated();
+    }
 
-        final Z3SymbolTable symbolTable = new Z3SymbolTable();
-        final Z3TransformationManager transformationManager = new Z3TransformationManager(
-                symbolTable, z3Context);
-        final Z3TermTransformer termTransformer = new Z3TermTransformer(symbolTable);
+    /**
+     * Returns the number of solvers that reused the context of a closed solver.
+     */
+    public long getReusedContexts() {
+        return pool.getReused();
+    }
 
-        return new Z3Solver(symbolTable, transformationManager, termTransformer, z3Context,
-                z3Solver);
+    @Override
+    public Solver createSolver() {
+        return createZ3Solver();
     }
 
     @Override
     public UCSolver createUCSolver() {
-        final com.microsoft.z3.Context z3Context = new com.microsoft.z3.Context();
-        final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
-
-        final Z3SymbolTable symbolTable = new Z3SymbolTable();
-        final Z3TransformationManager transformationManager = new Z3TransformationManager(
-                symbolTable, z3Context);
-        final Z3TermTransformer termTransformer = new Z3TermTransformer(symbolTable);
-
-        return new Z3Solver(symbolTable, transformationManager, termTransformer, z3Context,
-                z3Solver);
+        return createZ3Solver();
     }
 
     @Override
     public ItpSolver createItpSolver() {
-        final InterpolationContext z3Context = InterpolationContext.mkContext();
+        final Z3ContextPool.PooledContext context = pool.acquire(true);
+        final InterpolationContext z3Context = (InterpolationContext) context.getContext();
         final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
 
-        final Z3SymbolTable symbolTable = new Z3SymbolTable();
-        final Z3TransformationManager transformationManager = new Z3TransformationManager(
-                symbolTable, z3Context);
-        final Z3TermTransformer termTransformer = new Z3TermTransformer(symbolTable);
+        return new Z3ItpSolver(context.getSymbolTable(), context.getTransformationManager(),
+                context.getTermTransformer(), z3Context, z3Solver, context::release);
+    }
 
-        return new Z3ItpSolver(symbolTable, transformationManager, termTransformer, z3Context,
-                z3Solver);
+    private Z3Solver createZ3Solver() {
+        final Z3ContextPool.PooledContext context = pool.acquire(false);
+        final com.microsoft.z3.Context z3Context = context.getContext();
+        final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
+
+        return new Z3Solver(context.getSymbolTable(), context.getTransformationManager(),
+                context.getTermTransformer(), z3Context, z3Solver, context::release);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Z3SolverFactory(createdContexts=%d, reusedContexts=%d)",
+                getCreatedContexts(), getReusedContexts());
     }
 
 }
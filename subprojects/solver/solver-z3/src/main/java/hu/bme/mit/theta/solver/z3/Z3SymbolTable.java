@@ -59,6 +59,10 @@ final class Z3SymbolTable {
         constToSymbol.put(constDecl, symbol);
     }
 
+    public int size() {
+        return constToSymbol.size();
+    }
+
     public void clear() {
         constToSymbol.clear();
     }
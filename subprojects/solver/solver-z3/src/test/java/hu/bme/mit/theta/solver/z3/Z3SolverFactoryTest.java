@@ -0,0 +1,59 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+public final class Z3SolverFactoryTest {
+
+    @Test
+    public void testContextReuse() throws Exception {
+        final Z3SolverFactory factory = Z3SolverFactory.getInstance();
+        final ConstDecl<IntType> x = Const("x", Int());
+
+        try (final Solver solver = factory.createSolver()) {
+            solver.add(Eq(x.getRef(), Int(1)));
+            assertEquals(SolverStatus.SAT, solver.check());
+        }
+
+        final long reused = factory.getReusedContexts();
+        try (final Solver solver = factory.createSolver()) {
+            assertEquals(reused + 1, factory.getReusedContexts());
+            assertEquals(0, solver.getAssertions().size());
+            solver.add(Eq(x.getRef(), Int(2)));
+            assertEquals(SolverStatus.SAT, solver.check());
+            assertEquals(Int(2), solver.getModel().eval(x).get());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedSolver() throws Exception {
+        final Solver solver = Z3SolverFactory.getInstance().createSolver();
+        solver.close();
+        solver.add(Eq(Const("y", Int()).getRef(), Int(1)));
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * Solver decorator answering satisfiability checks from a {@link SolverCache}. Assertions are
+ * forwarded to the underlying solver, which is only queried on a cache miss, or when a model is
+ * requested for a satisfiable result coming from the cache.
+ */
+public final class CachingSolver implements Solver {
+
+    private final Solver solver;
+    private final SolverCache cache;
+    private final Stack<Expr<BoolType>> assertions;
+    private final SolverCacheKey key;
+
+    private SolverStatus status;
+    private boolean solverChecked;
+
+    CachingSolver(final Solver solver, final SolverCache cache) {
+        this.solver = checkNotNull(solver);
+        this.cache = checkNotNull(cache);
+        assertions = new StackImpl<>();
+        key = new SolverCacheKey();
+        status = null;
+        solverChecked = false;
+    }
+
+    @Override
+    public void add(final Expr<BoolType> assertion) {
+        checkNotNull(assertion);
+        solver.add(assertion);
+        assertions.add(assertion);
+        key.add(assertion);
+        clearState();
+    }
+
+    @Override
+    public SolverStatus check() {
+        final Optional<SolverStatus> cached = cache.get(key.get());
+        if (cached.isPresent()) {
+            status = cached.get();
+            solverChecked = false;
+        } else {
+            status = solver.check();
+            solverChecked = true;
+            cache.put(key.get(), status);
+        }
+        return status;
+    }
+
+    @Override
+    public void push() {
+        solver.push();
+        assertions.push();
+        key.push();
+    }
+
+    @Override
+    public void pop(final int n) {
+        solver.pop(n);
+        assertions.pop(n);
+        key.pop(n);
+        clearState();
+    }
+
+    @Override
+    public void reset() {
+        solver.reset();
+        assertions.clear();
+        key.clear();
+        clearState();
+    }
+
+    @Override
+    public SolverStatus getStatus() {
+        checkState(status != null, "Solver status is unknown");
+        return status;
+    }
+
+    @Override
+    public Valuation getModel() {
+        checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT");
+        if (!solverChecked) {
+            final SolverStatus solverStatus = solver.check();
+            checkState(solverStatus == SolverStatus.SAT, "Cached status differs from solver status");
+            solverChecked = true;
+        }
+        return solver.getModel();
+    }
+
+    @Override
+    public Collection<Expr<BoolType>> getAssertions() {
+        return assertions.toCollection();
+    }
+
+    @Override
+    public void close() throws Exception {
+        solver.close();
+    }
+
+    private void clearState() {
+        status = null;
+        solverChecked = false;
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * Cache of satisfiability results, shared by the solvers of a {@link CachingSolverFactory}. Queries
+ * are canonized before lookup: the constants are renamed in the order of their first occurrence
+ * and commutative operations are ordered by {@link ExprUtils#canonize(Expr)}, so queries that only
+ * differ in the names of (indexed) constants share an entry (see {@link SolverCacheKey}). Keys are
+ * SHA-256 hashes of the canonical form, which makes them stable between runs. At most
+ * {@code capacity} recently used entries are kept in memory. Optionally, new results are appended
+ * to a file, from which the most recent entries are loaded by later runs. The file is written
+ * through a buffer, so the cache must be closed to persist all results.
+ */
+public final class SolverCache implements AutoCloseable {
+
+    private final int capacity;
+    private final Map<String, SolverStatus> recent;
+    private final Path store;
+    private BufferedWriter writer;
+
+    private long hits;
+    private long misses;
+
+    private SolverCache(final int capacity, final Path store) {
+        checkArgument(capacity > 0, "Capacity must be positive");
+        this.capacity = capacity;
+        this.store = store;
+        recent = new LinkedHashMap<>(16, 0.75f, true);
+        writer = null;
+        hits = 0;
+        misses = 0;
+    }
+
+    public static SolverCache create(final int capacity) {
+        return new SolverCache(capacity, null);
+    }
+
+    /**
+     * Creates a cache that loads previous results from the given file (if it exists) and appends
+     * new results to it.
+     */
+    public static SolverCache create(final int capacity, final Path store) {
+        checkNotNull(store);
+        final SolverCache cache = new SolverCache(capacity, store);
+        cache.load();
+        return cache;
+    }
+
+    synchronized Optional<SolverStatus> get(final String key) {
+        final SolverStatus status = recent.get(key);
+        if (status == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return Optional.ofNullable(status);
+    }
+
+    synchronized void put(final String key, final SolverStatus status) {
+        checkNotNull(status);
+        if (remember(key, status) == null && store != null) {
+            write(key, status);
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {
+        final long queries = hits + misses;
+        return queries == 0 ? 0 : (double) hits / queries;
+    }
+
+    public synchronized int size() {
+        return recent.size();
+    }
+
+    /**
+     * Writes the buffered results to the file.
+     */
+    public synchronized void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                writer = null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SolverCache(hits=%d, misses=%d, hitRate=%.3f, size=%d)", hits, misses,
+                getHitRate(), size());
+    }
+
+    ////
+
+    /**
+     * Returns the key of the conjunction of the given assertions.
+     */
+    static String key(final Collection<? extends Expr<BoolType>> assertions) {
+        final SolverCacheKey key = new SolverCacheKey();
+        assertions.forEach(key::add);
+        return key.get();
+    }
+
+    private SolverStatus remember(final String key, final SolverStatus status) {
+        final SolverStatus previous = recent.put(key, status);
+        if (recent.size() > capacity) {
+            recent.remove(recent.keySet().iterator().next());
+        }
+        return previous;
+    }
+
+    // Entries evicted from memory may be appended again, the last occurrence wins on loading
+    private void load() {
+        if (!Files.exists(store)) {
+            return;
+        }
+        try (final BufferedReader reader = Files.newBufferedReader(store, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split(" ");
+                if (parts.length == 2) {
+                    remember(parts[0], SolverStatus.valueOf(parts[1]));
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(final String key, final SolverStatus status) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(store, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(key + " " + status);
+            writer.newLine();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.hash.Hashing;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.BasicSubstitution;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+
+/**
+ * Cache key of a stack of assertions, maintained incrementally. Constants are renamed in the
+ * order of their first occurrence in the sequence of assertions, then each assertion is canonized
+ * and hashed together with the key of the assertions before it. Adding an assertion therefore
+ * only canonizes that assertion, and popping restores the keys of the remaining ones.
+ */
+final class SolverCacheKey {
+
+    private static final String EMPTY = hash("");
+
+    private final List<String> keys;
+    private final List<ConstDecl<?>> constants;
+    private final Map<ConstDecl<?>, ConstDecl<?>> renaming;
+    private final Deque<int[]> frames;
+
+    SolverCacheKey() {
+        keys = new ArrayList<>();
+        constants = new ArrayList<>();
+        renaming = new HashMap<>();
+        frames = new ArrayDeque<>();
+    }
+
+    void add(final Expr<BoolType> assertion) {
+        final Set<ConstDecl<?>> assertionConstants = new LinkedHashSet<>();
+        ExprUtils.collectConstants(assertion, assertionConstants);
+
+        final StringBuilder builder = new StringBuilder(get());
+        final BasicSubstitution.Builder substitution = BasicSubstitution.builder();
+        for (final ConstDecl<?> decl : assertionConstants) {
+            ConstDecl<?> renamed = renaming.get(decl);
+            if (renamed == null) {
+                renamed = Const("_c" + constants.size(), decl.getType());
+                renaming.put(decl, renamed);
+                constants.add(decl);
+                builder.append(' ').append(renamed.getName()).append(':').append(decl.getType());
+            }
+            substitution.put(decl, renamed.getRef());
+        }
+        builder.append(' ').append(ExprUtils.canonize(substitution.build().apply(assertion)));
+        keys.add(hash(builder));
+    }
+
+    void push() {
+        frames.push(new int[]{keys.size(), constants.size()});
+    }
+
+    void pop(final int n) {
+        checkArgument(n > 0 && n <= frames.size(), "Cannot pop %s frames", n);
+        int[] frame = null;
+        for (int i = 0; i < n; i++) {
+            frame = frames.pop();
+        }
+        keys.subList(frame[0], keys.size()).clear();
+        final List<ConstDecl<?>> removed = constants.subList(frame[1], constants.size());
+        removed.forEach(renaming::remove);
+        removed.clear();
+    }
+
+    void clear() {
+        keys.clear();
+        constants.clear();
+        renaming.clear();
+        frames.clear();
+    }
+
+    String get() {
+        return keys.isEmpty() ? EMPTY : keys.get(keys.size() - 1);
+    }
+
+    private static String hash(final CharSequence text) {
+        return Hashing.sha256().hashString(text, StandardCharsets.UTF_8).toString();
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * Solver decorator reporting its checks to the metrics registry.
+ */
+final class MetricsSolver implements Solver {
+
+    private final Solver solver;
+
+    MetricsSolver(final Solver solver) {
+        this.solver = checkNotNull(solver);
+    }
+
+    @Override
+    public void add(final Expr<BoolType> assertion) {
+        solver.add(assertion);
+    }
+
+    @Override
+    public void add(final Iterable<? extends Expr<BoolType>> assertions) {
+        solver.add(assertions);
+    }
+
+    @Override
+    public SolverStatus check() {
+        return SolverMetrics.check(solver);
+    }
+
+    @Override
+    public void push() {
+        solver.push();
+    }
+
+    @Override
+    public void pop(final int n) {
+        solver.pop(n);
+    }
+
+    @Override
+    public void reset() {
+        solver.reset();
+    }
+
+    @Override
+    public SolverStatus getStatus() {
+        return solver.getStatus();
+    }
+
+    @Override
+    public Valuation getModel() {
+        return solver.getModel();
+    }
+
+    @Override
+    public Collection<Expr<BoolType>> getAssertions() {
+        return solver.getAssertions();
+    }
+
+    @Override
+    public void close() throws Exception {
+        solver.close();
+    }
+
+}
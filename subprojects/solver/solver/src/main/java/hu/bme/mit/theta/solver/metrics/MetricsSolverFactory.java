@@ -0,0 +1,57 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.UCSolver;
+
+/**
+ * Solver factory decorator whose solvers report every query (check, unsat core, interpolant) to
+ * {@link MetricRegistry#getInstance()} and as Java Flight Recorder events.
+ */
+public final class MetricsSolverFactory implements SolverFactory {
+
+    private final SolverFactory solverFactory;
+
+    private MetricsSolverFactory(final SolverFactory solverFactory) {
+        this.solverFactory = checkNotNull(solverFactory);
+    }
+
+    public static MetricsSolverFactory create(final SolverFactory solverFactory) {
+        return new MetricsSolverFactory(solverFactory);
+    }
+
+    @Override
+    public Solver createSolver() {
+        return new MetricsSolver(solverFactory.createSolver());
+    }
+
+    @Override
+    public UCSolver createUCSolver() {
+        return new MetricsUCSolver(solverFactory.createUCSolver());
+    }
+
+    @Override
+    public ItpSolver createItpSolver() {
+        return new MetricsItpSolver(solverFactory.createItpSolver());
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of a single solver query (satisfiability check, unsat core or
+ * interpolant computation).
+ */
+@Name("hu.bme.mit.theta.SolverCheck")
+@Label("Solver Check")
+@Category({"Theta", "Solver"})
+@Description("A query to an SMT solver")
+final class SolverCheckEvent extends Event {
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Assertions")
+    int assertions;
+
+    @Label("Status")
+    String status;
+
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.metrics;
+
+import java.util.function.Supplier;
+
+import hu.bme.mit.theta.common.metrics.Counter;
+import hu.bme.mit.theta.common.metrics.Histogram;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
+import hu.bme.mit.theta.common.metrics.Timer;
+import hu.bme.mit.theta.solver.SolverBase;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * Reports the queries of the metrics solver decorators to the {@link MetricRegistry} and as
+ * {@link SolverCheckEvent}s.
+ */
+final class SolverMetrics {
+
+    private static final MetricRegistry REGISTRY = MetricRegistry.getInstance();
+    private static final Timer CHECK = REGISTRY.timer("solver.check");
+    private static final Timer UNSAT_CORE = REGISTRY.timer("solver.unsatCore");
+    private static final Timer INTERPOLANT = REGISTRY.timer("solver.interpolant");
+    private static final Counter SAT = REGISTRY.counter("solver.check.sat");
+    private static final Counter UNSAT = REGISTRY.counter("solver.check.unsat");
+    private static final Histogram ASSERTIONS = REGISTRY.histogram("solver.assertions");
+
+    private SolverMetrics() {
+    }
+
+    static SolverStatus check(final SolverBase solver) {
+        final SolverCheckEvent event = new SolverCheckEvent();
+        event.begin();
+        final long start = CHECK.start();
+        final SolverStatus status = solver.check();
+        CHECK.stop(start);
+        if (REGISTRY.isEnabled()) {
+            (status.isSat() ? SAT : UNSAT).inc();
+            ASSERTIONS.record(solver.getAssertions().size());
+        }
+        if (event.shouldCommit()) {
+            event.kind = "check";
+            event.status = status.name();
+            event.assertions = solver.getAssertions().size();
+            event.commit();
+        }
+        return status;
+    }
+
+    static <T> T unsatCore(final Supplier<T> query) {
+        return query(UNSAT_CORE, "unsatCore", query);
+    }
+
+    static <T> T interpolant(final Supplier<T> query) {
+        return query(INTERPOLANT, "interpolant", query);
+    }
+
+    private static <T> T query(final Timer timer, final String kind, final Supplier<T> query) {
+        final SolverCheckEvent event = new SolverCheckEvent();
+        event.begin();
+        final T result = timer.time(query);
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.commit();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,286 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.preprocessing;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.BasicSubstitution;
+import hu.bme.mit.theta.core.model.Substitution;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.abstracttype.EqExpr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.fptype.FpType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+
+/**
+ * Rewrites a set of assertions into an equisatisfiable set of independent components. Constants
+ * defined by an equality with a literal (constant propagation) or with another constant (equality
+ * substitution) are eliminated, and their definitions are kept so that models can be completed.
+ */
+final class FormulaPreprocessor {
+
+    private final boolean substituteEqualities;
+    private final boolean propagateConstants;
+    private final boolean slice;
+
+    FormulaPreprocessor(final boolean substituteEqualities, final boolean propagateConstants,
+                        final boolean slice) {
+        this.substituteEqualities = substituteEqualities;
+        this.propagateConstants = propagateConstants;
+        this.slice = slice;
+    }
+
+    Result preprocess(final Collection<Expr<BoolType>> assertions) {
+        return preprocess(Result.EMPTY, assertions);
+    }
+
+    /**
+     * Preprocesses the assertions of a previous result extended with new assertions. The new
+     * assertions are rewritten with the definitions of the previous result, and the elimination
+     * continues from the remaining conjuncts of the previous result, so the previous assertions
+     * are not processed again.
+     */
+    Result preprocess(final Result previous, final Collection<Expr<BoolType>> assertions) {
+        checkNotNull(previous);
+        checkNotNull(assertions);
+        if (previous.isUnsat()) {
+            return previous;
+        }
+        final Substitution resolved = resolve(previous.definitions);
+        final Set<Expr<BoolType>> added = new LinkedHashSet<>();
+        for (final Expr<BoolType> assertion : assertions) {
+            collectConjuncts(resolved.apply(assertion), added);
+        }
+        final Set<Expr<BoolType>> conjuncts = new LinkedHashSet<>(previous.conjuncts);
+        conjuncts.addAll(propagateConstants ? simplify(new ArrayList<>(added)) : added);
+
+        final Map<ConstDecl<?>, Expr<?>> definitions = new LinkedHashMap<>(previous.definitions);
+        List<Expr<BoolType>> current = new ArrayList<>(conjuncts);
+        while (true) {
+            if (propagateConstants && current.contains(False())) {
+                return new Result(List.of(), List.of(), definitions, true);
+            }
+            final BasicSubstitution.Builder substitution = BasicSubstitution.builder();
+            final Set<ConstDecl<?>> touched = new LinkedHashSet<>();
+            final List<Expr<BoolType>> remaining = new ArrayList<>();
+            for (final Expr<BoolType> conjunct : current) {
+                if (!define(conjunct, touched, substitution, definitions)) {
+                    remaining.add(conjunct);
+                }
+            }
+            if (remaining.size() == current.size()) {
+                break;
+            }
+            current = substitute(remaining, substitution.build());
+            if (propagateConstants) {
+                current = simplify(current);
+            }
+        }
+
+        final List<List<Expr<BoolType>>> components = slice ? partition(current)
+                : current.isEmpty() ? List.of() : List.of(current);
+        return new Result(current, components, definitions, false);
+    }
+
+    /**
+     * Maps each eliminated constant to its final value. Definitions only refer to constants that
+     * were eliminated later, if at all, so they are resolved in reverse order of elimination.
+     */
+    private static Substitution resolve(final Map<ConstDecl<?>, Expr<?>> definitions) {
+        final List<Map.Entry<ConstDecl<?>, Expr<?>>> entries = new ArrayList<>(definitions.entrySet());
+        final Map<ConstDecl<?>, Expr<?>> resolved = new HashMap<>();
+        final BasicSubstitution.Builder builder = BasicSubstitution.builder();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            final Expr<?> definition = entries.get(i).getValue();
+            final Expr<?> value = resolved.getOrDefault(constOf(definition), definition);
+            resolved.put(entries.get(i).getKey(), value);
+            builder.put(entries.get(i).getKey(), value);
+        }
+        return builder.build();
+    }
+
+    private static void collectConjuncts(final Expr<BoolType> expr, final Set<Expr<BoolType>> collectTo) {
+        if (expr instanceof AndExpr) {
+            for (final Expr<BoolType> op : ((AndExpr) expr).getOps()) {
+                collectConjuncts(op, collectTo);
+            }
+        } else {
+            collectTo.add(expr);
+        }
+    }
+
+    private static List<Expr<BoolType>> simplify(final List<Expr<BoolType>> conjuncts) {
+        final Set<Expr<BoolType>> result = new LinkedHashSet<>();
+        for (final Expr<BoolType> conjunct : conjuncts) {
+            final Expr<BoolType> simplified = ExprUtils.simplify(conjunct);
+            if (simplified.equals(False())) {
+                return List.of(False());
+            } else if (!simplified.equals(True())) {
+                collectConjuncts(simplified, result);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static List<Expr<BoolType>> substitute(final List<Expr<BoolType>> conjuncts,
+                                                   final Substitution substitution) {
+        final Set<Expr<BoolType>> result = new LinkedHashSet<>();
+        for (final Expr<BoolType> conjunct : conjuncts) {
+            collectConjuncts(substitution.apply(conjunct), result);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Eliminates a constant if the conjunct defines it, unless a constant of the conjunct is already
+     * involved in a definition of the current round. Floating point equality is not substitutive
+     * (e.g., for NaN), so it is skipped.
+     */
+    private boolean define(final Expr<BoolType> conjunct, final Set<ConstDecl<?>> touched,
+                           final BasicSubstitution.Builder substitution,
+                           final Map<ConstDecl<?>, Expr<?>> definitions) {
+        if (!(conjunct instanceof EqExpr) || conjunct.getOps().get(0).getType() instanceof FpType) {
+            return false;
+        }
+        final Expr<?> left = conjunct.getOps().get(0);
+        final Expr<?> right = conjunct.getOps().get(1);
+        final ConstDecl<?> leftConst = constOf(left);
+        final ConstDecl<?> rightConst = constOf(right);
+        if (touched.contains(leftConst) || touched.contains(rightConst)) {
+            return false;
+        }
+
+        final ConstDecl<?> eliminated;
+        final Expr<?> definition;
+        if (leftConst != null && leftConst != rightConst && isDefinition(right)) {
+            eliminated = leftConst;
+            definition = right;
+        } else if (rightConst != null && leftConst != rightConst && isDefinition(left)) {
+            eliminated = rightConst;
+            definition = left;
+        } else {
+            return false;
+        }
+        touched.add(eliminated);
+        if (constOf(definition) != null) {
+            touched.add(constOf(definition));
+        }
+        definitions.put(eliminated, definition);
+        substitution.put(eliminated, definition);
+        return true;
+    }
+
+    private boolean isDefinition(final Expr<?> expr) {
+        return (propagateConstants && expr instanceof LitExpr)
+                || (substituteEqualities && constOf(expr) != null);
+    }
+
+    private static ConstDecl<?> constOf(final Expr<?> expr) {
+        if (expr instanceof RefExpr && ((RefExpr<?>) expr).getDecl() instanceof ConstDecl) {
+            return (ConstDecl<?>) ((RefExpr<?>) expr).getDecl();
+        }
+        return null;
+    }
+
+    /**
+     * Groups conjuncts into classes that are connected through shared constants.
+     */
+    private static List<List<Expr<BoolType>>> partition(final List<Expr<BoolType>> conjuncts) {
+        final Map<ConstDecl<?>, Integer> owner = new LinkedHashMap<>();
+        final int[] parent = new int[conjuncts.size()];
+        for (int i = 0; i < conjuncts.size(); i++) {
+            parent[i] = i;
+            for (final ConstDecl<?> constDecl : ExprUtils.getConstants(conjuncts.get(i))) {
+                final Integer other = owner.putIfAbsent(constDecl, i);
+                if (other != null) {
+                    parent[find(parent, other)] = find(parent, i);
+                }
+            }
+        }
+
+        final Map<Integer, List<Expr<BoolType>>> components = new LinkedHashMap<>();
+        for (int i = 0; i < conjuncts.size(); i++) {
+            components.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(conjuncts.get(i));
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    private static int find(final int[] parent, final int i) {
+        int root = i;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        int node = i;
+        while (parent[node] != root) {
+            final int next = parent[node];
+            parent[node] = root;
+            node = next;
+        }
+        return root;
+    }
+
+    static final class Result {
+        static final Result EMPTY = new Result(List.of(), List.of(), Map.of(), false);
+
+        private final List<Expr<BoolType>> conjuncts;
+        private final List<List<Expr<BoolType>>> components;
+        private final Map<ConstDecl<?>, Expr<?>> definitions;
+        private final boolean unsat;
+
+        private Result(final List<Expr<BoolType>> conjuncts,
+                       final List<List<Expr<BoolType>>> components,
+                       final Map<ConstDecl<?>, Expr<?>> definitions, final boolean unsat) {
+            this.conjuncts = conjuncts;
+            this.components = components;
+            this.definitions = definitions;
+            this.unsat = unsat;
+        }
+
+        /**
+         * Independent sets of conjuncts, no two of which share a constant.
+         */
+        List<List<Expr<BoolType>>> getComponents() {
+            return components;
+        }
+
+        /**
+         * Eliminated constants with their definitions, in the order of elimination.
+         */
+        Map<ConstDecl<?>, Expr<?>> getDefinitions() {
+            return definitions;
+        }
+
+        boolean isUnsat() {
+            return unsat;
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.preprocessing;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.MutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.bvtype.BvType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * Solver decorator that preprocesses the assertions before each check with a
+ * {@link FormulaPreprocessor}, and checks the resulting independent components one by one in the
+ * underlying solver. Models are assembled from the models of the components, and completed with the
+ * values of the eliminated constants.
+ * <p>
+ * The outcome of the last check is kept for each level of the assertion stack. A check continues
+ * from the deepest kept level, so only the assertions added since then are preprocessed, and only
+ * the components that are not satisfiable components of that level are sent to the solver. Popping
+ * back to a level restores its outcome without any work.
+ */
+public final class PreprocessingSolver implements Solver {
+
+    private final Solver solver;
+    private final FormulaPreprocessor preprocessor;
+    private final Stack<Expr<BoolType>> assertions;
+    private final List<Frame> frames;
+
+    private int depth;
+    private Frame frame;
+    private Valuation model;
+
+    PreprocessingSolver(final Solver solver, final FormulaPreprocessor preprocessor) {
+        this.solver = checkNotNull(solver);
+        this.preprocessor = checkNotNull(preprocessor);
+        assertions = new StackImpl<>();
+        frames = new ArrayList<>();
+        depth = 0;
+        clearState();
+    }
+
+    @Override
+    public void add(final Expr<BoolType> assertion) {
+        checkNotNull(assertion);
+        assertions.add(assertion);
+        clearState();
+    }
+
+    @Override
+    public SolverStatus check() {
+        if (frame != null) {
+            return frame.status;
+        }
+        final Frame base = frames.isEmpty() ? Frame.EMPTY : frames.get(frames.size() - 1);
+        final List<Expr<BoolType>> all = new ArrayList<>(assertions.toCollection());
+        if (base.assertionCount == all.size()) {
+            frame = base;
+        } else {
+            frame = check(base, all);
+            if (!frames.isEmpty() && base.depth == depth) {
+                frames.set(frames.size() - 1, frame);
+            } else {
+                frames.add(frame);
+            }
+        }
+        return frame.status;
+    }
+
+    private Frame check(final Frame base, final List<Expr<BoolType>> all) {
+        if (base.status == SolverStatus.UNSAT) {
+            return new Frame(depth, all.size(), base.result, Map.of(), SolverStatus.UNSAT);
+        }
+        final List<Expr<BoolType>> added = all.subList(base.assertionCount, all.size());
+        final FormulaPreprocessor.Result result = preprocessor.preprocess(base.result, added);
+        final Map<List<Expr<BoolType>>, Valuation> satComponents = new HashMap<>();
+        if (result.isUnsat()) {
+            return new Frame(depth, all.size(), result, satComponents, SolverStatus.UNSAT);
+        }
+        for (final List<Expr<BoolType>> component : result.getComponents()) {
+            Valuation componentModel = base.satComponents.get(component);
+            if (componentModel == null) {
+                componentModel = checkComponent(component);
+                if (componentModel == null) {
+                    return new Frame(depth, all.size(), result, satComponents, SolverStatus.UNSAT);
+                }
+            }
+            satComponents.put(component, componentModel);
+        }
+        return new Frame(depth, all.size(), result, satComponents, SolverStatus.SAT);
+    }
+
+    private Valuation checkComponent(final List<Expr<BoolType>> component) {
+        solver.push();
+        try {
+            solver.add(component);
+            if (solver.check().isUnsat()) {
+                return null;
+            }
+            final Valuation componentModel = solver.getModel();
+            final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+            for (final ConstDecl<?> constDecl : ExprUtils.getConstants(component)) {
+                componentModel.eval(constDecl).ifPresent(value -> builder.put(constDecl, value));
+            }
+            return builder.build();
+        } finally {
+            solver.pop();
+        }
+    }
+
+    @Override
+    public void push() {
+        assertions.push();
+        depth++;
+    }
+
+    @Override
+    public void pop(final int n) {
+        assertions.pop(n);
+        depth -= n;
+        while (!frames.isEmpty() && frames.get(frames.size() - 1).depth > depth) {
+            frames.remove(frames.size() - 1);
+        }
+        clearState();
+    }
+
+    @Override
+    public void reset() {
+        solver.reset();
+        assertions.clear();
+        frames.clear();
+        depth = 0;
+        clearState();
+    }
+
+    @Override
+    public SolverStatus getStatus() {
+        checkState(frame != null, "Solver status is unknown");
+        return frame.status;
+    }
+
+    @Override
+    public Valuation getModel() {
+        checkState(frame != null && frame.status == SolverStatus.SAT,
+                "Cannot get model if status is not SAT");
+        if (model == null) {
+            model = extractModel();
+        }
+        return model;
+    }
+
+    private Valuation extractModel() {
+        final MutableValuation valuation = new MutableValuation();
+        for (final Valuation componentModel : frame.satComponents.values()) {
+            valuation.putAll(componentModel);
+        }
+
+        final List<Map.Entry<ConstDecl<?>, Expr<?>>> definitions = new ArrayList<>(
+                frame.result.getDefinitions().entrySet());
+        for (int i = definitions.size() - 1; i >= 0; i--) {
+            final ConstDecl<?> constDecl = definitions.get(i).getKey();
+            final Expr<?> definition = definitions.get(i).getValue();
+            final Optional<LitExpr<?>> value = evalDefinition(definition, valuation);
+            value.ifPresent(v -> valuation.put(constDecl, v));
+        }
+        return ImmutableValuation.copyOf(valuation);
+    }
+
+    /**
+     * Evaluates the definition of an eliminated constant. A constant defined by an otherwise
+     * unconstrained constant gets the default value of its type, if there is one.
+     */
+    private static Optional<LitExpr<?>> evalDefinition(final Expr<?> definition,
+                                                       final MutableValuation valuation) {
+        if (definition instanceof LitExpr) {
+            return Optional.of((LitExpr<?>) definition);
+        }
+        final ConstDecl<?> constDecl = (ConstDecl<?>) ((RefExpr<?>) definition).getDecl();
+        final Optional<? extends LitExpr<?>> value = valuation.eval(constDecl);
+        if (value.isPresent()) {
+            return Optional.of(value.get());
+        }
+        final Type type = constDecl.getType();
+        if (type instanceof BoolType || type instanceof IntType || type instanceof RatType
+                || type instanceof BvType) {
+            final LitExpr<?> defaultValue = TypeUtils.getDefaultValue(type);
+            valuation.put(constDecl, defaultValue);
+            return Optional.of(defaultValue);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Collection<Expr<BoolType>> getAssertions() {
+        return assertions.toCollection();
+    }
+
+    @Override
+    public void close() throws Exception {
+        solver.close();
+    }
+
+    private void clearState() {
+        frame = null;
+        model = null;
+    }
+
+    /**
+     * Outcome of the last check on a level of the assertion stack, covering the first
+     * {@code assertionCount} assertions.
+     */
+    private static final class Frame {
+        private static final Frame EMPTY = new Frame(0, 0, FormulaPreprocessor.Result.EMPTY,
+                Map.of(), SolverStatus.SAT);
+
+        private final int depth;
+        private final int assertionCount;
+        private final FormulaPreprocessor.Result result;
+        private final Map<List<Expr<BoolType>>, Valuation> satComponents;
+        private final SolverStatus status;
+
+        private Frame(final int depth, final int assertionCount,
+                      final FormulaPreprocessor.Result result,
+                      final Map<List<Expr<BoolType>>, Valuation> satComponents,
+                      final SolverStatus status) {
+            this.depth = depth;
+            this.assertionCount = assertionCount;
+            this.result = result;
+            this.satComponents = satComponents;
+            this.status = status;
+        }
+    }
+
+}
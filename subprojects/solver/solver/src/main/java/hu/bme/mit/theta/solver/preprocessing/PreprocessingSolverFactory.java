@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.preprocessing;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.UCSolver;
+
+/**
+ * Solver factory whose basic solvers preprocess assertions before passing them to the underlying
+ * factory's solvers. Unsat core and interpolating solvers are created by the underlying factory
+ * without preprocessing, as cores and interpolants refer to the original assertions.
+ */
+public final class PreprocessingSolverFactory implements SolverFactory {
+
+    public enum Step {
+        /**
+         * Eliminate constants that are equal to another constant.
+         */
+        EQUALITY_SUBSTITUTION,
+        /**
+         * Simplify assertions, and eliminate constants that are equal to a literal.
+         */
+        CONSTANT_PROPAGATION,
+        /**
+         * Check groups of assertions that share no constants separately.
+         */
+        SLICING
+    }
+
+    private final SolverFactory solverFactory;
+    private final Set<Step> steps;
+
+    private PreprocessingSolverFactory(final SolverFactory solverFactory, final Set<Step> steps) {
+        this.solverFactory = checkNotNull(solverFactory);
+        this.steps = steps.isEmpty() ? EnumSet.noneOf(Step.class) : EnumSet.copyOf(steps);
+    }
+
+    public static PreprocessingSolverFactory create(final SolverFactory solverFactory,
+                                                    final Set<Step> steps) {
+        return new PreprocessingSolverFactory(solverFactory, steps);
+    }
+
+    public static PreprocessingSolverFactory create(final SolverFactory solverFactory) {
+        return create(solverFactory, EnumSet.allOf(Step.class));
+    }
+
+    @Override
+    public Solver createSolver() {
+        final FormulaPreprocessor preprocessor = new FormulaPreprocessor(
+                steps.contains(Step.EQUALITY_SUBSTITUTION), steps.contains(Step.CONSTANT_PROPAGATION),
+                steps.contains(Step.SLICING));
+        return new PreprocessingSolver(solverFactory.createSolver(), preprocessor);
+    }
+
+    @Override
+    public UCSolver createUCSolver() {
+        return solverFactory.createUCSolver();
+    }
+
+    @Override
+    public ItpSolver createItpSolver() {
+        return solverFactory.createItpSolver();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.racing;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import hu.bme.mit.theta.solver.SolverBase;
+
+/**
+ * A solver of a racing solver. All operations on the solver are executed in order, on the threads of
+ * an executor shared by the backends of a racing solver factory.
+ */
+final class RacingBackend<S extends SolverBase> {
+
+    private final int index;
+    private final String name;
+    private final S solver;
+    private final Executor executor;
+    private volatile boolean failed;
+
+    RacingBackend(final int index, final String name, final S solver, final Executor executor) {
+        this.index = index;
+        this.name = checkNotNull(name);
+        this.solver = checkNotNull(solver);
+        this.executor = MoreExecutors.newSequentialExecutor(checkNotNull(executor));
+        failed = false;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    S getSolver() {
+        return solver;
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Schedules an operation after the ones submitted earlier. A backend whose operation throws an
+     * exception is excluded from later races, as its state no longer mirrors the others.
+     */
+    <T> Future<T> submit(final Callable<T> task) {
+        return submitCheck(() -> {
+            try {
+                return task.call();
+            } catch (final Exception e) {
+                failed = true;
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Schedules a satisfiability check. Failed checks do not exclude the backend.
+     */
+    <T> Future<T> submitCheck(final Callable<T> task) {
+        final FutureTask<T> future = new FutureTask<>(task);
+        executor.execute(future);
+        return future;
+    }
+
+    void close() {
+        submitCheck(() -> {
+            solver.close();
+            return null;
+        });
+    }
+
+    static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for solver", e);
+        } catch (final ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
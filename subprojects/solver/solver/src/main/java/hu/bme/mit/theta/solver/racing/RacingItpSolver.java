@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.racing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpMarkerTree;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * Interpolating solver racing several backends on each satisfiability check. Markers and
+ * assertions are mirrored to every backend, and interpolants are computed by the backend that
+ * answered the last check first. See {@link RacingSolverFactory}.
+ */
+final class RacingItpSolver extends RacingSolverBase<ItpSolver> implements ItpSolver {
+
+    private final Stack<RacingItpMarker> markers;
+
+    RacingItpSolver(final List<RacingBackend<ItpSolver>> backends, final AtomicLongArray wins) {
+        super(backends, wins);
+        markers = new StackImpl<>();
+    }
+
+    @Override
+    public ItpPattern createTreePattern(final ItpMarkerTree<? extends ItpMarker> root) {
+        checkNotNull(root);
+        return new RacingItpPattern(root);
+    }
+
+    @Override
+    public RacingItpMarker createMarker() {
+        final List<Future<ItpMarker>> backendMarkers = new ArrayList<>();
+        for (final RacingBackend<ItpSolver> backend : getBackends()) {
+            if (backend.isFailed()) {
+                backendMarkers.add(null);
+            } else {
+                backendMarkers.add(backend.submit(() -> backend.getSolver().createMarker()));
+            }
+        }
+        final RacingItpMarker marker = new RacingItpMarker(backendMarkers);
+        markers.add(marker);
+        return marker;
+    }
+
+    @Override
+    public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+        checkNotNull(marker);
+        checkNotNull(assertion);
+        checkArgument(markers.toCollection().contains(marker), "Marker not found in solver");
+        final RacingItpMarker racingMarker = (RacingItpMarker) marker;
+        mirror(backend -> () -> {
+            backend.getSolver().add(racingMarker.getMarker(backend), assertion);
+            return null;
+        });
+        getAssertionStack().add(assertion);
+        clearStatus();
+    }
+
+    @Override
+    public Interpolant getInterpolant(final ItpPattern pattern) {
+        checkState(getStatus() == SolverStatus.UNSAT,
+                "Cannot get interpolant if status is not UNSAT.");
+        checkArgument(pattern instanceof RacingItpPattern);
+        final RacingItpPattern racingPattern = (RacingItpPattern) pattern;
+        final RacingBackend<ItpSolver> lead = getLead();
+        final Interpolant interpolant = onLead(solver -> {
+            final ItpMarkerTree<ItpMarker> root = translate(racingPattern.root, lead);
+            return solver.getInterpolant(solver.createTreePattern(root));
+        });
+        return marker -> {
+            checkArgument(marker instanceof RacingItpMarker);
+            return interpolant.eval(((RacingItpMarker) marker).getMarker(lead));
+        };
+    }
+
+    private static ItpMarkerTree<ItpMarker> translate(final ItpMarkerTree<? extends ItpMarker> tree,
+                                                      final RacingBackend<ItpSolver> backend) {
+        checkArgument(tree.getMarker() instanceof RacingItpMarker);
+        final ItpMarker marker = ((RacingItpMarker) tree.getMarker()).getMarker(backend);
+        @SuppressWarnings("unchecked") final ItpMarkerTree<ItpMarker>[] children = new ItpMarkerTree[tree.getChildrenNumber()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = translate(tree.getChild(i), backend);
+        }
+        return ItpMarkerTree.Tree(marker, children);
+    }
+
+    @Override
+    public Collection<? extends ItpMarker> getMarkers() {
+        return markers.toCollection();
+    }
+
+    @Override
+    public void push() {
+        super.push();
+        markers.push();
+    }
+
+    @Override
+    public void pop(final int n) {
+        super.pop(n);
+        markers.pop(n);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        markers.clear();
+    }
+
+    private static final class RacingItpMarker implements ItpMarker {
+        private final List<Future<ItpMarker>> backendMarkers;
+
+        private RacingItpMarker(final List<Future<ItpMarker>> backendMarkers) {
+            this.backendMarkers = backendMarkers;
+        }
+
+        private ItpMarker getMarker(final RacingBackend<ItpSolver> backend) {
+            final Future<ItpMarker> future = backendMarkers.get(backend.getIndex());
+            checkState(future != null, "Marker was not created in solver %s", backend.getName());
+            return RacingBackend.await(future);
+        }
+    }
+
+    private static final class RacingItpPattern implements ItpPattern.Tree<ItpMarker> {
+        private final ItpMarkerTree<? extends ItpMarker> root;
+
+        private RacingItpPattern(final ItpMarkerTree<? extends ItpMarker> root) {
+            this.root = root;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public ItpMarkerTree<ItpMarker> getRoot() {
+            return (ItpMarkerTree<ItpMarker>) root;
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.racing;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+
+/**
+ * Solver racing several backends on each satisfiability check. See {@link RacingSolverFactory}.
+ */
+final class RacingSolver extends RacingSolverBase<Solver> implements Solver {
+
+    RacingSolver(final List<RacingBackend<Solver>> backends, final AtomicLongArray wins) {
+        super(backends, wins);
+    }
+
+    @Override
+    public void add(final Expr<BoolType> assertion) {
+        checkNotNull(assertion);
+        mirror(backend -> () -> {
+            backend.getSolver().add(assertion);
+            return null;
+        });
+        getAssertionStack().add(assertion);
+        clearStatus();
+    }
+
+}
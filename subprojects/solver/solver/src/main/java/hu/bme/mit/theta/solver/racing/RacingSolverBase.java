@@ -0,0 +1,235 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.racing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.SolverBase;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * Common part of racing solvers. Every operation is mirrored to all backends, each of which
+ * executes its operations in order. A satisfiability check is started on every
+ * backend, and the first answer is returned. The backend giving it becomes the lead, which answers
+ * queries about the result (e.g., models) until the next check.
+ * <p>
+ * A check that is already running on a backend cannot be aborted through the solver interface, so
+ * backends that lost a race finish their check in the background, and skip it if it has not
+ * started yet. Operations after the check are queued behind it, so only the lead is waited for.
+ */
+abstract class RacingSolverBase<S extends SolverBase> implements SolverBase {
+
+    private final List<RacingBackend<S>> backends;
+    private final AtomicLongArray wins;
+    private final AtomicLong generation;
+    private final Stack<Expr<BoolType>> assertions;
+
+    private RacingBackend<S> lead;
+    private SolverStatus status;
+
+    RacingSolverBase(final List<RacingBackend<S>> backends, final AtomicLongArray wins) {
+        checkNotNull(backends);
+        checkArgument(!backends.isEmpty(), "At least one backend is required");
+        this.backends = ImmutableList.copyOf(backends);
+        this.wins = checkNotNull(wins);
+        generation = new AtomicLong();
+        assertions = new StackImpl<>();
+        lead = this.backends.get(0);
+        status = null;
+    }
+
+    final List<RacingBackend<S>> getBackends() {
+        return backends;
+    }
+
+    final RacingBackend<S> getLead() {
+        return lead;
+    }
+
+    final Stack<Expr<BoolType>> getAssertionStack() {
+        return assertions;
+    }
+
+    /**
+     * Applies an operation on every backend that is still in the race, and waits for it to be
+     * applied on the lead.
+     */
+    final void mirror(final Function<RacingBackend<S>, Callable<?>> operation) {
+        Future<?> leadFuture = null;
+        for (final RacingBackend<S> backend : backends) {
+            if (!backend.isFailed()) {
+                final Future<?> future = backend.submit(operation.apply(backend));
+                if (backend == lead) {
+                    leadFuture = future;
+                }
+            }
+        }
+        if (leadFuture != null) {
+            RacingBackend.await(leadFuture);
+        }
+    }
+
+    /**
+     * Executes a query on the lead, after its pending operations.
+     */
+    final <T> T onLead(final Function<S, T> query) {
+        final RacingBackend<S> backend = lead;
+        checkState(!backend.isFailed(), "Lead solver %s failed", backend.getName());
+        return RacingBackend.await(backend.submitCheck(() -> query.apply(backend.getSolver())));
+    }
+
+    @Override
+    public final SolverStatus check() {
+        final long current = generation.incrementAndGet();
+        final AtomicBoolean decided = new AtomicBoolean(false);
+        final BlockingQueue<Outcome<S>> outcomes = new LinkedBlockingQueue<>();
+
+        int running = 0;
+        for (final RacingBackend<S> backend : backends) {
+            if (!backend.isFailed()) {
+                backend.submitCheck(() -> {
+                    if (decided.get() || generation.get() != current) {
+                        return null;
+                    }
+                    try {
+                        outcomes.add(new Outcome<>(backend, backend.getSolver().check(), null));
+                    } catch (final Exception e) {
+                        outcomes.add(new Outcome<>(backend, null, e));
+                    }
+                    return null;
+                });
+                running++;
+            }
+        }
+        checkState(running > 0, "All solvers failed");
+
+        Exception lastException = null;
+        try {
+            for (int i = 0; i < running; i++) {
+                final Outcome<S> outcome = outcomes.take();
+                if (outcome.exception == null) {
+                    decided.set(true);
+                    lead = outcome.backend;
+                    status = outcome.status;
+                    wins.incrementAndGet(lead.getIndex());
+                    return status;
+                }
+                lastException = outcome.exception;
+            }
+        } catch (final InterruptedException e) {
+            decided.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for solvers", e);
+        }
+
+        status = null;
+        Throwables.throwIfUnchecked(lastException);
+        throw new IllegalStateException(lastException);
+    }
+
+    @Override
+    public void push() {
+        mirror(backend -> () -> {
+            backend.getSolver().push();
+            return null;
+        });
+        assertions.push();
+    }
+
+    @Override
+    public void pop(final int n) {
+        mirror(backend -> () -> {
+            backend.getSolver().pop(n);
+            return null;
+        });
+        assertions.pop(n);
+        status = null;
+    }
+
+    @Override
+    public void reset() {
+        mirror(backend -> () -> {
+            backend.getSolver().reset();
+            return null;
+        });
+        assertions.clear();
+        status = null;
+    }
+
+    @Override
+    public final SolverStatus getStatus() {
+        checkState(status != null, "Solver status is unknown");
+        return status;
+    }
+
+    @Override
+    public final Valuation getModel() {
+        checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT");
+        return onLead(SolverBase::getModel);
+    }
+
+    @Override
+    public final Collection<Expr<BoolType>> getAssertions() {
+        return assertions.toCollection();
+    }
+
+    @Override
+    public final void close() {
+        generation.incrementAndGet();
+        for (final RacingBackend<S> backend : backends) {
+            backend.close();
+        }
+    }
+
+    final void clearStatus() {
+        status = null;
+    }
+
+    private static final class Outcome<S extends SolverBase> {
+        private final RacingBackend<S> backend;
+        private final SolverStatus status;
+        private final Exception exception;
+
+        private Outcome(final RacingBackend<S> backend, final SolverStatus status,
+                        final Exception exception) {
+            this.backend = backend;
+            this.status = status;
+            this.exception = exception;
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.racing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverBase;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.UCSolver;
+
+/**
+ * Solver factory whose solvers run the solvers of several factories side by side, and answer each
+ * satisfiability check with the first result. The number of checks won by each factory is counted
+ * over all solvers created by this factory. Unsat core solvers are not raced, they are created by
+ * the first factory.
+ * <p>
+ * The solvers of the factory share a pool of daemon threads, which grows with the number of
+ * operations running at the same time (e.g., checks that lost a race but are still running) and
+ * shrinks when they are idle.
+ */
+public final class RacingSolverFactory implements SolverFactory {
+
+    private final List<String> names;
+    private final List<SolverFactory> factories;
+    private final AtomicLongArray wins;
+    private final ExecutorService executor;
+
+    private RacingSolverFactory(final Map<String, ? extends SolverFactory> factories) {
+        checkNotNull(factories);
+        checkArgument(!factories.isEmpty(), "At least one solver factory is required");
+        names = ImmutableList.copyOf(factories.keySet());
+        this.factories = ImmutableList.copyOf(factories.values());
+        wins = new AtomicLongArray(names.size());
+        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("racing-solver-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Creates a racing factory from factories identified by their names. The first factory is
+     * preferred when no check has been performed yet.
+     */
+    public static RacingSolverFactory create(final Map<String, ? extends SolverFactory> factories) {
+        return new RacingSolverFactory(factories);
+    }
+
+    /**
+     * Returns the number of checks won by each factory, in the order of the factories.
+     */
+    public Map<String, Long> getWins() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            result.put(names.get(i), wins.get(i));
+        }
+        return ImmutableMap.copyOf(result);
+    }
+
+    @Override
+    public Solver createSolver() {
+        return new RacingSolver(createBackends(SolverFactory::createSolver), wins);
+    }
+
+    @Override
+    public UCSolver createUCSolver() {
+        return factories.get(0).createUCSolver();
+    }
+
+    @Override
+    public ItpSolver createItpSolver() {
+        return new RacingItpSolver(createBackends(SolverFactory::createItpSolver), wins);
+    }
+
+    private <S extends SolverBase> List<RacingBackend<S>> createBackends(
+            final Function<SolverFactory, S> constructor) {
+        final List<RacingBackend<S>> backends = new ArrayList<>();
+        for (int i = 0; i < factories.size(); i++) {
+            backends.add(new RacingBackend<>(i, names.get(i), constructor.apply(factories.get(i)),
+                    executor));
+        }
+        return backends;
+    }
+
+    @Override
+    public String toString() {
+        return "RacingSolverFactory(wins=" + getWins() + ")";
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.cache;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatExprs;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+public class CachingSolverTest {
+
+    private static final class CountingSolver implements Solver {
+        private final List<Expr<BoolType>> assertions = new ArrayList<>();
+        private int checks = 0;
+
+        @Override
+        public void add(final Expr<BoolType> assertion) {
+            assertions.add(assertion);
+        }
+
+        @Override
+        public SolverStatus check() {
+            checks++;
+            return SolverStatus.SAT;
+        }
+
+        @Override
+        public void push() {
+        }
+
+        @Override
+        public void pop(final int n) {
+        }
+
+        @Override
+        public void reset() {
+            assertions.clear();
+        }
+
+        @Override
+        public SolverStatus getStatus() {
+            return SolverStatus.SAT;
+        }
+
+        @Override
+        public Valuation getModel() {
+            return ImmutableValuation.empty();
+        }
+
+        @Override
+        public Collection<Expr<BoolType>> getAssertions() {
+            return assertions;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static Expr<BoolType> range(final ConstDecl<IntType> c) {
+        return And(Gt(c.getRef(), Int(0)), Lt(c.getRef(), Int(2)));
+    }
+
+    @Test
+    public void testRenaming() {
+        final ConstDecl<IntType> x = Const("x_1", Int());
+        final ConstDecl<IntType> y = Const("y_7", Int());
+        final ConstDecl<RatType> r = Const("x_1", RatExprs.Rat());
+
+        assertEquals(SolverCache.key(List.of(range(x))), SolverCache.key(List.of(range(y))));
+        assertNotEquals(SolverCache.key(List.of(range(x))),
+                SolverCache.key(List.of(And(RatExprs.Gt(r.getRef(), Rat(0, 1)),
+                        RatExprs.Lt(r.getRef(), Rat(2, 1))))));
+    }
+
+    @Test
+    public void testHits() {
+        final SolverCache cache = SolverCache.create(8);
+        final CountingSolver counting = new CountingSolver();
+        final Solver solver = new CachingSolver(counting, cache);
+
+        solver.push();
+        solver.add(range(Const("x", Int())));
+        assertEquals(SolverStatus.SAT, solver.check());
+        solver.pop();
+        solver.push();
+        solver.add(range(Const("y", Int())));
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(1, counting.checks);
+
+        solver.getModel();
+        assertEquals(2, counting.checks);
+        assertEquals(1, cache.getHits());
+        assertEquals(0.5, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void testStore() throws IOException {
+        final Path store = Files.createTempFile("solver-cache", ".txt");
+        try {
+            final CountingSolver counting = new CountingSolver();
+            try (final SolverCache cache1 = SolverCache.create(8, store)) {
+                final Solver solver1 = new CachingSolver(counting, cache1);
+                solver1.add(range(Const("x", Int())));
+                solver1.check();
+            }
+
+            final SolverCache cache = SolverCache.create(8, store);
+            final Solver solver2 = new CachingSolver(counting, cache);
+            solver2.add(range(Const("z", Int())));
+            assertEquals(SolverStatus.SAT, solver2.check());
+            assertEquals(1, counting.checks);
+            assertEquals(1, cache.getHits());
+        } finally {
+            Files.delete(store);
+        }
+    }
+
+    @Test
+    public void testIncrementalKey() {
+        final ConstDecl<IntType> x = Const("x", Int());
+        final ConstDecl<IntType> y = Const("y", Int());
+        final SolverCacheKey key = new SolverCacheKey();
+
+        key.add(range(x));
+        key.push();
+        key.add(range(y));
+        assertEquals(SolverCache.key(List.of(range(x), range(y))), key.get());
+        key.pop(1);
+        assertEquals(SolverCache.key(List.of(range(x))), key.get());
+        key.push();
+        key.add(Gt(y.getRef(), x.getRef()));
+        assertEquals(SolverCache.key(List.of(range(x), Gt(y.getRef(), x.getRef()))), key.get());
+    }
+
+    @Test
+    public void testStoreBounded() throws IOException {
+        final Path store = Files.createTempFile("solver-cache", ".txt");
+        try {
+            try (final SolverCache cache = SolverCache.create(16, store)) {
+                for (int i = 0; i < 10; i++) {
+                    cache.put(SolverCache.key(List.of(Gt(Const("x", Int()).getRef(), Int(i)))), SolverStatus.SAT);
+                }
+            }
+            assertEquals(10, Files.readAllLines(store).size());
+            assertEquals(4, SolverCache.create(4, store).size());
+        } finally {
+            Files.delete(store);
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.preprocessing;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+public class PreprocessingSolverTest {
+
+    private static final ConstDecl<IntType> X = Const("x", Int());
+    private static final ConstDecl<IntType> Y = Const("y", Int());
+    private static final ConstDecl<IntType> Z = Const("z", Int());
+
+    /**
+     * Answers SAT for every query, with every constant being 10 in the model.
+     */
+    private static final class RecordingSolver implements Solver {
+        private final Stack<Expr<BoolType>> assertions = new StackImpl<>();
+        private final List<List<Expr<BoolType>>> queries = new ArrayList<>();
+
+        @Override
+        public void add(final Expr<BoolType> assertion) {
+            assertions.add(assertion);
+        }
+
+        @Override
+        public SolverStatus check() {
+            queries.add(List.copyOf(assertions.toCollection()));
+            return SolverStatus.SAT;
+        }
+
+        @Override
+        public void push() {
+            assertions.push();
+        }
+
+        @Override
+        public void pop(final int n) {
+            assertions.pop(n);
+        }
+
+        @Override
+        public void reset() {
+            assertions.clear();
+        }
+
+        @Override
+        public SolverStatus getStatus() {
+            return SolverStatus.SAT;
+        }
+
+        @Override
+        public Valuation getModel() {
+            final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+            for (final ConstDecl<?> constDecl : ExprUtils.getConstants(assertions.toCollection())) {
+                builder.put(constDecl, Int(10));
+            }
+            return builder.build();
+        }
+
+        @Override
+        public Collection<Expr<BoolType>> getAssertions() {
+            return assertions.toCollection();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void testSubstitutionAndModel() {
+        final RecordingSolver recorder = new RecordingSolver();
+        final Solver solver = new PreprocessingSolver(recorder, new FormulaPreprocessor(true, true, true));
+
+        solver.add(Eq(X.getRef(), Y.getRef()));
+        solver.add(Eq(Y.getRef(), Int(5)));
+        solver.add(Gt(Z.getRef(), X.getRef()));
+
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(List.of(List.of(Gt(Z.getRef(), Int(5)))), recorder.queries);
+        final Valuation model = solver.getModel();
+        assertEquals(Int(5), model.eval(X).get());
+        assertEquals(Int(5), model.eval(Y).get());
+        assertEquals(Int(10), model.eval(Z).get());
+        assertEquals(3, solver.getAssertions().size());
+    }
+
+    @Test
+    public void testSlicing() {
+        final RecordingSolver recorder = new RecordingSolver();
+        final Solver solver = new PreprocessingSolver(recorder, new FormulaPreprocessor(true, true, true));
+
+        solver.add(Gt(X.getRef(), Int(0)));
+        solver.add(Gt(Y.getRef(), Int(0)));
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(2, recorder.queries.size());
+
+        solver.push();
+        solver.add(Gt(Z.getRef(), Y.getRef()));
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(3, recorder.queries.size());
+        assertEquals(List.of(Gt(Y.getRef(), Int(0)), Gt(Z.getRef(), Y.getRef())), recorder.queries.get(2));
+        assertEquals(Int(10), solver.getModel().eval(X).get());
+
+        solver.pop();
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(3, recorder.queries.size());
+        assertEquals(Int(10), solver.getModel().eval(Y).get());
+        assertFalse(solver.getModel().eval(Z).isPresent());
+    }
+
+    @Test
+    public void testDefinitionsAcrossFrames() {
+        final RecordingSolver recorder = new RecordingSolver();
+        final Solver solver = new PreprocessingSolver(recorder, new FormulaPreprocessor(true, true, true));
+
+        solver.add(Eq(X.getRef(), Y.getRef()));
+        solver.add(Gt(Z.getRef(), X.getRef()));
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(1, recorder.queries.size());
+
+        solver.push();
+        solver.add(Eq(Y.getRef(), Int(5)));
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(2, recorder.queries.size());
+        assertEquals(List.of(Gt(Z.getRef(), Int(5))), recorder.queries.get(1));
+        assertEquals(Int(5), solver.getModel().eval(X).get());
+
+        solver.push();
+        solver.add(Eq(X.getRef(), Int(6)));
+        assertEquals(SolverStatus.UNSAT, solver.check());
+        assertEquals(2, recorder.queries.size());
+
+        solver.pop(2);
+        assertEquals(SolverStatus.SAT, solver.check());
+        assertEquals(2, recorder.queries.size());
+        assertEquals(solver.getModel().eval(X), solver.getModel().eval(Y));
+    }
+
+    @Test
+    public void testTriviallyUnsat() {
+        final RecordingSolver recorder = new RecordingSolver();
+        final Solver solver = new PreprocessingSolver(recorder, new FormulaPreprocessor(true, true, true));
+
+        solver.add(Eq(X.getRef(), Int(1)));
+        solver.add(Eq(X.getRef(), Int(2)));
+
+        assertEquals(SolverStatus.UNSAT, solver.check());
+        assertEquals(0, recorder.queries.size());
+    }
+
+}
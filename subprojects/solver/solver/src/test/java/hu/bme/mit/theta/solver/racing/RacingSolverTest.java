@@ -0,0 +1,193 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.racing;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.UCSolver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+
+public class RacingSolverTest {
+
+    private static final ConstDecl<BoolType> WINNER = Const("winner", Bool());
+
+    private static final class DelayedSolver implements Solver {
+        private final long delay;
+        private final SolverStatus status;
+        private final Valuation model;
+        private final List<Expr<BoolType>> assertions = new CopyOnWriteArrayList<>();
+
+        private DelayedSolver(final long delay, final SolverStatus status, final boolean winner) {
+            this.delay = delay;
+            this.status = status;
+            model = ImmutableValuation.builder().put(WINNER, Bool(winner)).build();
+        }
+
+        @Override
+        public void add(final Expr<BoolType> assertion) {
+            assertions.add(assertion);
+        }
+
+        @Override
+        public SolverStatus check() {
+            try {
+                Thread.sleep(delay);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (status == null) {
+                throw new UnknownSolverStatusException();
+            }
+            return status;
+        }
+
+        @Override
+        public void push() {
+        }
+
+        @Override
+        public void pop(final int n) {
+        }
+
+        @Override
+        public void reset() {
+            assertions.clear();
+        }
+
+        @Override
+        public SolverStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public Valuation getModel() {
+            return model;
+        }
+
+        @Override
+        public Collection<Expr<BoolType>> getAssertions() {
+            return assertions;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static SolverFactory factory(final DelayedSolver solver) {
+        return new SolverFactory() {
+            @Override
+            public Solver createSolver() {
+                return solver;
+            }
+
+            @Override
+            public UCSolver createUCSolver() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ItpSolver createItpSolver() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Test
+    public void testFastestWins() throws Exception {
+        final DelayedSolver slow = new DelayedSolver(2000, SolverStatus.SAT, false);
+        final DelayedSolver fast = new DelayedSolver(0, SolverStatus.SAT, true);
+        final Map<String, SolverFactory> factories = new LinkedHashMap<>();
+        factories.put("slow", factory(slow));
+        factories.put("fast", factory(fast));
+        final RacingSolverFactory factory = RacingSolverFactory.create(factories);
+
+        try (final Solver solver = factory.createSolver()) {
+            solver.add(True());
+            assertEquals(SolverStatus.SAT, solver.check());
+            assertEquals(Bool(true), solver.getModel().eval(WINNER).get());
+            assertEquals(List.of(True()), fast.getAssertions());
+            assertEquals(List.of(True()), slow.getAssertions());
+            assertEquals(List.of(True()), List.copyOf(solver.getAssertions()));
+        }
+        assertEquals(Map.of("slow", 0L, "fast", 1L), factory.getWins());
+    }
+
+    @Test
+    public void testFailingBackendLoses() throws Exception {
+        final Map<String, SolverFactory> factories = new LinkedHashMap<>();
+        factories.put("unknown", factory(new DelayedSolver(0, null, false)));
+        factories.put("slow", factory(new DelayedSolver(50, SolverStatus.UNSAT, true)));
+        final RacingSolverFactory factory = RacingSolverFactory.create(factories);
+
+        try (final Solver solver = factory.createSolver()) {
+            assertEquals(SolverStatus.UNSAT, solver.check());
+            assertEquals(SolverStatus.UNSAT, solver.check());
+        }
+        assertEquals(Map.of("unknown", 0L, "slow", 2L), factory.getWins());
+        assertTrue(factory.toString().contains("slow=2"));
+    }
+
+    @Test
+    public void testSolversShareThreads() throws Exception {
+        final Map<String, SolverFactory> factories = new LinkedHashMap<>();
+        factories.put("a", factory(new DelayedSolver(0, SolverStatus.SAT, true)));
+        factories.put("b", factory(new DelayedSolver(0, SolverStatus.SAT, false)));
+        final RacingSolverFactory factory = RacingSolverFactory.create(factories);
+
+        final long threadsBefore = countRacingThreads();
+        final List<Solver> solvers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final Solver solver = factory.createSolver();
+            solvers.add(solver);
+            solver.check();
+        }
+        assertTrue(countRacingThreads() - threadsBefore < solvers.size());
+        for (final Solver solver : solvers) {
+            solver.close();
+        }
+        assertEquals(20L, factory.getWins().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private static long countRacingThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("racing-solver-"))
+                .count();
+    }
+
+}
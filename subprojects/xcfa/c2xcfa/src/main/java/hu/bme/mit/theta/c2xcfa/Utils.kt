@@ -25,19 +25,45 @@ import hu.bme.mit.theta.frontend.getStatistics
 import hu.bme.mit.theta.frontend.transformation.grammar.function.FunctionVisitor
 import hu.bme.mit.theta.frontend.transformation.model.statements.CProgram
 import hu.bme.mit.theta.xcfa.model.XCFA
+import com.google.common.base.Stopwatch
 import org.antlr.v4.runtime.BailErrorStrategy
 import org.antlr.v4.runtime.CharStreams
 import org.antlr.v4.runtime.CommonTokenStream
+import org.antlr.v4.runtime.atn.PredictionMode
+import org.antlr.v4.runtime.misc.ParseCancellationException
 import java.io.InputStream
+import java.util.concurrent.TimeUnit
 
-fun getXcfaFromC(stream: InputStream, parseContext: ParseContext, collectStatistics: Boolean,
-    checkOverflow: Boolean, warningLogger: Logger): Triple<XCFA, CStatistics?, Pair<XcfaStatistics, XcfaStatistics>?> {
+/**
+ * Parses a C compilation unit with the two-stage strategy recommended for ANTLR: the faster SLL
+ * prediction mode is tried first, and only if it fails (which can be either a real syntax error or
+ * a limitation of SLL) is the input parsed again in full LL mode. The DFA cache of the generated
+ * parser is static, thus it is shared by all parses in the same JVM.
+ *
+ * @return the parse tree and whether the LL fallback was needed
+ */
+fun parseCompilationUnit(stream: InputStream): Pair<CParser.CompilationUnitContext, Boolean> {
     val input = CharStreams.fromStream(stream)
     val lexer = CLexer(input)
     val tokens = CommonTokenStream(lexer)
     val parser = CParser(tokens)
     parser.errorHandler = BailErrorStrategy()
-    val context = parser.compilationUnit()
+    parser.interpreter.predictionMode = PredictionMode.SLL
+    return try {
+        Pair(parser.compilationUnit(), false)
+    } catch (e: ParseCancellationException) {
+        tokens.seek(0)
+        parser.reset()
+        parser.interpreter.predictionMode = PredictionMode.LL
+        Pair(parser.compilationUnit(), true)
+    }
+}
+
+fun getXcfaFromC(stream: InputStream, parseContext: ParseContext, collectStatistics: Boolean,
+    checkOverflow: Boolean, warningLogger: Logger): Triple<XCFA, CStatistics?, Pair<XcfaStatistics, XcfaStatistics>?> {
+    val parseStopwatch = Stopwatch.createStarted()
+    val (context, llFallback) = parseCompilationUnit(stream)
+    val parseTime = parseStopwatch.elapsed(TimeUnit.MILLISECONDS)
 
     val program = context.accept(FunctionVisitor(parseContext, warningLogger))
     check(program is CProgram)
@@ -51,7 +77,7 @@ fun getXcfaFromC(stream: InputStream, parseContext: ParseContext, collectStatist
             program.getStatistics()
         } catch (_: Exception) {
             CStatistics(0, emptyList())
-        }
+        }.copy(parseTimeMs = parseTime, llFallback = llFallback)
         val unoptimizedXcfaStatistics = try {
             builder.getStatistics()
         } catch (_: Exception) {
@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package hu.bme.mit.theta.xcfa.analysis
+
+/**
+ * Immutable stack that shares its tail with the stack it was pushed onto, so push and pop allocate O(1)
+ * structure. The top of the stack is the first element of the list. The hash code is maintained incrementally
+ * (following the contract of List), and comparing two stacks stops at their first shared tail.
+ */
+class PersistentStack<T> private constructor(
+    private val head: T?,
+    private val tail: PersistentStack<T>?,
+    override val size: Int,
+    private val hash: Int,
+    private val pow: Int, // 31^size, used for updating the hash code
+) : AbstractList<T>() {
+
+    fun peek(): T {
+        if (tail == null) throw NoSuchElementException("Stack is empty")
+        @Suppress("UNCHECKED_CAST")
+        return head as T
+    }
+
+    fun peekOrNull(): T? = head
+
+    fun push(elem: T): PersistentStack<T> =
+        PersistentStack(elem, this, size + 1, pow * (31 + elem.hashCode()) + hash - pow, pow * 31)
+
+    fun pop(): PersistentStack<T> = tail ?: throw NoSuchElementException("Stack is empty")
+
+    override fun get(index: Int): T {
+        if (index < 0 || index >= size) throw IndexOutOfBoundsException("Index $index, size $size")
+        var current = this
+        repeat(index) { current = current.tail!! }
+        return current.peek()
+    }
+
+    override fun iterator(): Iterator<T> = object : Iterator<T> {
+        private var current = this@PersistentStack
+
+        override fun hasNext(): Boolean = current.tail != null
+
+        override fun next(): T {
+            val elem = current.peek()
+            current = current.tail!!
+            return elem
+        }
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (other !is PersistentStack<*>) return super.equals(other)
+        if (size != other.size || hash != other.hash) return false
+        var left: PersistentStack<*> = this
+        var right: PersistentStack<*> = other
+        while (left !== right) {
+            if (left.head != right.head) return false
+            left = left.tail!!
+            right = right.tail!!
+        }
+        return true
+    }
+
+    override fun hashCode(): Int = hash
+
+    companion object {
+
+        private val EMPTY = PersistentStack<Any?>(null, null, 0, 1, 1)
+
+        @Suppress("UNCHECKED_CAST")
+        fun <T> empty(): PersistentStack<T> = EMPTY as PersistentStack<T>
+
+        /**
+         * Creates a stack with the given elements, the first one being on the top.
+         */
+        fun <T> of(vararg elems: T): PersistentStack<T> =
+            elems.foldRight(empty()) { elem, stack -> stack.push(elem) }
+    }
+}
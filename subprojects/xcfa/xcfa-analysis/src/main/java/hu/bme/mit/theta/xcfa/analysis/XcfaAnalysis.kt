@@ -38,27 +38,25 @@ import hu.bme.mit.theta.core.utils.TypeUtils
 import hu.bme.mit.theta.solver.Solver
 import hu.bme.mit.theta.xcfa.*
 import hu.bme.mit.theta.xcfa.analysis.XcfaProcessState.Companion.createLookup
-import hu.bme.mit.theta.xcfa.analysis.coi.ConeOfInfluence
+import hu.bme.mit.theta.xcfa.analysis.coi.coiTransFunc
 import hu.bme.mit.theta.xcfa.isWritten
 import hu.bme.mit.theta.xcfa.model.*
 import hu.bme.mit.theta.xcfa.passes.changeVars
 import java.util.*
 import java.util.function.Predicate
+import java.util.function.Supplier
 
 open class XcfaAnalysis<S : ExprState, P : Prec>(
     private val corePartialOrd: PartialOrd<XcfaState<S>>,
     private val coreInitFunc: InitFunc<XcfaState<S>, XcfaPrec<P>>,
-    private var coreTransFunc: TransFunc<XcfaState<S>, XcfaAction, XcfaPrec<P>>,
+    coreTransFunc: TransFunc<XcfaState<S>, XcfaAction, XcfaPrec<P>>,
 ) : Analysis<XcfaState<S>, XcfaAction, XcfaPrec<P>> {
 
-    init {
-        ConeOfInfluence.coreTransFunc = transFunc as TransFunc<XcfaState<out ExprState>, XcfaAction, XcfaPrec<out Prec>>
-        coreTransFunc = ConeOfInfluence.transFunc as TransFunc<XcfaState<S>, XcfaAction, XcfaPrec<P>>
-    }
+    private val coiTransFunc = coiTransFunc(coreTransFunc)
 
     override fun getPartialOrd(): PartialOrd<XcfaState<S>> = corePartialOrd
     override fun getInitFunc(): InitFunc<XcfaState<S>, XcfaPrec<P>> = coreInitFunc
-    override fun getTransFunc(): TransFunc<XcfaState<S>, XcfaAction, XcfaPrec<P>> = coreTransFunc
+    override fun getTransFunc(): TransFunc<XcfaState<S>, XcfaAction, XcfaPrec<P>> = coiTransFunc
 }
 
 /// Common
@@ -81,7 +79,7 @@ fun getCoreXcfaLts() = LTS<XcfaState<out ExprState>, XcfaAction> { s ->
                 if (flatLabels.any { it is InvokeLabel || it is StartLabel }) {
                     val newNewLabel = SequenceLabel(flatLabels.map { label ->
                         if (label is InvokeLabel) {
-                            val procedure = s.xcfa?.procedures?.find { proc -> proc.name == label.name }
+                            val procedure = s.xcfa?.getProcedure(label.name)
                                 ?: error("No such method ${label.name}.")
                             val lookup: MutableMap<VarDecl<*>, VarDecl<*>> = LinkedHashMap()
                             SequenceLabel(listOf(procedure.params.withIndex()
@@ -97,7 +95,7 @@ fun getCoreXcfaLts() = LTS<XcfaState<out ExprState>, XcfaAction> { s ->
                                         metadata = label.metadata)
                                 }, listOf(label.copy(tempLookup = lookup))).flatten())
                         } else if (label is StartLabel) {
-                            val procedure = s.xcfa?.procedures?.find { proc -> proc.name == label.name }
+                            val procedure = s.xcfa?.getProcedure(label.name)
                                 ?: error("No such method ${label.name}.")
                             val lookup: MutableMap<VarDecl<*>, VarDecl<*>> = LinkedHashMap()
                             SequenceLabel(listOf(procedure.params.withIndex()
@@ -204,7 +202,9 @@ fun <S : XcfaState<out ExprState>, P : XcfaPrec<out Prec>> getXcfaAbstractor(
     stopCriterion: StopCriterion<*, *>,
     logger: Logger,
     lts: LTS<XcfaState<out ExprState>, XcfaAction>,
-    errorDetection: ErrorDetection
+    errorDetection: ErrorDetection,
+    threads: Int = 1,
+    transFuncSupplier: (() -> TransFunc<S, XcfaAction, P>)? = null,
 ): Abstractor<out XcfaState<out ExprState>, XcfaAction, out XcfaPrec<out Prec>> =
     XcfaAbstractor.builder(getXcfaArgBuilder(analysis, lts, errorDetection))
         .waitlist(waitlist as Waitlist<ArgNode<S, XcfaAction>>) // TODO: can we do this nicely?
@@ -213,6 +213,7 @@ fun <S : XcfaState<out ExprState>, P : XcfaPrec<out Prec>> getXcfaAbstractor(
             if (it.xcfa!!.isInlined) it.processes
             else it.processes.map { (_, p) -> p.locs.peek() }
         }
+        .parallel(threads, transFuncSupplier?.let { Supplier(it) })
         .build() // TODO: can we do this nicely?
 
 /// EXPL
@@ -220,10 +221,8 @@ fun <S : XcfaState<out ExprState>, P : XcfaPrec<out Prec>> getXcfaAbstractor(
 private fun getExplXcfaInitFunc(xcfa: XCFA,
     solver: Solver): (XcfaPrec<ExplPrec>) -> List<XcfaState<ExplState>> {
     val processInitState = xcfa.initProcedures.mapIndexed { i, it ->
-        val initLocStack: LinkedList<XcfaLocation> = LinkedList()
-        initLocStack.add(it.first.initLoc)
-        Pair(i, XcfaProcessState(initLocStack, prefix = "T$i",
-            varLookup = LinkedList(listOf(createLookup(it.first, "T$i", "")))))
+        Pair(i, XcfaProcessState(PersistentStack.of(it.first.initLoc), prefix = "T$i",
+            varLookup = PersistentStack.of(createLookup(it.first, "T$i", ""))))
     }.toMap()
     return { p ->
         ExplInitFunc.create(solver, True()).getInitStates(p.p)
@@ -254,10 +253,8 @@ class ExplXcfaAnalysis(xcfa: XCFA, solver: Solver, maxEnum: Int,
 private fun getPredXcfaInitFunc(xcfa: XCFA,
     predAbstractor: PredAbstractor): (XcfaPrec<PredPrec>) -> List<XcfaState<PredState>> {
     val processInitState = xcfa.initProcedures.mapIndexed { i, it ->
-        val initLocStack: LinkedList<XcfaLocation> = LinkedList()
-        initLocStack.add(it.first.initLoc)
-        Pair(i, XcfaProcessState(initLocStack, prefix = "T$i",
-            varLookup = LinkedList(listOf(createLookup(it.first, "T$i", "")))))
+        Pair(i, XcfaProcessState(PersistentStack.of(it.first.initLoc), prefix = "T$i",
+            varLookup = PersistentStack.of(createLookup(it.first, "T$i", ""))))
     }.toMap()
     return { p ->
         PredInitFunc.create(predAbstractor, True()).getInitStates(p.p)
@@ -24,7 +24,6 @@ import hu.bme.mit.theta.analysis.expr.ExprAction
 import hu.bme.mit.theta.analysis.expr.ExprState
 import hu.bme.mit.theta.analysis.expr.refinement.*
 import hu.bme.mit.theta.common.logging.Logger
-import java.util.LinkedList
 
 
 class XcfaSingleExprTraceRefiner<S : ExprState, A : ExprAction, P : Prec, R : Refutation> :
@@ -50,8 +49,7 @@ class XcfaSingleExprTraceRefiner<S : ExprState, A : ExprAction, P : Prec, R : Re
             val state = s as XcfaState<S>
             state.processes.entries.find { (_, processState) -> processState.popped != null }
                 ?.let { (pid, processState) ->
-                    val stackBeforePop = LinkedList(processState.locs)
-                    stackBeforePop.push(processState.popped)
+                    val stackBeforePop = processState.locs.push(checkNotNull(processState.popped))
                     val processesBeforePop = state.processes.toMutableMap()
                     processesBeforePop[pid] = processState.copy(locs = stackBeforePop)
                     val stateBeforePop = state.copy(processes = processesBeforePop)
@@ -75,7 +73,7 @@ class XcfaSingleExprTraceRefiner<S : ExprState, A : ExprAction, P : Prec, R : Re
 
         return if (checkForPop && refinerResult.isUnsafe) findPoppedState(traceToConcretize)?.let { (i, state) ->
             when (pruneStrategy) {
-                PruneStrategy.LAZY -> {
+                PruneStrategy.LAZY, PruneStrategy.RELABEL -> {
                     logger.write(Logger.Level.SUBSTEP, "|  |  Pruning from index %d...", i)
                     val nodeToPrune = cexToConcretize.node(i)
                     nodePruner.prune(arg, nodeToPrune)
@@ -85,8 +83,6 @@ class XcfaSingleExprTraceRefiner<S : ExprState, A : ExprAction, P : Prec, R : Re
                     logger.write(Logger.Level.SUBSTEP, "|  |  Pruning whole ARG", i)
                     arg.pruneAll()
                 }
-
-                else -> throw UnsupportedOperationException("Unsupported pruning strategy")
             }
 
             val refinedPrec = (prec as XcfaPrec<P>).copy()
@@ -28,9 +28,11 @@ import hu.bme.mit.theta.xcfa.getFlatLabels
 import hu.bme.mit.theta.xcfa.model.*
 import hu.bme.mit.theta.xcfa.passes.changeVars
 import java.util.*
+import java.util.concurrent.atomic.AtomicInteger
 
-private var pidCnt = 1
-private var procCnt = 1
+// atomic, as states may be created on multiple threads during parallel ARG expansion
+private val pidCnt = AtomicInteger(1)
+private val procCnt = AtomicInteger(1)
 
 data class XcfaState<S : ExprState> @JvmOverloads constructor(
     val xcfa: XCFA?,
@@ -51,74 +53,41 @@ data class XcfaState<S : ExprState> @JvmOverloads constructor(
     }
 
     fun apply(a: XcfaAction): Pair<XcfaState<S>, XcfaAction> {
-        val changes: MutableList<(XcfaState<S>) -> XcfaState<S>> = ArrayList()
         if (mutexes[""] != null && mutexes[""] != a.pid) return Pair(copy(bottom = true),
             a.withLabel(SequenceLabel(listOf(NopLabel))))
 
         val processState = processes[a.pid]
         checkNotNull(processState)
         check(processState.locs.peek() == a.source)
-        val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-        newProcesses[a.pid] = checkNotNull(processes[a.pid]?.withNewLoc(a.target))
-        if (processes != newProcesses) {
-            changes.add { state -> state.withProcesses(newProcesses) }
-        }
+        // changes are applied to a single builder, so the maps are copied at most once per transition
+        val builder = Builder(this)
+        builder.setProcess(a.pid, processState.withNewLoc(a.target))
 
         val newLabels = a.edge.getFlatLabels().filter {
             when (it) {
-                is FenceLabel -> it.labels.forEach { label ->
-                    when (label) {
-                        "ATOMIC_BEGIN" -> changes.add { it.enterMutex("", a.pid) }
-                        "ATOMIC_END" -> changes.add { it.exitMutex("", a.pid) }
-                        in Regex("mutex_lock\\((.*)\\)") -> changes.add { state ->
-                            state.enterMutex(label.substring("mutex_lock".length + 1, label.length - 1), a.pid)
-                        }
-
-                        in Regex("mutex_unlock\\((.*)\\)") -> changes.add { state ->
-                            state.exitMutex(label.substring("mutex_unlock".length + 1, label.length - 1), a.pid)
-                        }
-
-                        in Regex("start_cond_wait\\((.*)\\)") -> {
-                            val args = label.substring("start_cond_wait".length + 1, label.length - 1).split(",")
-                            changes.add { state -> state.enterMutex(args[0], -1) }
-                            changes.add { state -> state.exitMutex(args[1], a.pid) }
-                        }
-
-                        in Regex("cond_wait\\((.*)\\)") -> {
-                            val args = label.substring("cond_wait".length + 1, label.length - 1).split(",")
-                            changes.add { state -> state.enterMutex(args[0], a.pid) }
-                            changes.add { state -> state.exitMutex(args[0], a.pid) }
-                            changes.add { state -> state.enterMutex(args[1], a.pid) }
-                        }
-
-                        in Regex("cond_signal\\((.*)\\)") -> changes.add { state ->
-                            state.exitMutex(label.substring("cond_signal".length + 1, label.length - 1), -1)
-                        }
-
-                        else -> error("Unknown fence label $label")
-                    }
+                is FenceLabel -> it.mutexOps.forEach { op ->
+                    val owner = if (op.byProcess) a.pid else -1
+                    if (op.acquire) builder.enterMutex(op.mutex, owner) else builder.exitMutex(op.mutex, owner)
                 }.let { false }
 
                 is InvokeLabel -> {
-                    val proc = xcfa?.procedures?.find { proc -> proc.name == it.name } ?: error(
-                        "No such method ${it.name}.")
+                    val proc = xcfa?.getProcedure(it.name) ?: error("No such method ${it.name}.")
                     val returnStmt = SequenceLabel(
                         proc.params.withIndex().filter { it.value.second != ParamDirection.IN }.map { iVal ->
                             StmtLabel(Assign(cast((it.params[iVal.index] as RefExpr<*>).decl as VarDecl<*>,
                                 iVal.value.first.type), cast(iVal.value.first.ref, iVal.value.first.type)),
                                 metadata = it.metadata)
                         })
-                    changes.add { state ->
-                        state.invokeFunction(a.pid, proc, returnStmt, proc.params.toMap(), it.tempLookup)
-                    }
+                    builder.setProcess(a.pid, builder.getProcess(a.pid)
+                        .enterFunction(proc, returnStmt, proc.params.toMap(), it.tempLookup))
                     false
                 }
 
-                is ReturnLabel -> changes.add { state -> state.returnFromFunction(a.pid) }.let { true }
+                is ReturnLabel -> builder.setProcess(a.pid, builder.getProcess(a.pid).exitFunction()).let { true }
 
                 is JoinLabel -> {
-                    changes.add { state -> state.enterMutex("${threadLookup[it.pidVar]}", a.pid) }
-                    changes.add { state -> state.exitMutex("${threadLookup[it.pidVar]}", a.pid) }
+                    builder.enterMutex("${threadLookup[it.pidVar]}", a.pid)
+                    builder.exitMutex("${threadLookup[it.pidVar]}", a.pid)
                     false
                 }
 
@@ -126,24 +95,53 @@ data class XcfaState<S : ExprState> @JvmOverloads constructor(
                 NopLabel -> false
                 is ReadLabel -> error("Read/Write labels not yet supported")
                 is SequenceLabel -> true
-                is StartLabel -> changes.add { state -> state.start(it) }.let { true }
+                is StartLabel -> builder.start(it).let { true }
                 is StmtLabel -> true
                 is WriteLabel -> error("Read/Write labels not yet supported")
             }
         }
 
-        changes.add { state ->
-            if (checkNotNull(state.processes[a.pid]).locs.isEmpty()) state.endProcess(a.pid) else state
-        }
+        if (builder.getProcess(a.pid).locs.isEmpty()) builder.endProcess(a.pid)
+
+        return Pair(builder.build(), a.withLabel(SequenceLabel(newLabels)))
+    }
 
-        return Pair(changes.fold(this) { current, change -> change(current) }, a.withLabel(SequenceLabel(newLabels)))
+    fun enterMutex(key: String, pid: Int): XcfaState<S> = Builder(this).apply { enterMutex(key, pid) }.build()
+
+    fun exitMutex(key: String, pid: Int): XcfaState<S> = Builder(this).apply { exitMutex(key, pid) }.build()
+
+    fun withState(s: S): XcfaState<S> {
+        return copy(sGlobal = s)
     }
 
-    private fun start(startLabel: StartLabel): XcfaState<S> {
-        val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-        val newThreadLookup: MutableMap<VarDecl<*>, Int> = LinkedHashMap(threadLookup)
+    override fun toString(): String {
+        return "$processes {$sGlobal, mutex=$mutexes${if (bottom) ", bottom" else ""}}"
+    }
+}
+
+/**
+ * Collects the changes of a transition, copying the maps of the original state only when they are first
+ * modified.
+ */
+private class Builder<S : ExprState>(private val original: XcfaState<S>) {
+
+    private var processes: MutableMap<Int, XcfaProcessState>? = null
+    private var mutexes: MutableMap<String, Int>? = null
+    private var threadLookup: MutableMap<VarDecl<*>, Int>? = null
+    private var bottom = original.bottom
 
-        val procedure = checkNotNull(xcfa?.procedures?.find { it.name == startLabel.name })
+    private fun processes() = processes ?: LinkedHashMap(original.processes).also { processes = it }
+    private fun mutexes() = mutexes ?: LinkedHashMap(original.mutexes).also { mutexes = it }
+    private fun threadLookup() = threadLookup ?: LinkedHashMap(original.threadLookup).also { threadLookup = it }
+
+    fun getProcess(pid: Int): XcfaProcessState = checkNotNull((processes ?: original.processes)[pid])
+
+    fun setProcess(pid: Int, processState: XcfaProcessState) {
+        if ((processes ?: original.processes)[pid] != processState) processes()[pid] = processState
+    }
+
+    fun start(startLabel: StartLabel) {
+        val procedure = checkNotNull(original.xcfa?.getProcedure(startLabel.name))
         val paramList = procedure.params.toMap()
         val tempLookup = startLabel.tempLookup
         val returnStmt = SequenceLabel(
@@ -158,134 +156,76 @@ data class XcfaState<S : ExprState> @JvmOverloads constructor(
 //                }
         )
 
-        val pid = pidCnt++
+        val pid = pidCnt.getAndIncrement()
         val lookup = XcfaProcessState.createLookup(procedure, "T$pid", "")
-        newThreadLookup[startLabel.pidVar] = pid
-        newProcesses[pid] = XcfaProcessState(LinkedList(listOf(procedure.initLoc)), prefix = "T$pid",
-            varLookup = LinkedList(listOf(lookup)), returnStmts = LinkedList(listOf(returnStmt)),
-            paramStmts = LinkedList(listOf(Pair(
-                /* init */
-                SequenceLabel(paramList.filter { it.value != ParamDirection.OUT }.map {
-                    StmtLabel(Assign(cast(it.key.changeVars(lookup), it.key.type),
-                        cast(it.key.changeVars(tempLookup).ref, it.key.type)), metadata = EmptyMetaData)
-                }),
-                /* deinit */
-                SequenceLabel(paramList.filter { it.value != ParamDirection.IN }.map {
-                    StmtLabel(Assign(cast(it.key.changeVars(tempLookup), it.key.type),
-                        cast(it.key.changeVars(lookup).ref, it.key.type)), metadata = EmptyMetaData)
-                }),
-            ))))
-        val newMutexes = LinkedHashMap(mutexes)
-        newMutexes["$pid"] = pid
-
-        return copy(processes = newProcesses, threadLookup = newThreadLookup, mutexes = newMutexes)
-    }
-
-    private fun endProcess(pid: Int): XcfaState<S> {
-        val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-        newProcesses.remove(pid)
-        val newMutexes = LinkedHashMap(mutexes)
-        newMutexes.remove("$pid")
-        return copy(processes = newProcesses, mutexes = newMutexes)
-    }
-
-    private fun invokeFunction(pid: Int, proc: XcfaProcedure, returnStmt: XcfaLabel,
-        paramList: Map<VarDecl<*>, ParamDirection>, tempLookup: Map<VarDecl<*>, VarDecl<*>>): XcfaState<S> {
-        val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-        newProcesses[pid] = checkNotNull(processes[pid]?.enterFunction(proc, returnStmt, paramList, tempLookup))
-        return copy(processes = newProcesses)
+        threadLookup()[startLabel.pidVar] = pid
+        processes()[pid] = XcfaProcessState(PersistentStack.of(procedure.initLoc), prefix = "T$pid",
+            varLookup = PersistentStack.of(lookup), returnStmts = PersistentStack.of(returnStmt),
+            paramStmts = PersistentStack.of(XcfaProcessState.paramStmts(paramList, lookup, tempLookup)))
+        mutexes()["$pid"] = pid
     }
 
-    private fun returnFromFunction(pid: Int): XcfaState<S> {
-        val newProcesses: MutableMap<Int, XcfaProcessState> = LinkedHashMap(processes)
-        newProcesses[pid] = checkNotNull(processes[pid]?.exitFunction())
-        return copy(processes = newProcesses)
+    fun endProcess(pid: Int) {
+        processes().remove(pid)
+        if ((mutexes ?: original.mutexes).containsKey("$pid")) mutexes().remove("$pid")
     }
 
-    fun enterMutex(key: String, pid: Int): XcfaState<S> {
-        if (mutexes.keys.any { it == key && mutexes[it] != pid }) return copy(bottom = true)
-
-        val newMutexes = LinkedHashMap(mutexes)
-        newMutexes[key] = pid
-        return copy(mutexes = newMutexes)
+    fun enterMutex(key: String, pid: Int) {
+        val current = mutexes ?: original.mutexes
+        if (current.containsKey(key) && current[key] != pid) {
+            bottom = true
+            return
+        }
+        if (current[key] != pid) mutexes()[key] = pid
     }
 
-    fun exitMutex(key: String, pid: Int): XcfaState<S> {
-        val newMutexes = LinkedHashMap(mutexes)
-        newMutexes.remove(key, pid)
-        return copy(mutexes = newMutexes)
+    fun exitMutex(key: String, pid: Int) {
+        if ((mutexes ?: original.mutexes)[key] == pid) mutexes().remove(key, pid)
     }
 
-
-    private fun withProcesses(nP: Map<Int, XcfaProcessState>): XcfaState<S> {
-        return copy(processes = nP)
-    }
-
-    fun withState(s: S): XcfaState<S> {
-        return copy(sGlobal = s)
-    }
-
-    override fun toString(): String {
-        return "$processes {$sGlobal, mutex=$mutexes${if (bottom) ", bottom" else ""}}"
-    }
+    fun build(): XcfaState<S> =
+        original.copy(processes = processes ?: original.processes, mutexes = mutexes ?: original.mutexes,
+            threadLookup = threadLookup ?: original.threadLookup, bottom = bottom)
 }
 
-data class XcfaProcessState(val locs: LinkedList<XcfaLocation>, val varLookup: LinkedList<Map<VarDecl<*>, VarDecl<*>>>,
-    val returnStmts: LinkedList<XcfaLabel> = LinkedList(listOf(NopLabel)),
-    val paramStmts: LinkedList<Pair<XcfaLabel, XcfaLabel>> = LinkedList(listOf(Pair(NopLabel, NopLabel))),
+data class XcfaProcessState(
+    var locs: PersistentStack<XcfaLocation>,
+    val varLookup: PersistentStack<Map<VarDecl<*>, VarDecl<*>>>,
+    val returnStmts: PersistentStack<XcfaLabel> = PersistentStack.of(NopLabel),
+    val paramStmts: PersistentStack<Pair<XcfaLabel, XcfaLabel>> = PersistentStack.of(Pair(NopLabel, NopLabel)),
     val paramsInitialized: Boolean = false, val prefix: String = "") {
 
     internal var popped: XcfaLocation? = null // stores if the stack was popped due to abstract stack covering
 
     fun withNewLoc(l: XcfaLocation): XcfaProcessState {
-        val deque: LinkedList<XcfaLocation> = LinkedList(locs)
-        deque.pop()
-        deque.push(l)
-        return copy(locs = deque, paramsInitialized = true)
+        return copy(locs = locs.pop().push(l), paramsInitialized = true)
     }
 
     override fun toString(): String = when (locs.size) {
         0 -> ""
-        1 -> locs.peek()!!.toString() + " initialized=$paramsInitialized"
-        else -> "${locs.peek()!!} [${locs.size}], initilized=$paramsInitialized"
+        1 -> locs.peek().toString() + " initialized=$paramsInitialized"
+        else -> "${locs.peek()} [${locs.size}], initilized=$paramsInitialized"
     }
 
     fun enterFunction(xcfaProcedure: XcfaProcedure, returnStmt: XcfaLabel, paramList: Map<VarDecl<*>, ParamDirection>,
         tempLookup: Map<VarDecl<*>, VarDecl<*>>): XcfaProcessState {
-        val deque: LinkedList<XcfaLocation> = LinkedList(locs)
-        val varLookup: LinkedList<Map<VarDecl<*>, VarDecl<*>>> = LinkedList(varLookup)
-        val returnStmts: LinkedList<XcfaLabel> = LinkedList(returnStmts)
-        val paramStmts: LinkedList<Pair<XcfaLabel, XcfaLabel>> = LinkedList(paramStmts)
-        deque.push(xcfaProcedure.initLoc)
-        val lookup = createLookup(xcfaProcedure, prefix, "P${procCnt++}")
-        varLookup.push(lookup)
-        returnStmts.push(returnStmt)
-        paramStmts.push(Pair(
-            /* init */
-            SequenceLabel(paramList.filter { it.value != ParamDirection.OUT }.map {
-                StmtLabel(Assign(cast(it.key.changeVars(lookup), it.key.type),
-                    cast(it.key.changeVars(tempLookup).ref, it.key.type)), metadata = EmptyMetaData)
-            }),
-            /* deinit */
-            SequenceLabel(paramList.filter { it.value != ParamDirection.IN }.map {
-                StmtLabel(Assign(cast(it.key.changeVars(tempLookup), it.key.type),
-                    cast(it.key.changeVars(lookup).ref, it.key.type)), metadata = EmptyMetaData)
-            }),
-        ))
-        return copy(locs = deque, varLookup = varLookup, returnStmts = returnStmts, paramStmts = paramStmts,
-            paramsInitialized = false)
+        val lookup = createLookup(xcfaProcedure, prefix, "P${procCnt.getAndIncrement()}")
+        return copy(locs = locs.push(xcfaProcedure.initLoc), varLookup = varLookup.push(lookup),
+            returnStmts = returnStmts.push(returnStmt),
+            paramStmts = paramStmts.push(paramStmts(paramList, lookup, tempLookup)), paramsInitialized = false)
     }
 
     fun exitFunction(): XcfaProcessState {
-        val deque: LinkedList<XcfaLocation> = LinkedList(locs)
-        val varLookup: LinkedList<Map<VarDecl<*>, VarDecl<*>>> = LinkedList(varLookup)
-        val returnStmts: LinkedList<XcfaLabel> = LinkedList(returnStmts)
-        val paramStmts: LinkedList<Pair<XcfaLabel, XcfaLabel>> = LinkedList(paramStmts)
-        deque.pop()
-        varLookup.pop()
-        returnStmts.pop()
-        paramStmts.pop()
-        return copy(locs = deque, varLookup = varLookup, returnStmts = returnStmts, paramStmts = paramStmts)
+        return copy(locs = locs.pop(), varLookup = varLookup.pop(), returnStmts = returnStmts.pop(),
+            paramStmts = paramStmts.pop())
+    }
+
+    /**
+     * Pops the top location for abstract stack covering, keeping it in [popped].
+     */
+    internal fun popForCovering() {
+        popped = locs.peek()
+        locs = locs.pop()
     }
 
     override fun equals(other: Any?): Boolean {
@@ -308,6 +248,20 @@ data class XcfaProcessState(val locs: LinkedList<XcfaLocation>, val varLookup: L
 
     companion object {
 
+        internal fun paramStmts(paramList: Map<VarDecl<*>, ParamDirection>, lookup: Map<VarDecl<*>, VarDecl<*>>,
+            tempLookup: Map<VarDecl<*>, VarDecl<*>>): Pair<XcfaLabel, XcfaLabel> = Pair(
+            /* init */
+            SequenceLabel(paramList.filter { it.value != ParamDirection.OUT }.map {
+                StmtLabel(Assign(cast(it.key.changeVars(lookup), it.key.type),
+                    cast(it.key.changeVars(tempLookup).ref, it.key.type)), metadata = EmptyMetaData)
+            }),
+            /* deinit */
+            SequenceLabel(paramList.filter { it.value != ParamDirection.IN }.map {
+                StmtLabel(Assign(cast(it.key.changeVars(tempLookup), it.key.type),
+                    cast(it.key.changeVars(lookup).ref, it.key.type)), metadata = EmptyMetaData)
+            }),
+        )
+
         fun createLookup(proc: XcfaProcedure, threadPrefix: String,
             procPrefix: String): Map<VarDecl<*>, VarDecl<*>> = listOf(proc.params.map { it.first }, proc.vars).flatten()
             .associateWith {
@@ -29,7 +29,7 @@ import hu.bme.mit.theta.xcfa.analysis.XcfaPrec
 import hu.bme.mit.theta.xcfa.analysis.XcfaState
 import hu.bme.mit.theta.xcfa.analysis.getXcfaLts
 import hu.bme.mit.theta.xcfa.analysis.por.extension
-import hu.bme.mit.theta.xcfa.analysis.por.nullableExtension
+import hu.bme.mit.theta.xcfa.analysis.por.synchronizedNullableExtension
 import hu.bme.mit.theta.xcfa.model.*
 import java.util.*
 import kotlin.math.min
@@ -39,12 +39,21 @@ lateinit var ConeOfInfluence: XcfaCoi
 internal typealias S = XcfaState<out ExprState>
 internal typealias A = XcfaAction
 
-internal var XcfaAction.transFuncVersion: XcfaAction? by nullableExtension()
+// written by the COI LTS on the exploring thread and read by the transfer functions of the abstraction workers
+internal var XcfaAction.transFuncVersion: XcfaAction? by synchronizedNullableExtension()
+
+/**
+ * Wraps a transfer function so that it evaluates the COI-reduced version of each action, if there is one. The reduced
+ * versions are recorded by the COI LTS, possibly while other threads evaluate already enabled actions.
+ */
+fun <S : XcfaState<out ExprState>, P : XcfaPrec<out Prec>> coiTransFunc(
+    coreTransFunc: TransFunc<S, A, P>): TransFunc<S, A, P> = TransFunc { state, action, prec ->
+    coreTransFunc.getSuccStates(state, action.transFuncVersion ?: action, prec)
+}
 
 abstract class XcfaCoi(protected val xcfa: XCFA) {
 
     var coreLts: LTS<S, A> = getXcfaLts()
-    lateinit var coreTransFunc: TransFunc<S, A, XcfaPrec<out Prec>>
 
     protected var lastPrec: Prec? = null
     protected var XcfaLocation.scc: Int by extension()
@@ -52,10 +61,6 @@ abstract class XcfaCoi(protected val xcfa: XCFA) {
 
     abstract val lts: LTS<S, A>
 
-    val transFunc = TransFunc<S, A, XcfaPrec<out Prec>> { state, action, prec ->
-        coreTransFunc.getSuccStates(state, action.transFuncVersion ?: action, prec)
-    }
-
     init {
         xcfa.procedures.forEach { tarjan(it.initLoc) }
     }
@@ -68,7 +68,7 @@ class XcfaCoiMultiThread(xcfa: XCFA) : XcfaCoi(xcfa) {
                     procedures.any { edge.procedure == it.procedure && it.scc >= edge.source.scc }
                 }.forEach { edge ->
                     edge.getFlatLabels().filterIsInstance<StartLabel>().forEach { startLabel ->
-                        val procedure = xcfa.procedures.find { it.name == startLabel.name }!!
+                        val procedure = xcfa.getProcedure(startLabel.name)!!
                         val procedureEntry = ProcedureEntry(procedure, procedure.initLoc.scc, -1)
                         if (procedureEntry !in procedures) {
                             procedures.add(procedureEntry)
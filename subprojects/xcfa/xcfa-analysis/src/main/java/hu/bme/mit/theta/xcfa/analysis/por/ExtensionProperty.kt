@@ -21,6 +21,7 @@ import kotlin.reflect.KProperty
 
 fun <R, T> extension() = ExtensionProperty<R, T>()
 fun <R, T> nullableExtension() = NullableExtensionProperty<R, T?>()
+fun <R, T> synchronizedNullableExtension() = SynchronizedNullableExtensionProperty<R, T?>()
 
 class ExtensionProperty<R, T> : ReadWriteProperty<R, T> {
 
@@ -41,3 +42,15 @@ open class NullableExtensionProperty<R, T> : ReadWriteProperty<R, T?> {
 
     fun clear() = map.clear()
 }
+
+/**
+ * Nullable extension property that can be written and read from different threads concurrently.
+ */
+class SynchronizedNullableExtensionProperty<R, T> : ReadWriteProperty<R, T?> {
+
+    private val map: MutableMap<R, T?> = Collections.synchronizedMap(IdentityHashMap())
+    override fun getValue(thisRef: R, property: KProperty<*>) = map[thisRef]
+    override fun setValue(thisRef: R, property: KProperty<*>, value: T?) {
+        map[thisRef] = value
+    }
+}
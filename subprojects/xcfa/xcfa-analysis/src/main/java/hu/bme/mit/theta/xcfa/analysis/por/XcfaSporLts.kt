@@ -303,7 +303,7 @@ open class XcfaSporLts(protected val xcfa: XCFA) : LTS<XcfaState<*>, XcfaAction>
         val startThreads = edge.getFlatLabels().filterIsInstance<StartLabel>().toList()
         if (startThreads.isNotEmpty()) { // for start thread labels, the thread procedure must be explored, too!
             startThreads.forEach { startThread ->
-                outgoingEdges.addAll(xcfa.procedures.first { it.name == startThread.name }.initLoc.outgoingEdges)
+                outgoingEdges.addAll(checkNotNull(xcfa.getProcedure(startThread.name)).initLoc.outgoingEdges)
             }
         }
         return outgoingEdges
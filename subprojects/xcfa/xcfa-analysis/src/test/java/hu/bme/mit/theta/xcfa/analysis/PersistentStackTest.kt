@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.analysis
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import java.util.*
+
+class PersistentStackTest {
+
+    @Test
+    fun testListContract() {
+        val stack = PersistentStack.of("a", "b", "c")
+        val list = LinkedList(listOf("a", "b", "c"))
+
+        assertEquals(list, stack)
+        assertEquals(stack, list)
+        assertEquals(list.hashCode(), stack.hashCode())
+        assertEquals(list.toString(), stack.toString())
+        assertEquals("a", stack.peek())
+        assertEquals("b", stack[1])
+        assertEquals(listOf("b", "c"), stack.pop())
+    }
+
+    @Test
+    fun testSharing() {
+        val base = PersistentStack.of("main")
+        val called = base.push("f").push("g")
+
+        assertSame(base, called.pop().pop())
+        assertEquals(called, base.push("f").push("g"))
+        assertNotEquals(called, base.push("g").push("f"))
+        assertEquals(0, PersistentStack.empty<String>().size)
+        assertEquals(LinkedList<String>().hashCode(), PersistentStack.empty<String>().hashCode())
+    }
+}
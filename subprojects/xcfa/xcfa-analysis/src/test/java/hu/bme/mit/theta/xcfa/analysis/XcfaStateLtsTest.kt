@@ -68,8 +68,8 @@ class XcfaStateLtsTest {
             mapOf(
                 Pair(0,
                     XcfaProcessState(
-                        locs = LinkedList(listOf(edges[1].source)),
-                        varLookup = LinkedList(listOf(createLookup(xcfa.initProcedures[0].first, "T0", "P0")))
+                        locs = PersistentStack.of(edges[1].source),
+                        varLookup = PersistentStack.of(createLookup(xcfa.initProcedures[0].first, "T0", "P0"))
                     )
                 )
             ),
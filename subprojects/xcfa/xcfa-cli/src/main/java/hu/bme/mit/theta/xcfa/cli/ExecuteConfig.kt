@@ -29,6 +29,7 @@ import hu.bme.mit.theta.analysis.utils.ArgVisualizer
 import hu.bme.mit.theta.analysis.utils.TraceVisualizer
 import hu.bme.mit.theta.cat.dsl.CatDslManager
 import hu.bme.mit.theta.common.logging.Logger
+import hu.bme.mit.theta.common.metrics.MetricRegistry
 import hu.bme.mit.theta.common.visualization.Graph
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter
 import hu.bme.mit.theta.common.visualization.writer.WebDebuggerLogger
@@ -68,8 +69,15 @@ fun runConfig(config: XcfaConfig<*, *>, logger: Logger, uniqueLogger: Logger): S
 
     val result = backend(xcfa, mcm, parseContext, config, logger, uniqueLogger)
 
+    logRacingSolverWins(logger)
+
     postVerificationLogging(result, mcm, parseContext, config, logger, uniqueLogger)
 
+    // with --in-process, the metrics are written (and copied back) by the verifier process
+    if (config.outputConfig.runtimeMetrics && !config.backendConfig.inProcess) {
+        writeRuntimeMetrics(config, logger)
+    }
+
     return result
 }
 
@@ -91,6 +99,9 @@ private fun propagateInputOptions(config: XcfaConfig<*, *>, logger: Logger, uniq
 
     LoopUnrollPass.UNROLL_LIMIT = config.frontendConfig.loopUnroll
     ARGWebDebugger.on = config.debugConfig.argdebug
+    if (config.outputConfig.runtimeMetrics) {
+        MetricRegistry.getInstance().isEnabled = true
+    }
 }
 
 private fun validateInputOptions(config: XcfaConfig<*, *>, logger: Logger, uniqueLogger: Logger) {
@@ -214,6 +225,16 @@ private fun preVerificationLogging(xcfa: XCFA, mcm: MCM, parseContext: ParseCont
     }
 }
 
+private fun writeRuntimeMetrics(config: XcfaConfig<*, *>, logger: Logger) {
+    try {
+        val resultFolder = config.outputConfig.resultFolder
+        resultFolder.mkdirs()
+        MetricRegistry.getInstance().writeJson(File(resultFolder, "metrics.json"))
+    } catch (e: Throwable) {
+        logger.write(Logger.Level.INFO, "Could not write runtime metrics: ${e.stackTraceToString()}\n")
+    }
+}
+
 private fun postVerificationLogging(safetyResult: SafetyResult<*, *>, mcm: MCM,
     parseContext: ParseContext, config: XcfaConfig<*, *>, logger: Logger, uniqueLogger: Logger) {
     try {
@@ -40,6 +40,7 @@ import hu.bme.mit.theta.xcfa.analysis.por.XcfaDporLts
 import hu.bme.mit.theta.xcfa.cli.params.*
 import hu.bme.mit.theta.xcfa.cli.utils.getSolver
 import hu.bme.mit.theta.xcfa.model.XCFA
+import java.util.function.Supplier
 
 fun getCegarChecker(xcfa: XCFA, mcm: MCM,
     config: XcfaConfig<*, *>,
@@ -79,12 +80,19 @@ fun getCegarChecker(xcfa: XCFA, mcm: MCM,
             XcfaDporLts.getPartialOrder(corePartialOrd)
         } else {
             corePartialOrd
-        }
+        },
+        // the DPOR waitlist relies on nodes being expanded one by one
+        if (cegarConfig.porLevel.isDynamic) 1 else cegarConfig.abstractorConfig.threads,
+        abstractionSolverFactory
     ) as Abstractor<ExprState, ExprAction, Prec>
 
-    val ref: ExprTraceChecker<Refutation> =
-        cegarConfig.refinerConfig.refinement.refiner(refinementSolverFactory, cegarConfig.cexMonitor)
-            as ExprTraceChecker<Refutation>
+    val refinement = cegarConfig.refinerConfig.refinement
+    val traceChecker = refinement.incrementalRefiner.takeIf { cegarConfig.refinerConfig.incrementalRefinement }
+        ?: refinement.refiner
+    val refSupplier = Supplier {
+        traceChecker(refinementSolverFactory, cegarConfig.cexMonitor) as ExprTraceChecker<Refutation>
+    }
+    val ref: ExprTraceChecker<Refutation> = refSupplier.get()
     val precRefiner: PrecRefiner<ExprState, ExprAction, Prec, Refutation> =
         cegarConfig.abstractorConfig.domain.itpPrecRefiner(cegarConfig.refinerConfig.exprSplitter.exprSplitter)
             as PrecRefiner<ExprState, ExprAction, Prec, Refutation>
@@ -92,10 +100,11 @@ fun getCegarChecker(xcfa: XCFA, mcm: MCM,
     val refiner: Refiner<ExprState, ExprAction, Prec> =
         if (cegarConfig.refinerConfig.refinement == Refinement.MULTI_SEQ)
             if (cegarConfig.porLevel == POR.AASPOR)
-                MultiExprTraceRefiner.create(ref, precRefiner, cegarConfig.refinerConfig.pruneStrategy, logger,
-                    atomicNodePruner)
+                MultiExprTraceRefiner.create(ref, refSupplier, cegarConfig.refinerConfig.threads, precRefiner,
+                    cegarConfig.refinerConfig.pruneStrategy, logger, atomicNodePruner)
             else
-                MultiExprTraceRefiner.create(ref, precRefiner, cegarConfig.refinerConfig.pruneStrategy, logger)
+                MultiExprTraceRefiner.create(ref, refSupplier, cegarConfig.refinerConfig.threads, precRefiner,
+                    cegarConfig.refinerConfig.pruneStrategy, logger)
         else
             if (cegarConfig.porLevel == POR.AASPOR)
                 XcfaSingleExprTraceRefiner.create(ref, precRefiner, cegarConfig.refinerConfig.pruneStrategy, logger,
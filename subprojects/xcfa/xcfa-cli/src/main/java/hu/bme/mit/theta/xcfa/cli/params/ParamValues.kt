@@ -24,6 +24,7 @@ import hu.bme.mit.theta.analysis.algorithm.ArgNode
 import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators
 import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators.ArgNodeComparator
 import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.CloseableTransFunc
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions
 import hu.bme.mit.theta.analysis.expl.ExplPrec
@@ -97,7 +98,9 @@ enum class Domain(
         logger: Logger,
         lts: LTS<XcfaState<out ExprState>, XcfaAction>,
         errorDetectionType: ErrorDetection,
-        partialOrd: PartialOrd<out XcfaState<out ExprState>>
+        partialOrd: PartialOrd<out XcfaState<out ExprState>>,
+        threads: Int,
+        solverFactory: SolverFactory
     ) -> Abstractor<out ExprState, out ExprAction, out Prec>,
     val itpPrecRefiner: (exprSplitter: ExprSplitter) -> PrecRefiner<out ExprState, out ExprAction, out Prec, out Refutation>,
     val initPrec: (XCFA, InitPrec) -> XcfaPrec<*>,
@@ -107,9 +110,12 @@ enum class Domain(
 ) {
 
     EXPL(
-        abstractor = { a, b, c, d, e, f, g, h, i ->
+        abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
             getXcfaAbstractor(ExplXcfaAnalysis(a, b, c, i as PartialOrd<XcfaState<ExplState>>), d,
-                e, f, g, h)
+                e, f, g, h, j) {
+                val solver = k.createSolver()
+                CloseableTransFunc.create(ExplXcfaAnalysis(a, solver, c, i).transFunc, solver)
+            }
         },
         itpPrecRefiner = {
             XcfaPrecRefiner<ExplState, ExplPrec, ItpRefutation>(ItpRefToExplPrec())
@@ -120,9 +126,13 @@ enum class Domain(
         stateType = TypeToken.get(ExplState::class.java).type
     ),
     PRED_BOOL(
-        abstractor = { a, b, c, d, e, f, g, h, i ->
+        abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
             getXcfaAbstractor(PredXcfaAnalysis(a, b, PredAbstractors.booleanAbstractor(b),
-                i as PartialOrd<XcfaState<PredState>>), d, e, f, g, h)
+                i as PartialOrd<XcfaState<PredState>>), d, e, f, g, h, j) {
+                val solver = k.createSolver()
+                CloseableTransFunc.create(
+                    PredXcfaAnalysis(a, solver, PredAbstractors.booleanAbstractor(solver), i).transFunc, solver)
+            }
         },
         itpPrecRefiner = { a ->
             XcfaPrecRefiner<PredState, PredPrec, ItpRefutation>(ItpRefToPredPrec(a))
@@ -133,9 +143,13 @@ enum class Domain(
         stateType = TypeToken.get(PredState::class.java).type
     ),
     PRED_CART(
-        abstractor = { a, b, c, d, e, f, g, h, i ->
+        abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
             getXcfaAbstractor(PredXcfaAnalysis(a, b, PredAbstractors.cartesianAbstractor(b),
-                i as PartialOrd<XcfaState<PredState>>), d, e, f, g, h)
+                i as PartialOrd<XcfaState<PredState>>), d, e, f, g, h, j) {
+                val solver = k.createSolver()
+                CloseableTransFunc.create(
+                    PredXcfaAnalysis(a, solver, PredAbstractors.cartesianAbstractor(solver), i).transFunc, solver)
+            }
         },
         itpPrecRefiner = { a ->
             XcfaPrecRefiner<PredState, PredPrec, ItpRefutation>(ItpRefToPredPrec(a))
@@ -146,9 +160,13 @@ enum class Domain(
         stateType = TypeToken.get(PredState::class.java).type
     ),
     PRED_SPLIT(
-        abstractor = { a, b, c, d, e, f, g, h, i ->
+        abstractor = { a, b, c, d, e, f, g, h, i, j, k ->
             getXcfaAbstractor(PredXcfaAnalysis(a, b, PredAbstractors.booleanSplitAbstractor(b),
-                i as PartialOrd<XcfaState<PredState>>), d, e, f, g, h)
+                i as PartialOrd<XcfaState<PredState>>), d, e, f, g, h, j) {
+                val solver = k.createSolver()
+                CloseableTransFunc.create(
+                    PredXcfaAnalysis(a, solver, PredAbstractors.booleanSplitAbstractor(solver), i).transFunc, solver)
+            }
         },
         itpPrecRefiner = { a ->
             XcfaPrecRefiner<PredState, PredPrec, ItpRefutation>(ItpRefToPredPrec(a))
@@ -163,6 +181,8 @@ enum class Domain(
 enum class Refinement(
     val refiner: (solverFactory: SolverFactory, monitorOption: CexMonitorOptions) -> ExprTraceChecker<out Refutation>,
     val stopCriterion: StopCriterion<XcfaState<out ExprState>, XcfaAction>,
+    // keeps the common prefix of consecutive counterexamples asserted, null if not supported
+    val incrementalRefiner: ((solverFactory: SolverFactory, monitorOption: CexMonitorOptions) -> ExprTraceChecker<out Refutation>)? = null,
 ) {
 
     FW_BIN_ITP(
@@ -170,6 +190,9 @@ enum class Refinement(
             ExprTraceFwBinItpChecker.create(BoolExprs.True(), BoolExprs.True(), s.createItpSolver())
         },
         stopCriterion = StopCriterions.firstCex(),
+        incrementalRefiner = { s, _ ->
+            ExprTraceFwBinItpChecker.createIncremental(BoolExprs.True(), BoolExprs.True(), s.createItpSolver())
+        },
     ),
     BW_BIN_ITP(
         refiner = { s, _ ->
@@ -181,14 +204,21 @@ enum class Refinement(
         refiner = { s, _ ->
             ExprTraceSeqItpChecker.create(BoolExprs.True(), BoolExprs.True(), s.createItpSolver())
         },
-        stopCriterion = StopCriterions.firstCex()
+        stopCriterion = StopCriterions.firstCex(),
+        incrementalRefiner = { s, _ ->
+            ExprTraceSeqItpChecker.createIncremental(BoolExprs.True(), BoolExprs.True(), s.createItpSolver())
+        },
     ),
     MULTI_SEQ(
         refiner = { s, m ->
             if (m == CexMonitorOptions.CHECK) error("CexMonitor is not implemented for MULTI_SEQ")
             ExprTraceSeqItpChecker.create(BoolExprs.True(), BoolExprs.True(), s.createItpSolver())
         },
-        stopCriterion = StopCriterions.fullExploration()
+        stopCriterion = StopCriterions.fullExploration(),
+        incrementalRefiner = { s, m ->
+            if (m == CexMonitorOptions.CHECK) error("CexMonitor is not implemented for MULTI_SEQ")
+            ExprTraceSeqItpChecker.createIncremental(BoolExprs.True(), BoolExprs.True(), s.createItpSolver())
+        },
     ),
     UNSAT_CORE(
         refiner = { s, _ ->
@@ -17,6 +17,7 @@
 package hu.bme.mit.theta.xcfa.cli.params
 
 import com.beust.jcommander.Parameter
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncodingType
 import hu.bme.mit.theta.analysis.expr.refinement.PruneStrategy
 import hu.bme.mit.theta.common.logging.Logger
 import hu.bme.mit.theta.frontend.ParseContext
@@ -185,7 +186,8 @@ data class CegarConfig(
 }
 
 data class CegarAbstractorConfig(
-    @Parameter(names = ["--abstraction-solver"], description = "Abstraction solver name")
+    @Parameter(names = ["--abstraction-solver"],
+        description = "Abstraction solver name. Names separated by '|' (e.g. Z3|cvc5:1.0.8) are raced, and the first answer is used.")
     var abstractionSolver: String = "Z3",
 
     @Parameter(names = ["--validate-abstraction-solver"],
@@ -201,6 +203,10 @@ data class CegarAbstractorConfig(
 
     @Parameter(names = ["--search"], description = "Search strategy")
     var search: Search = Search.ERR,
+
+    @Parameter(names = ["--threads"],
+        description = "Number of threads computing successor states in the abstraction (each with its own solver). Not used with dynamic partial order reduction.")
+    var threads: Int = 1,
 ) : Config
 
 data class CegarRefinerConfig(
@@ -219,12 +225,31 @@ data class CegarRefinerConfig(
 
     @Parameter(names = ["--prunestrategy"], description = "Strategy for pruning the ARG after refinement")
     var pruneStrategy: PruneStrategy = PruneStrategy.LAZY,
+
+    @Parameter(names = ["--refinement-threads"],
+        description = "Number of threads checking traces in MULTI_SEQ refinement (each with its own solver).")
+    var threads: Int = 1,
+
+    @Parameter(names = ["--incremental-refinement"],
+        description = "Keep the common prefix of consecutive counterexamples asserted in the refinement solver (FW_BIN_ITP, SEQ_ITP and MULTI_SEQ)")
+    var incrementalRefinement: Boolean = false,
 ) : Config
 
 data class BoundedConfig(
     @Parameter(names = ["--max-bound"], description = "Maximum bound to check. Use 0 for no limit.")
     var maxBound: Int = 0,
 
+    @Parameter(names = ["--step-compression"],
+        description = "Merge thread-local steps with the next step of the same thread in the monolithic encoding")
+    var stepCompression: Boolean = false,
+
+    @Parameter(names = ["--merge-blocks"],
+        description = "Merge straight-line segments into single steps in the monolithic encoding")
+    var mergeBlocks: Boolean = false,
+
+    @Parameter(names = ["--location-encoding"], description = "Encoding of the program counter")
+    var locationEncoding: LocationEncodingType = LocationEncodingType.INTEGER,
+
     val bmcConfig: BMCConfig = BMCConfig(),
     val indConfig: InductionConfig = InductionConfig(),
     val itpConfig: InterpolationConfig = InterpolationConfig(),
@@ -299,6 +324,10 @@ data class OutputConfig(
     @Parameter(names = ["--output-directory"], description = "Specify the directory where the result files are stored")
     var resultFolder: File = Paths.get("./").toFile(),
 
+    @Parameter(names = ["--runtime-metrics"],
+        description = "Write runtime metrics (counters, timers and histograms of the algorithm and the solvers) to metrics.json in the output directory")
+    var runtimeMetrics: Boolean = false,
+
     val cOutputConfig: COutputConfig = COutputConfig(),
     val xcfaOutputConfig: XcfaOutputConfig = XcfaOutputConfig(),
     val witnessConfig: WitnessConfig = WitnessConfig(),
@@ -18,21 +18,44 @@ package hu.bme.mit.theta.xcfa.cli.utils
 
 import hu.bme.mit.theta.common.OsHelper
 import hu.bme.mit.theta.common.logging.Logger
+import hu.bme.mit.theta.common.metrics.MetricRegistry
 import hu.bme.mit.theta.solver.SolverFactory
 import hu.bme.mit.theta.solver.SolverManager
+import hu.bme.mit.theta.solver.metrics.MetricsSolverFactory
+import hu.bme.mit.theta.solver.racing.RacingSolverFactory
 import hu.bme.mit.theta.solver.smtlib.SmtLibSolverManager
 import hu.bme.mit.theta.solver.validator.SolverValidatorWrapperFactory
 import hu.bme.mit.theta.solver.z3.Z3SolverManager
 import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
 
-fun getSolver(name: String, validate: Boolean): SolverFactory = if (validate) {
+// racing factories are shared by name, so that their threads are reused and their wins add up
+private val racingSolverFactories = ConcurrentHashMap<Pair<String, Boolean>, RacingSolverFactory>()
+
+fun getSolver(name: String, validate: Boolean): SolverFactory {
+    val solverFactory = resolveSolver(name, validate)
+    return if (MetricRegistry.getInstance().isEnabled) MetricsSolverFactory.create(solverFactory) else solverFactory
+}
+
+private fun resolveSolver(name: String, validate: Boolean): SolverFactory = if (name.contains('|')) {
+    racingSolverFactories.computeIfAbsent(Pair(name, validate)) {
+        RacingSolverFactory.create(name.split('|').map { it.trim() }.associateWith { resolveSolver(it, validate) })
+    }
+} else if (validate) {
     SolverValidatorWrapperFactory.create(name)
 } else {
     SolverManager.resolveSolverFactory(name)
 }
 
+fun logRacingSolverWins(logger: Logger) {
+    racingSolverFactories.forEach { (key, factory) ->
+        logger.write(Logger.Level.INFO, "Racing solver ${key.first} wins: ${factory.wins}\n")
+    }
+}
+
 fun registerAllSolverManagers(home: String, logger: Logger) {
     SolverManager.closeAll()
+    racingSolverFactories.clear()
     // register solver managers
     SolverManager.registerSolverManager(Z3SolverManager.create())
     logger.write(Logger.Level.INFO, "Registered Z3 SolverManager\n")
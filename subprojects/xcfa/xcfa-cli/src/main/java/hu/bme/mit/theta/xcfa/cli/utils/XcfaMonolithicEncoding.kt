@@ -0,0 +1,332 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package hu.bme.mit.theta.xcfa.cli.utils
+
+import com.google.common.base.Preconditions.checkArgument
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncoding
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncodingType
+import hu.bme.mit.theta.analysis.algorithm.bounded.MonolithicExpr
+import hu.bme.mit.theta.analysis.expl.ExplState
+import hu.bme.mit.theta.core.decl.Decls.Var
+import hu.bme.mit.theta.core.decl.VarDecl
+import hu.bme.mit.theta.core.model.ImmutableValuation
+import hu.bme.mit.theta.core.model.Valuation
+import hu.bme.mit.theta.core.stmt.NonDetStmt
+import hu.bme.mit.theta.core.stmt.SequenceStmt
+import hu.bme.mit.theta.core.stmt.Stmt
+import hu.bme.mit.theta.core.stmt.Stmts.*
+import hu.bme.mit.theta.core.type.Expr
+import hu.bme.mit.theta.core.type.LitExpr
+import hu.bme.mit.theta.core.type.anytype.Exprs.Ite
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.*
+import hu.bme.mit.theta.core.type.booltype.BoolType
+import hu.bme.mit.theta.core.type.inttype.IntExprs.*
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr
+import hu.bme.mit.theta.core.type.inttype.IntType
+import hu.bme.mit.theta.core.utils.StmtUtils
+import hu.bme.mit.theta.core.utils.TypeUtils.cast
+import hu.bme.mit.theta.core.utils.indexings.VarIndexingFactory
+import hu.bme.mit.theta.xcfa.analysis.PersistentStack
+import hu.bme.mit.theta.xcfa.analysis.XcfaAction
+import hu.bme.mit.theta.xcfa.analysis.XcfaProcessState
+import hu.bme.mit.theta.xcfa.analysis.XcfaState
+import hu.bme.mit.theta.xcfa.getFlatLabels
+import hu.bme.mit.theta.xcfa.model.*
+import hu.bme.mit.theta.xcfa.passes.changeVars
+import java.util.*
+
+/**
+ * Encodes an XCFA into a [MonolithicExpr] for bounded checking, and maps the valuations of the encoding back to
+ * states and actions of the XCFA.
+ *
+ * Every thread started by the program gets its own program counter (represented according to [locationEncoding])
+ * and its own copy of the local variables of its procedure. A scheduler variable records which thread took the last step, and the mutexes of fence labels
+ * (including atomic blocks) are encoded as variables holding their owner. If [stepCompression] is enabled, steps
+ * only touching the local variables of a thread are merged with the following step of the same thread: such steps
+ * commute with the steps of every other thread, so the merge keeps the reachable error locations. If [mergeBlocks]
+ * is enabled, straight-line segments (locations with a single incoming and outgoing edge) are merged into a single
+ * step, in multithreaded programs only where the merged step is thread-local.
+ *
+ * Procedure calls have to be inlined beforehand, and threads may not be started in loops (every start label
+ * corresponds to at most one thread).
+ */
+class XcfaMonolithicEncoding @JvmOverloads constructor(
+    val xcfa: XCFA,
+    private val stepCompression: Boolean = false,
+    private val mergeBlocks: Boolean = false,
+    private val locationEncoding: LocationEncodingType = LocationEncodingType.INTEGER
+) {
+
+    private class EncodedThread(
+        val idx: Int,
+        val procedure: XcfaProcedure,
+        val parent: EncodedThread?,
+        val lookup: Map<VarDecl<*>, VarDecl<*>>,
+        locationEncoding: LocationEncodingType
+    ) {
+
+        val locs: List<XcfaLocation> = procedure.locs.toList()
+        val locIds: Map<XcfaLocation, Int> = locs.withIndex().associate { it.value to it.index }
+
+        // threads other than the main one have an additional location for not being started yet
+        val notStarted: Int = locs.size
+        val pc = LocationEncoding(if (idx == 0) "__loc_" else "__loc_T$idx",
+            if (idx == 0) locs.size else locs.size + 1, locationEncoding)
+        val children: MutableMap<StartLabel, EncodedThread> = IdentityHashMap()
+        lateinit var edges: List<XcfaEdge>
+
+        fun isAt(loc: XcfaLocation): Expr<BoolType> = pc.isAt(locIds[loc]!!)
+
+        fun move(from: XcfaLocation, to: XcfaLocation): List<Stmt> = pc.move(locIds[from]!!, locIds[to]!!)
+
+        fun ancestors(): Sequence<EncodedThread> = generateSequence(this) { it.parent }
+    }
+
+    private val threads: List<EncodedThread>
+    private val schedVar: VarDecl<IntType>?
+    private val mutexVars: Map<String, VarDecl<IntType>>
+    private val handleVars: MutableMap<VarDecl<*>, VarDecl<IntType>> = LinkedHashMap()
+    private val internalVars: Set<String>
+
+    val monolithicExpr: MonolithicExpr
+
+    init {
+        checkArgument(xcfa.initProcedures.size == 1, "Bounded checking needs a single initial procedure")
+        threads = discoverThreads(xcfa.initProcedures.first().first)
+        schedVar = if (threads.size > 1) Var("__sched_", Int()) else null
+        mutexVars = threads.flatMap { it.procedure.edges }.flatMap { it.label.allLabels() }
+            .filterIsInstance<FenceLabel>().flatMap { it.mutexOps }.map { it.mutex }.distinct()
+            .associateWith { Var("__mutex_$it", Int()) }
+        threads.forEach {
+            it.edges = if (stepCompression || mergeBlocks) compressedEdges(it) else it.procedure.edges.toList()
+        }
+        monolithicExpr = encode()
+        internalVars = (threads.flatMap { it.pc.vars } + listOfNotNull(schedVar) + mutexVars.values + handleVars.values)
+            .map { it.name }.toSet()
+    }
+
+    private fun discoverThreads(mainProcedure: XcfaProcedure): List<EncodedThread> {
+        val threads = ArrayList<EncodedThread>()
+        val waitlist = ArrayDeque<EncodedThread>()
+        waitlist.add(EncodedThread(0, mainProcedure, null, emptyMap(), locationEncoding))
+        while (waitlist.isNotEmpty()) {
+            val thread = waitlist.removeFirst()
+            threads.add(thread)
+            for (edge in thread.procedure.edges) {
+                for (label in edge.label.allLabels().filterIsInstance<StartLabel>()) {
+                    checkArgument(!edge.target.reaches(edge.source),
+                        "Threads started in loops are not supported by the monolithic encoding")
+                    val procedure = xcfa.getProcedure(label.name)
+                    checkArgument(procedure != null, "No such procedure ${label.name}")
+                    checkArgument(thread.ancestors().none { it.procedure == procedure },
+                        "Recursive thread creation is not supported by the monolithic encoding")
+                    val idx = threads.size + waitlist.size
+                    val child = EncodedThread(idx, procedure!!, thread,
+                        XcfaProcessState.createLookup(procedure, "T$idx", ""), locationEncoding)
+                    thread.children[label] = child
+                    waitlist.add(child)
+                }
+            }
+        }
+        return threads
+    }
+
+    private fun compressedEdges(thread: EncodedThread): List<XcfaEdge> {
+        val procedure = thread.procedure
+        val locals = procedure.vars + procedure.params.map { it.first }
+        val kept = listOf(procedure.initLoc, procedure.finalLoc.orElse(null), procedure.errorLoc.orElse(null))
+        val edges = LinkedHashSet(procedure.edges)
+        for (loc in procedure.locs.filter { it !in kept }) {
+            val incoming = edges.filter { it.target == loc }
+            val outgoing = edges.filter { it.source == loc }
+            if (incoming.isEmpty() || outgoing.isEmpty() || incoming.any { it.source == loc }) continue
+            val local = incoming.all { it.isLocal(locals) }
+            val straightLine = incoming.size == 1 && outgoing.size == 1
+            // merging is quadratic in the degrees, so only chains and simple branchings are compressed
+            val compress = stepCompression && local && (incoming.size == 1 || outgoing.size == 1)
+            if (!compress && !(mergeBlocks && straightLine && (local || threads.size == 1))) continue
+            edges.removeAll(incoming.toSet())
+            edges.removeAll(outgoing.toSet())
+            for (inEdge in incoming) {
+                for (outEdge in outgoing) {
+                    edges.add(XcfaEdge(inEdge.source, outEdge.target, SequenceLabel(listOf(inEdge.label, outEdge.label)),
+                        inEdge.metadata))
+                }
+            }
+        }
+        return edges.toList()
+    }
+
+    private fun encode(): MonolithicExpr {
+        val tranList = threads.flatMap { thread -> thread.edges.map { encodeEdge(thread, it) } }
+        val transUnfold = StmtUtils.toExpr(NonDetStmt.of(tranList), VarIndexingFactory.indexing(0))
+
+        val main = threads[0]
+        val initExprs = mutableListOf(main.pc.initially(main.locIds[main.procedure.initLoc]!!))
+        threads.drop(1).forEach { initExprs.add(it.pc.initially(it.notStarted)) }
+        (mutexVars.values + handleVars.values).forEach { initExprs.add(Eq(it.ref, Int(FREE))) }
+
+        val propExprs = threads.filter { it.procedure.errorLoc.isPresent }.map {
+            Not(it.isAt(it.procedure.errorLoc.get()))
+        }
+        checkArgument(propExprs.isNotEmpty(), "No error location in the program")
+
+        return MonolithicExpr(
+            initExpr = And(initExprs),
+            transExpr = And(transUnfold.exprs),
+            propExpr = And(propExprs),
+            offsetIndex = transUnfold.indexing
+        )
+    }
+
+    private fun encodeEdge(thread: EncodedThread, edge: XcfaEdge): Stmt {
+        val stmts = mutableListOf<Stmt>(Assume(thread.isAt(edge.source)))
+        mutexVars[ATOMIC]?.let { stmts.add(Assume(Or(Eq(it.ref, Int(FREE)), Eq(it.ref, Int(thread.idx))))) }
+        stmts.add(encodeLabel(thread, edge.label))
+        stmts.addAll(thread.move(edge.source, edge.target))
+        schedVar?.let { stmts.add(Assign(it, Int(thread.idx))) }
+        return SequenceStmt.of(stmts)
+    }
+
+    private fun encodeLabel(thread: EncodedThread, label: XcfaLabel): Stmt = when (label) {
+        is SequenceLabel -> SequenceStmt.of(label.labels.map { encodeLabel(thread, it) })
+        is NondetLabel -> NonDetStmt.of(label.labels.map { encodeLabel(thread, it) })
+        is StmtLabel -> label.changeVars(thread.lookup).toStmt()
+        is NopLabel -> Skip()
+        is FenceLabel -> SequenceStmt.of(label.mutexOps.map { encodeMutexOp(thread, it) })
+        is StartLabel -> encodeStart(thread, thread.children[label]!!, label)
+        is JoinLabel -> encodeJoin(label.pidVar.changeVars(thread.lookup))
+        else -> throw IllegalArgumentException(
+            "${label.javaClass.simpleName} is not supported by the monolithic encoding, procedures have to be inlined")
+    }
+
+    private fun encodeMutexOp(thread: EncodedThread, op: MutexOp): Stmt {
+        val mutexVar = mutexVars[op.mutex]!!
+        val owner = Int(if (op.byProcess) thread.idx else NO_PROCESS)
+        return if (op.acquire) {
+            SequenceStmt.of(listOf(
+                Assume(Or(Eq(mutexVar.ref, Int(FREE)), Eq(mutexVar.ref, owner))),
+                Assign(mutexVar, owner)))
+        } else {
+            Assign(mutexVar, Ite(Eq(mutexVar.ref, owner), Int(FREE), mutexVar.ref))
+        }
+    }
+
+    private fun encodeStart(thread: EncodedThread, child: EncodedThread, label: StartLabel): Stmt {
+        val stmts = mutableListOf<Stmt>(
+            Assume(child.pc.isAt(child.notStarted)),
+            *child.pc.move(child.notStarted, child.locIds[child.procedure.initLoc]!!).toTypedArray(),
+            Assign(handleVar(label.pidVar.changeVars(thread.lookup)), Int(child.idx)))
+        child.procedure.params.zip(label.params).filter { it.first.second != ParamDirection.OUT }.forEach {
+            val param = it.first.first.changeVars(child.lookup)
+            stmts.add(Assign(cast(param, param.type), cast(it.second.changeVars(thread.lookup), param.type)))
+        }
+        return SequenceStmt.of(stmts)
+    }
+
+    private fun encodeJoin(pidVar: VarDecl<*>): Stmt {
+        val handle = handleVar(pidVar)
+        val candidates = threads.flatMap { thread ->
+            thread.children.filter { it.key.pidVar.changeVars(thread.lookup) == pidVar }.values
+        }
+        // the joined thread has to be at its final location (a thread without one never terminates)
+        return Assume(And(candidates.map { child ->
+            val finished = child.procedure.finalLoc.map { child.isAt(it) }.orElse(False())
+            Or(Neq(handle.ref, Int(child.idx)), finished)
+        } + True()))
+    }
+
+    private fun handleVar(pidVar: VarDecl<*>): VarDecl<IntType> =
+        handleVars.getOrPut(pidVar) { Var("__thread_${pidVar.name}", Int()) }
+
+    fun valToAction(val1: Valuation, val2: Valuation): XcfaAction {
+        val thread = threads[schedVar?.let { checkNotNull(val2.byName().intValue(it.name)) } ?: 0]
+        val source = thread.pc.valueOf(val1)
+        val target = thread.pc.valueOf(val2)
+        return XcfaAction(
+            pid = thread.idx,
+            edge = thread.edges.first { edge ->
+                thread.locIds[edge.source] == source && thread.locIds[edge.target] == target
+            })
+    }
+
+    fun valToState(val1: Valuation): XcfaState<ExplState> {
+        val values = val1.byName()
+        val processes = LinkedHashMap<Int, XcfaProcessState>()
+        for (thread in threads) {
+            val locId = thread.pc.valueOf(val1) ?: thread.notStarted
+            if (thread.idx != 0 && locId == thread.notStarted) continue
+            processes[thread.idx] = XcfaProcessState(
+                locs = PersistentStack.of(checkNotNull(thread.locs.getOrNull(locId))),
+                varLookup = if (thread.lookup.isEmpty()) PersistentStack.empty() else PersistentStack.of(thread.lookup),
+                prefix = if (thread.idx == 0) "" else "T${thread.idx}",
+            )
+        }
+        val mutexes = processes.keys.associateBy { "$it" }.toMutableMap()
+        mutexVars.forEach { (mutex, mutexVar) ->
+            val owner = values.intValue(mutexVar.name) ?: FREE
+            if (owner != FREE) mutexes[mutex] = if (owner == NO_PROCESS) -1 else owner
+        }
+        val threadLookup = handleVars.mapNotNull { (pidVar, handle) ->
+            values.intValue(handle.name)?.takeIf { it != FREE }?.let { Pair(pidVar, it) }
+        }.toMap()
+        return XcfaState(
+            xcfa = xcfa,
+            processes = processes,
+            ExplState.of(
+                ImmutableValuation.from(
+                    val1.toMap()
+                        .filter { it.key.name !in internalVars && !it.key.name.startsWith("__temp_") }
+                        .map { Pair(Var("_" + "_" + it.key.name, it.key.type), it.value) }.toMap())),
+            mutexes = mutexes,
+            threadLookup = threadLookup,
+            bottom = false
+        )
+    }
+
+    private fun Valuation.byName(): Map<String, LitExpr<*>> = toMap().entries.associate { it.key.name to it.value }
+
+    private fun Map<String, LitExpr<*>>.intValue(name: String): Int? = (get(name) as IntLitExpr?)?.value?.toInt()
+
+    companion object {
+
+        private const val FREE = -1
+        private const val NO_PROCESS = -2
+        private const val ATOMIC = ""
+    }
+}
+
+private fun XcfaLabel.allLabels(): List<XcfaLabel> = when (this) {
+    is SequenceLabel -> labels.flatMap { it.allLabels() }
+    is NondetLabel -> labels.flatMap { it.allLabels() }
+    else -> listOf(this)
+}
+
+private fun XcfaEdge.isLocal(locals: Set<VarDecl<*>>): Boolean = getFlatLabels().all {
+    it is NopLabel || it is StmtLabel && locals.containsAll(StmtUtils.getVars(it.stmt))
+}
+
+private fun XcfaLocation.reaches(target: XcfaLocation): Boolean {
+    val visited = HashSet<XcfaLocation>()
+    val waitlist = ArrayDeque(listOf(this))
+    while (waitlist.isNotEmpty()) {
+        val loc = waitlist.removeFirst()
+        if (loc == target) return true
+        if (visited.add(loc)) loc.outgoingEdges.forEach { waitlist.add(it.target) }
+    }
+    return false
+}
@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package hu.bme.mit.theta.xcfa.cli
+
+import hu.bme.mit.theta.analysis.algorithm.bounded.LocationEncodingType
+import hu.bme.mit.theta.core.decl.Decls.Var
+import hu.bme.mit.theta.core.model.ImmutableValuation
+import hu.bme.mit.theta.core.model.Valuation
+import hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool
+import hu.bme.mit.theta.core.type.inttype.IntExprs.Int
+import hu.bme.mit.theta.core.utils.ExprUtils
+import hu.bme.mit.theta.xcfa.cli.utils.XcfaMonolithicEncoding
+import hu.bme.mit.theta.xcfa.getFlatLabels
+import hu.bme.mit.theta.xcfa.model.*
+import hu.bme.mit.theta.xcfa.model.ParamDirection.IN
+import hu.bme.mit.theta.xcfa.model.ParamDirection.OUT
+import org.junit.Assert.*
+import org.junit.Test
+
+class XcfaMonolithicEncodingTest {
+
+    private fun getAsyncXcfa() = xcfa("example") {
+        global { "x" type Int() init "0" }
+        val proc1 = procedure("proc1") {
+            val a = "a" type Int() direction IN
+            val b = "b" type Int() direction OUT
+            val tmp = "tmp" type Int()
+
+            (init to "L1") {
+                tmp assign a.ref
+            }
+            ("L1" to final) {
+                fence("mutex_lock(m)")
+                "x" assign tmp.ref
+                fence("mutex_unlock(m)")
+            }
+        }
+        val main = procedure("main") {
+            val thr1 = "thr1" type Int()
+            (init to "L1") {
+                thr1.start(proc1, "0", "1")
+            }
+            ("L1" to final) {
+                thr1.join()
+                assume("(= x 1)")
+            }
+            ("L1" to err) {
+                thr1.join()
+                assume("(/= x 1)")
+            }
+        }
+
+        main.start()
+    }
+
+    private fun XCFA.proc(name: String) = procedures.first { it.name == name }
+
+    private fun XcfaProcedure.locId(name: String) = locs.indexOfFirst { it.name == name }
+
+    private fun valuation(vararg values: Pair<String, Int>): Valuation {
+        val builder = ImmutableValuation.builder()
+        values.forEach { builder.put(Var(it.first, Int()), Int(it.second)) }
+        return builder.build()
+    }
+
+    private fun oneHot(name: String, size: Int, loc: Int): Valuation {
+        val builder = ImmutableValuation.builder()
+        (0 until size).forEach { builder.put(Var("${name}_$it", Bool()), Bool(it == loc)) }
+        return builder.build()
+    }
+
+    private operator fun Valuation.plus(other: Valuation): Valuation = ImmutableValuation.from(toMap() + other.toMap())
+
+    @Test
+    fun encodeThreads() {
+        val encoding = XcfaMonolithicEncoding(getAsyncXcfa())
+        val vars = ExprUtils.getVars(encoding.monolithicExpr.transExpr).map { it.name }.toSet()
+        assertTrue(vars.containsAll(listOf("__loc_", "__loc_T1", "__sched_", "__mutex_m", "__thread_thr1")))
+        assertTrue(vars.contains("T1::_::tmp"))
+        assertFalse(vars.contains("tmp"))
+    }
+
+    @Test
+    fun decodeTrace() {
+        val xcfa = getAsyncXcfa()
+        val encoding = XcfaMonolithicEncoding(xcfa)
+        val main = xcfa.proc("main")
+        val proc1 = xcfa.proc("proc1")
+
+        val before = valuation("__loc_" to main.locs.indexOf(main.initLoc), "__loc_T1" to proc1.locs.size,
+            "__mutex_m" to -1)
+        val started = valuation("__loc_" to main.locId("L1"), "__loc_T1" to proc1.locs.indexOf(proc1.initLoc),
+            "__sched_" to 0, "__thread_thr1" to 1, "__mutex_m" to -1)
+        val stepped = valuation("__loc_" to main.locId("L1"), "__loc_T1" to proc1.locId("L1"),
+            "__sched_" to 1, "__thread_thr1" to 1, "__mutex_m" to -1)
+
+        assertEquals(setOf(0), encoding.valToState(before).processes.keys)
+        val state = encoding.valToState(started)
+        assertEquals(setOf(0, 1), state.processes.keys)
+        assertEquals(proc1.initLoc, state.processes[1]!!.locs.peek())
+        assertEquals(1, state.threadLookup.values.single())
+
+        val start = encoding.valToAction(before, started)
+        assertEquals(0, start.pid)
+        assertTrue(start.edge.getFlatLabels().any { it is StartLabel })
+        val step = encoding.valToAction(started, stepped)
+        assertEquals(1, step.pid)
+        assertEquals(proc1.initLoc, step.source)
+    }
+
+    @Test
+    fun compressLocalSteps() {
+        val xcfa = getAsyncXcfa()
+        val proc1 = xcfa.proc("proc1")
+        val encoding = XcfaMonolithicEncoding(xcfa, stepCompression = true)
+
+        val started = valuation("__loc_" to 0, "__loc_T1" to proc1.locs.indexOf(proc1.initLoc), "__sched_" to 0)
+        val finished = valuation("__loc_" to 0, "__loc_T1" to proc1.locs.indexOf(proc1.finalLoc.get()),
+            "__sched_" to 1)
+        val step = encoding.valToAction(started, finished)
+        assertEquals(proc1.initLoc, step.source)
+        assertEquals(proc1.finalLoc.get(), step.target)
+    }
+
+    @Test
+    fun oneHotLocations() {
+        val xcfa = getAsyncXcfa()
+        val proc1 = xcfa.proc("proc1")
+        val encoding = XcfaMonolithicEncoding(xcfa, mergeBlocks = true, locationEncoding = LocationEncodingType.ONE_HOT)
+        val vars = encoding.monolithicExpr.vars().map { it.name }.toSet()
+        assertTrue(vars.contains("__loc__0"))
+        assertTrue(vars.contains("__loc_T1_${proc1.locs.size}"))
+        assertFalse(vars.contains("__loc_T1"))
+
+        val started = valuation("__sched_" to 0) + oneHot("__loc_T1", proc1.locs.size + 1, proc1.locs.indexOf(proc1.initLoc))
+        val finished = valuation("__sched_" to 1) + oneHot("__loc_T1", proc1.locs.size + 1,
+            proc1.locs.indexOf(proc1.finalLoc.get()))
+        val step = encoding.valToAction(started, finished)
+        assertEquals(proc1.initLoc, step.source)
+        assertEquals(proc1.finalLoc.get(), step.target)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun rejectThreadsInLoops() {
+        XcfaMonolithicEncoding(xcfa("example") {
+            val proc1 = procedure("proc1") {
+                (init to final) { nop() }
+            }
+            val main = procedure("main") {
+                val thr1 = "thr1" type Int()
+                (init to "L1") {
+                    thr1.start(proc1, "0")
+                }
+                ("L1" to init) { nop() }
+                ("L1" to err) { nop() }
+            }
+            main.start()
+        })
+    }
+
+}
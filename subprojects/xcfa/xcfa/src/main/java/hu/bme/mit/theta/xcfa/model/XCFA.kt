@@ -36,6 +36,9 @@ class XCFA(
     var initProcedures: List<Pair<XcfaProcedure, List<Expr<*>>>>      // procedure names and parameter assignments
         private set
 
+    @Volatile
+    private var procedureLookup: Map<String, XcfaProcedure>? = null   // procedures by name, built on first use
+
     init {
         var phase = 0
         do {
@@ -55,9 +58,16 @@ class XCFA(
     fun recreate(procedures: Set<XcfaProcedure>, initProcedures: List<Pair<XcfaProcedure, List<Expr<*>>>>): XCFA {
         this.procedures = procedures
         this.initProcedures = initProcedures
+        this.procedureLookup = null
         return this
     }
 
+    /**
+     * Find a procedure by its name.
+     */
+    fun getProcedure(name: String): XcfaProcedure? =
+        (procedureLookup ?: procedures.associateBy { it.name }.also { procedureLookup = it })[name]
+
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
         if (javaClass != other?.javaClass) return false
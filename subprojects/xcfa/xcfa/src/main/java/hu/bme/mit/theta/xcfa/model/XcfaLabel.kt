@@ -181,11 +181,52 @@ data class WriteLabel constructor(
     }
 }
 
+/**
+ * A mutex operation of a fence label. The mutex is acquired or released on behalf of the executing process if
+ * [byProcess] holds, and on behalf of no process otherwise (used for modelling condition variables).
+ */
+data class MutexOp(val mutex: String, val acquire: Boolean, val byProcess: Boolean) {
+
+    companion object {
+
+        private val mutexLock = Regex("mutex_lock\\((.*)\\)")
+        private val mutexUnlock = Regex("mutex_unlock\\((.*)\\)")
+        private val startCondWait = Regex("start_cond_wait\\((.*)\\)")
+        private val condWait = Regex("cond_wait\\((.*)\\)")
+        private val condSignal = Regex("cond_signal\\((.*)\\)")
+
+        fun decode(label: String): List<MutexOp> {
+            if (label == "ATOMIC_BEGIN") return listOf(MutexOp("", acquire = true, byProcess = true))
+            if (label == "ATOMIC_END") return listOf(MutexOp("", acquire = false, byProcess = true))
+            mutexLock.matchEntire(label)?.let { return listOf(MutexOp(it.groupValues[1], acquire = true, byProcess = true)) }
+            mutexUnlock.matchEntire(label)?.let { return listOf(MutexOp(it.groupValues[1], acquire = false, byProcess = true)) }
+            startCondWait.matchEntire(label)?.let {
+                val args = it.groupValues[1].split(",")
+                return listOf(MutexOp(args[0], acquire = true, byProcess = false),
+                    MutexOp(args[1], acquire = false, byProcess = true))
+            }
+            condWait.matchEntire(label)?.let {
+                val args = it.groupValues[1].split(",")
+                return listOf(MutexOp(args[0], acquire = true, byProcess = true),
+                    MutexOp(args[0], acquire = false, byProcess = true),
+                    MutexOp(args[1], acquire = true, byProcess = true))
+            }
+            condSignal.matchEntire(label)?.let { return listOf(MutexOp(it.groupValues[1], acquire = false, byProcess = false)) }
+            error("Unknown fence label $label")
+        }
+    }
+}
+
 data class FenceLabel(
     val labels: Set<String>,
     override val metadata: MetaData
 ) : XcfaLabel(metadata = metadata) {
 
+    /**
+     * The mutex operations of the fence in execution order, decoded on first use.
+     */
+    val mutexOps: List<MutexOp> by lazy { labels.flatMap { MutexOp.decode(it) } }
+
     override fun toString(): String {
         return "F[${labels.joinToString(";")}]"
     }
@@ -0,0 +1,44 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xcfa.model
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class FenceLabelTest {
+
+    @Test
+    fun decodeMutexOps() {
+        assertEquals(listOf(MutexOp("", acquire = true, byProcess = true)),
+            FenceLabel(setOf("ATOMIC_BEGIN"), EmptyMetaData).mutexOps)
+        assertEquals(listOf(MutexOp("m", acquire = false, byProcess = true)),
+            FenceLabel(setOf("mutex_unlock(m)"), EmptyMetaData).mutexOps)
+        assertEquals(listOf(
+            MutexOp("c", acquire = true, byProcess = false),
+            MutexOp("m", acquire = false, byProcess = true)),
+            FenceLabel(setOf("start_cond_wait(c,m)"), EmptyMetaData).mutexOps)
+        assertEquals(listOf(
+            MutexOp("c", acquire = true, byProcess = true),
+            MutexOp("c", acquire = false, byProcess = true),
+            MutexOp("m", acquire = true, byProcess = true)),
+            FenceLabel(setOf("cond_wait(c,m)"), EmptyMetaData).mutexOps)
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun unknownFence() {
+        FenceLabel(setOf("barrier"), EmptyMetaData).mutexOps
+    }
+}
@@ -20,6 +20,8 @@ import hu.bme.mit.theta.core.type.anytype.RefExpr
 import hu.bme.mit.theta.core.type.inttype.IntExprs.*
 import hu.bme.mit.theta.core.type.inttype.IntType
 import hu.bme.mit.theta.xcfa.model.ParamDirection.*
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
 import org.junit.Test
 
 class XcfaDslTest {
@@ -81,4 +83,11 @@ class XcfaDslTest {
         getXcfa()
     }
 
+    @Test
+    fun getProcedure() {
+        val xcfa = getXcfa()
+        assertEquals("proc1", xcfa.getProcedure("proc1")?.name)
+        assertNull(xcfa.getProcedure("proc2"))
+    }
+
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarChecker;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Refiner;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.CloseableTransFunc;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.expl.ExplAnalysis;
 import hu.bme.mit.theta.analysis.expl.ExplPrec;
@@ -67,6 +68,7 @@ import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.ItpSolver;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.xsts.XSTS;
@@ -181,6 +183,8 @@ public class XstsConfigBuilder {
     private PruneStrategy pruneStrategy = PruneStrategy.LAZY;
     private OptimizeStmts optimizeStmts = OptimizeStmts.ON;
     private AutoExpl autoExpl = AutoExpl.NEWOPERANDS;
+    private int threads = 1;
+    private boolean incrementalRefinement = false;
 
     public XstsConfigBuilder(final Domain domain, final Refinement refinement,
                              final SolverFactory abstractionSolverFactory, final SolverFactory refinementSolverFactory) {
@@ -230,6 +234,38 @@ public class XstsConfigBuilder {
         return this;
     }
 
+    /**
+     * Number of threads checking traces during MULTI_SEQ refinement and, for the explicit and predicate domains,
+     * computing successor states during abstraction (each with its own solver).
+     */
+    public XstsConfigBuilder threads(final int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Keep the common prefix of consecutive counterexamples asserted in the refinement solver
+     * (FW_BIN_ITP, SEQ_ITP and MULTI_SEQ refinement).
+     */
+    public XstsConfigBuilder incrementalRefinement(final boolean incrementalRefinement) {
+        this.incrementalRefinement = incrementalRefinement;
+        return this;
+    }
+
+    private ExprTraceSeqItpChecker createSeqItpChecker(final XSTS xsts, final Expr<BoolType> negProp) {
+        final ItpSolver solver = refinementSolverFactory.createItpSolver();
+        return incrementalRefinement
+                ? ExprTraceSeqItpChecker.createIncremental(xsts.getInitFormula(), negProp, solver)
+                : ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp, solver);
+    }
+
+    private ExprTraceFwBinItpChecker createFwBinItpChecker(final XSTS xsts, final Expr<BoolType> negProp) {
+        final ItpSolver solver = refinementSolverFactory.createItpSolver();
+        return incrementalRefinement
+                ? ExprTraceFwBinItpChecker.createIncremental(xsts.getInitFormula(), negProp, solver)
+                : ExprTraceFwBinItpChecker.create(xsts.getInitFormula(), negProp, solver);
+    }
+
     public XstsConfig<? extends State, ? extends Action, ? extends Prec> build(final XSTS xsts) {
         final Solver abstractionSolver = abstractionSolverFactory.createSolver();
         final Expr<BoolType> negProp = Not(xsts.getProp());
@@ -255,6 +291,12 @@ public class XstsConfigBuilder {
                     .waitlist(PriorityWaitlist.create(search.comparator))
                     .stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
                             : StopCriterions.firstCex())
+                    .parallel(threads, () -> {
+                        final Solver solver = abstractionSolverFactory.createSolver();
+                        return CloseableTransFunc.create(XstsAnalysis.<ExplState, ExplPrec>create(
+                                ExplStmtAnalysis.create(solver, xsts.getInitFormula(), maxEnum)).getTransFunc(),
+                                solver);
+                    })
                     .logger(logger).build();
 
             Refiner<XstsState<ExplState>, XstsAction, ExplPrec> refiner = null;
@@ -262,8 +304,7 @@ public class XstsConfigBuilder {
             switch (refinement) {
                 case FW_BIN_ITP:
                     refiner = SingleExprTraceRefiner.create(
-                            ExprTraceFwBinItpChecker.create(xsts.getInitFormula(), negProp,
-                                    refinementSolverFactory.createItpSolver()),
+                            createFwBinItpChecker(xsts, negProp),
                             JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, logger);
                     break;
                 case BW_BIN_ITP:
@@ -274,14 +315,13 @@ public class XstsConfigBuilder {
                     break;
                 case SEQ_ITP:
                     refiner = SingleExprTraceRefiner.create(
-                            ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp,
-                                    refinementSolverFactory.createItpSolver()),
+                            createSeqItpChecker(xsts, negProp),
                             JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, logger);
                     break;
                 case MULTI_SEQ:
                     refiner = MultiExprTraceRefiner.create(
-                            ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp,
-                                    refinementSolverFactory.createItpSolver()),
+                            createSeqItpChecker(xsts, negProp),
+                            () -> createSeqItpChecker(xsts, negProp), threads,
                             JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, logger);
                     break;
                 case UNSAT_CORE:
@@ -303,20 +343,7 @@ public class XstsConfigBuilder {
 
         } else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART
                 || domain == Domain.PRED_SPLIT) {
-            PredAbstractors.PredAbstractor predAbstractor = null;
-            switch (domain) {
-                case PRED_BOOL:
-                    predAbstractor = PredAbstractors.booleanAbstractor(abstractionSolver);
-                    break;
-                case PRED_SPLIT:
-                    predAbstractor = PredAbstractors.booleanSplitAbstractor(abstractionSolver);
-                    break;
-                case PRED_CART:
-                    predAbstractor = PredAbstractors.cartesianAbstractor(abstractionSolver);
-                    break;
-                default:
-                    throw new UnsupportedOperationException(domain + " domain is not supported.");
-            }
+            final PredAbstractors.PredAbstractor predAbstractor = createPredAbstractor(abstractionSolver);
 
             final LTS<XstsState<PredState>, XstsAction> lts;
             if (optimizeStmts == OptimizeStmts.ON) {
@@ -339,25 +366,28 @@ public class XstsConfigBuilder {
                     .waitlist(PriorityWaitlist.create(search.comparator))
                     .stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
                             : StopCriterions.firstCex())
+                    .parallel(threads, () -> {
+                        final Solver solver = abstractionSolverFactory.createSolver();
+                        return CloseableTransFunc.create(XstsAnalysis.<PredState, PredPrec>create(
+                                PredAnalysis.create(solver, createPredAbstractor(solver), xsts.getInitFormula()))
+                                .getTransFunc(), solver);
+                    })
                     .logger(logger).build();
 
             ExprTraceChecker<ItpRefutation> exprTraceChecker = null;
             switch (refinement) {
                 case FW_BIN_ITP:
-                    exprTraceChecker = ExprTraceFwBinItpChecker.create(xsts.getInitFormula(),
-                            negProp, refinementSolverFactory.createItpSolver());
+                    exprTraceChecker = createFwBinItpChecker(xsts, negProp);
                     break;
                 case BW_BIN_ITP:
                     exprTraceChecker = ExprTraceBwBinItpChecker.create(xsts.getInitFormula(),
                             negProp, refinementSolverFactory.createItpSolver());
                     break;
                 case SEQ_ITP:
-                    exprTraceChecker = ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp,
-                            refinementSolverFactory.createItpSolver());
+                    exprTraceChecker = createSeqItpChecker(xsts, negProp);
                     break;
                 case MULTI_SEQ:
-                    exprTraceChecker = ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp,
-                            refinementSolverFactory.createItpSolver());
+                    exprTraceChecker = createSeqItpChecker(xsts, negProp);
                     break;
                 default:
                     throw new UnsupportedOperationException(
@@ -366,6 +396,7 @@ public class XstsConfigBuilder {
             Refiner<XstsState<PredState>, XstsAction, PredPrec> refiner;
             if (refinement == Refinement.MULTI_SEQ) {
                 refiner = MultiExprTraceRefiner.create(exprTraceChecker,
+                        () -> createSeqItpChecker(xsts, negProp), threads,
                         JoiningPrecRefiner.create(new ItpRefToPredPrec(predSplit.splitter)),
                         pruneStrategy, logger);
             } else {
@@ -450,8 +481,7 @@ public class XstsConfigBuilder {
             switch (refinement) {
                 case FW_BIN_ITP:
                     refiner = SingleExprTraceRefiner.create(
-                            ExprTraceFwBinItpChecker.create(xsts.getInitFormula(), negProp,
-                                    refinementSolverFactory.createItpSolver()),
+                            createFwBinItpChecker(xsts, negProp),
                             JoiningPrecRefiner.create(precRefiner), pruneStrategy, logger);
                     break;
                 case BW_BIN_ITP:
@@ -462,14 +492,13 @@ public class XstsConfigBuilder {
                     break;
                 case SEQ_ITP:
                     refiner = SingleExprTraceRefiner.create(
-                            ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp,
-                                    refinementSolverFactory.createItpSolver()),
+                            createSeqItpChecker(xsts, negProp),
                             JoiningPrecRefiner.create(precRefiner), pruneStrategy, logger);
                     break;
                 case MULTI_SEQ:
                     refiner = MultiExprTraceRefiner.create(
-                            ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp,
-                                    refinementSolverFactory.createItpSolver()),
+                            createSeqItpChecker(xsts, negProp),
+                            () -> createSeqItpChecker(xsts, negProp), threads,
                             JoiningPrecRefiner.create(precRefiner), pruneStrategy, logger);
                     break;
                 default:
@@ -488,4 +517,17 @@ public class XstsConfigBuilder {
     }
 
 
+    private PredAbstractors.PredAbstractor createPredAbstractor(final Solver solver) {
+        switch (domain) {
+            case PRED_BOOL:
+                return PredAbstractors.booleanAbstractor(solver);
+            case PRED_SPLIT:
+                return PredAbstractors.booleanSplitAbstractor(solver);
+            case PRED_CART:
+                return PredAbstractors.cartesianAbstractor(solver);
+            default:
+                throw new UnsupportedOperationException(domain + " domain is not supported.");
+        }
+    }
+
 }
\ No newline at end of file
@@ -30,12 +30,16 @@ import hu.bme.mit.theta.common.OsHelper;
 import hu.bme.mit.theta.common.logging.ConsoleLogger;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.common.metrics.MetricRegistry;
 import hu.bme.mit.theta.common.table.BasicTableWriter;
 import hu.bme.mit.theta.common.table.TableWriter;
 import hu.bme.mit.theta.common.visualization.Graph;
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter;
 import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.solver.SolverManager;
+import hu.bme.mit.theta.solver.cache.CachingSolverFactory;
+import hu.bme.mit.theta.solver.cache.SolverCache;
+import hu.bme.mit.theta.solver.metrics.MetricsSolverFactory;
 import hu.bme.mit.theta.solver.smtlib.SmtLibSolverManager;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 import hu.bme.mit.theta.solver.z3.Z3SolverManager;
@@ -74,8 +78,10 @@ import java.util.stream.Stream;
 public class XstsCli {
 
     private static final String JAR_NAME = "theta-xsts-cli.jar";
+    private static final int SOLVER_CACHE_CAPACITY = 100_000;
     private final String[] args;
     private final TableWriter writer;
+    private SolverCache cache = null;
 
     @Parameter(names = {"--algorithm"}, description = "Algorithm")
     Algorithm algorithm = Algorithm.CEGAR;
@@ -113,9 +119,21 @@ public class XstsCli {
     @Parameter(names = "--prunestrategy", description = "Strategy for pruning the ARG after refinement")
     PruneStrategy pruneStrategy = PruneStrategy.LAZY;
 
+    @Parameter(names = "--threads", description = "Number of threads for computing successor states in the abstraction and for checking traces in MULTI_SEQ refinement")
+    Integer threads = 1;
+
+    @Parameter(names = "--incremental-refinement", description = "Keep the common prefix of consecutive counterexamples asserted in the refinement solver (FW_BIN_ITP, SEQ_ITP and MULTI_SEQ)")
+    boolean incrementalRefinement = false;
+
     @Parameter(names = "--optimizestmts", description = "Turn statement optimization on or off")
     OptimizeStmts optimizeStmts = OptimizeStmts.ON;
 
+    @Parameter(names = "--runtime-metrics", description = "Write runtime metrics (counters, timers and histograms of the algorithm and the solvers) as JSON to this file")
+    String runtimeMetrics = null;
+
+    @Parameter(names = "--solver-cache", description = "Answer repeated satisfiability checks of the abstraction and refinement solvers from a cache persisted in this file")
+    String solverCache = null;
+
     @Parameter(names = {"--loglevel"}, description = "Detailedness of logging")
     Logger.Level logLevel = Logger.Level.SUBSTEP;
 
@@ -194,21 +212,32 @@ public class XstsCli {
                 return;
             }
 
-            final SafetyResult<?, ?> status;
-            if (algorithm.equals(Algorithm.CEGAR)) {
-                final XstsConfig<?, ?, ?> configuration = buildConfiguration(xsts);
-                status = check(configuration);
-                sw.stop();
-            } else {
-                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
-            }
+            try {
+                final SafetyResult<?, ?> status;
+                if (algorithm.equals(Algorithm.CEGAR)) {
+                    final XstsConfig<?, ?, ?> configuration = buildConfiguration(xsts);
+                    status = check(configuration);
+                    sw.stop();
+                } else {
+                    throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+                }
 
-            printResult(status, xsts, sw.elapsed(TimeUnit.MILLISECONDS));
-            if (status.isUnsafe() && cexfile != null) {
-                writeCex(status.asUnsafe(), xsts);
-            }
-            if (dotfile != null) {
-                writeVisualStatus(status, dotfile);
+                printResult(status, xsts, sw.elapsed(TimeUnit.MILLISECONDS));
+                if (status.isUnsafe() && cexfile != null) {
+                    writeCex(status.asUnsafe(), xsts);
+                }
+                if (dotfile != null) {
+                    writeVisualStatus(status, dotfile);
+                }
+            } finally {
+                // Persist the cached results and the metrics of failed runs too
+                if (cache != null) {
+                    cache.close();
+                    logger.write(Logger.Level.RESULT, "%s%n", cache);
+                }
+                if (runtimeMetrics != null) {
+                    MetricRegistry.getInstance().writeJson(new File(runtimeMetrics));
+                }
             }
         } catch (final Throwable ex) {
             printError(ex);
@@ -265,11 +294,22 @@ public class XstsCli {
         registerAllSolverManagers(solverHome, logger);
         SolverFactory abstractionSolverFactory = SolverManager.resolveSolverFactory(abstractionSolver);
         SolverFactory refinementSolverFactory = SolverManager.resolveSolverFactory(refinementSolver);
+        if (runtimeMetrics != null) {
+            MetricRegistry.getInstance().setEnabled(true);
+            abstractionSolverFactory = MetricsSolverFactory.create(abstractionSolverFactory);
+            refinementSolverFactory = MetricsSolverFactory.create(refinementSolverFactory);
+        }
+        if (solverCache != null) {
+            cache = SolverCache.create(SOLVER_CACHE_CAPACITY, Path.of(solverCache));
+            abstractionSolverFactory = CachingSolverFactory.create(abstractionSolverFactory, cache);
+            refinementSolverFactory = CachingSolverFactory.create(refinementSolverFactory, cache);
+        }
 
         try {
             return new XstsConfigBuilder(domain, refinement, abstractionSolverFactory, refinementSolverFactory)
                     .maxEnum(maxEnum).autoExpl(autoExpl).initPrec(initPrec).pruneStrategy(pruneStrategy)
-                    .search(search).predSplit(predSplit).optimizeStmts(optimizeStmts).logger(logger).build(xsts);
+                    .search(search).predSplit(predSplit).optimizeStmts(optimizeStmts).threads(threads)
+                    .incrementalRefinement(incrementalRefinement).logger(logger).build(xsts);
         } catch (final Exception ex) {
             throw new Exception("Could not create configuration: " + ex.getMessage(), ex);
         }
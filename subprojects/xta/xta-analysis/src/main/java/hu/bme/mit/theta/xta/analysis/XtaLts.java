@@ -16,9 +16,7 @@
 package hu.bme.mit.theta.xta.analysis;
 
 import hu.bme.mit.theta.analysis.LTS;
-import hu.bme.mit.theta.xta.Label;
 import hu.bme.mit.theta.xta.Sync;
-import hu.bme.mit.theta.xta.Sync.Kind;
 import hu.bme.mit.theta.xta.XtaProcess.Edge;
 import hu.bme.mit.theta.xta.XtaProcess.Loc;
 import hu.bme.mit.theta.xta.XtaSystem;
@@ -37,9 +35,11 @@ import static java.util.stream.Collectors.toList;
 public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 
     private final XtaSystem system;
+    private final XtaSyncTable syncTable;
 
     private XtaLts(final XtaSystem system) {
         this.system = checkNotNull(system);
+        this.syncTable = XtaSyncTable.create(system);
     }
 
     public static XtaLts create(final XtaSystem system) {
@@ -50,23 +50,23 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
     public Collection<XtaAction> getEnabledActionsFor(final XtaState<?> state) {
         final Collection<XtaAction> result = new ArrayList<>();
         for (final Loc loc : state.getLocs()) {
-            for (final Edge edge : loc.getOutEdges()) {
-                addActionsForEdge(result, system, state, edge);
+            for (final Edge edge : syncTable.getActiveEdges(loc)) {
+                addActionsForEdge(result, system, syncTable, state, edge);
             }
         }
         return result;
     }
 
     private static void addActionsForEdge(final Collection<XtaAction> result,
-                                          final XtaSystem system,
+                                          final XtaSystem system, final XtaSyncTable syncTable,
                                           final XtaState<?> state, final Edge edge) {
         if (edge.getSync().isPresent()) {
             final Sync sync = edge.getSync().get();
             if (sync.getKind() == EMIT) {
                 if (sync.getLabel().isBroadcast()) {
-                    addBroadcastActionsForEdge(result, system, state, edge, sync);
+                    addBroadcastActionsForEdge(result, system, syncTable, state, edge, sync);
                 } else {
-                    addBinaryActionsForEdge(result, system, state, edge, sync);
+                    addBinaryActionsForEdge(result, system, syncTable, state, edge, sync);
                 }
             }
         } else {
@@ -75,7 +75,7 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
     }
 
     private static void addBroadcastActionsForEdge(final Collection<XtaAction> result,
-                                                   final XtaSystem system,
+                                                   final XtaSystem system, final XtaSyncTable syncTable,
                                                    final XtaState<?> state, final Edge emitEdge, final Sync emitSync) {
         assert emitEdge.getSync().isPresent();
         assert emitEdge.getSync().get().equals(emitSync);
@@ -84,7 +84,7 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 
         final Collection<List<Edge>> initialRecvEdgeColls = new ArrayList<>();
         initialRecvEdgeColls.add(new ArrayList<>());
-        Collection<List<Edge>> recvEdgeColls = recvEdgesForEmitEdge(emitEdge, emitSync,
+        Collection<List<Edge>> recvEdgeColls = recvEdgesForEmitEdge(syncTable, emitEdge, emitSync,
                 state.getLocs(), initialRecvEdgeColls);
 
         // filter out all non well-formed actions if the state is committed
@@ -100,7 +100,8 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
         }
     }
 
-    private static Collection<List<Edge>> recvEdgesForEmitEdge(final Edge emitEdge,
+    private static Collection<List<Edge>> recvEdgesForEmitEdge(final XtaSyncTable syncTable,
+                                                               final Edge emitEdge,
                                                                final Sync emitSync,
                                                                final List<Loc> remainingLocs,
                                                                final Collection<List<Edge>> accumulator) {
@@ -127,14 +128,13 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
 
                 for (List<Edge> recvEdges : accumulator) {
                     // add all receiving edges to the result set
-                    for (Edge recvEdge : recvLoc.getOutEdges()) {
-                        if (recvEdge.getSync().isPresent()) {
-                            final Sync recvSync = recvEdge.getSync().get();
-                            if (recvSync.mayReceive(emitSync)) {
-                                final List<Edge> newRecvEdges = new ArrayList<>(recvEdges);
-                                newRecvEdges.add(recvEdge);
-                                newAccumulator.add(newRecvEdges);
-                            }
+                    for (Edge recvEdge : syncTable.getRecvEdges(recvLoc, emitSync)) {
+                        final Sync recvSync = recvEdge.getSync().get();
+                        assert recvSync.mayReceive(emitSync);
+                        if (XtaSyncTable.mayMatch(emitSync, recvSync)) {
+                            final List<Edge> newRecvEdges = new ArrayList<>(recvEdges);
+                            newRecvEdges.add(recvEdge);
+                            newAccumulator.add(newRecvEdges);
                         }
                     }
 
@@ -143,13 +143,14 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
                 }
             }
 
-            return recvEdgesForEmitEdge(emitEdge, emitSync, newRemainingLocs, newAccumulator);
+            return recvEdgesForEmitEdge(syncTable, emitEdge, emitSync, newRemainingLocs,
+                    newAccumulator);
         }
     }
 
 
     private static void addBinaryActionsForEdge(final Collection<XtaAction> result,
-                                                final XtaSystem system,
+                                                final XtaSystem system, final XtaSyncTable syncTable,
                                                 final XtaState<?> state, final Edge emitEdge, final Sync emitSync) {
         assert emitEdge.getSync().isPresent();
         assert emitEdge.getSync().get().equals(emitSync);
@@ -157,7 +158,6 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
         assert !emitSync.getLabel().isBroadcast();
 
         final Loc emitLoc = emitEdge.getSource();
-        final Label emitLabel = emitSync.getLabel();
 
         for (final Loc recvLoc : state.getLocs()) {
             if (recvLoc == emitLoc) {
@@ -169,19 +169,8 @@ public final class XtaLts implements LTS<XtaState<?>, XtaAction> {
                 continue;
             }
 
-            for (final Edge recvEdge : recvLoc.getOutEdges()) {
-                if (!recvEdge.getSync().isPresent()) {
-                    continue;
-                }
-
-                final Sync recvSync = recvEdge.getSync().get();
-                if (recvSync.getKind() != Kind.RECV) {
-                    continue;
-                }
-
-                final Label recvLabel = recvSync.getLabel();
-
-                if (emitLabel.equals(recvLabel)) {
+            for (final Edge recvEdge : syncTable.getRecvEdges(recvLoc, emitSync)) {
+                if (XtaSyncTable.mayMatch(emitSync, recvEdge.getSync().get())) {
                     final XtaAction action = XtaAction.binary(system, state.getLocs(), emitEdge,
                             recvEdge);
                     result.add(action);
@@ -0,0 +1,129 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.xta.Label;
+import hu.bme.mit.theta.xta.Sync;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.Edge;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.xta.Sync.Kind.EMIT;
+import static hu.bme.mit.theta.xta.Sync.Kind.RECV;
+
+/**
+ * Precomputed index of the edges of an {@link XtaSystem}, so that the synchronization partners of
+ * an emitting edge can be enumerated without scanning every outgoing edge of the other locations.
+ * For each location it stores the edges that can initiate a transition (edges without
+ * synchronization and emitting edges) and the receiving edges grouped by channel, both in the
+ * original order of the outgoing edges.
+ * <p>
+ * The table can be queried from several threads. It assumes that the edges of a location no
+ * longer change once the location has been looked up.
+ */
+final class XtaSyncTable {
+
+    private final Map<Loc, LocEntry> entries;
+
+    private XtaSyncTable(final XtaSystem system) {
+        checkNotNull(system);
+        entries = new ConcurrentHashMap<>();
+        for (final XtaProcess process : system.getProcesses()) {
+            for (final Loc loc : process.getLocs()) {
+                entries.put(loc, new LocEntry(loc));
+            }
+        }
+    }
+
+    static XtaSyncTable create(final XtaSystem system) {
+        return new XtaSyncTable(system);
+    }
+
+    /**
+     * Outgoing edges of the location that either have no synchronization or emit on a channel.
+     */
+    List<Edge> getActiveEdges(final Loc loc) {
+        return getEntry(loc).activeEdges;
+    }
+
+    /**
+     * Outgoing edges of the location that receive on the channel of the given emitting
+     * synchronization.
+     */
+    List<Edge> getRecvEdges(final Loc loc, final Sync emitSync) {
+        checkArgument(emitSync.getKind() == EMIT);
+        return getEntry(loc).recvEdges.getOrDefault(emitSync.getLabel(), Collections.emptyList());
+    }
+
+    /**
+     * Returns false if the two synchronizations can never match because they refer to different
+     * elements of a channel array with statically known indices.
+     */
+    static boolean mayMatch(final Sync emitSync, final Sync recvSync) {
+        final List<Expr<?>> emitArgs = emitSync.getArgs();
+        final List<Expr<?>> recvArgs = recvSync.getArgs();
+        for (int i = 0; i < emitArgs.size(); i++) {
+            final Expr<?> emitArg = emitArgs.get(i);
+            final Expr<?> recvArg = recvArgs.get(i);
+            if (emitArg instanceof LitExpr && recvArg instanceof LitExpr && !emitArg.equals(recvArg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private LocEntry getEntry(final Loc loc) {
+        final LocEntry entry = entries.get(loc);
+        if (entry != null) {
+            return entry;
+        }
+        // Locations added to the system after creating the table are indexed on first use
+        return entries.computeIfAbsent(loc, LocEntry::new);
+    }
+
+    private static final class LocEntry {
+        private final List<Edge> activeEdges;
+        private final Map<Label, List<Edge>> recvEdges;
+
+        private LocEntry(final Loc loc) {
+            final List<Edge> active = new ArrayList<>();
+            final Map<Label, List<Edge>> recv = new HashMap<>();
+            for (final Edge edge : loc.getOutEdges()) {
+                if (edge.getSync().isPresent() && edge.getSync().get().getKind() == RECV) {
+                    recv.computeIfAbsent(edge.getSync().get().getLabel(), l -> new ArrayList<>())
+                            .add(edge);
+                } else {
+                    active.add(edge);
+                }
+            }
+            activeEdges = Collections.unmodifiableList(active);
+            recvEdges = recv;
+        }
+    }
+
+}
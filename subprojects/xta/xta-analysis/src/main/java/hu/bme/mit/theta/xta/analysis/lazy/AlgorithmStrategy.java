@@ -16,6 +16,7 @@
 package hu.bme.mit.theta.xta.analysis.lazy;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
 import hu.bme.mit.theta.analysis.Analysis;
@@ -36,6 +37,17 @@ interface AlgorithmStrategy<S1 extends State, S2 extends State> {
     void cover(ArgNode<S1, XtaAction> coveree, ArgNode<S1, XtaAction> coverer,
                Collection<ArgNode<S1, XtaAction>> uncoveredNodes, final Builder stats);
 
+    /**
+     * Returns a subset of the candidates such that the coveree might be covered by the union of
+     * their states, or an empty list if no such subset is found. Strategies for the discrete part
+     * only keep the candidates that might cover the coveree on their own.
+     */
+    List<ArgNode<S1, XtaAction>> mightCoverByUnion(ArgNode<S1, XtaAction> coveree,
+                                                   List<ArgNode<S1, XtaAction>> candidates);
+
+    void coverByUnion(ArgNode<S1, XtaAction> coveree, List<ArgNode<S1, XtaAction>> coverers,
+                      Collection<ArgNode<S1, XtaAction>> uncoveredNodes, final Builder stats);
+
     void block(ArgNode<S1, XtaAction> node, final XtaAction action, final S1 succState,
                Collection<ArgNode<S1, XtaAction>> uncoveredNodes, final Builder stats);
 
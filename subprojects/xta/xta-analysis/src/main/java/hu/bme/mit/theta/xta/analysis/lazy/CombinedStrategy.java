@@ -18,6 +18,7 @@ package hu.bme.mit.theta.xta.analysis.lazy;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
 import hu.bme.mit.theta.analysis.Analysis;
@@ -83,6 +84,26 @@ final class CombinedStrategy<S1 extends State, S2 extends State>
         }
     }
 
+    @Override
+    public List<ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction>> mightCoverByUnion(
+            final ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction> coveree,
+            final List<ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction>> candidates) {
+        return strategy2.mightCoverByUnion(coveree, strategy1.mightCoverByUnion(coveree, candidates));
+    }
+
+    @Override
+    public void coverByUnion(final ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction> coveree,
+                             final List<ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction>> coverers,
+                             final Collection<ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction>> uncoveredNodes,
+                             final Builder stats) {
+        assert coveree.isCovered();
+        strategy1.coverByUnion(coveree, coverers, uncoveredNodes, stats);
+        if (coveree.isCovered()) {
+            assert (!uncoveredNodes.contains(coveree));
+            strategy2.coverByUnion(coveree, coverers, uncoveredNodes, stats);
+        }
+    }
+
     @Override
     public void block(final ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction> node,
                       final XtaAction action,
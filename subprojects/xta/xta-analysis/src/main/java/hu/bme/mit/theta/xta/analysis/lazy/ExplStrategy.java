@@ -18,6 +18,7 @@ package hu.bme.mit.theta.xta.analysis.lazy;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
 import hu.bme.mit.theta.analysis.Analysis;
@@ -65,6 +66,18 @@ final class ExplStrategy<S extends State> implements AlgorithmStrategy<S, ExplSt
                       final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
     }
 
+    @Override
+    public List<ArgNode<S, XtaAction>> mightCoverByUnion(final ArgNode<S, XtaAction> coveree,
+                                                         final List<ArgNode<S, XtaAction>> candidates) {
+        return candidates;
+    }
+
+    @Override
+    public void coverByUnion(final ArgNode<S, XtaAction> coveree,
+                             final List<ArgNode<S, XtaAction>> coverers,
+                             final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
+    }
+
     @Override
     public void block(final ArgNode<S, XtaAction> node, final XtaAction action, final S succState,
                       final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
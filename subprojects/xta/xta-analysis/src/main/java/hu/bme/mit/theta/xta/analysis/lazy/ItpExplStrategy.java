@@ -22,6 +22,7 @@ import static hu.bme.mit.theta.core.type.booltype.SmartBoolExprs.Not;
 import static java.util.stream.Collectors.toList;
 
 import java.util.Collection;
+import java.util.List;
 
 import hu.bme.mit.theta.common.container.Containers;
 
@@ -85,6 +86,24 @@ abstract class ItpExplStrategy<S extends State> implements AlgorithmStrategy<S,
         stats.stopCloseExplRefinement();
     }
 
+    @Override
+    public final List<ArgNode<S, XtaAction>> mightCoverByUnion(final ArgNode<S, XtaAction> coveree,
+                                                               final List<ArgNode<S, XtaAction>> candidates) {
+        return candidates.stream().filter(coverer -> mightCover(coveree, coverer)).collect(toList());
+    }
+
+    @Override
+    public final void coverByUnion(final ArgNode<S, XtaAction> coveree,
+                                   final List<ArgNode<S, XtaAction>> coverers,
+                                   final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
+        stats.startCloseExplRefinement();
+        for (final ArgNode<S, XtaAction> coverer : coverers) {
+            final ItpExplState covererState = lens.get(coverer.getState());
+            blockExpl(coveree, Not(covererState.toExpr()), uncoveredNodes, stats);
+        }
+        stats.stopCloseExplRefinement();
+    }
+
     @Override
     public final void block(final ArgNode<S, XtaAction> node, final XtaAction action,
                             final S succState,
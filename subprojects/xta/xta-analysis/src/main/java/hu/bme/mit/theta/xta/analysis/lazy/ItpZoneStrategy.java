@@ -20,6 +20,7 @@ import static hu.bme.mit.theta.common.Unit.unit;
 import static java.util.stream.Collectors.toList;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
 import hu.bme.mit.theta.analysis.Analysis;
@@ -84,6 +85,29 @@ abstract class ItpZoneStrategy<S extends State> implements AlgorithmStrategy<S,
         stats.stopCloseZoneRefinement();
     }
 
+    @Override
+    public final List<ArgNode<S, XtaAction>> mightCoverByUnion(final ArgNode<S, XtaAction> coveree,
+                                                               final List<ArgNode<S, XtaAction>> candidates) {
+        final ZoneState covereeZone = lens.get(coveree.getState()).getConcrState();
+        return ZoneFederations.findCover(covereeZone, candidates,
+                coverer -> lens.get(coverer.getState()).getAbstrState());
+    }
+
+    @Override
+    public final void coverByUnion(final ArgNode<S, XtaAction> coveree,
+                                   final List<ArgNode<S, XtaAction>> coverers,
+                                   final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
+        stats.startCloseZoneRefinement();
+        // the parts of the abstract state outside the union are disjoint from the concrete state
+        final ZoneState covereeZone = lens.get(coveree.getState()).getAbstrState();
+        final List<ZoneState> covererZones = coverers.stream()
+                .map(coverer -> lens.get(coverer.getState()).getAbstrState()).collect(toList());
+        for (final ZoneState zone : ZoneFederations.difference(covereeZone, covererZones)) {
+            blockZone(coveree, zone, uncoveredNodes, stats);
+        }
+        stats.stopCloseZoneRefinement();
+    }
+
     @Override
     public final void block(final ArgNode<S, XtaAction> node, final XtaAction action,
                             final S succState,
@@ -16,9 +16,13 @@
 package hu.bme.mit.theta.xta.analysis.lazy;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.google.common.collect.Lists;
 
@@ -36,26 +40,44 @@ import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.XtaLts;
 import hu.bme.mit.theta.xta.analysis.XtaState;
 
+/**
+ * Lazy abstraction based reachability checker for timed automata.
+ * <p>
+ * With federation enabled, a node that is not covered by a single node is covered by the union of
+ * several nodes of the same partition, if possible. Such nodes are covered by all nodes of the
+ * union (see {@link ArgNode#setCoveringNodes(List)}), so refining any of them lets the strategy
+ * reconsider the coverage. These coverages are also revised whenever the waitlist becomes empty:
+ * nodes with a coverer refined since are put back to the waitlist.
+ */
 final class LazyXtaChecker<S extends State> implements
         SafetyChecker<XtaState<S>, XtaAction, UnitPrec> {
 
     private final XtaLts lts;
     private final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy;
     private final SearchStrategy searchStrategy;
+    private final boolean federation;
 
     private LazyXtaChecker(final XtaSystem system,
                            final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
-                           final SearchStrategy searchStrategy) {
+                           final SearchStrategy searchStrategy, final boolean federation) {
         checkNotNull(system);
         lts = XtaLts.create(system);
         this.algorithmStrategy = checkNotNull(algorithmStrategy);
         this.searchStrategy = checkNotNull(searchStrategy);
+        this.federation = federation;
     }
 
     public static <S extends State> LazyXtaChecker<S> create(final XtaSystem system,
                                                              final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
                                                              final SearchStrategy searchStrategy) {
-        return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy);
+        return create(system, algorithmStrategy, searchStrategy, false);
+    }
+
+    public static <S extends State> LazyXtaChecker<S> create(final XtaSystem system,
+                                                             final AlgorithmStrategy<XtaState<S>, XtaState<S>> algorithmStrategy,
+                                                             final SearchStrategy searchStrategy,
+                                                             final boolean federation) {
+        return new LazyXtaChecker<>(system, algorithmStrategy, searchStrategy, federation);
     }
 
     @Override
@@ -69,12 +91,14 @@ final class LazyXtaChecker<S extends State> implements
         final LazyXtaStatistics.Builder stats;
         final Partition<ArgNode<XtaState<S>, XtaAction>, ?> passed;
         final Waitlist<ArgNode<XtaState<S>, XtaAction>> waiting;
+        final Map<ArgNode<XtaState<S>, XtaAction>, Federation<S>> federations;
 
         public CheckMethod() {
             arg = ARG.create(algorithmStrategy.getAnalysis().getPartialOrd());
             stats = LazyXtaStatistics.builder(arg);
             passed = Partition.of(n -> algorithmStrategy.getProjection().apply(n.getState()));
             waiting = searchStrategy.createWaitlist();
+            federations = new HashMap<>();
         }
 
         public SafetyResult<XtaState<S>, XtaAction> run() {
@@ -86,10 +110,18 @@ final class LazyXtaChecker<S extends State> implements
                 final ArgNode<XtaState<S>, XtaAction> v = waiting.remove();
                 assert v.isFeasible();
 
+                if (federations.remove(v) != null) {
+                    stats.revokeFederation();
+                }
+
                 close(v);
                 if (!v.isCovered()) {
                     expand(v);
                 }
+
+                if (waiting.isEmpty()) {
+                    reviseFederations();
+                }
             }
 
             stats.stopAlgorithm();
@@ -108,7 +140,7 @@ final class LazyXtaChecker<S extends State> implements
         private void close(final ArgNode<XtaState<S>, XtaAction> coveree) {
             stats.startClosing();
 
-            final Iterable<ArgNode<XtaState<S>, XtaAction>> candidates = Lists.reverse(
+            final List<ArgNode<XtaState<S>, XtaAction>> candidates = Lists.reverse(
                     passed.get(coveree));
             for (final ArgNode<XtaState<S>, XtaAction> coverer : candidates) {
 
@@ -131,9 +163,41 @@ final class LazyXtaChecker<S extends State> implements
                 }
             }
 
+            if (federation && candidates.size() > 1) {
+                closeByUnion(coveree, candidates);
+            }
+
             stats.stopClosing();
         }
 
+        private void closeByUnion(final ArgNode<XtaState<S>, XtaAction> coveree,
+                                  final List<ArgNode<XtaState<S>, XtaAction>> candidates) {
+            stats.checkFederation();
+            final List<ArgNode<XtaState<S>, XtaAction>> coverers = algorithmStrategy.mightCoverByUnion(
+                    coveree, candidates);
+            if (!coverers.isEmpty()) {
+                coveree.setCoveringNodes(coverers);
+                final Collection<ArgNode<XtaState<S>, XtaAction>> uncoveredNodes = new ArrayList<>();
+                algorithmStrategy.coverByUnion(coveree, coverers, uncoveredNodes, stats);
+
+                waiting.addAll(uncoveredNodes.stream().filter(n -> !n.equals(coveree)));
+
+                if (coveree.isCovered()) {
+                    stats.successfulFederation();
+                    federations.put(coveree, new Federation<>(coverers));
+                }
+            }
+        }
+
+        private void reviseFederations() {
+            federations.forEach((coveree, federation) -> {
+                if (coveree.isCovered() && federation.isRefined()) {
+                    coveree.unsetCoveringNode();
+                    waiting.add(coveree);
+                }
+            });
+        }
+
         private void expand(final ArgNode<XtaState<S>, XtaAction> node) {
             stats.startExpanding();
             final XtaState<S> state = node.getState();
@@ -162,4 +226,23 @@ final class LazyXtaChecker<S extends State> implements
         }
     }
 
+    private static final class Federation<S extends State> {
+        private final List<ArgNode<XtaState<S>, XtaAction>> coverers;
+        private final List<XtaState<S>> states;
+
+        private Federation(final List<ArgNode<XtaState<S>, XtaAction>> coverers) {
+            this.coverers = coverers;
+            states = coverers.stream().map(ArgNode::getState).collect(toList());
+        }
+
+        private boolean isRefined() {
+            for (int i = 0; i < coverers.size(); i++) {
+                if (coverers.get(i).getState() != states.get(i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
 }
@@ -31,11 +31,18 @@ public final class LazyXtaCheckerFactory {
             final XtaSystem system,
             final DataStrategy dataStrategy, final ClockStrategy clockStrategy,
             final SearchStrategy searchStrategy) {
+        return create(system, dataStrategy, clockStrategy, searchStrategy, false);
+    }
+
+    public static SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> create(
+            final XtaSystem system,
+            final DataStrategy dataStrategy, final ClockStrategy clockStrategy,
+            final SearchStrategy searchStrategy, final boolean federation) {
         final CombinedStrategy<?, ?> algorithmStrategy = combineStrategies(system, dataStrategy,
                 clockStrategy);
         final SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> checker = LazyXtaChecker.create(
                 system,
-                algorithmStrategy, searchStrategy);
+                algorithmStrategy, searchStrategy, federation);
         return checker;
     }
 
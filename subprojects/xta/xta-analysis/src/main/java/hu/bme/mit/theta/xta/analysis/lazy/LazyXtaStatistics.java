@@ -37,6 +37,9 @@ public final class LazyXtaStatistics extends Statistics {
     private final long coverageChecks;
     private final long coverageAttempts;
     private final long coverageSuccesses;
+    private final long federationChecks;
+    private final long federationCoverages;
+    private final long federationRevocations;
     private final long explRefinementSteps;
     private final long zoneRefinementSteps;
     private final long argDepth;
@@ -54,6 +57,9 @@ public final class LazyXtaStatistics extends Statistics {
         coverageChecks = builder.coverageChecks;
         coverageAttempts = builder.coverageAttempts;
         coverageSuccesses = builder.coverageSuccesses;
+        federationChecks = builder.federationChecks;
+        federationCoverages = builder.federationCoverages;
+        federationRevocations = builder.federationRevocations;
         explRefinementSteps = builder.explRefinementSteps;
         zoneRefinementSteps = builder.zoneRefinementSteps;
         argDepth = builder.arg.getDepth();
@@ -70,6 +76,9 @@ public final class LazyXtaStatistics extends Statistics {
         addStat("CoverageChecks", this::getCoverageChecks);
         addStat("CoverageAttempts", this::getCoverageAttempts);
         addStat("CoverageSuccesses", this::getCoverageSuccesses);
+        addStat("FederationChecks", this::getFederationChecks);
+        addStat("FederationCoverages", this::getFederationCoverages);
+        addStat("FederationRevocations", this::getFederationRevocations);
         addStat("ExplRefinementSteps", this::getExplRefinementSteps);
         addStat("ZoneRefinementSteps", this::getZoneRefinementSteps);
         addStat("ArgDepth", this::getArgDepth);
@@ -121,6 +130,26 @@ public final class LazyXtaStatistics extends Statistics {
         return coverageSuccesses;
     }
 
+    public long getFederationChecks() {
+        return federationChecks;
+    }
+
+    public long getFederationCoverages() {
+        return federationCoverages;
+    }
+
+    public long getFederationRevocations() {
+        return federationRevocations;
+    }
+
+    /**
+     * Number of expansions avoided by coverage with a union of zones, that is, the number of nodes
+     * covered by a union at the end of the algorithm.
+     */
+    public long getFederationAvoidedExpansions() {
+        return federationCoverages - federationRevocations;
+    }
+
     public long getExplRefinementSteps() {
         return explRefinementSteps;
     }
@@ -152,6 +181,9 @@ public final class LazyXtaStatistics extends Statistics {
         writer.cell("CoverageChecks");
         writer.cell("CoverageAttempts");
         writer.cell("CoverageSuccesses");
+        writer.cell("FederationChecks");
+        writer.cell("FederationCoverages");
+        writer.cell("FederationRevocations");
         writer.cell("ExplRefinementSteps");
         writer.cell("ZoneRefinementSteps");
         writer.cell("ArgDepth");
@@ -171,6 +203,9 @@ public final class LazyXtaStatistics extends Statistics {
         writer.cell(coverageChecks);
         writer.cell(coverageAttempts);
         writer.cell(coverageSuccesses);
+        writer.cell(federationChecks);
+        writer.cell(federationCoverages);
+        writer.cell(federationRevocations);
         writer.cell(explRefinementSteps);
         writer.cell(zoneRefinementSteps);
         writer.cell(argDepth);
@@ -198,6 +233,9 @@ public final class LazyXtaStatistics extends Statistics {
         private long coverageChecks;
         private long coverageAttempts;
         private long coverageSuccesses;
+        private long federationChecks;
+        private long federationCoverages;
+        private long federationRevocations;
         private long explRefinementSteps;
         private long zoneRefinementSteps;
 
@@ -214,6 +252,9 @@ public final class LazyXtaStatistics extends Statistics {
             coverageChecks = 0;
             coverageAttempts = 0;
             coverageSuccesses = 0;
+            federationChecks = 0;
+            federationCoverages = 0;
+            federationRevocations = 0;
             explRefinementSteps = 0;
             zoneRefinementSteps = 0;
         }
@@ -317,6 +358,21 @@ public final class LazyXtaStatistics extends Statistics {
             coverageSuccesses++;
         }
 
+        public void checkFederation() {
+            checkState(state == State.CLOSING);
+            federationChecks++;
+        }
+
+        public void successfulFederation() {
+            checkState(state == State.CLOSING);
+            federationCoverages++;
+        }
+
+        public void revokeFederation() {
+            checkState(state == State.RUNNING);
+            federationRevocations++;
+        }
+
         public void refineExpl() {
             checkState(state == State.EXPAND_EXPL_REFINING || state == State.CLOSE_EXPL_REFINING);
             explRefinementSteps++;
@@ -20,6 +20,7 @@ import static hu.bme.mit.theta.common.Unit.unit;
 import static java.util.stream.Collectors.toList;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
 import hu.bme.mit.theta.analysis.Analysis;
@@ -30,6 +31,7 @@ import hu.bme.mit.theta.analysis.impl.PrecMappingAnalysis;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.zone.BoundFunc;
 import hu.bme.mit.theta.analysis.zone.ZonePrec;
+import hu.bme.mit.theta.analysis.zone.ZoneState;
 import hu.bme.mit.theta.xta.XtaSystem;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
@@ -81,6 +83,28 @@ final class LuZoneStrategy<S extends State> implements AlgorithmStrategy<S, LuZo
         stats.stopCloseZoneRefinement();
     }
 
+    @Override
+    public List<ArgNode<S, XtaAction>> mightCoverByUnion(final ArgNode<S, XtaAction> coveree,
+                                                         final List<ArgNode<S, XtaAction>> candidates) {
+        // inclusion in the union of the exact zones implies LU-subsumption by the union
+        final ZoneState covereeZone = lens.get(coveree.getState()).getZone();
+        return ZoneFederations.findCover(covereeZone, candidates,
+                coverer -> lens.get(coverer.getState()).getZone());
+    }
+
+    @Override
+    public void coverByUnion(final ArgNode<S, XtaAction> coveree,
+                             final List<ArgNode<S, XtaAction>> coverers,
+                             final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
+        stats.startCloseZoneRefinement();
+        BoundFunc boundFunc = BoundFunc.top();
+        for (final ArgNode<S, XtaAction> coverer : coverers) {
+            boundFunc = boundFunc.merge(lens.get(coverer.getState()).getBoundFunc());
+        }
+        propagateBounds(coveree, boundFunc, uncoveredNodes, stats);
+        stats.stopCloseZoneRefinement();
+    }
+
     @Override
     public void block(final ArgNode<S, XtaAction> node, final XtaAction action, final S succState,
                       final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis.lazy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.zone.ZoneState;
+
+/**
+ * Utilities for checking whether a zone is included in the union of other zones. The difference of
+ * zones is represented as a list of (possibly overlapping) zones, computed with the complement and
+ * intersection of DBMs.
+ */
+final class ZoneFederations {
+
+    /**
+     * Upper bound on the number of zones representing the uncovered part of a zone. Checks exceeding
+     * it are abandoned, as the fragments multiply with each intersected zone.
+     */
+    static final int MAX_FRAGMENTS = 16;
+
+    private ZoneFederations() {
+    }
+
+    /**
+     * Returns a subset of the candidates whose zones together include the given zone, or an empty
+     * list if no such subset is found within {@link #MAX_FRAGMENTS}. Candidates whose zone does not
+     * intersect the yet uncovered part are skipped.
+     */
+    static <T> List<T> findCover(final ZoneState zone, final Collection<T> candidates,
+                                 final Function<? super T, ZoneState> zoneOf) {
+        Collection<ZoneState> fragments = ImmutableList.of(zone);
+        final List<T> cover = new ArrayList<>();
+        for (final T candidate : candidates) {
+            final ZoneState candidateZone = zoneOf.apply(candidate);
+            if (fragments.stream().anyMatch(f -> f.isConsistentWith(candidateZone))) {
+                fragments = subtract(fragments, candidateZone);
+                cover.add(candidate);
+                if (fragments.isEmpty()) {
+                    return cover;
+                } else if (fragments.size() > MAX_FRAGMENTS) {
+                    return ImmutableList.of();
+                }
+            }
+        }
+        return ImmutableList.of();
+    }
+
+    /**
+     * Returns zones whose union is the part of the given zone not included in any of the given
+     * zones.
+     */
+    static Collection<ZoneState> difference(final ZoneState zone, final Collection<ZoneState> zones) {
+        Collection<ZoneState> fragments = ImmutableList.of(zone);
+        for (final ZoneState other : zones) {
+            fragments = subtract(fragments, other);
+        }
+        return fragments;
+    }
+
+    private static Collection<ZoneState> subtract(final Collection<ZoneState> fragments,
+                                                  final ZoneState zone) {
+        final Collection<ZoneState> complement = zone.complement();
+        final List<ZoneState> result = new ArrayList<>();
+        for (final ZoneState fragment : fragments) {
+            if (!fragment.isConsistentWith(zone)) {
+                result.add(fragment);
+            } else {
+                for (final ZoneState complementZone : complement) {
+                    final ZoneState intersection = ZoneState.intersection(fragment, complementZone);
+                    if (!intersection.isBottom()) {
+                        result.add(intersection);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+}
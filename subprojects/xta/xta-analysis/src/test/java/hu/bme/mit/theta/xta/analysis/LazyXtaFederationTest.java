@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgChecker;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.DataStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static hu.bme.mit.theta.analysis.algorithm.SearchStrategy.BFS;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class LazyXtaFederationTest {
+
+    private static final String MODEL_UNION = "/union.xta";
+    // The same without diagonal guards, which LU bounds do not support
+    private static final String MODEL_UNION_LU = "/union-lu.xta";
+
+    private SafetyResult<? extends XtaState<?>, XtaAction> run(final String model,
+                                                               final ClockStrategy clockStrategy,
+                                                               final boolean federation)
+            throws IOException {
+        final InputStream inputStream = getClass().getResourceAsStream(model);
+        final XtaSystem system = XtaDslManager.createSystem(inputStream);
+        final SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> checker = LazyXtaCheckerFactory.create(
+                system, DataStrategy.NONE, clockStrategy, BFS, federation);
+        return checker.check(UnitPrec.getInstance());
+    }
+
+    private LazyXtaStatistics check(final String model, final ClockStrategy clockStrategy,
+                                    final boolean federation) throws IOException {
+        return (LazyXtaStatistics) run(model, clockStrategy, federation).getStats().get();
+    }
+
+    private LazyXtaStatistics check(final ClockStrategy clockStrategy, final boolean federation)
+            throws IOException {
+        return check(MODEL_UNION, clockStrategy, federation);
+    }
+
+    @Test
+    public void testFwItp() throws IOException {
+        final LazyXtaStatistics single = check(ClockStrategy.FWITP, false);
+        final LazyXtaStatistics union = check(ClockStrategy.FWITP, true);
+
+        assertEquals(0, single.getFederationCoverages());
+        assertEquals(1, union.getFederationAvoidedExpansions());
+        assertEquals(single.getArgNodesExpanded() - 1, union.getArgNodesExpanded());
+    }
+
+    @Test
+    public void testBwItp() throws IOException {
+        final LazyXtaStatistics single = check(ClockStrategy.BWITP, false);
+        final LazyXtaStatistics union = check(ClockStrategy.BWITP, true);
+
+        assertEquals(1, union.getFederationAvoidedExpansions());
+        assertEquals(single.getArgNodesExpanded() - 1, union.getArgNodesExpanded());
+    }
+
+    @Test
+    public void testLu() throws IOException {
+        final LazyXtaStatistics single = check(MODEL_UNION_LU, ClockStrategy.LU, false);
+        final LazyXtaStatistics union = check(MODEL_UNION_LU, ClockStrategy.LU, true);
+
+        assertEquals(0, single.getFederationCoverages());
+        assertEquals(1, union.getFederationAvoidedExpansions());
+        assertEquals(single.getArgNodesExpanded() - 1, union.getArgNodesExpanded());
+    }
+
+    @Test
+    public void testCoveringNodes() throws IOException {
+        for (final ClockStrategy clockStrategy : ClockStrategy.values()) {
+            final String model = clockStrategy == ClockStrategy.LU ? MODEL_UNION_LU : MODEL_UNION;
+            final ARG<? extends XtaState<?>, XtaAction> arg = run(model, clockStrategy, true).getArg();
+
+            final List<? extends ArgNode<? extends XtaState<?>, XtaAction>> federated = arg.getNodes()
+                    .filter(ArgNode::isCoveredByUnion).collect(toList());
+            assertEquals(1, federated.size());
+            // every node of the union knows about the covered node
+            federated.get(0).getCoveringNodes().forEach(coverer ->
+                    assertTrue(coverer.getCoveredNodes().anyMatch(n -> n == federated.get(0))));
+            assertTrue(clockStrategy.toString(),
+                    ArgChecker.create(Z3SolverFactory.getInstance().createSolver()).isWellLabeled(arg));
+        }
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ *  Copyright 2024 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import hu.bme.mit.theta.analysis.unit.UnitState;
+import hu.bme.mit.theta.xta.Sync;
+import hu.bme.mit.theta.xta.XtaProcess;
+import hu.bme.mit.theta.xta.XtaProcess.LocKind;
+import hu.bme.mit.theta.xta.XtaProcess.Edge;
+import hu.bme.mit.theta.xta.XtaProcess.Loc;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static hu.bme.mit.theta.xta.Sync.Kind.EMIT;
+import static hu.bme.mit.theta.xta.XtaProcess.LocKind.COMMITTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks the enabled actions computed through {@link XtaSyncTable} against a scan of all outgoing
+ * edges (the enumeration XtaLts used before the table), on the location vectors reachable in the
+ * test models when data and clocks are ignored. The scan drops partners with differing literal
+ * channel indices as well, as those are never enabled.
+ */
+@RunWith(Parameterized.class)
+public final class XtaSyncTableTest {
+
+    private static final int MAX_STATES = 20_000;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+
+                {"/broadcast.xta"},
+
+                {"/critical-2-25-50.xta"},
+
+                {"/crossroad.xta"},
+
+                {"/csma-2.xta"},
+
+                {"/engine-classic.xta"},
+
+                {"/fddi-2.xta"},
+
+                {"/fischer-2-32-64.xta"},
+
+                {"/lynch-2-16.xta"},
+
+                {"/union.xta"},
+
+        });
+    }
+
+    @Parameter(0)
+    public String filepath;
+
+    @Test
+    public void testSameActionsAsScan() throws IOException {
+        final InputStream inputStream = getClass().getResourceAsStream(filepath);
+        final XtaSystem system = XtaDslManager.createSystem(inputStream);
+        final XtaLts lts = XtaLts.create(system);
+
+        final Set<List<Loc>> reached = new HashSet<>();
+        final Deque<List<Loc>> waitlist = new ArrayDeque<>();
+        reached.add(system.getInitLocs());
+        waitlist.add(system.getInitLocs());
+        while (!waitlist.isEmpty() && reached.size() < MAX_STATES) {
+            final XtaState<UnitState> state = XtaState.of(waitlist.remove(), UnitState.getInstance());
+            final Collection<XtaAction> actions = lts.getEnabledActionsFor(state);
+
+            final List<List<Edge>> actual = new ArrayList<>();
+            for (final XtaAction action : actions) {
+                actual.add(edgesOf(action));
+                if (reached.add(action.getTargetLocs())) {
+                    waitlist.add(action.getTargetLocs());
+                }
+            }
+            assertEquals(state.getLocs().toString(), scan(state), actual);
+        }
+    }
+
+    @Test
+    public void testEdgeIndex() throws IOException {
+        final InputStream inputStream = getClass().getResourceAsStream(filepath);
+        final XtaSystem system = XtaDslManager.createSystem(inputStream);
+        final XtaSyncTable table = XtaSyncTable.create(system);
+
+        final List<Loc> locs = system.getProcesses().stream()
+                .flatMap(process -> process.getLocs().stream()).toList();
+        final List<Sync> emitSyncs = locs.stream().flatMap(loc -> loc.getOutEdges().stream())
+                .flatMap(edge -> edge.getSync().stream())
+                .filter(sync -> sync.getKind() == EMIT).toList();
+
+        for (final Loc loc : locs) {
+            assertEquals(loc.getOutEdges().stream()
+                            .filter(edge -> edge.getSync().isEmpty() || edge.getSync().get().getKind() == EMIT)
+                            .toList(),
+                    table.getActiveEdges(loc));
+            for (final Sync emitSync : emitSyncs) {
+                assertEquals(loc.getOutEdges().stream()
+                                .filter(edge -> edge.getSync().isPresent() && edge.getSync().get().mayReceive(emitSync))
+                                .toList(),
+                        table.getRecvEdges(loc, emitSync));
+            }
+        }
+    }
+
+    @Test
+    public void testLocCreatedAfterTable() throws IOException {
+        final InputStream inputStream = getClass().getResourceAsStream(filepath);
+        final XtaSystem system = XtaDslManager.createSystem(inputStream);
+        final XtaSyncTable table = XtaSyncTable.create(system);
+
+        final XtaProcess process = system.getProcesses().get(0);
+        final Loc loc = process.createLoc("fresh", LocKind.NORMAL, List.of());
+        process.createEdge(loc, process.getInitLoc(), List.of(), Optional.empty(), List.of());
+
+        assertEquals(List.copyOf(loc.getOutEdges()), table.getActiveEdges(loc));
+        // The entry of the new location is built once and then reused
+        assertSame(table.getActiveEdges(loc), table.getActiveEdges(loc));
+    }
+
+    private static List<Edge> edgesOf(final XtaAction action) {
+        final List<Edge> edges = new ArrayList<>();
+        if (action.isBasic()) {
+            edges.add(action.asBasic().getEdge());
+        } else if (action.isBinary()) {
+            edges.add(action.asBinary().getEmitEdge());
+            edges.add(action.asBinary().getRecvEdge());
+        } else {
+            edges.add(action.asBroadcast().getEmitEdge());
+            edges.addAll(action.asBroadcast().getRecvEdges());
+        }
+        return edges;
+    }
+
+    private static List<List<Edge>> scan(final XtaState<?> state) {
+        final List<List<Edge>> result = new ArrayList<>();
+        for (final Loc loc : state.getLocs()) {
+            for (final Edge edge : loc.getOutEdges()) {
+                if (edge.getSync().isEmpty()) {
+                    if (!state.isCommitted() || loc.getKind() == COMMITTED) {
+                        result.add(List.of(edge));
+                    }
+                    continue;
+                }
+                final Sync emitSync = edge.getSync().get();
+                if (emitSync.getKind() != EMIT) {
+                    continue;
+                }
+                if (emitSync.getLabel().isBroadcast()) {
+                    scanBroadcast(result, state, edge, emitSync);
+                } else {
+                    scanBinary(result, state, edge, emitSync);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void scanBinary(final List<List<Edge>> result, final XtaState<?> state,
+                                   final Edge emitEdge, final Sync emitSync) {
+        final Loc emitLoc = emitEdge.getSource();
+        for (final Loc recvLoc : state.getLocs()) {
+            if (recvLoc == emitLoc || state.isCommitted() && emitLoc.getKind() != COMMITTED
+                    && recvLoc.getKind() != COMMITTED) {
+                continue;
+            }
+            for (final Edge recvEdge : recvLoc.getOutEdges()) {
+                if (receives(recvEdge, emitSync)) {
+                    result.add(List.of(emitEdge, recvEdge));
+                }
+            }
+        }
+    }
+
+    private static void scanBroadcast(final List<List<Edge>> result, final XtaState<?> state,
+                                      final Edge emitEdge, final Sync emitSync) {
+        final Loc emitLoc = emitEdge.getSource();
+        List<List<Edge>> recvEdgeLists = new ArrayList<>();
+        recvEdgeLists.add(new ArrayList<>());
+        for (final Loc recvLoc : state.getLocs()) {
+            if (recvLoc.equals(emitLoc)) {
+                continue;
+            }
+            final List<List<Edge>> extended = new ArrayList<>();
+            for (final List<Edge> recvEdges : recvEdgeLists) {
+                for (final Edge recvEdge : recvLoc.getOutEdges()) {
+                    if (receives(recvEdge, emitSync)) {
+                        final List<Edge> newRecvEdges = new ArrayList<>(recvEdges);
+                        newRecvEdges.add(recvEdge);
+                        extended.add(newRecvEdges);
+                    }
+                }
+                extended.add(recvEdges);
+            }
+            recvEdgeLists = extended;
+        }
+        for (final List<Edge> recvEdges : recvEdgeLists) {
+            if (state.isCommitted() && emitLoc.getKind() != COMMITTED
+                    && recvEdges.stream().noneMatch(e -> e.getSource().getKind() == COMMITTED)) {
+                continue;
+            }
+            final List<Edge> edges = new ArrayList<>();
+            edges.add(emitEdge);
+            edges.addAll(recvEdges);
+            result.add(edges);
+        }
+    }
+
+    private static boolean receives(final Edge recvEdge, final Sync emitSync) {
+        return recvEdge.getSync().isPresent() && recvEdge.getSync().get().mayReceive(emitSync)
+                && XtaSyncTable.mayMatch(emitSync, recvEdge.getSync().get());
+    }
+
+}
@@ -60,6 +60,9 @@ public final class XtaCli {
     @Parameter(names = {"--search", "-s"}, description = "Search strategy", required = true)
     SearchStrategy searchStrategy;
 
+    @Parameter(names = "--federation", description = "Cover nodes by the union of zones of several nodes")
+    boolean federation = false;
+
     @Parameter(names = {"--benchmark", "-b"}, description = "Benchmark mode (only print metrics)")
     Boolean benchmarkMode = false;
 
@@ -111,7 +114,7 @@ public final class XtaCli {
             final XtaSystem system = loadModel();
             final SafetyChecker<?, ?, UnitPrec> checker = LazyXtaCheckerFactory.create(system,
                     dataStrategy,
-                    clockStrategy, searchStrategy);
+                    clockStrategy, searchStrategy, federation);
             final SafetyResult<?, ?> result = check(checker);
             printResult(result);
             if (dotfile != null) {